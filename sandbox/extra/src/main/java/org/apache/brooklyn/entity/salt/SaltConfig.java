@@ -23,6 +23,7 @@ import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.api.mgmt.TaskAdaptable;
 import org.apache.brooklyn.api.mgmt.TaskFactory;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 import org.apache.brooklyn.config.ConfigKey;
 import org.apache.brooklyn.core.config.ConfigKeys;
@@ -83,6 +84,11 @@ public interface SaltConfig {
     ConfigKey<Function<Entity, String>> MINION_ID_FUNCTION = new BasicConfigKey(Function.class,
             "salt.minionId.function", "Function to generate the ID of a Salt minion for an entity", Functions.toStringFunction());
 
+    @SetFromFlag("startStabilityWindow")
+    ConfigKey<Duration> START_STABILITY_WINDOW = ConfigKeys.newConfigKey(Duration.class,
+            "salt.lifecycle.startStabilityWindow", "How long the process must stay running after start before it is considered up",
+            Duration.seconds(2));
+
     @SuppressWarnings("serial")
     ConfigKey<TaskFactory<? extends TaskAdaptable<Boolean>>> IS_RUNNING_TASK = ConfigKeys.newConfigKey(
             new TypeToken<TaskFactory<? extends TaskAdaptable<Boolean>>>() {}, 
@@ -18,25 +18,30 @@
  */
 package org.apache.brooklyn.entity.salt;
 
+import java.util.concurrent.Callable;
+
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.location.MachineLocation;
 import org.apache.brooklyn.core.effector.ssh.SshEffectorTasks;
 import org.apache.brooklyn.core.entity.Attributes;
 import org.apache.brooklyn.core.entity.lifecycle.Lifecycle;
 import org.apache.brooklyn.core.server.BrooklynServerConfig;
+import org.apache.brooklyn.entity.software.base.lifecycle.GracefulStop;
 import org.apache.brooklyn.entity.software.base.lifecycle.MachineLifecycleEffectorTasks;
+import org.apache.brooklyn.entity.software.base.lifecycle.StartStabilityCheck;
 import org.apache.brooklyn.util.core.task.DynamicTasks;
 import org.apache.brooklyn.util.core.task.Tasks;
+import org.apache.brooklyn.util.core.task.system.ProcessTaskWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.brooklyn.util.net.Urls;
-import org.apache.brooklyn.util.ssh.BashCommands;
 import org.apache.brooklyn.util.time.Duration;
-import org.apache.brooklyn.util.time.Time;
 
 import com.google.common.annotations.Beta;
+import com.google.common.base.Splitter;
 import com.google.common.base.Supplier;
+import com.google.common.collect.Iterables;
 
 /**
  * Creates effectors to start, restart, and stop processes using SaltStack.
@@ -126,24 +131,25 @@ public class SaltLifecycleEffectorTasks extends MachineLifecycleEffectorTasks im
     protected boolean tryCheckStartPid() {
         if (pidFile==null) return false;
 
-        // if it's still up after 5s assume we are good (default behaviour)
-        Time.sleep(Duration.FIVE_SECONDS);
-        if (!DynamicTasks.queue(SshEffectorTasks.isPidFromFileRunning(pidFile).runAsRoot()).get()) {
+        // wait for the process to stay up through the stability window, reading its pid in the same call
+        ProcessTaskWrapper<Integer> check = DynamicTasks.queue(SshEffectorTasks.ssh(
+                StartStabilityCheck.pidFileCommand(pidFile, getStartStabilityWindow())).allowingNonZeroExitCode().runAsRoot());
+        if (check.get()!=0) {
             throw new IllegalStateException("The process for "+entity()+" appears not to be running (pid file "+pidFile+")");
         }
 
         // and set the PID
         entity().sensors().set(Attributes.PID,
-                Integer.parseInt(DynamicTasks.queue(SshEffectorTasks.ssh("cat "+pidFile).runAsRoot()).block().getStdout().trim()));
+                Integer.parseInt(Iterables.getLast(Splitter.on('\n').omitEmptyStrings().trimResults().split(check.getStdout()))));
         return true;
     }
 
     protected boolean tryCheckStartService() {
         if (serviceName==null) return false;
 
-        // if it's still up after 5s assume we are good (default behaviour)
-        Time.sleep(Duration.FIVE_SECONDS);
-        if (!((Integer)0).equals(DynamicTasks.queue(SshEffectorTasks.ssh("/etc/init.d/"+serviceName+" status").runAsRoot()).get())) {
+        // wait for the service to stay up through the stability window
+        if (!((Integer)0).equals(DynamicTasks.queue(SshEffectorTasks.ssh(
+                StartStabilityCheck.serviceCommand(serviceName, getStartStabilityWindow())).allowingNonZeroExitCode().runAsRoot()).get())) {
             throw new IllegalStateException("The process for "+entity()+" appears not to be running (service "+serviceName+")");
         }
 
@@ -153,15 +159,25 @@ public class SaltLifecycleEffectorTasks extends MachineLifecycleEffectorTasks im
     protected boolean tryCheckStartWindowsService() {
         if (windowsServiceName==null) return false;
 
-        // if it's still up after 5s assume we are good (default behaviour)
-        Time.sleep(Duration.FIVE_SECONDS);
-        if (!((Integer)0).equals(DynamicTasks.queue(SshEffectorTasks.ssh("sc query \""+serviceName+"\" | find \"RUNNING\"").runAsCommand()).get())) {
+        // no remote shell loop on windows, so poll from here until the service has stayed up through the window
+        boolean stable = StartStabilityCheck.poll(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return ((Integer)0).equals(DynamicTasks.queue(SshEffectorTasks.ssh("sc query \""+windowsServiceName+"\" | find \"RUNNING\"")
+                            .allowingNonZeroExitCode().runAsCommand()).get());
+                }
+            }, getStartStabilityWindow());
+        if (!stable) {
             throw new IllegalStateException("The process for "+entity()+" appears not to be running (windowsService "+windowsServiceName+")");
         }
 
         return true;
     }
 
+    protected Duration getStartStabilityWindow() {
+        return entity().getConfig(SaltConfig.START_STABILITY_WINDOW);
+    }
+
     @Override
     protected String stopProcessesAtMachine() {
         boolean result = false;
@@ -194,11 +210,9 @@ public class SaltLifecycleEffectorTasks extends MachineLifecycleEffectorTasks im
             return false;
         }
 
-        // allow non-zero exit as process may have already been killed
-        DynamicTasks.queue(SshEffectorTasks.ssh(
-                "kill "+pid, "sleep 5", BashCommands.ok("kill -9 "+pid)).allowingNonZeroExitCode().runAsRoot()).block();
-
-        if (DynamicTasks.queue(SshEffectorTasks.isPidRunning(pid).runAsRoot()).get()) {
+        // process may have already exited, in which case there is nothing to wait for
+        GracefulStop.Result result = stopPidGracefully(pid);
+        if (!result.isStopped()) {
             throw new IllegalStateException("Process for "+entity()+" in "+pid+" still running after kill");
         }
         entity().sensors().set(Attributes.PID, null);
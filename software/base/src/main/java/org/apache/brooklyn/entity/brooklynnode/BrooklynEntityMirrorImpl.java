@@ -21,10 +21,12 @@ package org.apache.brooklyn.entity.brooklynnode;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nullable;
 
 import org.apache.brooklyn.api.effector.Effector;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.core.effector.EffectorBody;
 import org.apache.brooklyn.core.entity.AbstractEntity;
 import org.apache.brooklyn.core.entity.Attributes;
@@ -45,16 +47,21 @@ import org.apache.brooklyn.util.net.Urls;
 import org.apache.http.HttpStatus;
 
 import com.google.common.base.Function;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 import com.google.common.net.MediaType;
 import com.google.gson.Gson;
 
 public class BrooklynEntityMirrorImpl extends AbstractEntity implements BrooklynEntityMirror {
+    /** Gson instances are thread-safe, so one is shared by all polls. */
+    private static final Gson GSON = new Gson();
+
     @SuppressWarnings("rawtypes")
     private class MirrorSummary implements Function<HttpToolResponse, Map> {
         @Override
         public Map apply(HttpToolResponse input) {
-            Map<?, ?> entitySummary = new Gson().fromJson(input.getContentAsString(), Map.class);
+            Map<?, ?> entitySummary = GSON.fromJson(input.getContentAsString(), Map.class);
             String catalogItemId = (String)entitySummary.get("catalogItemId");
             sensors().set(MIRROR_CATALOG_ITEM_ID, catalogItemId);
             return entitySummary;
@@ -62,7 +69,14 @@ public class BrooklynEntityMirrorImpl extends AbstractEntity implements Brooklyn
     }
 
     private HttpFeed mirror;
-    
+
+    /** Sensors already created for mirrored values, by name. */
+    private final ConcurrentMap<String, AttributeSensor<Object>> mirroredSensors = Maps.newConcurrentMap();
+    /** Values most recently published for each mirrored sensor, used to publish only changes. */
+    private final Map<String, Object> lastMirroredValues = Maps.newHashMap();
+    /** Body of the most recent current-state response; an identical body is not parsed again. */
+    private volatile String lastMirroredContent;
+
 
     //Passively mirror entity's state
     @Override
@@ -106,12 +120,9 @@ public class BrooklynEntityMirrorImpl extends AbstractEntity implements Brooklyn
 
     protected void connectSensors(String mirroredEntityUrl) {
         Function<HttpToolResponse, Void> mirrorSensors = new Function<HttpToolResponse,Void>() {
-            @SuppressWarnings("rawtypes")
             @Override
             public Void apply(HttpToolResponse input) {
-                Map sensors = new Gson().fromJson(input.getContentAsString(), Map.class);
-                for (Object kv: sensors.entrySet())
-                    sensors().set(Sensors.newSensor(Object.class, ""+((Map.Entry)kv).getKey()), ((Map.Entry)kv).getValue());
+                mirrorSensors(input.getContentAsString());
                 sensors().set(MIRROR_STATUS, "normal");
                 return null;
             }
@@ -144,9 +155,40 @@ public class BrooklynEntityMirrorImpl extends AbstractEntity implements Brooklyn
         populateEffectors();
     }
 
+    /**
+     * Publishes only those remote sensor values that differ from the last ones mirrored, so
+     * that an unchanged remote entity causes no sensor events here. The remote REST API offers
+     * no conditional requests, so an unchanged response body is detected and skipped instead.
+     */
+    @SuppressWarnings("rawtypes")
+    protected void mirrorSensors(String content) {
+        if (content == null || content.equals(lastMirroredContent)) return;
+        Map sensors = GSON.fromJson(content, Map.class);
+        synchronized (lastMirroredValues) {
+            for (Object kv: sensors.entrySet()) {
+                String name = ""+((Map.Entry)kv).getKey();
+                Object value = ((Map.Entry)kv).getValue();
+                if (lastMirroredValues.containsKey(name) && Objects.equal(lastMirroredValues.get(name), value)) continue;
+                sensors().set(getMirroredSensor(name), value);
+                lastMirroredValues.put(name, value);
+            }
+        }
+        lastMirroredContent = content;
+    }
+
+    private AttributeSensor<Object> getMirroredSensor(String name) {
+        AttributeSensor<Object> sensor = mirroredSensors.get(name);
+        if (sensor == null) {
+            sensor = Sensors.newSensor(Object.class, name);
+            AttributeSensor<Object> existing = mirroredSensors.putIfAbsent(name, sensor);
+            if (existing != null) sensor = existing;
+        }
+        return sensor;
+    }
+
     private void populateEffectors() {
         HttpToolResponse result = http().get("/effectors");
-        Collection<?> cfgEffectors = new Gson().fromJson(result.getContentAsString(), Collection.class);
+        Collection<?> cfgEffectors = GSON.fromJson(result.getContentAsString(), Collection.class);
         Collection<Effector<String>> remoteEntityEffectors = RemoteEffectorBuilder.of(cfgEffectors);
         EntityDynamicType mutableEntityType = getMutableEntityType();
         for (Effector<String> eff : remoteEntityEffectors) {
@@ -165,6 +207,12 @@ public class BrooklynEntityMirrorImpl extends AbstractEntity implements Brooklyn
         disconnectSensors();
     }
 
+    @Override
+    public void onManagementStopped() {
+        super.onManagementStopped();
+        EntityHttpClientImpl.closeClients(this);
+    }
+
     @Override
     public EntityHttpClient http() {
         return new EntityHttpClientImpl(this, MIRRORED_ENTITY_URL);
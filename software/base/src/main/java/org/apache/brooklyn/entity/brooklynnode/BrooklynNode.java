@@ -232,6 +232,12 @@ public interface BrooklynNode extends SoftwareProcess, UsesJava {
     public static final AttributeSensor<ManagementNodeState> MANAGEMENT_NODE_STATE = new BasicAttributeSensor<ManagementNodeState>(
             ManagementNodeState.class, "brooklynnode.ha.state", "High-availability state of the management node (MASTER, HOT_STANDBY, etc)");
     
+    public static final AttributeSensor<Long> REST_REQUEST_LATENCY = Sensors.newLongSensor(
+            "brooklynnode.rest.latency.last", "Round-trip time of the most recent REST call made to this node (millis)");
+
+    public static final AttributeSensor<Double> REST_REQUEST_LATENCY_IN_WINDOW = Sensors.newDoubleSensor(
+            "brooklynnode.rest.latency.windowed", "Mean round-trip time of REST calls made to this node over the last minute (millis)");
+
     public static final ConfigKey<Duration> POLL_PERIOD = ConfigKeys.newConfigKey(Duration.class, "brooklynnode.poll_period",
             "Frequency to poll for client sensors", Duration.seconds(2));
 
@@ -57,6 +57,7 @@ import org.apache.brooklyn.feed.http.HttpFeed;
 import org.apache.brooklyn.feed.http.HttpPollConfig;
 import org.apache.brooklyn.feed.http.HttpValueFunctions;
 import org.apache.brooklyn.feed.http.JsonFunctions;
+import org.apache.brooklyn.policy.enricher.RollingTimeWindowMeanEnricher;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -508,6 +509,9 @@ public class BrooklynNodeImpl extends SoftwareProcessImpl implements BrooklynNod
                     .computing(Functions.identity())
                     .publishing(SERVICE_PROCESS_IS_RUNNING)
                     .build());
+
+            enrichers().add(new RollingTimeWindowMeanEnricher<Long>(this, REST_REQUEST_LATENCY,
+                    REST_REQUEST_LATENCY_IN_WINDOW, Duration.ONE_MINUTE));
         } else {
             connectServiceUpIsRunning();
         }
@@ -520,6 +524,12 @@ public class BrooklynNodeImpl extends SoftwareProcessImpl implements BrooklynNod
         if (httpFeed != null) httpFeed.stop();
     }
 
+    @Override
+    public void onManagementStopped() {
+        super.onManagementStopped();
+        EntityHttpClientImpl.closeClients(this);
+    }
+
     @Override
     public EntityHttpClient http() {
         return new EntityHttpClientImpl(this, BrooklynNode.WEB_CONSOLE_URI);
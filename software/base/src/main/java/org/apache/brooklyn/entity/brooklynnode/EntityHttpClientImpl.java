@@ -22,10 +22,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.config.ConfigKey;
+import org.apache.brooklyn.core.entity.EntityInternal;
 import org.apache.brooklyn.core.mgmt.BrooklynTaskTags;
 import org.apache.brooklyn.util.collections.MutableMap;
 import org.apache.brooklyn.util.http.HttpTool;
@@ -36,15 +38,45 @@ import org.apache.brooklyn.util.net.Urls;
 import org.apache.brooklyn.util.stream.Streams;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.HttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
-
+import com.google.common.collect.Maps;
+
+/**
+ * Makes REST calls against the brooklyn instance behind an entity.
+ * <p>
+ * Calls reuse one pooled {@link HttpClient} per entity, so that successive calls can use
+ * kept-alive connections rather than paying for a new TCP connection and TLS handshake each
+ * time. The client is created on first use, replaced if the entity's URL or credentials change,
+ * and must be released with {@link #closeClients(Entity)} when the entity is unmanaged.
+ */
 public class EntityHttpClientImpl implements EntityHttpClient {
     private static final Logger LOG = LoggerFactory.getLogger(EntityHttpClientImpl.class);
 
+    private static final ConcurrentMap<String, PooledClient> CLIENTS = Maps.newConcurrentMap();
+
+    /** Connections kept by each entity's client, shared by its polls and effector calls. */
+    private static final int MAX_CONNECTIONS_PER_CLIENT = 8;
+
+    private static class PooledClient {
+        final String signature;
+        final HttpClient client;
+
+        PooledClient(String signature, HttpClient client) {
+            this.signature = signature;
+            this.client = client;
+        }
+
+        void close() {
+            client.getConnectionManager().shutdown();
+        }
+    }
+
     protected static interface HttpCall {
         public HttpToolResponse call(HttpClient client, URI uri);
     }
@@ -86,19 +118,62 @@ public class EntityHttpClientImpl implements EntityHttpClient {
         return this;
     }
 
+    /**
+     * Returns the pooled client for this entity, creating it if this is the first call or if the
+     * entity's URL or credentials have changed since the client was created.
+     */
+    @SuppressWarnings("deprecation")
+    protected HttpClient getPooledClient() {
+        String signature = Joiner.on('\n').useForNull("").join(getEntityUrl(),
+                entity.getConfig(BrooklynNode.MANAGEMENT_USER), entity.getConfig(BrooklynNode.MANAGEMENT_PASSWORD));
+        synchronized (CLIENTS) {
+            PooledClient pooled = CLIENTS.get(entity.getId());
+            if (pooled != null && pooled.signature.equals(signature)) {
+                return pooled.client;
+            }
+            if (pooled != null) {
+                LOG.debug("Replacing pooled http client for {}, as its address or credentials changed", entity);
+                pooled.close();
+            }
+            // the builder's default connection manager holds a single connection, so cannot be shared
+            // by concurrent calls; a pooling one is thread-safe
+            PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager();
+            connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_CLIENT);
+            connectionManager.setMaxTotal(MAX_CONNECTIONS_PER_CLIENT);
+            HttpClient client = Preconditions.checkNotNull(getHttpClientForBrooklynNode(), "No address info for "+entity)
+                    .clientConnectionManager(connectionManager)
+                    .build();
+            CLIENTS.put(entity.getId(), new PooledClient(signature, client));
+            return client;
+        }
+    }
+
+    /** Shuts down the pooled client (if any) for the given entity, closing its connections. */
+    public static void closeClients(Entity entity) {
+        PooledClient pooled;
+        synchronized (CLIENTS) {
+            pooled = CLIENTS.remove(entity.getId());
+        }
+        if (pooled != null) {
+            LOG.debug("Closing pooled http client for {}", entity);
+            pooled.close();
+        }
+    }
+
     protected HttpToolResponse exec(String path, HttpCall httpCall) {
-        HttpClient client = Preconditions.checkNotNull(getHttpClientForBrooklynNode(), "No address info for "+entity)
-                .build();
+        HttpClient client = getPooledClient();
         String baseUri = getEntityUrl();
         URI uri = URI.create(Urls.mergePaths(baseUri, path));
 
         HttpToolResponse result;
+        long startTime = System.currentTimeMillis();
         try {
             result = httpCall.call(client, uri);
         } catch (Exception e) {
             Exceptions.propagateIfFatal(e);
             throw new IllegalStateException("Invalid response invoking " + uri + ": " + e, e);
         }
+        recordLatency(System.currentTimeMillis() - startTime);
         Tasks.addTagDynamically(BrooklynTaskTags.tagForStream("http_response", Streams.byteArray(result.getContent())));
         if (!responseSuccess.apply(result.getResponseCode())) {
             LOG.warn("Invalid response invoking {}: response code {}\n{}: {}",
@@ -138,6 +213,12 @@ public class EntityHttpClientImpl implements EntityHttpClient {
         });
     }
 
+    protected void recordLatency(long latencyMillis) {
+        if (entity instanceof BrooklynNode && entity instanceof EntityInternal) {
+            ((EntityInternal) entity).sensors().set(BrooklynNode.REST_REQUEST_LATENCY, latencyMillis);
+        }
+    }
+
     protected String getEntityUrl() {
         Preconditions.checkState(urlSensor == null ^ urlConfig == null, "Exactly one of urlSensor and urlConfig should be non-null for entity " + entity);
         Object url = null;
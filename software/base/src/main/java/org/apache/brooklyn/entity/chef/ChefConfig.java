@@ -23,6 +23,7 @@ import org.apache.brooklyn.core.config.ConfigKeys;
 import org.apache.brooklyn.core.config.MapConfigKey;
 import org.apache.brooklyn.core.config.SetConfigKey;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 import com.google.common.annotations.Beta;
 
@@ -94,5 +95,9 @@ public interface ChefConfig {
     @SetFromFlag("windows_service_name")
     public static final ConfigKey<String> WINDOWS_SERVICE_NAME = ConfigKeys.newStringConfigKey("brooklyn.chef.lifecycle.windowsServiceName",
         "Name of OS service this will run as on Windows, if different there, for use in checking running and stopping");
+    @SetFromFlag("start_stability_window")
+    public static final ConfigKey<Duration> START_STABILITY_WINDOW = ConfigKeys.newConfigKey(Duration.class, "brooklyn.chef.lifecycle.startStabilityWindow",
+        "How long the process must stay running after start before it is considered up; start fails as soon as it stops within this window",
+        Duration.seconds(2));
     
 }
@@ -32,6 +32,7 @@ import org.apache.brooklyn.core.sensor.AttributeSensorAndConfigKey;
 import org.apache.brooklyn.core.sensor.BasicAttributeSensorAndConfigKey;
 import org.apache.brooklyn.core.sensor.PortAttributeSensorAndConfigKey;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 public interface UsesJmx extends UsesJava {
 
@@ -104,6 +105,16 @@ public interface UsesJmx extends UsesJava {
             "(unless JMX_SSL_ENABLED is set, in which case it is JMXMP only)",
             JmxAgentModes.AUTODETECT);
 
+    /**
+     * Ceiling for adaptive JMX polling, used by entities whose {@link org.apache.brooklyn.feed.jmx.JmxFeed}
+     * supports it: the period of a poll doubles each time its value is unchanged, up to this ceiling,
+     * and returns to the base period when the value changes or the poll fails.
+     */
+    @SetFromFlag("jmxPollMaxPeriod")
+    ConfigKey<Duration> JMX_POLL_MAX_PERIOD = ConfigKeys.newDurationConfigKey("jmx.poll.maxPeriod",
+            "Longest period to stretch JMX polling to while values are unchanged; null to always poll at the base period",
+            Duration.FIVE_SECONDS);
+
     /* Currently these are only used to connect, so only applies where systems set this up themselves. */
     AttributeSensorAndConfigKey<String, String> JMX_USER = ConfigKeys.newStringSensorAndConfigKey("jmx.user", "JMX username");
     AttributeSensorAndConfigKey<String, String> JMX_PASSWORD = ConfigKeys.newStringSensorAndConfigKey("jmx.password", "JMX password");
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.machine;
+
+import java.util.List;
+import java.util.SortedSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.brooklyn.util.ssh.BashCommands;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.BoundType;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.Sets;
+import com.google.common.collect.TreeRangeSet;
+
+/**
+ * Computes the inbound TCP port rules a machine needs, as ranges of consecutive ports, and
+ * builds the commands to install only those rules not already in place.
+ * <p>
+ * Iptables rules are applied with a single {@code iptables-restore --noflush}, so either all
+ * the missing rules are added or none are. Firewalld ports are added with a single
+ * {@code firewall-cmd} call, which firewalld applies as one change.
+ */
+@Beta
+public class FirewallPortRules {
+
+    private static final Pattern DPORT = Pattern.compile("--dports?\\s+(\\S+)");
+
+    private FirewallPortRules() {}
+
+    /** Collapses ports into closed ranges of consecutive ports, in ascending order. */
+    public static List<Range<Integer>> toRanges(Iterable<Integer> ports) {
+        SortedSet<Integer> sorted = Sets.newTreeSet();
+        for (Integer port : ports) {
+            if (port != null) sorted.add(port);
+        }
+        List<Range<Integer>> result = Lists.newArrayList();
+        Integer start = null, end = null;
+        for (Integer port : sorted) {
+            if (start != null && port == end + 1) {
+                end = port;
+            } else {
+                if (start != null) result.add(Range.closed(start, end));
+                start = end = port;
+            }
+        }
+        if (start != null) result.add(Range.closed(start, end));
+        return result;
+    }
+
+    /**
+     * Parses the output of {@code iptables -S INPUT}, returning the TCP ports unconditionally
+     * accepted. Rules restricted by source, interface or negation are ignored, as they do not
+     * open the port generally.
+     */
+    public static RangeSet<Integer> parseIptablesAcceptedPorts(String output) {
+        RangeSet<Integer> result = TreeRangeSet.create();
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(output == null ? "" : output)) {
+            if (!(line.startsWith("-A INPUT ") || line.startsWith("-I INPUT "))) continue;
+            if (!line.contains("-p tcp") || !line.endsWith("-j ACCEPT")) continue;
+            if (line.contains(" -s ") || line.contains(" -i ") || line.contains(" ! ")) continue;
+            Matcher matcher = DPORT.matcher(line);
+            if (!matcher.find()) continue;
+            for (String spec : Splitter.on(',').omitEmptyStrings().split(matcher.group(1))) {
+                addPortSpec(result, spec, ":");
+            }
+        }
+        return result;
+    }
+
+    /** Parses the output of {@code firewall-cmd --list-ports}, such as {@code 22/tcp 6000-7999/tcp}. */
+    public static RangeSet<Integer> parseFirewalldPorts(String output) {
+        RangeSet<Integer> result = TreeRangeSet.create();
+        for (String token : Splitter.onPattern("\\s+").omitEmptyStrings().split(output == null ? "" : output)) {
+            if (!token.endsWith("/tcp")) continue;
+            addPortSpec(result, token.substring(0, token.length() - "/tcp".length()), "-");
+        }
+        return result;
+    }
+
+    private static void addPortSpec(RangeSet<Integer> ranges, String spec, String separator) {
+        try {
+            List<String> bounds = Splitter.on(separator).splitToList(spec);
+            if (bounds.size() == 1) {
+                ranges.add(Range.closed(Integer.valueOf(bounds.get(0)), Integer.valueOf(bounds.get(0))).canonical(DiscreteDomain.integers()));
+            } else if (bounds.size() == 2) {
+                ranges.add(Range.closed(Integer.valueOf(bounds.get(0)), Integer.valueOf(bounds.get(1))).canonical(DiscreteDomain.integers()));
+            }
+        } catch (NumberFormatException e) {
+            // named services (such as "ssh") are not port numbers; ignore them
+        }
+    }
+
+    /** Returns ranges covering the desired ports not already in {@code installed}. */
+    public static List<Range<Integer>> missing(Iterable<Integer> desired, RangeSet<Integer> installed) {
+        List<Integer> result = Lists.newArrayList();
+        for (Integer port : desired) {
+            if (port != null && !installed.contains(port)) result.add(port);
+        }
+        return toRanges(result);
+    }
+
+    /** Formats a range as an iptables {@code --dport} value, {@code 6000:7999} or {@code 22}. */
+    public static String toIptablesPort(Range<Integer> range) {
+        return toPort(range, ":");
+    }
+
+    /** Formats a range as a firewalld port, {@code 6000-7999/tcp} or {@code 22/tcp}. */
+    public static String toFirewalldPort(Range<Integer> range) {
+        return toPort(range, "-")+"/tcp";
+    }
+
+    private static String toPort(Range<Integer> range, String separator) {
+        int lower = range.lowerBoundType() == BoundType.CLOSED ? range.lowerEndpoint() : range.lowerEndpoint() + 1;
+        int upper = range.upperBoundType() == BoundType.CLOSED ? range.upperEndpoint() : range.upperEndpoint() - 1;
+        return lower == upper ? ""+lower : lower+separator+upper;
+    }
+
+    /**
+     * Returns a command adding an accept rule for each range, in one {@code iptables-restore}
+     * transaction that leaves existing rules in place.
+     */
+    public static String iptablesRestoreCommand(List<Range<Integer>> ranges) {
+        List<String> lines = Lists.newArrayList("'*filter'");
+        for (Range<Integer> range : ranges) {
+            lines.add("'-I INPUT -p tcp -m tcp --dport "+toIptablesPort(range)+" -j ACCEPT'");
+        }
+        lines.add("'COMMIT'");
+        return "printf '%s\\n' "+Joiner.on(' ').join(lines)+" | "+BashCommands.sudo("iptables-restore --noflush");
+    }
+
+    /**
+     * Returns a self-contained command that adds only those range rules not already present,
+     * checking each with {@code iptables -C} on the machine and applying the rest with a single
+     * {@code iptables-restore}. For use where the installed rules cannot be read first.
+     */
+    public static String iptablesAddMissingCommand(List<Range<Integer>> ranges) {
+        List<String> ports = Lists.newArrayList();
+        for (Range<Integer> range : ranges) {
+            ports.add(toIptablesPort(range));
+        }
+        String rule = "INPUT -p tcp -m tcp --dport $port -j ACCEPT";
+        // sudo goes on each iptables call; given the whole script, sudo would only run its first command
+        return "rules='' ; for port in "+Joiner.on(' ').join(ports)+" ; do "
+                + BashCommands.sudo("iptables -C "+rule)+" > /dev/null 2>&1 || rules=\"$rules-I "+rule+"\\n\" ; done ; "
+                + "if [ -n \"$rules\" ] ; then printf \"*filter\\n${rules}COMMIT\\n\" | "+BashCommands.sudo("iptables-restore --noflush")+" ; fi";
+    }
+
+    /** Returns commands opening the ranges in firewalld, both now and permanently. */
+    public static List<String> firewalldAddPortsCommands(List<Range<Integer>> ranges) {
+        StringBuilder ports = new StringBuilder();
+        for (Range<Integer> range : ranges) {
+            ports.append(" --add-port=").append(toFirewalldPort(range));
+        }
+        return ImmutableList.of(
+                BashCommands.sudo("firewall-cmd"+ports),
+                BashCommands.sudo("firewall-cmd --permanent"+ports));
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.machine;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.brooklyn.location.ssh.SshMachineLocation;
+import org.apache.brooklyn.util.core.internal.ssh.SshTool;
+import org.apache.brooklyn.util.core.task.DynamicTasks;
+import org.apache.brooklyn.util.core.task.system.ProcessTaskFactory;
+import org.apache.brooklyn.util.core.task.system.ProcessTaskWrapper;
+import org.apache.brooklyn.util.core.task.ssh.SshTasks;
+import org.apache.brooklyn.util.ssh.BashCommands;
+import org.apache.brooklyn.util.ssh.IptablesCommands;
+import org.apache.brooklyn.util.text.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+
+/**
+ * Composes machine preparation steps into a single idempotent script, run in one ssh session.
+ * <p>
+ * Each step runs in its own subshell and is bracketed by marker lines, so the result reports the
+ * exit code and output of every step separately, along with any values steps capture (such as
+ * the machine's hostname). Steps are run in the order they are added, except that
+ * {@link #dontRequireTtyForSudo()} always runs first so that later steps can use sudo.
+ * <p>
+ * The steps mirror those of {@link MachineInitTasks} and {@link SetHostnameCustomizer}, which
+ * would otherwise each cost one or more ssh round trips.
+ */
+@Beta
+public class MachineBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(MachineBootstrap.class);
+
+    public static final String STEP_DONT_REQUIRE_TTY_FOR_SUDO = "dontRequireTtyForSudo";
+    public static final String STEP_OPEN_IPTABLES = "openIptables";
+    public static final String STEP_STOP_IPTABLES = "stopIptables";
+    public static final String STEP_SET_HOSTNAME = "setHostname";
+    public static final String STEP_HOSTNAME = "hostname";
+    public static final String STEP_LOCAL_IP = "localIp";
+
+    public static final String VALUE_HOSTNAME = "hostname";
+    public static final String VALUE_LOCAL_IP = "localip";
+
+    static final String MARKER = "BROOKLYN_BOOTSTRAP";
+
+    private static class Step {
+        final String name;
+        final List<String> commands;
+        final boolean required;
+
+        Step(String name, List<String> commands, boolean required) {
+            this.name = name;
+            this.commands = commands;
+            this.required = required;
+        }
+    }
+
+    private final List<Step> steps = Lists.newArrayList();
+    private boolean allocatePty = false;
+
+    /** Adds a step with the given commands, run in order and stopping at the first failure. */
+    public MachineBootstrap step(String name, boolean required, List<String> commands) {
+        if (name.matches(".*\\s.*")) throw new IllegalArgumentException("Step name must not contain whitespace: "+name);
+        steps.add(new Step(name, ImmutableList.copyOf(commands), required));
+        return this;
+    }
+
+    /** See {@link BashCommands#dontRequireTtyForSudo()}; runs first, with a pty allocated for the session. */
+    public MachineBootstrap dontRequireTtyForSudo() {
+        steps.add(0, new Step(STEP_DONT_REQUIRE_TTY_FOR_SUDO, ImmutableList.of(BashCommands.dontRequireTtyForSudo()), true));
+        allocatePty = true;
+        return this;
+    }
+
+    /**
+     * Opens the given TCP ports, using firewalld if it is active and iptables otherwise. Ports are
+     * opened as ranges, and only those not already open are added; see {@link FirewallPortRules}.
+     */
+    public MachineBootstrap openIptables(Iterable<Integer> inboundPorts) {
+        if (inboundPorts == null || Iterables.isEmpty(inboundPorts)) return this;
+        List<Range<Integer>> ranges = FirewallPortRules.toRanges(inboundPorts);
+        // commands are separated with ';' rather than '&&', so that the step's "set -e" stops at a failure
+        return step(STEP_OPEN_IPTABLES, true, ImmutableList.of(
+                "if "+IptablesCommands.firewalldServiceIsActive()+" ; then "
+                        + Joiner.on(" ; ").join(FirewallPortRules.firewalldAddPortsCommands(ranges))+" ; "
+                        + "else "+FirewallPortRules.iptablesAddMissingCommand(ranges)+" ; "+IptablesCommands.saveIptablesRules()+" ; fi",
+                IptablesCommands.listIptablesRule()));
+    }
+
+    /** Stops firewalld if it is active, and iptables otherwise; failure does not fail the bootstrap. */
+    public MachineBootstrap stopIptables() {
+        return step(STEP_STOP_IPTABLES, false, ImmutableList.of(
+                "if "+IptablesCommands.firewalldServiceIsActive()+" ; then "
+                        + IptablesCommands.firewalldServiceStop()+" ; "+IptablesCommands.firewalldServiceStatus()+" ; "
+                        + "else "+IptablesCommands.iptablesServiceStop()+" ; "+IptablesCommands.iptablesServiceStatus()+" ; fi"));
+    }
+
+    /**
+     * Sets the hostname, updating {@code /etc/hosts} and {@code /etc/sysconfig/network}, with the
+     * same commands as {@link SetHostnameCustomizer#setLocalHostname(SshMachineLocation, String, String)}.
+     */
+    public MachineBootstrap setHostname(String hostName, String domain) {
+        return step(STEP_SET_HOSTNAME, true, SetHostnameCustomizer.setLocalHostnameCommands(hostName, domain));
+    }
+
+    /** Captures the output of {@code hostname} as {@link #VALUE_HOSTNAME}. */
+    public MachineBootstrap captureHostname() {
+        return step(STEP_HOSTNAME, true, ImmutableList.of(captureCommand(VALUE_HOSTNAME, "hostname")));
+    }
+
+    /** Captures the output of {@code hostname -I} as {@link #VALUE_LOCAL_IP}. */
+    public MachineBootstrap captureLocalIp() {
+        return step(STEP_LOCAL_IP, true, ImmutableList.of(captureCommand(VALUE_LOCAL_IP, "hostname -I")));
+    }
+
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    private static String captureCommand(String key, String command) {
+        return "echo \""+MARKER+" VALUE "+key+"=`"+command+"`\"";
+    }
+
+    /** Returns the script, one line per command, with markers around each step. */
+    public List<String> getScript() {
+        List<String> result = Lists.newArrayList();
+        // a failing step must not end the script, whatever the script header; each step sets -e for itself
+        result.add("set +e");
+        for (Step step : steps) {
+            result.add("echo \""+MARKER+" BEGIN "+step.name+"\"");
+            result.add("(");
+            result.add("set -e");
+            result.addAll(step.commands);
+            result.add(")");
+            result.add("echo \""+MARKER+" END "+step.name+" $?\"");
+        }
+        return result;
+    }
+
+    /**
+     * Queues the bootstrap as a single ssh task on the machine, and blocks until it completes.
+     *
+     * @throws IllegalStateException if any required step failed
+     */
+    public Result run(SshMachineLocation machine) {
+        ProcessTaskFactory<Integer> taskFactory = SshTasks.newSshExecTaskFactory(machine, getScript().toArray(new String[0]))
+                .summary("bootstrap machine ("+Joiner.on(", ").join(getStepNames())+")")
+                .allowingNonZeroExitCode();
+        if (allocatePty) taskFactory.configure(ImmutableMap.of(SshTool.PROP_ALLOCATE_PTY.getName(), true));
+        ProcessTaskWrapper<Integer> task = DynamicTasks.queue(taskFactory).block();
+        // rethrows if the script could not be run at all
+        task.get();
+
+        Result result = parse(task.getStdout());
+        for (Step step : steps) {
+            Integer exitCode = result.getExitCode(step.name);
+            if (exitCode == null || exitCode != 0) {
+                if (step.required) {
+                    throw new IllegalStateException("Bootstrap step "+step.name+" failed on "+machine+" (exit code "+exitCode+")"
+                            +"; stdout="+result.getOutput(step.name)+"; stderr="+task.getStderr());
+                }
+                log.debug("Bootstrap step {} on {} returned exit code {}; continuing", new Object[] { step.name, machine, exitCode });
+            }
+        }
+        return result;
+    }
+
+    private List<String> getStepNames() {
+        List<String> result = Lists.newArrayList();
+        for (Step step : steps) result.add(step.name);
+        return result;
+    }
+
+    /** Parses the marked-up output of a bootstrap script. */
+    public static Result parse(String stdout) {
+        Map<String, Integer> exitCodes = Maps.newLinkedHashMap();
+        Map<String, String> outputs = Maps.newLinkedHashMap();
+        Map<String, String> values = Maps.newLinkedHashMap();
+        String current = null;
+        StringBuilder output = new StringBuilder();
+        for (String line : Splitter.on('\n').split(stdout == null ? "" : stdout)) {
+            line = Strings.removeFromEnd(line, "\r");
+            if (!line.startsWith(MARKER+" ")) {
+                if (current != null) output.append(line).append('\n');
+                continue;
+            }
+            List<String> parts = Splitter.on(' ').limit(4).splitToList(line);
+            if (parts.size() >= 3 && parts.get(1).equals("BEGIN")) {
+                current = parts.get(2);
+                output = new StringBuilder();
+            } else if (parts.size() >= 4 && parts.get(1).equals("END")) {
+                try {
+                    exitCodes.put(parts.get(2), Integer.valueOf(parts.get(3).trim()));
+                } catch (NumberFormatException e) {
+                    exitCodes.put(parts.get(2), null);
+                }
+                outputs.put(parts.get(2), output.toString());
+                current = null;
+            } else if (parts.size() >= 3 && parts.get(1).equals("VALUE")) {
+                String assignment = line.substring((MARKER+" VALUE ").length());
+                int eq = assignment.indexOf('=');
+                if (eq > 0) values.put(assignment.substring(0, eq), assignment.substring(eq + 1).trim());
+            }
+        }
+        return new Result(exitCodes, outputs, values);
+    }
+
+    /** The exit code and output of each step that ran, and the values captured. */
+    public static class Result {
+        private final Map<String, Integer> exitCodes;
+        private final Map<String, String> outputs;
+        private final Map<String, String> values;
+
+        Result(Map<String, Integer> exitCodes, Map<String, String> outputs, Map<String, String> values) {
+            this.exitCodes = exitCodes;
+            this.outputs = ImmutableMap.copyOf(outputs);
+            this.values = ImmutableMap.copyOf(values);
+        }
+
+        /** Exit code of the named step, or null if it did not complete. */
+        public Integer getExitCode(String step) {
+            return exitCodes.get(step);
+        }
+
+        public String getOutput(String step) {
+            return outputs.get(step);
+        }
+
+        public String getValue(String key) {
+            return values.get(key);
+        }
+
+        public Map<String, String> getValues() {
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return "MachineBootstrap.Result"+exitCodes;
+        }
+    }
+}
@@ -30,17 +30,14 @@ import org.slf4j.LoggerFactory;
 import com.google.common.annotations.Beta;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
 
 import org.apache.brooklyn.location.ssh.SshMachineLocation;
 import org.apache.brooklyn.util.core.task.DynamicTasks;
 import org.apache.brooklyn.util.core.task.Tasks;
 import org.apache.brooklyn.util.core.task.ssh.SshTasks;
-import org.apache.brooklyn.util.net.Protocol;
 import org.apache.brooklyn.util.ssh.BashCommands;
 import org.apache.brooklyn.util.ssh.IptablesCommands;
-import org.apache.brooklyn.util.ssh.IptablesCommands.Chain;
-import org.apache.brooklyn.util.ssh.IptablesCommands.Policy;
 import org.apache.brooklyn.util.text.Strings;
 
 /**
@@ -57,6 +54,20 @@ public class MachineInitTasks {
         return (EntityInternal) BrooklynTaskTags.getTargetOrContextEntity(Tasks.current());
     }
 
+    /**
+     * Returns a queued {@link Task} which runs all the steps of the given {@link MachineBootstrap}
+     * on the machine in a single ssh session, failing if any required step fails.
+     */
+    public Task<Void> bootstrapAsync(final MachineBootstrap bootstrap, final SshMachineLocation machine) {
+        return DynamicTasks.queue("bootstrap machine", new Runnable() {
+            public void run() {
+                log.info("Bootstrapping {} at {}", entity(), machine);
+                MachineBootstrap.Result result = bootstrap.run(machine);
+                if (log.isDebugEnabled()) log.debug("Bootstrapped {} at {}: {}", new Object[] { entity(), machine, result });
+            }
+        });
+    }
+
     /**
      * Returns a queued {@link Task} which stops iptables on the given machine.
      */
@@ -111,22 +122,29 @@ public class MachineInitTasks {
         } else {
             log.info("Opening ports in iptables for {} at {}", entity(), machine);
 
-            List<String> iptablesRules = Lists.newArrayList();
-            String iptablesInstallCommands = null;
-
             Task<Integer> checkFirewall = checkLocationFirewall(machine);
 
+            // only the rules not already in place are added, so that restarts do not pile up duplicates
             if (checkFirewall.getUnchecked() == 0) {
-                for (Integer port : inboundPorts) {
-                    iptablesRules.add(IptablesCommands.addFirewalldRule(Chain.INPUT, Protocol.TCP, port, Policy.ACCEPT));
-                 }
+                String installed = subTaskHelperReturningStdout("list firewalld ports", machine, BashCommands.sudo("firewall-cmd --list-ports"));
+                List<Range<Integer>> missing = FirewallPortRules.missing(inboundPorts, FirewallPortRules.parseFirewalldPorts(installed));
+                if (missing.isEmpty()) {
+                    log.debug("All inbound ports already open in firewalld for {} at {}", entity(), machine);
+                    return;
+                }
+                List<String> commands = FirewallPortRules.firewalldAddPortsCommands(missing);
+                subTaskHelperRequiringZeroExitCode("add "+missing.size()+" port ranges", machine, commands.toArray(new String[commands.size()]));
             } else {
-                iptablesRules = createIptablesRulesForNetworkInterface(inboundPorts);
-                iptablesInstallCommands = IptablesCommands.saveIptablesRules();
+                // older iptables cannot list rules with -S; all rules are then treated as missing
+                String installed = subTaskHelperReturningStdout("read installed rules", machine, BashCommands.sudo("iptables -S INPUT")+" || true");
+                List<Range<Integer>> missing = FirewallPortRules.missing(inboundPorts, FirewallPortRules.parseIptablesAcceptedPorts(installed));
+                if (missing.isEmpty()) {
+                    log.debug("All inbound ports already open in iptables for {} at {}", entity(), machine);
+                    return;
+                }
+                subTaskHelperRequiringZeroExitCode("insert "+missing.size()+" rules", machine,
+                        FirewallPortRules.iptablesRestoreCommand(missing), IptablesCommands.saveIptablesRules(), IptablesCommands.listIptablesRule());
             }
-
-            insertIptablesRules(iptablesRules, iptablesInstallCommands, machine);
-            listIptablesRules(machine);
         }
     }
 
@@ -137,54 +155,6 @@ public class MachineInitTasks {
         return subTaskHelperAllowingNonZeroExitCode("check if firewall is active", machine, IptablesCommands.firewalldServiceIsActive());
     }
 
-    /**
-     * Returns a queued {@link Task} which inserts iptables rules.
-     */
-    private Task<Void> insertIptablesRules(final List<String> iptablesRules, final String installCommands, final SshMachineLocation machine) {
-        return DynamicTasks.queue("insert rules", new Runnable() {
-            public void run() {
-                insertIptablesRulesImpl(iptablesRules, installCommands, machine);
-            }
-        });
-    }
-
-    private void insertIptablesRulesImpl(List<String> iptablesRules, String installCommands, SshMachineLocation machine) {
-
-        // Some entities, such as Riak (erlang based) have a huge range of ports, which leads to a script that
-        // is too large to run (fails with a broken pipe). Batch the rules into batches of 100
-        List<List<String> > batches = Lists.partition(iptablesRules, 100);
-
-        int batchNumber = 0;
-        for (List<String> batch : batches) {
-            batchNumber++;
-            insertIptablesRulesOnCommandBatches(batch, machine, batchNumber);
-        }
-        if (installCommands != null) {
-            serviceIptablesSave(installCommands, machine);
-        }
-    }
-
-    /**
-     * Returns a queued {@link Task} which inserts iptables rules on command batches.
-     */
-    private Task<Integer> insertIptablesRulesOnCommandBatches(final List<String> commandsBatch, final SshMachineLocation machine, int batchNumber) {
-        return subTaskHelperRequiringZeroExitCode("commands batch " + batchNumber, machine, commandsBatch.toArray(new String[commandsBatch.size()]));
-    }
-
-    /**
-     * Returns a queued {@link Task} which runs iptables save commands.
-     */
-    private Task<Integer> serviceIptablesSave(final String installCommands, final SshMachineLocation machine) {
-        return subTaskHelperRequiringZeroExitCode("save", machine, installCommands);
-    }
-
-    /**
-     * Returns a queued {@link Task} which lists the iptables rules.
-     */
-    private Task<Integer> listIptablesRules(final SshMachineLocation machine) {
-        return subTaskHelperRequiringZeroExitCode("list rules", machine, IptablesCommands.listIptablesRule());
-    }
-
     private Task<Integer> subTaskHelperRequiringZeroExitCode(String taskName, SshMachineLocation machine, String... comands) {
         ProcessTaskFactory<Integer> taskFactory = SshTasks.newSshExecTaskFactory(machine, comands)
                 .summary(taskName)
@@ -192,6 +162,13 @@ public class MachineInitTasks {
         return DynamicTasks.queue(taskFactory).asTask();
     }
 
+    private String subTaskHelperReturningStdout(String taskName, SshMachineLocation machine, String... comands) {
+        ProcessTaskFactory<String> taskFactory = SshTasks.newSshExecTaskFactory(machine, comands)
+                .summary(taskName)
+                .requiringZeroAndReturningStdout();
+        return DynamicTasks.queue(taskFactory).asTask().getUnchecked();
+    }
+
     private Task<Integer> subTaskHelperAllowingNonZeroExitCode(String taskName, SshMachineLocation machine, String... comands) {
         ProcessTaskFactory<Integer> taskFactory = SshTasks.newSshExecTaskFactory(machine, comands)
                 .summary(taskName)
@@ -199,14 +176,6 @@ public class MachineInitTasks {
         return DynamicTasks.queue(taskFactory).asTask();
     }
     
-    private List<String> createIptablesRulesForNetworkInterface(Iterable<Integer> ports) {
-        List<String> iptablesRules = Lists.newArrayList();
-        for (Integer port : ports) {
-           iptablesRules.add(IptablesCommands.insertIptablesRule(Chain.INPUT, Protocol.TCP, port, Policy.ACCEPT));
-        }
-        return iptablesRules;
-     }
-    
     protected String toTruncatedString(Iterable<?> vals, int maxShown) {
         StringBuilder result = new StringBuilder("[");
         int shown = 0;
@@ -21,6 +21,7 @@ package org.apache.brooklyn.entity.machine;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.apache.brooklyn.api.location.BasicMachineLocationCustomizer;
 import org.apache.brooklyn.api.location.MachineLocation;
@@ -42,6 +43,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.reflect.TypeToken;
@@ -169,15 +171,23 @@ public class SetHostnameCustomizer extends BasicMachineLocationCustomizer {
         log.info("Setting local hostname of " + machine + " to " + hostName 
                 + (Strings.isNonBlank(domainFixed) ? ", " + domainFixed : ""));
         
+        exec(machine, true, setLocalHostnameCommands(hostName, domainFixed).toArray(new String[0]));
+
+        return hostName;
+    }
+
+    /**
+     * The commands run by {@link #setLocalHostname(SshMachineLocation, String, String)}, also used
+     * by {@link MachineBootstrap#setHostname(String, String)}.
+     */
+    static List<String> setLocalHostnameCommands(String hostName, String domainFixed) {
         boolean hasDomain = Strings.isNonBlank(domainFixed);
         String fqdn = hasDomain ? hostName+"."+domainFixed : hostName;
         
-        exec(machine, true, 
+        return ImmutableList.of(
                 BashCommands.sudo(String.format("sed -i.bak -e '1i127.0.0.1 %s %s' -e '/^127.0.0.1/d' /etc/hosts", fqdn, hostName)),
                 BashCommands.sudo(String.format("sed -i.bak -e 's/^HOSTNAME=.*$/HOSTNAME=%s/' /etc/sysconfig/network", fqdn)),
                 BashCommands.sudo(String.format("hostname %s", fqdn)));
-
-        return hostName;
     }
     
     protected void registerEtcHosts(SshMachineLocation machine, String ip, Iterable<String> hostnames) {
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.software.base.lifecycle;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.brooklyn.core.effector.ssh.SshEffectorTasks;
+import org.apache.brooklyn.core.mgmt.BrooklynTaskTags;
+import org.apache.brooklyn.util.core.task.DynamicTasks;
+import org.apache.brooklyn.util.core.task.Tasks;
+import org.apache.brooklyn.util.core.task.system.ProcessTaskWrapper;
+import org.apache.brooklyn.util.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Joiner;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Stops a process by pid: sends {@code SIGTERM}, polls at short intervals for the process to
+ * exit for up to a grace period, and only then escalates to {@code SIGKILL}. A process that
+ * exits quickly is not kept waiting for, and one that needs longer to shut down cleanly is
+ * given the whole grace period.
+ * <p>
+ * The signal, polling and escalation run remotely in a single ssh call. How long the shutdown
+ * took and whether it was escalated are recorded against the current task as a
+ * {@value #STREAM_SHUTDOWN} stream.
+ */
+@Beta
+public class GracefulStop {
+
+    private static final Logger log = LoggerFactory.getLogger(GracefulStop.class);
+
+    public static final String STREAM_SHUTDOWN = "shutdown";
+
+    /** Printed by {@link #command(int, Duration)} when the process had to be killed. */
+    public static final String ESCALATED = "ESCALATED";
+
+    private GracefulStop() {}
+
+    /** Outcome of {@link #stopPid(int, Duration)}. */
+    public static class Result {
+        private final int pid;
+        private final Duration duration;
+        private final boolean escalated;
+        private final boolean stopped;
+
+        Result(int pid, Duration duration, boolean escalated, boolean stopped) {
+            this.pid = pid;
+            this.duration = duration;
+            this.escalated = escalated;
+            this.stopped = stopped;
+        }
+
+        public int getPid() { return pid; }
+
+        /** Time taken to stop the process, including the ssh round trip. */
+        public Duration getDuration() { return duration; }
+
+        /** Whether the process ignored {@code SIGTERM} for the grace period and was killed. */
+        public boolean isEscalated() { return escalated; }
+
+        /** Whether the process is no longer running. */
+        public boolean isStopped() { return stopped; }
+
+        @Override
+        public String toString() {
+            return "Process "+pid+(stopped ? " stopped" : " still running")+" after "+duration
+                    +(escalated ? ", escalated to SIGKILL after grace period" : ", without escalation");
+        }
+    }
+
+    /**
+     * Returns a single-line shell command that gracefully stops the given pid, escalating after
+     * the grace period. Exits non-zero only if the process is still running at the end.
+     */
+    public static String command(int pid, Duration gracePeriod) {
+        long graceSeconds = Math.max(gracePeriod.toMilliseconds() / 1000, 0);
+        return Joiner.on(" ; ").join(ImmutableList.of(
+                "kill -TERM "+pid+" 2>/dev/null",
+                "end=$(( `date +%s` + "+graceSeconds+" ))",
+                // fractional sleeps are not supported everywhere, so fall back to whole seconds
+                "while kill -0 "+pid+" 2>/dev/null && [ `date +%s` -lt $end ] ; do sleep 0.2 2>/dev/null || sleep 1 ; done",
+                "if kill -0 "+pid+" 2>/dev/null ; then echo "+ESCALATED+" ; kill -9 "+pid+" 2>/dev/null ; sleep 0.2 2>/dev/null || sleep 1 ; fi",
+                "if kill -0 "+pid+" 2>/dev/null ; then exit 1 ; fi",
+                "exit 0"));
+    }
+
+    /**
+     * Gracefully stops the given pid on the entity's ssh machine, as root, blocking until done.
+     * Must be called from within a task, as with other {@link DynamicTasks} usage.
+     */
+    public static Result stopPid(int pid, Duration gracePeriod) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Tasks.setBlockingDetails("Waiting up to "+gracePeriod+" for process "+pid+" to exit before escalating");
+        ProcessTaskWrapper<Integer> task;
+        try {
+            task = DynamicTasks.queue(SshEffectorTasks.ssh(command(pid, gracePeriod))
+                    .summary("graceful stop of process "+pid)
+                    .allowingNonZeroExitCode()
+                    .runAsRoot());
+            task.block();
+        } finally {
+            Tasks.resetBlockingDetails();
+        }
+        Result result = new Result(pid, Duration.millis(stopwatch.elapsed(TimeUnit.MILLISECONDS)),
+                task.getStdout() != null && task.getStdout().contains(ESCALATED), task.getExitCode() == 0);
+
+        if (result.isEscalated()) {
+            log.warn("{} in {}", result, Tasks.current());
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} in {}", result, Tasks.current());
+        }
+        BrooklynTaskTags.addTagsDynamically(Tasks.current(),
+                BrooklynTaskTags.tagForStream(STREAM_SHUTDOWN, Suppliers.ofInstance(result.toString()), null));
+        return result;
+    }
+}
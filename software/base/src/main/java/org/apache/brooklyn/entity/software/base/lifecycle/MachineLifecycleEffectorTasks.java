@@ -58,6 +58,7 @@ import org.apache.brooklyn.core.location.Machines;
 import org.apache.brooklyn.core.location.cloud.CloudLocationConfig;
 import org.apache.brooklyn.core.mgmt.BrooklynTaskTags;
 import org.apache.brooklyn.core.mgmt.entitlement.Entitlements;
+import org.apache.brooklyn.entity.machine.MachineBootstrap;
 import org.apache.brooklyn.entity.machine.MachineInitTasks;
 import org.apache.brooklyn.entity.machine.ProvidesProvisioningFlags;
 import org.apache.brooklyn.entity.software.base.SoftwareProcess;
@@ -123,6 +124,9 @@ public abstract class MachineLifecycleEffectorTasks {
     public static final ConfigKey<Collection<? extends Location>> LOCATIONS = StartParameters.LOCATIONS;
     public static final ConfigKey<Duration> STOP_PROCESS_TIMEOUT = ConfigKeys.newConfigKey(Duration.class,
             "process.stop.timeout", "How long to wait for the processes to be stopped; use null to mean forever", Duration.TWO_MINUTES);
+    public static final ConfigKey<Duration> STOP_PROCESS_GRACE_PERIOD = ConfigKeys.newConfigKey(Duration.class,
+            "process.stop.gracePeriod", "How long to wait for a process to exit after SIGTERM before killing it with SIGKILL, "
+            + "when stopped by pid with stopPidGracefully", Duration.THIRTY_SECONDS);
 
     protected final MachineInitTasks machineInitTasks = new MachineInitTasks();
     
@@ -457,28 +461,33 @@ public abstract class MachineLifecycleEffectorTasks {
                 entity().sensors().set(Attributes.SSH_ADDRESS, sshAddress);
             }
 
+            // machine preparation steps are run together, in a single ssh session
+            MachineBootstrap bootstrap = new MachineBootstrap();
             if (Boolean.TRUE.equals(entity().getConfig(SoftwareProcess.OPEN_IPTABLES))) {
                 if (machine instanceof SshMachineLocation) {
                     Iterable<Integer> inboundPorts = (Iterable<Integer>) machine.config().get(CloudLocationConfig.INBOUND_PORTS);
-                    machineInitTasks.openIptablesAsync(inboundPorts, (SshMachineLocation)machine);
+                    bootstrap.openIptables(inboundPorts);
                 } else {
                     log.warn("Ignoring flag OPEN_IPTABLES on non-ssh location {}", machine);
                 }
             }
             if (Boolean.TRUE.equals(entity().getConfig(SoftwareProcess.STOP_IPTABLES))) {
                 if (machine instanceof SshMachineLocation) {
-                    machineInitTasks.stopIptablesAsync((SshMachineLocation)machine);
+                    bootstrap.stopIptables();
                 } else {
                     log.warn("Ignoring flag STOP_IPTABLES on non-ssh location {}", machine);
                 }
             }
             if (Boolean.TRUE.equals(entity().getConfig(SoftwareProcess.DONT_REQUIRE_TTY_FOR_SUDO))) {
                 if (machine instanceof SshMachineLocation) {
-                    machineInitTasks.dontRequireTtyForSudoAsync((SshMachineLocation)machine);
+                    bootstrap.dontRequireTtyForSudo();
                 } else {
                     log.warn("Ignoring flag DONT_REQUIRE_TTY_FOR_SUDO on non-ssh location {}", machine);
                 }
             }
+            if (!bootstrap.isEmpty()) {
+                machineInitTasks.bootstrapAsync(bootstrap, (SshMachineLocation)machine);
+            }
             resolveOnBoxDir(entity(), machine);
             preStartCustom(machine);
         }
@@ -882,6 +891,16 @@ public abstract class MachineLifecycleEffectorTasks {
      */
     protected abstract String stopProcessesAtMachine();
 
+    /**
+     * Stops the given process with {@link GracefulStop}, escalating to SIGKILL only if it has not
+     * exited within {@link #STOP_PROCESS_GRACE_PERIOD}.
+     * <p>
+     * For use from {@link #stopProcessesAtMachine()}; queues its ssh task and blocks on it.
+     */
+    protected GracefulStop.Result stopPidGracefully(int pid) {
+        return GracefulStop.stopPid(pid, entity().getConfig(STOP_PROCESS_GRACE_PERIOD));
+    }
+
     /**
      * Stop and release the {@link MachineLocation} the entity is provisioned at.
      * <p>
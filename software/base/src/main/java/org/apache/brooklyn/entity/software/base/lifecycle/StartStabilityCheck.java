@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.software.base.lifecycle;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.brooklyn.util.exceptions.Exceptions;
+import org.apache.brooklyn.util.text.Strings;
+import org.apache.brooklyn.util.time.Duration;
+import org.apache.brooklyn.util.time.Time;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Joiner;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Checks that a process just started stays up for a stability window, for lifecycles
+ * (such as Chef and Salt) that start processes they do not otherwise monitor.
+ * <p>
+ * The check passes once the process has been seen running continuously for the window, and fails
+ * as soon as a process that had been seen running disappears. A process not yet running is given
+ * up to the length of the window again to appear.
+ * <p>
+ * On ssh machines the polling loop runs remotely, so the whole check costs one round trip.
+ */
+@Beta
+public class StartStabilityCheck {
+
+    /** Interval between checks within the stability window. */
+    public static final Duration POLL_PERIOD = Duration.ONE_SECOND;
+
+    private StartStabilityCheck() {}
+
+    /**
+     * Returns a single-line shell command that polls {@code checkCommand} until it has succeeded
+     * for the whole window, exiting non-zero if it starts failing again or never succeeds.
+     * On success, runs {@code onSuccessCommand} if supplied.
+     */
+    public static String pollCommand(String checkCommand, String onSuccessCommand, Duration window) {
+        long required = window.toMilliseconds() / POLL_PERIOD.toMilliseconds() + 1;
+        List<String> lines = ImmutableList.of(
+                "seen=0",
+                "stable=0",
+                "tries=0",
+                "while [ $tries -lt "+(2*required)+" ] ; do " +
+                    "if "+checkCommand+" ; then " +
+                        "seen=1 ; stable=$((stable+1)) ; " +
+                        "if [ $stable -ge "+required+" ] ; then "+(Strings.isBlank(onSuccessCommand) ? "true" : onSuccessCommand)+" ; exit 0 ; fi ; " +
+                    "elif [ $seen -eq 1 ] ; then " +
+                        "echo \"process stopped during stability window\" >&2 ; exit 1 ; " +
+                    "fi ; " +
+                    "tries=$((tries+1)) ; sleep "+(POLL_PERIOD.toMilliseconds() / 1000)+" ; " +
+                "done",
+                "exit 1");
+        return Joiner.on(" ; ").join(lines);
+    }
+
+    /**
+     * Returns a single-line shell command checking the process in the given pid file, which may
+     * contain wildcards, and printing its pid once it has stayed up for the window.
+     */
+    public static String pidFileCommand(String pidFile, Duration window) {
+        String check = "PID=`cat "+pidFile+" 2>/dev/null | head -1` && [ -n \"$PID\" ] && ps -p $PID > /dev/null 2>&1";
+        return pollCommand(check, "echo $PID", window);
+    }
+
+    /** Returns a single-line shell command checking the given {@code /etc/init.d} service. */
+    public static String serviceCommand(String serviceName, Duration window) {
+        return pollCommand("/etc/init.d/"+serviceName+" status > /dev/null 2>&1", null, window);
+    }
+
+    /**
+     * Polls the given check locally, for machines where a remote loop cannot be used, with the
+     * same semantics as {@link #pollCommand(String, String, Duration)}.
+     *
+     * @return true if the check succeeded throughout the window
+     */
+    public static boolean poll(Callable<Boolean> check, Duration window) {
+        Stopwatch total = Stopwatch.createStarted();
+        Stopwatch up = null;
+        while (true) {
+            boolean running;
+            try {
+                running = Boolean.TRUE.equals(check.call());
+            } catch (Exception e) {
+                throw Exceptions.propagate(e);
+            }
+            if (running) {
+                if (up == null) up = Stopwatch.createStarted();
+                if (up.elapsed(TimeUnit.MILLISECONDS) >= window.toMilliseconds()) return true;
+            } else if (up != null) {
+                return false;
+            } else if (total.elapsed(TimeUnit.MILLISECONDS) >= 2 * window.toMilliseconds()) {
+                return false;
+            }
+            Time.sleep(POLL_PERIOD);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.feed.jmx;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+
+import com.google.common.base.Objects;
+
+/**
+ * Stretches the period of a poll while the value polled stays the same.
+ * <p>
+ * The poll is scheduled at its base period, and {@link #tick()} is called each time it fires to
+ * decide whether the value should really be fetched. Every unchanged value doubles the number of
+ * ticks between fetches, up to a ceiling; a changed value or a failure returns to fetching on every
+ * tick. Between fetches the last value is reused.
+ */
+public class AdaptivePollSchedule {
+
+    private final long basePeriod;
+    private final int maxTicksPerPoll;
+
+    private int ticksPerPoll = 1;
+    private int ticksSincePoll;
+    private boolean hasValue;
+    private Object lastValue;
+
+    /**
+     * @param basePeriod the period at which the poll is scheduled, in milliseconds
+     * @param maxPeriod the longest period to stretch to, in milliseconds
+     */
+    public AdaptivePollSchedule(long basePeriod, long maxPeriod) {
+        checkArgument(basePeriod > 0, "Base period must be positive");
+        this.basePeriod = basePeriod;
+        this.maxTicksPerPoll = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxPeriod / basePeriod));
+    }
+
+    /** Records a tick of the base period, returning whether the value should be fetched now. */
+    public synchronized boolean tick() {
+        if (!hasValue || ++ticksSincePoll >= ticksPerPoll) {
+            ticksSincePoll = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a fetched value, stretching the period if it is unchanged and resetting it otherwise.
+     *
+     * @return whether the period changed
+     */
+    public synchronized boolean onResult(Object value) {
+        boolean unchanged = hasValue && Objects.equal(value, lastValue);
+        hasValue = true;
+        lastValue = value;
+        return setTicksPerPoll(unchanged ? Math.min(ticksPerPoll * 2, maxTicksPerPoll) : 1);
+    }
+
+    /**
+     * Records a failed fetch, returning to the base period until a value is fetched again.
+     *
+     * @return whether the period changed
+     */
+    public synchronized boolean onFailure() {
+        hasValue = false;
+        lastValue = null;
+        return setTicksPerPoll(1);
+    }
+
+    private boolean setTicksPerPoll(int val) {
+        boolean changed = (ticksPerPoll != val);
+        ticksPerPoll = val;
+        return changed;
+    }
+
+    /** The value last fetched, reused on ticks where nothing is fetched. */
+    public synchronized Object getLastValue() {
+        return lastValue;
+    }
+
+    /** The current period between fetches, in milliseconds. */
+    public synchronized long getPeriod() {
+        return basePeriod * ticksPerPoll;
+    }
+
+    /**
+     * The single period which, used by all the given polls, would fetch as often as they do
+     * between them (the harmonic mean of their periods), in milliseconds; or zero if there are none.
+     */
+    public static long effectivePeriod(Collection<AdaptivePollSchedule> schedules) {
+        if (schedules.isEmpty()) return 0;
+        double fetchesPerMilli = 0;
+        for (AdaptivePollSchedule schedule : schedules) {
+            fetchesPerMilli += 1.0 / schedule.getPeriod();
+        }
+        return Math.round(schedules.size() / fetchesPerMilli);
+    }
+}
@@ -32,13 +32,16 @@ import javax.management.NotificationListener;
 import javax.management.ObjectName;
 
 import org.apache.brooklyn.api.entity.EntityLocal;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.config.ConfigKey;
 import org.apache.brooklyn.core.config.ConfigKeys;
+import org.apache.brooklyn.core.entity.EntityInternal;
 import org.apache.brooklyn.core.feed.AbstractFeed;
 import org.apache.brooklyn.core.feed.AttributePollHandler;
 import org.apache.brooklyn.core.feed.DelegatingPollHandler;
 import org.apache.brooklyn.core.feed.PollHandler;
 import org.apache.brooklyn.core.feed.Poller;
+import org.apache.brooklyn.core.sensor.Sensors;
 import org.apache.brooklyn.entity.software.base.SoftwareProcessImpl;
 import org.apache.brooklyn.util.time.Duration;
 import org.slf4j.Logger;
@@ -97,6 +100,14 @@ public class JmxFeed extends AbstractFeed {
     public static final ConfigKey<Boolean> OWN_HELPER = ConfigKeys.newBooleanConfigKey("ownHelper");
     public static final ConfigKey<String> JMX_URI = ConfigKeys.newStringConfigKey("jmxUri");
     public static final ConfigKey<Long> JMX_CONNECTION_TIMEOUT = ConfigKeys.newLongConfigKey("jmxConnectionTimeout");
+    public static final ConfigKey<Duration> ADAPTIVE_MAX_PERIOD = ConfigKeys.newConfigKey(Duration.class, "adaptiveMaxPeriod");
+
+    /**
+     * The period at which an adaptive feed is effectively polling: the harmonic mean of the
+     * current periods of its polls. See {@link Builder#adaptivePeriod(Duration)}.
+     */
+    public static final AttributeSensor<Duration> EFFECTIVE_PERIOD = Sensors.newSensor(Duration.class,
+            "jmx.feed.effectivePeriod", "Effective period of adaptive JMX polling");
     
     @SuppressWarnings("serial")
     public static final ConfigKey<SetMultimap<String, JmxAttributePollConfig<?>>> ATTRIBUTE_POLLS = ConfigKeys.newConfigKey(
@@ -127,6 +138,7 @@ public class JmxFeed extends AbstractFeed {
         private List<JmxOperationPollConfig<?>> operationPolls = Lists.newArrayList();
         private List<JmxNotificationSubscriptionConfig<?>> notificationSubscriptions = Lists.newArrayList();
         private String uniqueTag;
+        private Duration adaptiveMaxPeriod;
         private volatile boolean built;
         
         public Builder entity(EntityLocal val) {
@@ -148,6 +160,16 @@ public class JmxFeed extends AbstractFeed {
             this.periodUnits = units;
             return this;
         }
+        /**
+         * Stretches the period of each poll while its value is unchanged, doubling it up to the
+         * given ceiling, and returns to the configured period when the value changes or the poll
+         * fails. The effective period is published as {@link JmxFeed#EFFECTIVE_PERIOD}.
+         * A null ceiling polls at the configured period, as without this option.
+         */
+        public Builder adaptivePeriod(Duration maxPeriod) {
+            this.adaptiveMaxPeriod = maxPeriod;
+            return this;
+        }
         public Builder pollAttribute(JmxAttributePollConfig<?> config) {
             attributePolls.add(config);
             return this;
@@ -179,6 +201,8 @@ public class JmxFeed extends AbstractFeed {
 
     private final SetMultimap<ObjectName, NotificationListener> notificationListeners = HashMultimap.create();
 
+    private final List<AdaptivePollSchedule> adaptiveSchedules = Lists.newCopyOnWriteArrayList();
+
     /**
      * For rebind; do not call directly; use builder
      */
@@ -194,6 +218,7 @@ public class JmxFeed extends AbstractFeed {
             setConfig(JMX_URI, helper.getUrl());
         }
         setConfig(JMX_CONNECTION_TIMEOUT, builder.jmxConnectionTimeout);
+        if (builder.adaptiveMaxPeriod != null) setConfig(ADAPTIVE_MAX_PERIOD, builder.adaptiveMaxPeriod);
         
         SetMultimap<String, JmxAttributePollConfig<?>> attributePolls = HashMultimap.<String,JmxAttributePollConfig<?>>create();
         for (JmxAttributePollConfig<?> config : builder.attributePolls) {
@@ -263,6 +288,7 @@ public class JmxFeed extends AbstractFeed {
         final SetMultimap<NotificationFilter, JmxNotificationSubscriptionConfig<?>> notificationSubscriptions = getConfig(NOTIFICATION_SUBSCRIPTIONS);
         final SetMultimap<List<?>, JmxOperationPollConfig<?>> operationPolls = getConfig(OPERATION_POLLS);
         final SetMultimap<String, JmxAttributePollConfig<?>> attributePolls = getConfig(ATTRIBUTE_POLLS);
+        adaptiveSchedules.clear();
         
         getPoller().submit(new Callable<Void>() {
                public Void call() {
@@ -333,7 +359,7 @@ public class JmxFeed extends AbstractFeed {
         }
         
         getPoller().scheduleAtFixedRate(
-                new Callable<Object>() {
+                adaptive(new Callable<Object>() {
                     public Object call() throws Exception {
                         if (log.isDebugEnabled()) log.debug("jmx operation polling for {} sensors at {} -> {}", new Object[] {getEntity(), getJmxUri(), operationName});
                         if (signature.size() == params.size()) {
@@ -342,7 +368,7 @@ public class JmxFeed extends AbstractFeed {
                             return getHelper().operation(objectName, operationName, params.toArray());
                         }
                     }
-                }, 
+                }, minPeriod), 
                 new DelegatingPollHandler<Object>(handlers), minPeriod);
     }
 
@@ -363,15 +389,45 @@ public class JmxFeed extends AbstractFeed {
         
         // TODO Not good calling this holding the synchronization lock
         getPoller().scheduleAtFixedRate(
-                new Callable<Object>() {
+                adaptive(new Callable<Object>() {
                     public Object call() throws Exception {
                         if (log.isTraceEnabled()) log.trace("jmx attribute polling for {} sensors at {} -> {}", new Object[] {getEntity(), getJmxUri(), jmxAttributeName});
                         return getHelper().getAttribute(objectName, jmxAttributeName);
                     }
-                }, 
+                }, minPeriod), 
                 new DelegatingPollHandler<Object>(handlers), minPeriod);
     }
 
+    /**
+     * Wraps a poll scheduled at the given period so that, if the feed is adaptive, it only calls
+     * over JMX when its {@link AdaptivePollSchedule} says so, and otherwise repeats the last value.
+     */
+    private Callable<Object> adaptive(final Callable<Object> poll, long period) {
+        Duration maxPeriod = getConfig(ADAPTIVE_MAX_PERIOD);
+        if (maxPeriod == null) return poll;
+        final AdaptivePollSchedule schedule = new AdaptivePollSchedule(period, maxPeriod.toMilliseconds());
+        adaptiveSchedules.add(schedule);
+        publishEffectivePeriod();
+        return new Callable<Object>() {
+            public Object call() throws Exception {
+                if (!schedule.tick()) return schedule.getLastValue();
+                Object result;
+                try {
+                    result = poll.call();
+                } catch (Exception e) {
+                    if (schedule.onFailure()) publishEffectivePeriod();
+                    throw e;
+                }
+                if (schedule.onResult(result)) publishEffectivePeriod();
+                return result;
+            }
+        };
+    }
+
+    private void publishEffectivePeriod() {
+        ((EntityInternal) getEntity()).sensors().set(EFFECTIVE_PERIOD, Duration.millis(AdaptivePollSchedule.effectivePeriod(adaptiveSchedules)));
+    }
+
     /**
      * Registers to subscribe to notifications for an ObjectName, where all the given configs are for that same ObjectName + filter.
      */
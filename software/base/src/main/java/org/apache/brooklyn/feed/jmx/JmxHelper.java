@@ -37,6 +37,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceAlreadyExistsException;
 import javax.management.InstanceNotFoundException;
@@ -616,6 +618,28 @@ public class JmxHelper {
         }
     }
 
+    /**
+     * Returns several attributes of a JMX {@link ObjectName} in a single request, keyed by
+     * attribute name. Attributes the MBean does not have are omitted from the result.
+     */
+    public Map<String, Object> getAttributes(ObjectName objectName, final String... attributes) {
+        final ObjectName realObjectName = toLiteralObjectName(objectName);
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        
+        if (realObjectName != null) {
+            AttributeList values = invokeWithReconnect(new Callable<AttributeList>() {
+                    public AttributeList call() throws Exception {
+                        return getConnectionOrFail().getAttributes(realObjectName, attributes);
+                    }});
+            for (Attribute value : values.asList()) {
+                result.put(value.getName(), value.getValue());
+            }
+
+            if (LOG.isTraceEnabled()) LOG.trace("From {}, for jmx attributes {}.{}, got values {}", new Object[] {url, objectName.getCanonicalName(), Arrays.asList(attributes), result});
+        }
+        return result;
+    }
+
     public void setAttribute(String objectName, String attribute, Object val) {
         setAttribute(createObjectName(objectName), attribute, val);
     }
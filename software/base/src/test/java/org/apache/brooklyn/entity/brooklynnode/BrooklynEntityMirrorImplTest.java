@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.brooklynnode;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.brooklyn.api.entity.EntitySpec;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
+import org.apache.brooklyn.api.sensor.SensorEvent;
+import org.apache.brooklyn.api.sensor.SensorEventListener;
+import org.apache.brooklyn.core.entity.Entities;
+import org.apache.brooklyn.core.sensor.Sensors;
+import org.apache.brooklyn.core.test.BrooklynAppUnitTestSupport;
+import org.apache.brooklyn.test.Asserts;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class BrooklynEntityMirrorImplTest extends BrooklynAppUnitTestSupport {
+
+    private static final AttributeSensor<Object> SENSOR_A = Sensors.newSensor(Object.class, "mirrored.a");
+    private static final AttributeSensor<Object> SENSOR_B = Sensors.newSensor(Object.class, "mirrored.b");
+
+    private BrooklynEntityMirror mirror;
+    private BrooklynEntityMirrorImpl mirrorImpl;
+    private final List<String> events = new CopyOnWriteArrayList<String>();
+
+    /** Does not connect to a remote entity, so that mirrored content can be fed in directly. */
+    public static class UnconnectedMirrorImpl extends BrooklynEntityMirrorImpl {
+        @Override
+        protected void connectSensorsAsync() {}
+    }
+
+    @BeforeMethod(alwaysRun=true)
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        mirror = app.createAndManageChild(EntitySpec.create(BrooklynEntityMirror.class).impl(UnconnectedMirrorImpl.class));
+        mirrorImpl = (BrooklynEntityMirrorImpl) Entities.deproxy(mirror);
+        SensorEventListener<Object> listener = new SensorEventListener<Object>() {
+            @Override
+            public void onEvent(SensorEvent<Object> event) {
+                events.add(event.getSensor().getName()+"="+event.getValue());
+            }
+        };
+        app.subscriptions().subscribe(mirror, SENSOR_A, listener);
+        app.subscriptions().subscribe(mirror, SENSOR_B, listener);
+    }
+
+    @Test
+    public void testPublishesOnlyChangedValues() throws Exception {
+        mirrorImpl.mirrorSensors("{\"mirrored.a\": \"one\", \"mirrored.b\": \"x\"}");
+        assertEventsEventually("mirrored.a=one", "mirrored.b=x");
+
+        // identical content, and content in which only b changed
+        mirrorImpl.mirrorSensors("{\"mirrored.a\": \"one\", \"mirrored.b\": \"x\"}");
+        mirrorImpl.mirrorSensors("{\"mirrored.b\": \"y\", \"mirrored.a\": \"one\"}");
+        assertEventsEventually("mirrored.a=one", "mirrored.b=x", "mirrored.b=y");
+
+        assertEquals(mirror.getAttribute(SENSOR_A), "one");
+        assertEquals(mirror.getAttribute(SENSOR_B), "y");
+    }
+
+    @Test
+    public void testPublishesValueChangedBack() throws Exception {
+        mirrorImpl.mirrorSensors("{\"mirrored.a\": \"one\"}");
+        mirrorImpl.mirrorSensors("{\"mirrored.a\": \"two\"}");
+        mirrorImpl.mirrorSensors("{\"mirrored.a\": \"one\"}");
+        assertEventsEventually("mirrored.a=one", "mirrored.a=two", "mirrored.a=one");
+    }
+
+    /** Events are delivered to a subscriber in order, so any extra event shows up before the expected last one. */
+    private void assertEventsEventually(final String... expected) {
+        Asserts.succeedsEventually(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(events.size(), expected.length, "events="+events);
+            }});
+        assertEquals(events, ImmutableList.copyOf(expected));
+    }
+}
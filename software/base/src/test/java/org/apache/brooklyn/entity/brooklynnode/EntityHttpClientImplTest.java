@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.brooklynnode;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.brooklyn.api.entity.EntitySpec;
+import org.apache.brooklyn.api.mgmt.Task;
+import org.apache.brooklyn.core.entity.Entities;
+import org.apache.brooklyn.core.test.BrooklynAppUnitTestSupport;
+import org.apache.brooklyn.core.test.entity.TestEntity;
+import org.apache.brooklyn.util.core.task.Tasks;
+import org.apache.brooklyn.util.time.Duration;
+import org.apache.brooklyn.util.time.Time;
+import org.apache.http.client.HttpClient;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class EntityHttpClientImplTest extends BrooklynAppUnitTestSupport {
+
+    private TestEntity entity;
+    private EntityHttpClientImpl httpClient;
+
+    @BeforeMethod(alwaysRun=true)
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        entity = app.createAndManageChild(EntitySpec.create(TestEntity.class));
+        entity.sensors().set(BrooklynNode.WEB_CONSOLE_URI, URI.create("http://localhost:8081"));
+        httpClient = new EntityHttpClientImpl(entity, BrooklynNode.WEB_CONSOLE_URI);
+    }
+
+    @AfterMethod(alwaysRun=true)
+    @Override
+    public void tearDown() throws Exception {
+        if (entity != null) EntityHttpClientImpl.closeClients(entity);
+        super.tearDown();
+    }
+
+    @Test
+    public void testReusesClientForEntity() {
+        HttpClient client = httpClient.getPooledClient();
+        assertSame(httpClient.getPooledClient(), client);
+        assertSame(new EntityHttpClientImpl(entity, BrooklynNode.WEB_CONSOLE_URI).getPooledClient(), client);
+    }
+
+    @Test
+    public void testReplacesClientWhenUrlChanges() {
+        HttpClient client = httpClient.getPooledClient();
+        entity.sensors().set(BrooklynNode.WEB_CONSOLE_URI, URI.create("http://localhost:8082"));
+        HttpClient replacement = httpClient.getPooledClient();
+        assertNotSame(replacement, client);
+        assertSame(httpClient.getPooledClient(), replacement);
+    }
+
+    @Test
+    public void testCreatesNewClientAfterClose() {
+        HttpClient client = httpClient.getPooledClient();
+        EntityHttpClientImpl.closeClients(entity);
+        assertNotSame(httpClient.getPooledClient(), client);
+    }
+
+    @Test
+    public void testSeparateClientPerEntity() {
+        TestEntity other = app.createAndManageChild(EntitySpec.create(TestEntity.class));
+        other.sensors().set(BrooklynNode.WEB_CONSOLE_URI, URI.create("http://localhost:8081"));
+        try {
+            assertNotSame(new EntityHttpClientImpl(other, BrooklynNode.WEB_CONSOLE_URI).getPooledClient(), httpClient.getPooledClient());
+        } finally {
+            EntityHttpClientImpl.closeClients(other);
+        }
+    }
+
+    @Test
+    public void testConcurrentCallsShareClient() throws Exception {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                int current = inFlight.incrementAndGet();
+                synchronized (maxInFlight) {
+                    maxInFlight.set(Math.max(maxInFlight.get(), current));
+                }
+                try {
+                    Time.sleep(Duration.millis(200));
+                    byte[] body = "ok".getBytes();
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                } finally {
+                    inFlight.decrementAndGet();
+                    exchange.close();
+                }
+            }
+        });
+        server.start();
+        try {
+            entity.sensors().set(BrooklynNode.WEB_CONSOLE_URI, URI.create("http://127.0.0.1:"+server.getAddress().getPort()));
+            List<Task<Integer>> calls = Lists.newArrayList();
+            for (int i = 0; i < 6; i++) {
+                calls.add(Entities.submit(entity, Tasks.<Integer>builder().displayName("get "+i).body(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        return httpClient.get("/").getResponseCode();
+                    }
+                }).build()));
+            }
+            for (Task<Integer> call : calls) {
+                assertEquals(call.get(), (Integer) 200);
+            }
+            assertTrue(maxInFlight.get() > 1, "maxInFlight="+maxInFlight);
+        } finally {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+    }
+}
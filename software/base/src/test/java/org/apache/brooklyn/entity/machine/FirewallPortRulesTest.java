@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.machine;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.brooklyn.util.os.Os;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+public class FirewallPortRulesTest {
+
+    private StubIptables stubs;
+
+    @BeforeMethod(alwaysRun=true)
+    public void setUp() throws Exception {
+        stubs = new StubIptables();
+    }
+
+    @AfterMethod(alwaysRun=true)
+    public void tearDown() throws Exception {
+        if (stubs != null) stubs.delete();
+    }
+
+    @Test
+    public void testCollapsesPortsIntoRanges() {
+        List<Range<Integer>> ranges = FirewallPortRules.toRanges(ImmutableList.of(8082, 22, 8080, 8081, 443, 22));
+        assertEquals(ranges, ImmutableList.of(Range.closed(22, 22), Range.closed(443, 443), Range.closed(8080, 8082)));
+        assertEquals(FirewallPortRules.toIptablesPort(ranges.get(2)), "8080:8082");
+        assertEquals(FirewallPortRules.toFirewalldPort(ranges.get(2)), "8080-8082/tcp");
+        assertEquals(FirewallPortRules.toIptablesPort(ranges.get(0)), "22");
+    }
+
+    @Test
+    public void testParsesAcceptedIptablesPorts() {
+        String output =
+                "-P INPUT ACCEPT\n" +
+                "-A INPUT -p tcp -m tcp --dport 22 -j ACCEPT\n" +
+                "-A INPUT -p tcp -m tcp --dport 6000:6002 -j ACCEPT\n" +
+                "-A INPUT -p tcp -m multiport --dports 80,443 -j ACCEPT\n" +
+                "-A INPUT -s 10.0.0.0/8 -p tcp -m tcp --dport 9000 -j ACCEPT\n" +
+                "-A INPUT -p udp -m udp --dport 53 -j ACCEPT\n" +
+                "-A INPUT -p tcp -m tcp --dport 25 -j DROP\n";
+        RangeSet<Integer> ports = FirewallPortRules.parseIptablesAcceptedPorts(output);
+        assertTrue(ports.contains(22));
+        assertTrue(ports.contains(6001));
+        assertTrue(ports.contains(6002));
+        assertTrue(ports.contains(80));
+        assertTrue(ports.contains(443));
+        assertFalse(ports.contains(6003));
+        assertFalse(ports.contains(9000), "source-restricted rule should be ignored");
+        assertFalse(ports.contains(53), "udp rule should be ignored");
+        assertFalse(ports.contains(25), "drop rule should be ignored");
+    }
+
+    @Test
+    public void testParsesFirewalldPorts() {
+        RangeSet<Integer> ports = FirewallPortRules.parseFirewalldPorts("22/tcp 6000-7999/tcp 53/udp\n");
+        assertTrue(ports.contains(22));
+        assertTrue(ports.contains(7999));
+        assertFalse(ports.contains(8000));
+        assertFalse(ports.contains(53));
+    }
+
+    @Test
+    public void testMissingOnlyIncludesPortsNotInstalled() {
+        RangeSet<Integer> installed = FirewallPortRules.parseIptablesAcceptedPorts("-A INPUT -p tcp -m tcp --dport 22:23 -j ACCEPT\n");
+        assertEquals(FirewallPortRules.missing(ImmutableList.of(22, 23, 24, 25, 80), installed),
+                ImmutableList.of(Range.closed(24, 25), Range.closed(80, 80)));
+        assertTrue(FirewallPortRules.missing(ImmutableList.of(22, 23), installed).isEmpty());
+    }
+
+    // Integration test because it runs the commands in a local bash, as a non-root user, against
+    // stub sudo and iptables commands which record how they were called
+    @Test(groups="Integration")
+    public void testRestoreCommandInsertsEachRangeInOneTransactionWithSudo() throws Exception {
+        String command = FirewallPortRules.iptablesRestoreCommand(ImmutableList.of(Range.closed(22, 22), Range.closed(6000, 7999)));
+        assertEquals(stubs.run(command), 0, stubs.calls());
+
+        assertEquals(stubs.restored(), "*filter\n"
+                + "-I INPUT -p tcp -m tcp --dport 22 -j ACCEPT\n"
+                + "-I INPUT -p tcp -m tcp --dport 6000:7999 -j ACCEPT\n"
+                + "COMMIT\n");
+        assertFalse(stubs.calls().contains(StubIptables.UNPRIVILEGED), stubs.calls());
+    }
+
+    @Test(groups="Integration")
+    public void testAddMissingCommandRestoresOnlyMissingRulesWithSudo() throws Exception {
+        stubs.install("22");
+        String command = FirewallPortRules.iptablesAddMissingCommand(ImmutableList.of(Range.closed(22, 22), Range.closed(6000, 7999)));
+        assertEquals(stubs.run(command), 0, stubs.calls());
+
+        assertEquals(stubs.restored(), "*filter\n"
+                + "-I INPUT -p tcp -m tcp --dport 6000:7999 -j ACCEPT\n"
+                + "COMMIT\n");
+        assertTrue(stubs.calls().contains("iptables -C INPUT -p tcp -m tcp --dport 22 -j ACCEPT"), stubs.calls());
+        assertFalse(stubs.calls().contains(StubIptables.UNPRIVILEGED), stubs.calls());
+    }
+
+    @Test(groups="Integration")
+    public void testAddMissingCommandDoesNothingWhenAllRulesPresent() throws Exception {
+        stubs.install("22", "6000:7999");
+        String command = FirewallPortRules.iptablesAddMissingCommand(ImmutableList.of(Range.closed(22, 22), Range.closed(6000, 7999)));
+        assertEquals(stubs.run(command), 0, stubs.calls());
+
+        assertEquals(stubs.restored(), "");
+        assertFalse(stubs.calls().contains(StubIptables.UNPRIVILEGED), stubs.calls());
+    }
+
+    @Test(groups="Integration")
+    public void testAddMissingCommandFailsWhenRestoreFails() throws Exception {
+        stubs.failRestore();
+        String command = FirewallPortRules.iptablesAddMissingCommand(ImmutableList.of(Range.closed(22, 22)));
+        assertNotEquals(stubs.run(command), 0, stubs.calls());
+    }
+
+    /**
+     * Stub {@code sudo}, {@code iptables} and {@code iptables-restore} commands in a temporary
+     * directory. The iptables stubs refuse to run except through the stub sudo, and the stub
+     * {@code iptables -C} succeeds only for ports given to {@link #install(String...)}.
+     */
+    static class StubIptables {
+        static final String UNPRIVILEGED = "UNPRIVILEGED";
+
+        private final File dir = Files.createTempDir();
+        private final File calls = new File(dir, "calls");
+        private final File installed = new File(dir, "installed");
+        private final File restored = new File(dir, "restored");
+
+        StubIptables() throws IOException {
+            for (File file : ImmutableList.of(calls, installed, restored)) {
+                Files.write("", file, Charsets.UTF_8);
+                file.setWritable(true, false);
+            }
+            String requireSudo = "[ \"$STUB_SUDO\" = true ] || { echo \""+UNPRIVILEGED+" $0 $*\" >> "+calls+" ; exit 4 ; }\n";
+            script("sudo", "echo \"sudo $*\" >> "+calls+"\n"
+                    + "while [ \"$1\" != \"--\" ] ; do shift ; done ; shift\n"
+                    + "STUB_SUDO=true exec \"$@\"\n");
+            script("iptables", requireSudo
+                    + "echo \"iptables $*\" >> "+calls+"\n"
+                    + "while [ $# -gt 0 ] ; do if [ \"$1\" = \"--dport\" ] ; then port=$2 ; fi ; shift ; done\n"
+                    + "grep -qxF \"$port\" "+installed+"\n");
+            script("iptables-restore", requireSudo
+                    + "echo \"iptables-restore $*\" >> "+calls+"\n"
+                    + "cat >> "+restored+"\n");
+        }
+
+        private void script(String name, String body) throws IOException {
+            File file = new File(dir, name);
+            Files.write("#!/bin/bash\n"+body, file, Charsets.UTF_8);
+            file.setExecutable(true, false);
+        }
+
+        void install(String... ports) throws IOException {
+            Files.write(Joiner.on('\n').join(ports)+"\n", installed, Charsets.UTF_8);
+        }
+
+        void failRestore() throws IOException {
+            script("iptables-restore", "exit 1\n");
+        }
+
+        String calls() throws IOException {
+            return Files.toString(calls, Charsets.UTF_8);
+        }
+
+        String restored() throws IOException {
+            return Files.toString(restored, Charsets.UTF_8);
+        }
+
+        /**
+         * Runs the command in bash with the stubs first on the path, as a non-root user so that
+         * {@code BashCommands.sudo} uses sudo: directly if not root, and otherwise as nobody.
+         */
+        int run(String command) throws Exception {
+            String script = "export PATH="+dir.getAbsolutePath()+":$PATH ; "+command;
+            String[] args = "root".equals(System.getProperty("user.name"))
+                    ? new String[] { "su", "-s", "/bin/bash", "nobody", "-c", script }
+                    : new String[] { "bash", "-c", script };
+            Process process = new ProcessBuilder(args).redirectErrorStream(true).start();
+            ByteStreams.copy(process.getInputStream(), ByteStreams.nullOutputStream());
+            return process.waitFor();
+        }
+
+        void delete() {
+            Os.deleteRecursively(dir);
+        }
+    }
+}
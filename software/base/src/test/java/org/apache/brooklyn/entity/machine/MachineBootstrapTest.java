@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.machine;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class MachineBootstrapTest {
+
+    @Test
+    public void testParsesStepResultsAndValues() {
+        String stdout =
+                "BROOKLYN_BOOTSTRAP BEGIN stopIptables\n" +
+                "iptables: unrecognized service\n" +
+                "BROOKLYN_BOOTSTRAP END stopIptables 1\n" +
+                "BROOKLYN_BOOTSTRAP BEGIN hostname\r\n" +
+                "BROOKLYN_BOOTSTRAP VALUE hostname=myhost\r\n" +
+                "BROOKLYN_BOOTSTRAP END hostname 0\r\n" +
+                "BROOKLYN_BOOTSTRAP BEGIN localIp\n";
+        MachineBootstrap.Result result = MachineBootstrap.parse(stdout);
+        assertEquals(result.getExitCode("stopIptables"), (Integer) 1);
+        assertEquals(result.getOutput("stopIptables"), "iptables: unrecognized service\n");
+        assertEquals(result.getExitCode("hostname"), (Integer) 0);
+        assertEquals(result.getValue(MachineBootstrap.VALUE_HOSTNAME), "myhost");
+        // step that never completed
+        assertNull(result.getExitCode("localIp"));
+    }
+
+    @Test
+    public void testDontRequireTtyForSudoRunsFirst() {
+        List<String> script = new MachineBootstrap()
+                .captureHostname()
+                .dontRequireTtyForSudo()
+                .getScript();
+        assertEquals(script.get(0), "set +e");
+        assertEquals(script.get(1), "echo \"BROOKLYN_BOOTSTRAP BEGIN "+MachineBootstrap.STEP_DONT_REQUIRE_TTY_FOR_SUDO+"\"");
+        assertTrue(script.contains("echo \"BROOKLYN_BOOTSTRAP END "+MachineBootstrap.STEP_HOSTNAME+" $?\""), script.toString());
+    }
+
+    @Test
+    public void testOpenIptablesWithNoPortsAddsNoStep() {
+        assertTrue(new MachineBootstrap().openIptables(ImmutableList.<Integer>of()).isEmpty());
+    }
+}
@@ -113,6 +113,25 @@ public class SetHostnameCustomizerTest extends BrooklynAppUnitTestSupport {
         customizer.customize(machine);
     }
     
+    @Test
+    public void testCustomizerUsesOverriddenHooks() throws Exception {
+        SshMachineLocation machine = mgmt.getLocationManager().createLocation(LocationSpec.create(SshMachineLocation.class)
+                .configure("address", "4.3.2.1"));
+        
+        customizer = new SetHostnameCustomizer(ConfigBag.newInstance()) {
+            @Override public String setLocalHostname(SshMachineLocation machine) {
+                return "myhostname";
+            }
+            @Override protected String execHostnameMinusI(SshMachineLocation machine) {
+                return "10.0.0.1";
+            }
+        };
+        customizer.customize(machine);
+        
+        assertEquals(machine.config().get(SetHostnameCustomizer.LOCAL_HOSTNAME), "myhostname");
+        assertEquals(machine.config().get(SetHostnameCustomizer.LOCAL_IP), "10.0.0.1");
+    }
+    
     @Test
     public void testCustomizerPropagatesException() throws Exception {
         SshMachineLocation machine = mgmt.getLocationManager().createLocation(LocationSpec.create(SshMachineLocationThrowsException.class)
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.software.base.lifecycle;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.brooklyn.util.stream.StreamGobbler;
+import org.apache.brooklyn.util.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Stopwatch;
+
+public class GracefulStopTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GracefulStopTest.class);
+
+    @Test
+    public void testCommandSignalsThenEscalatesAfterGracePeriod() {
+        String command = GracefulStop.command(1234, Duration.seconds(60));
+        assertTrue(command.startsWith("kill -TERM 1234 "), command);
+        assertTrue(command.contains("`date +%s` + 60"), command);
+        assertTrue(command.indexOf("kill -TERM") < command.indexOf("kill -9 1234"), command);
+        assertTrue(command.contains("echo "+GracefulStop.ESCALATED), command);
+        assertFalse(command.contains("\n"), command);
+    }
+
+    // Integration test because it runs the command in a local bash, against a real process
+    @Test(groups="Integration")
+    public void testKillsProcessIgnoringTermAfterGracePeriod() throws Exception {
+        Process process = startProcess("trap '' TERM");
+        try {
+            int pid = readPid(process);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            int exitCode = exec(GracefulStop.command(pid, Duration.seconds(2)), out);
+
+            assertEquals(exitCode, 0, "out="+out);
+            assertTrue(out.toString().contains(GracefulStop.ESCALATED), "out="+out);
+            // the deadline is in whole seconds, so the wait is between one and two seconds
+            assertTrue(stopwatch.elapsed(TimeUnit.MILLISECONDS) >= 1000, "elapsed="+stopwatch);
+            assertEquals(process.waitFor(), 128+9);
+        } finally {
+            process.destroy();
+        }
+    }
+
+    @Test(groups="Integration")
+    public void testStopsProcessHandlingTermWithoutWaitingForGracePeriod() throws Exception {
+        Process process = startProcess("true");
+        try {
+            int pid = readPid(process);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            int exitCode = exec(GracefulStop.command(pid, Duration.seconds(30)), out);
+
+            assertEquals(exitCode, 0, "out="+out);
+            assertFalse(out.toString().contains(GracefulStop.ESCALATED), "out="+out);
+            assertTrue(stopwatch.elapsed(TimeUnit.MILLISECONDS) < 10*1000, "elapsed="+stopwatch);
+            assertEquals(process.waitFor(), 128+15);
+        } finally {
+            process.destroy();
+        }
+    }
+
+    @Test(groups="Integration")
+    public void testSucceedsForProcessAlreadyExited() throws Exception {
+        Process process = startProcess("true");
+        int pid = readPid(process);
+        process.destroy();
+        process.waitFor();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(exec(GracefulStop.command(pid, Duration.seconds(30)), out), 0, "out="+out);
+        assertFalse(out.toString().contains(GracefulStop.ESCALATED), "out="+out);
+    }
+
+    /** Starts a long-running bash which runs the given setup, then prints its pid. */
+    private Process startProcess(String setup) throws IOException {
+        return Runtime.getRuntime().exec(new String[] { "bash", "-c", setup+" ; echo $$ ; while true ; do sleep 1 ; done" });
+    }
+
+    private int readPid(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        return Integer.parseInt(reader.readLine().trim());
+    }
+
+    private int exec(String command, ByteArrayOutputStream out) throws InterruptedException {
+        Process p;
+        try {
+            p = Runtime.getRuntime().exec(new String[] { "bash", "-c", command });
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot run bash", e);
+        }
+        StreamGobbler stdout = new StreamGobbler(p.getInputStream(), out, log);
+        StreamGobbler stderr = new StreamGobbler(p.getErrorStream(), out, log);
+        stdout.start();
+        stderr.start();
+        int exitCode = p.waitFor();
+        stdout.join();
+        stderr.join();
+        return exitCode;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.software.base.lifecycle;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+
+import org.apache.brooklyn.util.time.Duration;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class StartStabilityCheckTest {
+
+    @Test
+    public void testPassesWhenRunningThroughoutWindow() {
+        assertTrue(StartStabilityCheck.poll(sequence(true), Duration.ZERO));
+    }
+
+    @Test
+    public void testFailsFastWhenProcessStops() {
+        assertFalse(StartStabilityCheck.poll(sequence(true, false), Duration.ONE_MINUTE));
+    }
+
+    @Test
+    public void testFailsWhenProcessNeverStarts() {
+        assertFalse(StartStabilityCheck.poll(sequence(false), Duration.ZERO));
+    }
+
+    @Test
+    public void testPidFileCommandPrintsPidOnSuccess() {
+        String command = StartStabilityCheck.pidFileCommand("/var/run/my.pid", Duration.FIVE_SECONDS);
+        assertTrue(command.contains("cat /var/run/my.pid"), command);
+        assertTrue(command.contains("[ $stable -ge 6 ] ; then echo $PID ; exit 0"), command);
+        assertFalse(command.contains("\n"), command);
+    }
+
+    private static Callable<Boolean> sequence(Boolean... results) {
+        final Iterator<Boolean> iterator = ImmutableList.copyOf(results).iterator();
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return iterator.next();
+            }
+        };
+    }
+}
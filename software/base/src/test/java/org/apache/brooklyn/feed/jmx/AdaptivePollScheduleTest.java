@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.feed.jmx;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class AdaptivePollScheduleTest {
+
+    /** Ticks until the schedule asks for a fetch, returning how many ticks that took. */
+    private static int ticksUntilFetch(AdaptivePollSchedule schedule) {
+        int ticks = 1;
+        while (!schedule.tick()) ticks++;
+        return ticks;
+    }
+
+    @Test
+    public void testStretchesWhileUnchangedUpToCeiling() {
+        AdaptivePollSchedule schedule = new AdaptivePollSchedule(500, 4000);
+        assertTrue(schedule.tick());
+        assertFalse(schedule.onResult(1L));
+        assertEquals(schedule.getPeriod(), 500);
+
+        int[] expectedTicks = { 1, 2, 4, 8, 8 };
+        for (int expected : expectedTicks) {
+            assertEquals(ticksUntilFetch(schedule), expected);
+            schedule.onResult(1L);
+        }
+        assertEquals(schedule.getPeriod(), 4000);
+        assertEquals(schedule.getLastValue(), 1L);
+    }
+
+    @Test
+    public void testSnapsBackOnChange() {
+        AdaptivePollSchedule schedule = new AdaptivePollSchedule(500, 4000);
+        schedule.onResult("a");
+        schedule.onResult("a");
+        schedule.onResult("a");
+        assertEquals(schedule.getPeriod(), 2000);
+        assertTrue(schedule.onResult("b"));
+        assertEquals(schedule.getPeriod(), 500);
+        assertTrue(schedule.tick());
+    }
+
+    @Test
+    public void testSnapsBackOnFailureAndFetchesEveryTick() {
+        AdaptivePollSchedule schedule = new AdaptivePollSchedule(500, 4000);
+        schedule.onResult(true);
+        schedule.onResult(true);
+        assertTrue(schedule.onResult(true));
+        assertTrue(schedule.onFailure());
+        assertEquals(schedule.getPeriod(), 500);
+        assertNull(schedule.getLastValue());
+        assertTrue(schedule.tick());
+        assertTrue(schedule.tick());
+    }
+
+    @Test
+    public void testCeilingBelowBasePeriodNeverStretches() {
+        AdaptivePollSchedule schedule = new AdaptivePollSchedule(1000, 500);
+        schedule.onResult(1);
+        assertFalse(schedule.onResult(1));
+        assertEquals(schedule.getPeriod(), 1000);
+    }
+
+    @Test
+    public void testEffectivePeriodIsHarmonicMean() {
+        AdaptivePollSchedule fast = new AdaptivePollSchedule(500, 500);
+        AdaptivePollSchedule slow = new AdaptivePollSchedule(500, 8000);
+        for (int i = 0; i < 6; i++) slow.onResult(0);
+        assertEquals(slow.getPeriod(), 8000);
+        // 1/500 + 1/8000 fetches per ms, as often as two polls every 941ms
+        assertEquals(AdaptivePollSchedule.effectivePeriod(ImmutableList.of(fast, slow)), 941);
+        assertEquals(AdaptivePollSchedule.effectivePeriod(ImmutableList.<AdaptivePollSchedule>of()), 0);
+    }
+}
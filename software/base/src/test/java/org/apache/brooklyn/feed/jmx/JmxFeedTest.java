@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.MBeanOperationInfo;
@@ -65,6 +66,8 @@ import org.apache.brooklyn.entity.software.base.test.jmx.GeneralisedDynamicMBean
 import org.apache.brooklyn.entity.software.base.test.jmx.JmxService;
 import org.apache.brooklyn.location.localhost.LocalhostMachineProvisioningLocation;
 import org.apache.brooklyn.test.Asserts;
+import org.apache.brooklyn.util.time.Duration;
+import org.apache.brooklyn.util.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.AfterMethod;
@@ -234,6 +237,63 @@ public class JmxFeedTest {
             }});
     }
 
+    @Test
+    public void testAdaptivePollingRepublishesCachedValueWhileUnchanged() throws Exception {
+        final AtomicInteger opReturnVal = new AtomicInteger(123);
+        final AtomicInteger invocationCount = new AtomicInteger();
+        MBeanOperationInfo opInfo = new MBeanOperationInfo(opName, "my descr", new MBeanParameterInfo[0], Integer.class.getName(), MBeanOperationInfo.ACTION);
+        jmxService.registerMBean(
+                Collections.emptyMap(), 
+                ImmutableMap.of(opInfo, new Function<Object[], Integer>() {
+                        public Integer apply(Object[] args) {
+                            invocationCount.incrementAndGet(); return opReturnVal.get();
+                        }}),
+                objectName);
+
+        final AtomicInteger publishCount = new AtomicInteger();
+        final List<Duration> periods = new CopyOnWriteArrayList<Duration>();
+        app.subscriptions().subscribe(entity, intAttribute, new SensorEventListener<Integer>() {
+            public void onEvent(SensorEvent<Integer> event) {
+                publishCount.incrementAndGet();
+            }});
+        app.subscriptions().subscribe(entity, JmxFeed.EFFECTIVE_PERIOD, new SensorEventListener<Duration>() {
+            public void onEvent(SensorEvent<Duration> event) {
+                periods.add(event.getValue());
+            }});
+
+        feed = JmxFeed.builder()
+                .entity(entity)
+                .adaptivePeriod(Duration.millis(400))
+                .pollOperation(new JmxOperationPollConfig<Integer>(intAttribute)
+                        .objectName(objectName)
+                        .period(50)
+                        .operationName(opName))
+                .build();
+
+        // While the value is unchanged, the period stretches to the ceiling...
+        assertSensorEventually(intAttribute, 123, TIMEOUT_MS);
+        assertSensorEventually(JmxFeed.EFFECTIVE_PERIOD, Duration.millis(400), TIMEOUT_MS);
+
+        // ... and the cached value is republished between the far fewer calls over JMX
+        int invocationsBefore = invocationCount.get();
+        int publishesBefore = publishCount.get();
+        Time.sleep(Duration.ONE_SECOND);
+        int invocations = invocationCount.get() - invocationsBefore;
+        int publishes = publishCount.get() - publishesBefore;
+        assertTrue(invocations <= 4, "invocations="+invocations);
+        assertTrue(publishes > 2*invocations, "publishes="+publishes+"; invocations="+invocations);
+        assertEquals(entity.getAttribute(intAttribute), (Integer)123);
+
+        // A changed value returns the poll to its base period
+        periods.clear();
+        opReturnVal.set(456);
+        assertSensorEventually(intAttribute, 456, TIMEOUT_MS);
+        Asserts.succeedsEventually(ImmutableMap.of("timeout", TIMEOUT_MS), new Runnable() {
+            public void run() {
+                assertTrue(periods.contains(Duration.millis(50)), "periods="+periods);
+            }});
+    }
+
     @Test
     public void testJmxOperationWithArgPolledForSensor() throws Exception {
         // This is awful syntax...
@@ -30,6 +30,10 @@ public interface Queue {
 
     AttributeSensor<Integer> QUEUE_DEPTH_BYTES = Sensors.newIntegerSensor("queue.depth.bytes", "Queue depth in bytes");
     AttributeSensor<Integer> QUEUE_DEPTH_MESSAGES = Sensors.newIntegerSensor("queue.depth.messages", "Queue depth in messages");
+    AttributeSensor<Long> QUEUE_MESSAGES_ENQUEUED = Sensors.newLongSensor("queue.messages.enqueued", "Total messages sent to the queue");
+    AttributeSensor<Long> QUEUE_MESSAGES_DEQUEUED = Sensors.newLongSensor("queue.messages.dequeued", "Total messages consumed from the queue");
+    AttributeSensor<Integer> QUEUE_CONSUMER_COUNT = Sensors.newIntegerSensor("queue.consumers", "Number of consumers of the queue");
+    AttributeSensor<Long> QUEUE_OLDEST_MESSAGE_AGE = Sensors.newLongSensor("queue.oldestMessage.age", "Age of the oldest message waiting on the queue (millis)");
     
     /**
      * Create the queue.
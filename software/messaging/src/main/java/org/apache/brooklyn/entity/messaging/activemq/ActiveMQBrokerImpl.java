@@ -21,18 +21,24 @@ package org.apache.brooklyn.entity.messaging.activemq;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import javax.management.ObjectInstance;
+import javax.management.ObjectName;
+
 import org.apache.brooklyn.api.entity.EntitySpec;
 import org.apache.brooklyn.core.entity.Entities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.brooklyn.entity.java.UsesJmx;
 import org.apache.brooklyn.entity.messaging.jms.JMSBrokerImpl;
+import org.apache.brooklyn.entity.messaging.jms.JMSDestinationStatistics;
 import org.apache.brooklyn.feed.jmx.JmxAttributePollConfig;
 import org.apache.brooklyn.feed.jmx.JmxFeed;
+import org.apache.brooklyn.feed.jmx.JmxHelper;
 
 import com.google.common.base.Functions;
 import com.google.common.base.Objects.ToStringHelper;
 import com.google.common.base.Predicates;
+import com.google.common.collect.Maps;
 /**
  * An {@link org.apache.brooklyn.api.entity.Entity} that represents a single ActiveMQ broker instance.
  */
@@ -40,6 +46,7 @@ public class ActiveMQBrokerImpl extends JMSBrokerImpl<ActiveMQQueue, ActiveMQTop
     private static final Logger log = LoggerFactory.getLogger(ActiveMQBrokerImpl.class);
 
     private volatile JmxFeed jmxFeed;
+    private transient volatile JmxHelper destinationStatisticsHelper;
 
     public ActiveMQBrokerImpl() {
         super();
@@ -73,18 +80,52 @@ public class ActiveMQBrokerImpl extends JMSBrokerImpl<ActiveMQQueue, ActiveMQTop
 
     @Override
     public ActiveMQQueue createQueue(Map properties) {
-        ActiveMQQueue result = addChild(EntitySpec.create(ActiveMQQueue.class).configure(properties));
+        ActiveMQQueue result = addChild(newQueueSpec().configure(properties));
         result.create();
         return result;
     }
 
     @Override
     public ActiveMQTopic createTopic(Map properties) {
-        ActiveMQTopic result = addChild(EntitySpec.create(ActiveMQTopic.class).configure(properties));
+        ActiveMQTopic result = addChild(newTopicSpec().configure(properties));
         result.create();
         return result;
     }
 
+    @Override
+    protected EntitySpec<ActiveMQQueue> newQueueSpec() {
+        return EntitySpec.create(ActiveMQQueue.class);
+    }
+
+    @Override
+    protected EntitySpec<ActiveMQTopic> newTopicSpec() {
+        return EntitySpec.create(ActiveMQTopic.class);
+    }
+
+    @Override
+    protected void createQueueOnBroker(JmxHelper helper, String name) {
+        helper.operation(getBrokerMBeanName(), "addQueue", name);
+    }
+
+    @Override
+    protected void createTopicOnBroker(JmxHelper helper, String name) {
+        helper.operation(getBrokerMBeanName(), "addTopic", name);
+    }
+
+    @Override
+    protected void deleteQueueOnBroker(JmxHelper helper, String name) {
+        helper.operation(getBrokerMBeanName(), "removeQueue", name);
+    }
+
+    @Override
+    protected void deleteTopicOnBroker(JmxHelper helper, String name) {
+        helper.operation(getBrokerMBeanName(), "removeTopic", name);
+    }
+
+    private String getBrokerMBeanName() {
+        return "org.apache.activemq:type=Broker,brokerName=" + getBrokerName();
+    }
+
     @Override     
     protected void connectSensors() {
         sensors().set(BROKER_URL, String.format("tcp://%s:%d", getAttribute(HOSTNAME), getAttribute(OPEN_WIRE_PORT)));
@@ -94,6 +135,7 @@ public class ActiveMQBrokerImpl extends JMSBrokerImpl<ActiveMQQueue, ActiveMQTop
         jmxFeed = JmxFeed.builder()
                 .entity(this)
                 .period(500, TimeUnit.MILLISECONDS)
+                .adaptivePeriod(getConfig(JMX_POLL_MAX_PERIOD))
                 .pollAttribute(new JmxAttributePollConfig<Boolean>(SERVICE_UP)
                         .objectName(brokerMbeanName)
                         .attributeName("BrokerName")
@@ -101,12 +143,43 @@ public class ActiveMQBrokerImpl extends JMSBrokerImpl<ActiveMQQueue, ActiveMQTop
                         .onFailureOrException(Functions.constant(false))
                         .suppressDuplicates(true))
                 .build();
+
+        connectDestinationStatistics();
     }
 
     @Override
     public void disconnectSensors() {
         super.disconnectSensors();
         if (jmxFeed != null) jmxFeed.stop();
+        if (destinationStatisticsHelper != null) destinationStatisticsHelper.terminate();
+        destinationStatisticsHelper = null;
+    }
+
+    /**
+     * Queries for every queue MBean of this broker with one wildcard name, then reads the
+     * attributes of each in a single request. ActiveMQ does not expose the age of the oldest
+     * message, so that is left null.
+     */
+    @Override
+    protected Map<String, JMSDestinationStatistics> pollDestinationStatistics() throws Exception {
+        if (destinationStatisticsHelper == null) destinationStatisticsHelper = new JmxHelper(this);
+        JmxHelper helper = destinationStatisticsHelper;
+        helper.connect();
+
+        ObjectName queues = JmxHelper.createObjectName(String.format(
+                "org.apache.activemq:type=Broker,brokerName=%s,destinationType=Queue,destinationName=*", getBrokerName()));
+        Map<String, JMSDestinationStatistics> result = Maps.newLinkedHashMap();
+        for (ObjectInstance queue : helper.findMBeans(queues)) {
+            Map<String, Object> values = helper.getAttributes(queue.getObjectName(), "QueueSize", "EnqueueCount", "DequeueCount", "ConsumerCount");
+            result.put(queue.getObjectName().getKeyProperty("destinationName"), new JMSDestinationStatistics(
+                    JMSDestinationStatistics.toLong(values.get("QueueSize")),
+                    null,
+                    JMSDestinationStatistics.toLong(values.get("EnqueueCount")),
+                    JMSDestinationStatistics.toLong(values.get("DequeueCount")),
+                    JMSDestinationStatistics.toInteger(values.get("ConsumerCount")),
+                    null));
+        }
+        return result;
     }
 
     @Override
@@ -18,8 +18,6 @@
  */
 package org.apache.brooklyn.entity.messaging.activemq;
 
-import org.apache.brooklyn.feed.jmx.JmxAttributePollConfig;
-import org.apache.brooklyn.feed.jmx.JmxFeed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,27 +40,27 @@ public class ActiveMQQueueImpl extends ActiveMQDestinationImpl implements Active
     public void create() {
         log.debug("{} adding queue {} to broker {}", new Object[] {this, getName(), jmxHelper.getAttribute(brokerMBeanName, "BrokerName")});
         
-        jmxHelper.operation(brokerMBeanName, "addQueue", getName());
+        try {
+            jmxHelper.operation(brokerMBeanName, "addQueue", getName());
+        } finally {
+            jmxHelper.disconnect();
+        }
         
         connectSensors();
     }
 
     public void delete() {
-        jmxHelper.operation(brokerMBeanName, "removeQueue", getName());
+        try {
+            jmxHelper.operation(brokerMBeanName, "removeQueue", getName());
+        } finally {
+            jmxHelper.disconnect();
+        }
         disconnectSensors();
     }
 
+    /** Queue statistics are published by the broker, which reads all of its queues in one sweep. */
     @Override
     protected void connectSensors() {
-        String queue = String.format("org.apache.activemq:type=Broker,brokerName=%s,destinationType=Queue,destinationName=%s", getBrokerName(), getName());
-        
-        jmxFeed = JmxFeed.builder()
-                .entity(this)
-                .helper(jmxHelper)
-                .pollAttribute(new JmxAttributePollConfig<Integer>(QUEUE_DEPTH_MESSAGES)
-                        .objectName(queue)
-                        .attributeName("QueueSize"))
-                .build();
     }
 
 }
@@ -31,12 +31,20 @@ public class ActiveMQTopicImpl extends ActiveMQDestinationImpl implements Active
 
     @Override
     public void create() {
-        jmxHelper.operation(brokerMBeanName, "addTopic", getName());
+        try {
+            jmxHelper.operation(brokerMBeanName, "addTopic", getName());
+        } finally {
+            jmxHelper.disconnect();
+        }
         connectSensors();
     }
 
     public void delete() {
-        jmxHelper.operation(brokerMBeanName, "removeTopic", getName());
+        try {
+            jmxHelper.operation(brokerMBeanName, "removeTopic", getName());
+        } finally {
+            jmxHelper.disconnect();
+        }
         disconnectSensors();
     }
 
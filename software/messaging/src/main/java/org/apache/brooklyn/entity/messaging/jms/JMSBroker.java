@@ -19,16 +19,62 @@
 package org.apache.brooklyn.entity.messaging.jms;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.apache.brooklyn.api.sensor.AttributeSensor;
+import org.apache.brooklyn.api.sensor.AttributeSensor.SensorPersistenceMode;
+import org.apache.brooklyn.config.ConfigKey;
+import org.apache.brooklyn.core.annotation.Effector;
+import org.apache.brooklyn.core.annotation.EffectorParam;
+import org.apache.brooklyn.core.config.ConfigKeys;
+import org.apache.brooklyn.core.effector.MethodEffector;
+import org.apache.brooklyn.core.sensor.Sensors;
 import org.apache.brooklyn.entity.messaging.MessageBroker;
 import org.apache.brooklyn.entity.messaging.Queue;
 import org.apache.brooklyn.entity.messaging.Topic;
 import org.apache.brooklyn.entity.software.base.SoftwareProcess;
+import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.reflect.TypeToken;
 
 public interface JMSBroker<Q extends JMSDestination & Queue, T extends JMSDestination & Topic> extends SoftwareProcess, MessageBroker {
+
+    MethodEffector<Map<String, Map<String, String>>> ADD_DESTINATIONS = new MethodEffector<Map<String, Map<String, String>>>(JMSBroker.class, "addDestinations");
+    MethodEffector<Map<String, Map<String, String>>> REMOVE_DESTINATIONS = new MethodEffector<Map<String, Map<String, String>>>(JMSBroker.class, "removeDestinations");
+
+    @SetFromFlag("destinationEntities")
+    ConfigKey<Boolean> DESTINATION_ENTITIES = ConfigKeys.newBooleanConfigKey(
+            "jms.broker.destinationEntities", "Whether to create a child entity for each queue and topic; "
+                    + "if false, destinations are only created on the broker, and are listed in the lightweight destination sensors", true);
+
+    @SetFromFlag("destinationStatisticsPollPeriod")
+    ConfigKey<Duration> DESTINATION_STATISTICS_POLL_PERIOD = ConfigKeys.newConfigKey(Duration.class,
+            "jms.broker.destinationStatistics.pollPeriod", "How often to read the statistics of every destination on the broker", Duration.ONE_SECOND);
+
+    @SetFromFlag("largestBacklogsCount")
+    ConfigKey<Integer> LARGEST_BACKLOGS_COUNT = ConfigKeys.newConfigKey(
+            "jms.broker.largestBacklogs.count", "Number of destinations to report in the largest backlogs sensor", 5);
+
+    AttributeSensor<Map<String, JMSDestinationStatistics>> DESTINATION_STATISTICS = Sensors.builder(
+                    new TypeToken<Map<String, JMSDestinationStatistics>>() {}, "jms.broker.destinationStatistics")
+            .description("Statistics of every destination on the broker, keyed by name")
+            .persistence(SensorPersistenceMode.NONE)
+            .build();
+
+    AttributeSensor<Map<String, Long>> LARGEST_BACKLOGS = Sensors.newSensor(new TypeToken<Map<String, Long>>() {},
+            "jms.broker.largestBacklogs", "Messages waiting on the destinations with the largest backlogs, largest first");
+
+    AttributeSensor<Long> TOTAL_BACKLOG = Sensors.newLongSensor("jms.broker.totalBacklog", "Messages waiting on all destinations");
+
+    AttributeSensor<Set<String>> LIGHTWEIGHT_QUEUES = Sensors.newSensor(new TypeToken<Set<String>>() {},
+            "jms.broker.lightweightQueues", "Queues created on the broker without a child entity");
+
+    AttributeSensor<Set<String>> LIGHTWEIGHT_TOPICS = Sensors.newSensor(new TypeToken<Set<String>>() {},
+            "jms.broker.lightweightTopics", "Topics created on the broker without a child entity");
     
     @VisibleForTesting
     public Collection<String> getQueueNames();
@@ -55,4 +101,27 @@ public interface JMSBroker<Q extends JMSDestination & Queue, T extends JMSDestin
     public void addTopic(String name, Map properties);
 
     public T createTopic(Map properties);
+
+    /**
+     * Creates the given queues and topics over a single management connection to the broker,
+     * continuing past failures. Child entities are only created if {@link #DESTINATION_ENTITIES}
+     * is set.
+     *
+     * @return the outcome for each destination, under the keys {@code queues} and {@code topics}
+     */
+    @Effector(description="Creates a batch of queues and topics over one management connection, returning the outcome for each")
+    public Map<String, Map<String, String>> addDestinations(
+            @EffectorParam(name="queues", description="Names of the queues to create") List<String> queues,
+            @EffectorParam(name="topics", description="Names of the topics to create") List<String> topics);
+
+    /**
+     * Deletes the given queues and topics over a single management connection to the broker,
+     * continuing past failures, and removes any child entities for them.
+     *
+     * @return the outcome for each destination, under the keys {@code queues} and {@code topics}
+     */
+    @Effector(description="Deletes a batch of queues and topics over one management connection, returning the outcome for each")
+    public Map<String, Map<String, String>> removeDestinations(
+            @EffectorParam(name="queues", description="Names of the queues to delete") List<String> queues,
+            @EffectorParam(name="topics", description="Names of the topics to delete") List<String> topics);
 }
@@ -21,18 +21,38 @@ package org.apache.brooklyn.entity.messaging.jms;
 import static org.apache.brooklyn.util.JavaGroovyEquivalents.groovyTruth;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.brooklyn.api.entity.Entity;
+import org.apache.brooklyn.api.entity.EntitySpec;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
+import org.apache.brooklyn.core.entity.Entities;
+import org.apache.brooklyn.core.entity.EntityInternal;
 import org.apache.brooklyn.core.entity.lifecycle.Lifecycle;
 import org.apache.brooklyn.entity.messaging.Queue;
 import org.apache.brooklyn.entity.messaging.Topic;
 import org.apache.brooklyn.entity.software.base.SoftwareProcessImpl;
+import org.apache.brooklyn.feed.function.FunctionFeed;
+import org.apache.brooklyn.feed.function.FunctionPollConfig;
+import org.apache.brooklyn.feed.jmx.JmxHelper;
 import org.apache.brooklyn.util.collections.MutableMap;
+import org.apache.brooklyn.util.collections.MutableSet;
+import org.apache.brooklyn.util.exceptions.Exceptions;
 import org.apache.brooklyn.util.time.Duration;
 import org.apache.brooklyn.util.time.Time;
 
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -44,6 +64,8 @@ public abstract class JMSBrokerImpl<Q extends JMSDestination & Queue, T extends
     Map<String, Q> queues = Maps.newLinkedHashMap();
     Map<String, T> topics = Maps.newLinkedHashMap();
 
+    private volatile FunctionFeed destinationStatisticsFeed;
+
     public JMSBrokerImpl() {
     }
 
@@ -84,6 +106,68 @@ public abstract class JMSBrokerImpl<Q extends JMSDestination & Queue, T extends
     protected void connectSensors() {
         super.connectSensors();
         setBrokerUrl();
+        connectDestinationStatistics();
+    }
+
+    @Override
+    protected void disconnectSensors() {
+        super.disconnectSensors();
+        if (destinationStatisticsFeed != null) destinationStatisticsFeed.stop();
+    }
+
+    /**
+     * Reads the statistics of every queue on the broker in a single sweep per period, and
+     * publishes them on the queue entities, instead of each queue polling the broker itself.
+     */
+    protected void connectDestinationStatistics() {
+        if (destinationStatisticsFeed != null) destinationStatisticsFeed.stop();
+        destinationStatisticsFeed = FunctionFeed.builder()
+                .entity(this)
+                .period(getConfig(DESTINATION_STATISTICS_POLL_PERIOD))
+                .poll(new FunctionPollConfig<Map<String, JMSDestinationStatistics>, Map<String, JMSDestinationStatistics>>(DESTINATION_STATISTICS)
+                        .callable(new Callable<Map<String, JMSDestinationStatistics>>() {
+                            @Override
+                            public Map<String, JMSDestinationStatistics> call() throws Exception {
+                                return pollDestinationStatistics();
+                            }
+                        })
+                        .onSuccess(new Function<Map<String, JMSDestinationStatistics>, Map<String, JMSDestinationStatistics>>() {
+                            @Override
+                            public Map<String, JMSDestinationStatistics> apply(@Nullable Map<String, JMSDestinationStatistics> input) {
+                                if (input != null) publishDestinationStatistics(input);
+                                return input;
+                            }
+                        })
+                        .onFailureOrException(Functions.constant((Map<String, JMSDestinationStatistics>) null)))
+                .build();
+    }
+
+    /**
+     * Reads the statistics of all queues on the broker, keyed by queue name, using as few
+     * requests as the broker allows.
+     */
+    protected abstract Map<String, JMSDestinationStatistics> pollDestinationStatistics() throws Exception;
+
+    protected void publishDestinationStatistics(Map<String, JMSDestinationStatistics> statistics) {
+        for (Entity child : getChildren()) {
+            if (!(child instanceof Queue && child instanceof JMSDestination)) continue;
+            JMSDestinationStatistics values = statistics.get(((JMSDestination) child).getName());
+            if (values == null) continue;
+            setIfChanged(child, Queue.QUEUE_DEPTH_MESSAGES, values.getSize() == null ? null : values.getSize().intValue());
+            setIfChanged(child, Queue.QUEUE_DEPTH_BYTES, values.getBytes() == null ? null : values.getBytes().intValue());
+            setIfChanged(child, Queue.QUEUE_MESSAGES_ENQUEUED, values.getEnqueued());
+            setIfChanged(child, Queue.QUEUE_MESSAGES_DEQUEUED, values.getDequeued());
+            setIfChanged(child, Queue.QUEUE_CONSUMER_COUNT, values.getConsumers());
+            setIfChanged(child, Queue.QUEUE_OLDEST_MESSAGE_AGE, values.getOldestMessageAge());
+        }
+        setIfChanged(this, LARGEST_BACKLOGS, JMSDestinationStatistics.largestBacklogs(statistics, getConfig(LARGEST_BACKLOGS_COUNT)));
+        setIfChanged(this, TOTAL_BACKLOG, JMSDestinationStatistics.totalBacklog(statistics));
+    }
+
+    private <V> void setIfChanged(Entity entity, AttributeSensor<V> sensor, V value) {
+        if (value != null && !Objects.equal(entity.getAttribute(sensor), value)) {
+            ((EntityInternal) entity).sensors().set(sensor, value);
+        }
     }
 
     // should be called after sensor-polling is activated etc
@@ -93,11 +177,16 @@ public abstract class JMSBrokerImpl<Q extends JMSDestination & Queue, T extends
         // stupid to do this here, but there appears to be a race where sometimes the
         // broker throws a BrokerStopped exception, even though the sensor indicates it is up
         Time.sleep(Duration.FIVE_SECONDS);
-        for (String name : queueNames) {
-            addQueue(name);
+        List<String> failed = Lists.newArrayList();
+        for (Map<String, String> outcomes : addDestinations(
+                queueNames == null ? null : ImmutableList.copyOf(queueNames),
+                topicNames == null ? null : ImmutableList.copyOf(topicNames)).values()) {
+            for (Map.Entry<String, String> outcome : outcomes.entrySet()) {
+                if (!CREATED.equals(outcome.getValue())) failed.add(outcome.getKey()+" ("+outcome.getValue()+")");
+            }
         }
-        for (String name : topicNames) {
-            addTopic(name);
+        if (failed.size() > 0) {
+            throw new IllegalStateException("Failed to create destinations on broker "+this+": "+failed);
         }
     }
     
@@ -106,26 +195,145 @@ public abstract class JMSBrokerImpl<Q extends JMSDestination & Queue, T extends
 
     @Override
     public void preStop() {
-        // If can't delete queues, continue trying to stop.
+        // If can't delete destinations, continue trying to stop.
         // (e.g. in CI have seen activemq "BrokerStoppedException" thrown in queue.destroy()). 
         try {
-            for (JMSDestination queue : queues.values()) {
-                queue.destroy();
-            }
+            List<String> allQueues = Lists.newArrayList(queues.keySet());
+            allQueues.addAll(getLightweightDestinations(LIGHTWEIGHT_QUEUES));
+            List<String> allTopics = Lists.newArrayList(topics.keySet());
+            allTopics.addAll(getLightweightDestinations(LIGHTWEIGHT_TOPICS));
+            removeDestinations(allQueues, allTopics);
         } catch (Exception e) {
-            log.warn("Error deleting queues from broker "+this+"; continuing with stop...", e);
+            log.warn("Error deleting destinations from broker "+this+"; continuing with stop...", e);
         }
         
+        super.preStop();
+    }
+
+    @Override
+    public Map<String, Map<String, String>> addDestinations(List<String> queueNames, List<String> topicNames) {
+        checkStartingOrRunning();
+        boolean entities = Boolean.TRUE.equals(getConfig(DESTINATION_ENTITIES));
+        Map<String, String> queueOutcomes = Maps.newLinkedHashMap();
+        Map<String, String> topicOutcomes = Maps.newLinkedHashMap();
+        JmxHelper helper = connectForDestinations();
         try {
-            for (JMSDestination topic : topics.values()) {
-                topic.destroy();
+            for (String name : nullToEmpty(queueNames)) {
+                try {
+                    createQueueOnBroker(helper, name);
+                    if (entities) {
+                        queues.put(name, addChild(newQueueSpec().configure(MutableMap.of("name", name))));
+                    } else {
+                        updateLightweightDestinations(LIGHTWEIGHT_QUEUES, name, true);
+                    }
+                    queueOutcomes.put(name, CREATED);
+                } catch (Exception e) {
+                    queueOutcomes.put(name, failed("creating queue", name, e));
+                }
+            }
+            for (String name : nullToEmpty(topicNames)) {
+                try {
+                    createTopicOnBroker(helper, name);
+                    if (entities) {
+                        topics.put(name, addChild(newTopicSpec().configure(MutableMap.of("name", name))));
+                    } else {
+                        updateLightweightDestinations(LIGHTWEIGHT_TOPICS, name, true);
+                    }
+                    topicOutcomes.put(name, CREATED);
+                } catch (Exception e) {
+                    topicOutcomes.put(name, failed("creating topic", name, e));
+                }
             }
+        } finally {
+            helper.terminate();
+        }
+        return ImmutableMap.of("queues", queueOutcomes, "topics", topicOutcomes);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> removeDestinations(List<String> queueNames, List<String> topicNames) {
+        Map<String, String> queueOutcomes = Maps.newLinkedHashMap();
+        Map<String, String> topicOutcomes = Maps.newLinkedHashMap();
+        JmxHelper helper = connectForDestinations();
+        try {
+            for (String name : nullToEmpty(queueNames)) {
+                try {
+                    deleteQueueOnBroker(helper, name);
+                    queueOutcomes.put(name, DELETED);
+                } catch (Exception e) {
+                    queueOutcomes.put(name, failed("deleting queue", name, e));
+                }
+                Q queue = queues.remove(name);
+                if (queue != null) Entities.unmanage(queue);
+                updateLightweightDestinations(LIGHTWEIGHT_QUEUES, name, false);
+            }
+            for (String name : nullToEmpty(topicNames)) {
+                try {
+                    deleteTopicOnBroker(helper, name);
+                    topicOutcomes.put(name, DELETED);
+                } catch (Exception e) {
+                    topicOutcomes.put(name, failed("deleting topic", name, e));
+                }
+                T topic = topics.remove(name);
+                if (topic != null) Entities.unmanage(topic);
+                updateLightweightDestinations(LIGHTWEIGHT_TOPICS, name, false);
+            }
+        } finally {
+            helper.terminate();
+        }
+        return ImmutableMap.of("queues", queueOutcomes, "topics", topicOutcomes);
+    }
+
+    private static final String CREATED = "created";
+    private static final String DELETED = "deleted";
+
+    private String failed(String action, String name, Exception e) {
+        Exceptions.propagateIfFatal(e);
+        log.warn("Error "+action+" "+name+" on broker "+this+": "+Exceptions.collapseText(e));
+        return "failed: "+Exceptions.collapseText(e);
+    }
+
+    private static List<String> nullToEmpty(List<String> names) {
+        return names == null ? ImmutableList.<String>of() : names;
+    }
+
+    /** The one management connection used for a whole batch of destinations. */
+    private JmxHelper connectForDestinations() {
+        JmxHelper helper = new JmxHelper(this);
+        try {
+            helper.connect();
         } catch (Exception e) {
-            log.warn("Error deleting topics from broker "+this+"; continuing with stop...", e);
+            helper.terminate();
+            throw Exceptions.propagate(e);
+        }
+        return helper;
+    }
+
+    private Set<String> getLightweightDestinations(AttributeSensor<Set<String>> sensor) {
+        Set<String> names = getAttribute(sensor);
+        return names == null ? MutableSet.<String>of() : names;
+    }
+
+    private synchronized void updateLightweightDestinations(AttributeSensor<Set<String>> sensor, String name, boolean add) {
+        Set<String> names = MutableSet.copyOf(getLightweightDestinations(sensor));
+        if (add ? names.add(name) : names.remove(name)) {
+            sensors().set(sensor, names);
         }
-        
-        super.preStop();
     }
+
+    /** The spec for child entities of queues created by {@link #addDestinations(List, List)}. */
+    protected abstract EntitySpec<Q> newQueueSpec();
+
+    /** The spec for child entities of topics created by {@link #addDestinations(List, List)}. */
+    protected abstract EntitySpec<T> newTopicSpec();
+
+    protected abstract void createQueueOnBroker(JmxHelper helper, String name);
+
+    protected abstract void createTopicOnBroker(JmxHelper helper, String name);
+
+    protected abstract void deleteQueueOnBroker(JmxHelper helper, String name);
+
+    protected abstract void deleteTopicOnBroker(JmxHelper helper, String name);
     
     @Override
     public void addQueue(String name) {
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.jms;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Statistics for one destination on a {@link JMSBroker}, as read by the broker's periodic sweep
+ * of all its destination MBeans. Values the broker does not report are null.
+ */
+public class JMSDestinationStatistics implements Serializable {
+
+    private static final long serialVersionUID = -2370195873412298154L;
+
+    private final Long size;
+    private final Long bytes;
+    private final Long enqueued;
+    private final Long dequeued;
+    private final Integer consumers;
+    private final Long oldestMessageAge;
+
+    public JMSDestinationStatistics(Long size, Long bytes, Long enqueued, Long dequeued, Integer consumers, Long oldestMessageAge) {
+        this.size = size;
+        this.bytes = bytes;
+        this.enqueued = enqueued;
+        this.dequeued = dequeued;
+        this.consumers = consumers;
+        this.oldestMessageAge = oldestMessageAge;
+    }
+
+    /** Number of messages waiting on the destination. */
+    public Long getSize() { return size; }
+
+    /** Total size of the messages waiting on the destination, in bytes. */
+    public Long getBytes() { return bytes; }
+
+    /** Total number of messages sent to the destination. */
+    public Long getEnqueued() { return enqueued; }
+
+    /** Total number of messages consumed from the destination. */
+    public Long getDequeued() { return dequeued; }
+
+    public Integer getConsumers() { return consumers; }
+
+    /** Age of the oldest waiting message (millis). */
+    public Long getOldestMessageAge() { return oldestMessageAge; }
+
+    /**
+     * Returns the sizes of the {@code n} destinations with the most messages waiting, largest
+     * first. Empty destinations are left out.
+     */
+    public static Map<String, Long> largestBacklogs(Map<String, JMSDestinationStatistics> statistics, int n) {
+        checkArgument(n >= 0, "Count must not be negative");
+        List<Map.Entry<String, Long>> backlogs = Lists.newArrayList();
+        for (Map.Entry<String, JMSDestinationStatistics> entry : statistics.entrySet()) {
+            Long size = entry.getValue().getSize();
+            if (size != null && size > 0) backlogs.add(Maps.immutableEntry(entry.getKey(), size));
+        }
+        Collections.sort(backlogs, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                int result = o2.getValue().compareTo(o1.getValue());
+                return (result != 0) ? result : o1.getKey().compareTo(o2.getKey());
+            }
+        });
+        Map<String, Long> result = Maps.newLinkedHashMap();
+        for (Map.Entry<String, Long> entry : backlogs.subList(0, Math.min(n, backlogs.size()))) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /** Sums the sizes of all destinations. */
+    public static long totalBacklog(Map<String, JMSDestinationStatistics> statistics) {
+        long result = 0;
+        for (JMSDestinationStatistics entry : statistics.values()) {
+            if (entry.getSize() != null) result += entry.getSize();
+        }
+        return result;
+    }
+
+    /** Converts a numeric MBean attribute value, or returns null if absent. */
+    public static Long toLong(Object value) {
+        return (value instanceof Number) ? ((Number) value).longValue() : null;
+    }
+
+    /** Converts a numeric MBean attribute value, or returns null if absent. */
+    public static Integer toInteger(Object value) {
+        return (value instanceof Number) ? ((Number) value).intValue() : null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof JMSDestinationStatistics)) return false;
+        JMSDestinationStatistics other = (JMSDestinationStatistics) obj;
+        return Objects.equal(size, other.size) && Objects.equal(bytes, other.bytes)
+                && Objects.equal(enqueued, other.enqueued)
+                && Objects.equal(dequeued, other.dequeued) && Objects.equal(consumers, other.consumers)
+                && Objects.equal(oldestMessageAge, other.oldestMessageAge);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(size, bytes, enqueued, dequeued, consumers, oldestMessageAge);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).omitNullValues()
+                .add("size", size).add("bytes", bytes).add("enqueued", enqueued).add("dequeued", dequeued)
+                .add("consumers", consumers).add("oldestMessageAge", oldestMessageAge)
+                .toString();
+    }
+}
@@ -72,6 +72,17 @@ public interface KafkaBroker extends SoftwareProcess, MessageBroker, UsesJmx, Ka
 
     AttributeSensor<Long> BYTES_RECEIVED = Sensors.newLongSensor("kafka.broker.bytes.received", "Total bytes received");
     AttributeSensor<Long> BYTES_SENT = Sensors.newLongSensor("kafka.broker.bytes.sent", "Total bytes sent");
+
+    AttributeSensor<Integer> PARTITION_COUNT = Sensors.newIntegerSensor("kafka.broker.partitions.count", "Number of partition replicas on this broker");
+    AttributeSensor<Integer> LEADER_COUNT = Sensors.newIntegerSensor("kafka.broker.partitions.leaders", "Number of partitions this broker leads");
+    AttributeSensor<Integer> UNDER_REPLICATED_PARTITIONS = Sensors.newIntegerSensor("kafka.broker.partitions.underReplicated", "Number of partitions led by this broker with replicas out of sync");
+    AttributeSensor<Integer> OFFLINE_PARTITIONS = Sensors.newIntegerSensor("kafka.broker.partitions.offline", "Number of partitions without a leader (only reported by the active controller)");
+    AttributeSensor<Boolean> ACTIVE_CONTROLLER = Sensors.newBooleanSensor("kafka.broker.controller.active", "Whether this broker is the active controller");
+    AttributeSensor<Double> ISR_SHRINKS_PER_SECOND = Sensors.newDoubleSensor("kafka.broker.isr.shrinks.perSec", "Rate at which in-sync replica sets shrink (one minute average)");
+    AttributeSensor<Double> ISR_EXPANDS_PER_SECOND = Sensors.newDoubleSensor("kafka.broker.isr.expands.perSec", "Rate at which in-sync replica sets expand (one minute average)");
+    AttributeSensor<Long> MAX_REPLICA_LAG = Sensors.newLongSensor("kafka.broker.replica.maxLag", "Largest lag in messages of any replica this broker is fetching");
+
+    AttributeSensor<Boolean> DRAINED = Sensors.newBooleanSensor("kafka.broker.drained", "Whether all partitions have been moved off this broker, ahead of its removal");
     
     Integer getKafkaPort();
 
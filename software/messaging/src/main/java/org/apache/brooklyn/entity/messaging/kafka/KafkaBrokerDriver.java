@@ -24,4 +24,19 @@ public interface KafkaBrokerDriver extends JavaSoftwareProcessDriver {
 
     Integer getKafkaPort();
 
+    /** Returns the output of {@code kafka-topics.sh --describe} for all topics in the cluster. */
+    String describeTopics();
+
+    /** Starts moving partitions as described by the {@code kafka-reassign-partitions.sh} JSON. */
+    void executePartitionReassignment(String reassignmentJson);
+
+    /** Returns the output of {@code kafka-reassign-partitions.sh --verify} for the given JSON. */
+    String verifyPartitionReassignment(String reassignmentJson);
+
+    /**
+     * Returns the output of {@code ConsumerOffsetChecker} for every consumer group registered in
+     * ZooKeeper, one after the other.
+     */
+    String checkConsumerOffsets();
+
 }
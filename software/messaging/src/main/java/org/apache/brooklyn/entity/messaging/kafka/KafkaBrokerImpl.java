@@ -20,6 +20,7 @@ package org.apache.brooklyn.entity.messaging.kafka;
 
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
 import javax.management.ObjectName;
 
 import org.apache.brooklyn.entity.messaging.MessageBroker;
@@ -31,6 +32,7 @@ import org.apache.brooklyn.feed.jmx.JmxHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Objects.ToStringHelper;
 
@@ -42,6 +44,14 @@ public class KafkaBrokerImpl extends SoftwareProcessImpl implements MessageBroke
     @SuppressWarnings("unused")
     private static final Logger log = LoggerFactory.getLogger(KafkaBrokerImpl.class);
     private static final ObjectName SOCKET_SERVER_STATS_MBEAN = JmxHelper.createObjectName("kafka:type=kafka.SocketServerStats");
+    private static final ObjectName PARTITION_COUNT_MBEAN = JmxHelper.createObjectName("kafka.server:type=ReplicaManager,name=PartitionCount");
+    private static final ObjectName LEADER_COUNT_MBEAN = JmxHelper.createObjectName("kafka.server:type=ReplicaManager,name=LeaderCount");
+    private static final ObjectName UNDER_REPLICATED_PARTITIONS_MBEAN = JmxHelper.createObjectName("kafka.server:type=ReplicaManager,name=UnderReplicatedPartitions");
+    private static final ObjectName ISR_SHRINKS_MBEAN = JmxHelper.createObjectName("kafka.server:type=ReplicaManager,name=IsrShrinksPerSec");
+    private static final ObjectName ISR_EXPANDS_MBEAN = JmxHelper.createObjectName("kafka.server:type=ReplicaManager,name=IsrExpandsPerSec");
+    private static final ObjectName OFFLINE_PARTITIONS_MBEAN = JmxHelper.createObjectName("kafka.controller:type=KafkaController,name=OfflinePartitionsCount");
+    private static final ObjectName ACTIVE_CONTROLLER_MBEAN = JmxHelper.createObjectName("kafka.controller:type=KafkaController,name=ActiveControllerCount");
+    private static final ObjectName MAX_REPLICA_LAG_MBEAN = JmxHelper.createObjectName("kafka.server:type=ReplicaFetcherManager,name=MaxLag,clientId=Replica");
 
     private volatile JmxFeed jmxFeed;
 
@@ -93,6 +103,7 @@ public class KafkaBrokerImpl extends SoftwareProcessImpl implements MessageBroke
             jmxFeed = JmxFeed.builder()
                 .entity(this)
                 .period(500, TimeUnit.MILLISECONDS)
+                .adaptivePeriod(getConfig(JMX_POLL_MAX_PERIOD))
                 .pollAttribute(new JmxAttributePollConfig<Long>(FETCH_REQUEST_COUNT)
                         .objectName(SOCKET_SERVER_STATS_MBEAN)
                         .attributeName("NumFetchRequests")
@@ -133,6 +144,45 @@ public class KafkaBrokerImpl extends SoftwareProcessImpl implements MessageBroke
                         .attributeName("TotalBytesWritten")
                         .onException(Functions.constant(-1l))
                         .enabled(retrieveUsageMetrics))
+                // replication health, always retrieved as it is what alerting and scaling act on
+                .pollAttribute(new JmxAttributePollConfig<Integer>(PARTITION_COUNT)
+                        .objectName(PARTITION_COUNT_MBEAN)
+                        .attributeName("Value")
+                        .onException(Functions.constant((Integer) null)))
+                .pollAttribute(new JmxAttributePollConfig<Integer>(LEADER_COUNT)
+                        .objectName(LEADER_COUNT_MBEAN)
+                        .attributeName("Value")
+                        .onException(Functions.constant((Integer) null)))
+                .pollAttribute(new JmxAttributePollConfig<Integer>(UNDER_REPLICATED_PARTITIONS)
+                        .objectName(UNDER_REPLICATED_PARTITIONS_MBEAN)
+                        .attributeName("Value")
+                        .onException(Functions.constant((Integer) null)))
+                .pollAttribute(new JmxAttributePollConfig<Integer>(OFFLINE_PARTITIONS)
+                        .objectName(OFFLINE_PARTITIONS_MBEAN)
+                        .attributeName("Value")
+                        .onException(Functions.constant((Integer) null)))
+                .pollAttribute(new JmxAttributePollConfig<Boolean>(ACTIVE_CONTROLLER)
+                        .objectName(ACTIVE_CONTROLLER_MBEAN)
+                        .attributeName("Value")
+                        .onSuccess(new Function<Object, Boolean>() {
+                            @Override
+                            public Boolean apply(@Nullable Object input) {
+                                return (input instanceof Number) && ((Number) input).intValue() > 0;
+                            }
+                        })
+                        .onException(Functions.constant((Boolean) null)))
+                .pollAttribute(new JmxAttributePollConfig<Double>(ISR_SHRINKS_PER_SECOND)
+                        .objectName(ISR_SHRINKS_MBEAN)
+                        .attributeName("OneMinuteRate")
+                        .onException(Functions.constant((Double) null)))
+                .pollAttribute(new JmxAttributePollConfig<Double>(ISR_EXPANDS_PER_SECOND)
+                        .objectName(ISR_EXPANDS_MBEAN)
+                        .attributeName("OneMinuteRate")
+                        .onException(Functions.constant((Double) null)))
+                .pollAttribute(new JmxAttributePollConfig<Long>(MAX_REPLICA_LAG)
+                        .objectName(MAX_REPLICA_LAG_MBEAN)
+                        .attributeName("Value")
+                        .onException(Functions.constant((Long) null)))
                 .build();
         }
 
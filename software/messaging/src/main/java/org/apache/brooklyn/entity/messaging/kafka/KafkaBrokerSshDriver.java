@@ -18,6 +18,8 @@
  */
 package org.apache.brooklyn.entity.messaging.kafka;
 
+import static org.apache.brooklyn.util.text.StringEscapes.BashStringEscapes.escapeLiteralForDoubleQuotedBash;
+
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -25,8 +27,12 @@ import org.slf4j.LoggerFactory;
 import org.apache.brooklyn.config.ConfigKey;
 import org.apache.brooklyn.entity.java.UsesJmx;
 import org.apache.brooklyn.entity.java.UsesJmx.JmxAgentModes;
+import org.apache.brooklyn.entity.software.base.lifecycle.ScriptHelper;
+import org.apache.brooklyn.entity.zookeeper.ZooKeeperNode;
 import org.apache.brooklyn.location.ssh.SshMachineLocation;
 import org.apache.brooklyn.util.collections.MutableMap;
+import org.apache.brooklyn.util.os.Os;
+import org.apache.brooklyn.util.stream.Streams;
 
 public class KafkaBrokerSshDriver extends AbstractfKafkaSshDriver implements KafkaBrokerDriver {
 
@@ -93,4 +99,79 @@ public class KafkaBrokerSshDriver extends AbstractfKafkaSshDriver implements Kaf
                 .put("JMX_PORT", jmxPort)
                 .build();
     }
+
+    protected String getZookeeperUrl() {
+        ZooKeeperNode zookeeper = entity.getConfig(KafkaBroker.ZOOKEEPER);
+        return zookeeper.getAttribute(ZooKeeperNode.HOSTNAME) + ":" + zookeeper.getZookeeperPort();
+    }
+
+    @Override
+    public String describeTopics() {
+        ScriptHelper script = newToolScript("describeTopics")
+                .body.append(String.format("./bin/%s --describe --zookeeper \"%s\"",
+                        getTopicsScriptName(), escapeLiteralForDoubleQuotedBash(getZookeeperUrl())))
+                .gatherOutput()
+                .noExtraOutput()
+                .failOnNonZeroResultCode();
+        script.execute();
+        return script.getResultStdout();
+    }
+
+    @Override
+    public void executePartitionReassignment(String reassignmentJson) {
+        String file = copyReassignmentJson(reassignmentJson);
+        newToolScript("reassignPartitions")
+                .body.append(String.format("./bin/kafka-reassign-partitions.sh --zookeeper \"%s\" --reassignment-json-file \"%s\" --execute",
+                        escapeLiteralForDoubleQuotedBash(getZookeeperUrl()), escapeLiteralForDoubleQuotedBash(file)))
+                .failOnNonZeroResultCode()
+                .execute();
+    }
+
+    @Override
+    public String verifyPartitionReassignment(String reassignmentJson) {
+        String file = copyReassignmentJson(reassignmentJson);
+        ScriptHelper script = newToolScript("verifyReassignment")
+                .body.append(String.format("./bin/kafka-reassign-partitions.sh --zookeeper \"%s\" --reassignment-json-file \"%s\" --verify",
+                        escapeLiteralForDoubleQuotedBash(getZookeeperUrl()), escapeLiteralForDoubleQuotedBash(file)))
+                .gatherOutput()
+                .noExtraOutput()
+                .failOnNonZeroResultCode();
+        script.execute();
+        return script.getResultStdout();
+    }
+
+    @Override
+    public String checkConsumerOffsets() {
+        String zookeeper = escapeLiteralForDoubleQuotedBash(getZookeeperUrl());
+        ScriptHelper script = newToolScript("checkConsumerOffsets")
+                .body.append(
+                        String.format("listing=$(./bin/zookeeper-shell.sh \"%s\" ls /consumers) || exit 1", zookeeper),
+                        "groups=$(echo \"$listing\" | grep '^\\[' | tr -d '[],')",
+                        "if [ -z \"$groups\" ] ; then echo \"no consumer groups listed\" >&2 ; exit 1 ; fi",
+                        "for group in $groups ; do",
+                        String.format("  ./bin/kafka-run-class.sh kafka.tools.ConsumerOffsetChecker --zookeeper \"%s\" --group \"$group\" || exit 1", zookeeper),
+                        "done")
+                .gatherOutput()
+                .noExtraOutput()
+                .failOnNonZeroResultCode();
+        script.execute();
+        return script.getResultStdout();
+    }
+
+    /**
+     * Creates a script for Kafka's command line tools, run from the run directory. The broker's
+     * JMX settings are unset so that the tool's JVM does not try to bind the broker's JMX ports.
+     */
+    private ScriptHelper newToolScript(String phase) {
+        return newScript(phase)
+                .header.append(
+                        "cd \"" + escapeLiteralForDoubleQuotedBash(getRunDir()) + "\"",
+                        "unset JMX_PORT KAFKA_JMX_OPTS");
+    }
+
+    private String copyReassignmentJson(String reassignmentJson) {
+        String file = Os.mergePathsUnix(getRunDir(), "reassignment.json");
+        getMachine().copyTo(Streams.newInputStreamWithContents(reassignmentJson), file);
+        return file;
+    }
 }
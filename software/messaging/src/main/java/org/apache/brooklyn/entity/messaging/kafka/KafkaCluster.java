@@ -18,6 +18,8 @@
  */
 package org.apache.brooklyn.entity.messaging.kafka;
 
+import java.util.Map;
+
 import org.apache.brooklyn.api.catalog.Catalog;
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntitySpec;
@@ -25,18 +27,23 @@ import org.apache.brooklyn.api.entity.Group;
 import org.apache.brooklyn.api.entity.ImplementedBy;
 import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.config.ConfigKey;
+import org.apache.brooklyn.core.annotation.Effector;
 import org.apache.brooklyn.core.config.ConfigKeys;
+import org.apache.brooklyn.core.effector.MethodEffector;
 import org.apache.brooklyn.core.entity.BrooklynConfigKeys;
 import org.apache.brooklyn.core.entity.trait.Resizable;
 import org.apache.brooklyn.core.entity.trait.Startable;
 import org.apache.brooklyn.core.sensor.BasicAttributeSensor;
 import org.apache.brooklyn.core.sensor.BasicAttributeSensorAndConfigKey;
+import org.apache.brooklyn.core.sensor.Sensors;
 import org.apache.brooklyn.entity.group.Cluster;
 import org.apache.brooklyn.entity.group.DynamicCluster;
 import org.apache.brooklyn.entity.zookeeper.ZooKeeperNode;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
 import org.apache.brooklyn.util.time.Duration;
 
+import com.google.common.reflect.TypeToken;
+
 /**
  * Provides Kafka cluster functionality through a group of {@link KafkaBroker brokers} controlled
  * by a single {@link KafkaZookeeper zookeeper} entity.
@@ -51,6 +58,9 @@ import org.apache.brooklyn.util.time.Duration;
  * <li>a {@link KafkaZookeeper} or {@link Zookeeper}
  * <li>a {@link org.apache.brooklyn.api.policy.Policy} to resize the broker cluster
  * </ul>
+ * The cluster reports the lag of each consumer group, summed over its topics, on the sensor given by
+ * {@link KafkaConsumerLag#groupLagSensor(String)}. An {@code AutoScalerPolicy} on the consumer tier can
+ * scale on that sensor by naming this cluster as its {@code entityWithMetric}.
  * The {@link Group group} and {@link Resizable} interface methods are delegated to the broker cluster, so calling
  * {@link Resizable#resize(Integer) resize} will change the number of brokers.
  */
@@ -84,8 +94,56 @@ public interface KafkaCluster extends Entity, Startable, Resizable, Group  {
     AttributeSensor<DynamicCluster> CLUSTER = new BasicAttributeSensor<DynamicCluster>(
             DynamicCluster.class, "kafka.cluster.brokerCluster", "Underlying Kafka broker cluster");
 
+    @SetFromFlag("rebalanceOnResize")
+    ConfigKey<Boolean> REBALANCE_ON_RESIZE = ConfigKeys.newBooleanConfigKey("kafka.cluster.rebalanceOnResize",
+            "Whether to rebalance partitions after growing the cluster, and drain brokers before removing them", false);
+
+    @SetFromFlag("rebalanceBatchSize")
+    ConfigKey<Integer> REBALANCE_BATCH_SIZE = ConfigKeys.newIntegerConfigKey("kafka.cluster.rebalance.batchSize",
+            "Maximum number of partitions moved at once, limiting the replication traffic caused by a rebalance", 10);
+
+    @SetFromFlag("rebalancePollPeriod")
+    ConfigKey<Duration> REBALANCE_POLL_PERIOD = ConfigKeys.newDurationConfigKey("kafka.cluster.rebalance.pollPeriod",
+            "Period between checks on the progress of a batch of partition moves", Duration.TEN_SECONDS);
+
+    @SetFromFlag("rebalanceTimeout")
+    ConfigKey<Duration> REBALANCE_TIMEOUT = ConfigKeys.newDurationConfigKey("kafka.cluster.rebalance.timeout",
+            "Maximum time to wait for each batch of partition moves to complete", Duration.ONE_HOUR);
+
+    AttributeSensor<String> REBALANCE_STATUS = Sensors.newStringSensor("kafka.cluster.rebalance.status",
+            "Status of the most recent partition rebalance");
+    AttributeSensor<Integer> REBALANCE_PARTITIONS_TOTAL = Sensors.newIntegerSensor("kafka.cluster.rebalance.partitions.total",
+            "Number of partitions being moved by the current or most recent rebalance");
+    AttributeSensor<Integer> REBALANCE_PARTITIONS_MOVED = Sensors.newIntegerSensor("kafka.cluster.rebalance.partitions.moved",
+            "Number of partitions moved so far by the current or most recent rebalance");
+
+    @SetFromFlag("consumerLagPollPeriod")
+    ConfigKey<Duration> CONSUMER_LAG_POLL_PERIOD = ConfigKeys.newDurationConfigKey("kafka.cluster.consumerLag.pollPeriod",
+            "Period between checks on the lag of every consumer group, made from one broker for the whole cluster", Duration.THIRTY_SECONDS);
+
+    AttributeSensor<Map<String, Map<String, Long>>> CONSUMER_LAG = Sensors.newSensor(new TypeToken<Map<String, Map<String, Long>>>() {},
+            "kafka.cluster.consumerLag", "Messages not yet consumed, by consumer group and topic");
+    AttributeSensor<Long> CONSUMER_LAG_TOTAL = Sensors.newLongSensor("kafka.cluster.consumerLag.total",
+            "Messages not yet consumed, over all consumer groups and topics");
+    AttributeSensor<Long> CONSUMER_LAG_MAX = Sensors.newLongSensor("kafka.cluster.consumerLag.max",
+            "Largest lag of any consumer group on any one topic");
+
+    AttributeSensor<Integer> UNDER_REPLICATED_PARTITIONS = Sensors.newIntegerSensor("kafka.cluster.partitions.underReplicated",
+            "Number of partitions with replicas out of sync, over all brokers");
+    AttributeSensor<Integer> OFFLINE_PARTITIONS = Sensors.newIntegerSensor("kafka.cluster.partitions.offline",
+            "Number of partitions without a leader");
+
+    MethodEffector<Void> REBALANCE = new MethodEffector<Void>(KafkaCluster.class, "rebalance");
+
     ZooKeeperNode getZooKeeper();
 
     DynamicCluster getCluster();
 
+    /**
+     * Spreads partition replicas evenly across all running brokers, moving as few as possible.
+     * Blocks until every move has completed.
+     */
+    @Effector(description="Reassign topic partitions so that they are spread evenly across all running brokers")
+    void rebalance();
+
 }
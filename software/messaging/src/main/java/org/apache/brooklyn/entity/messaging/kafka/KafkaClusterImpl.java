@@ -20,22 +20,33 @@ package org.apache.brooklyn.entity.messaging.kafka;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntitySpec;
 import org.apache.brooklyn.api.location.Location;
 import org.apache.brooklyn.core.entity.AbstractEntity;
 import org.apache.brooklyn.core.entity.Entities;
+import org.apache.brooklyn.core.entity.EntityInternal;
+import org.apache.brooklyn.core.entity.EntityPredicates;
 import org.apache.brooklyn.core.entity.trait.Startable;
 import org.apache.brooklyn.core.feed.ConfigToAttributes;
 import org.apache.brooklyn.enricher.stock.Enrichers;
+import org.apache.brooklyn.feed.function.FunctionFeed;
+import org.apache.brooklyn.feed.function.FunctionPollConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.brooklyn.entity.group.DynamicCluster;
 import org.apache.brooklyn.entity.zookeeper.ZooKeeperNode;
 import org.apache.brooklyn.util.collections.MutableList;
 import org.apache.brooklyn.util.exceptions.CompoundRuntimeException;
+import org.apache.brooklyn.util.repeat.Repeater;
+import org.apache.brooklyn.util.time.Duration;
 
+import com.google.common.base.Function;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
@@ -48,6 +59,22 @@ public class KafkaClusterImpl extends AbstractEntity implements KafkaCluster {
 
     public static final Logger log = LoggerFactory.getLogger(KafkaClusterImpl.class);
 
+    /**
+     * {@link Function} for use as the broker cluster's removal strategy. Chooses brokers that have
+     * been {@link KafkaBroker#DRAINED drained} first, otherwise the most recently added broker.
+     */
+    private static final Function<Collection<Entity>, Entity> DRAINED_FIRST_REMOVAL_STRATEGY = new Function<Collection<Entity>, Entity>() {
+        @Override
+        public Entity apply(@Nullable Collection<Entity> entities) {
+            return Iterables.tryFind(entities, EntityPredicates.attributeEqualTo(KafkaBroker.DRAINED, true))
+                    .or(Iterables.getLast(entities));
+        }
+    };
+
+    private final Object rebalanceMutex = new Object[0];
+
+    private volatile FunctionFeed consumerLagFeed;
+
     public KafkaClusterImpl() {
     }
 
@@ -85,7 +112,8 @@ public class KafkaClusterImpl extends AbstractEntity implements KafkaCluster {
         // Relies on initialSize being inherited by DynamicCluster, because key id is identical
         // We add the zookeeper configuration to the KafkaBroker specification here
         DynamicCluster cluster = addChild(EntitySpec.create(DynamicCluster.class)
-                .configure("memberSpec", EntitySpec.create(brokerSpec).configure(KafkaBroker.ZOOKEEPER, zookeeper)));
+                .configure("memberSpec", EntitySpec.create(brokerSpec).configure(KafkaBroker.ZOOKEEPER, zookeeper))
+                .configure(DynamicCluster.REMOVAL_STRATEGY, DRAINED_FIRST_REMOVAL_STRATEGY));
         sensors().set(CLUSTER, cluster);
         
         connectSensors();
@@ -118,10 +146,12 @@ public class KafkaClusterImpl extends AbstractEntity implements KafkaCluster {
         } // And only start zookeeper if we are parent
         if (Objects.equal(this, getZooKeeper().getParent())) childrenToStart.add(getZooKeeper());
         Entities.invokeEffector(this, childrenToStart, Startable.START, ImmutableMap.of("locations", locations)).getUnchecked();
+        connectConsumerLag();
     }
 
     @Override
     public void stop() {
+        if (consumerLagFeed != null) consumerLagFeed.stop();
         List<Exception> errors = Lists.newArrayList();
         if (getZooKeeper() != null && Objects.equal(this, getZooKeeper().getParent())) {
             try {
@@ -164,6 +194,190 @@ public class KafkaClusterImpl extends AbstractEntity implements KafkaCluster {
                 .propagating(SERVICE_UP)
                 .from(getZooKeeper())
                 .build());
+        enrichers().add(Enrichers.builder()
+                .aggregating(KafkaBroker.UNDER_REPLICATED_PARTITIONS)
+                .publishing(UNDER_REPLICATED_PARTITIONS)
+                .from(getCluster())
+                .fromMembers()
+                .computingSum()
+                .build());
+        enrichers().add(Enrichers.builder()
+                .aggregating(KafkaBroker.OFFLINE_PARTITIONS)
+                .publishing(OFFLINE_PARTITIONS)
+                .from(getCluster())
+                .fromMembers()
+                .computingSum()
+                .build());
+    }
+
+    /**
+     * Checks the lag of every consumer group from a single running broker, rather than from
+     * every broker, and publishes it by group and topic, in total, and per group on the sensors
+     * given by {@link KafkaConsumerLag#groupLagSensor(String)}.
+     * <p>
+     * A poll that fails, or that reports no lag at all, leaves the lag unknown rather than zero,
+     * so that a policy scaling the consumers on it does not scale them in during an outage.
+     */
+    protected void connectConsumerLag() {
+        if (consumerLagFeed != null) consumerLagFeed.stop();
+        consumerLagFeed = FunctionFeed.builder()
+                .entity(this)
+                .period(getConfig(CONSUMER_LAG_POLL_PERIOD))
+                .poll(new FunctionPollConfig<Map<String, Map<String, Long>>, Map<String, Map<String, Long>>>(CONSUMER_LAG)
+                        .callable(new Callable<Map<String, Map<String, Long>>>() {
+                            @Override
+                            public Map<String, Map<String, Long>> call() {
+                                List<KafkaBroker> brokers = getRunningBrokers();
+                                if (brokers.isEmpty()) throw new IllegalStateException("No running brokers in "+KafkaClusterImpl.this);
+                                Map<String, Map<String, Long>> lag = KafkaConsumerLag.parseOffsetCheckerOutput(getBrokerDriver(brokers.get(0)).checkConsumerOffsets());
+                                if (lag.isEmpty()) throw new IllegalStateException("No consumer lag reported by "+brokers.get(0));
+                                return lag;
+                            }
+                        })
+                        .onSuccess(new Function<Map<String, Map<String, Long>>, Map<String, Map<String, Long>>>() {
+                            @Override
+                            public Map<String, Map<String, Long>> apply(@Nullable Map<String, Map<String, Long>> input) {
+                                if (input != null) publishConsumerLag(input);
+                                return input;
+                            }
+                        })
+                        .onFailureOrException(new Function<Object, Map<String, Map<String, Long>>>() {
+                            @Override
+                            public Map<String, Map<String, Long>> apply(@Nullable Object input) {
+                                clearConsumerLag();
+                                return null;
+                            }
+                        }))
+                .build();
+    }
+
+    protected void publishConsumerLag(Map<String, Map<String, Long>> lag) {
+        Map<String, Long> byGroup = KafkaConsumerLag.totalByGroup(lag);
+        long total = 0;
+        for (Map.Entry<String, Long> group : byGroup.entrySet()) {
+            sensors().set(KafkaConsumerLag.groupLagSensor(group.getKey()), group.getValue());
+            total += group.getValue();
+        }
+        // groups that have gone away no longer lag
+        Map<String, Map<String, Long>> previous = getAttribute(CONSUMER_LAG);
+        if (previous != null) {
+            for (String group : previous.keySet()) {
+                if (!byGroup.containsKey(group)) sensors().set(KafkaConsumerLag.groupLagSensor(group), 0L);
+            }
+        }
+        sensors().set(CONSUMER_LAG_TOTAL, total);
+        sensors().set(CONSUMER_LAG_MAX, KafkaConsumerLag.max(lag));
+    }
+
+    protected void clearConsumerLag() {
+        Map<String, Map<String, Long>> previous = getAttribute(CONSUMER_LAG);
+        if (previous != null) {
+            for (String group : previous.keySet()) {
+                sensors().set(KafkaConsumerLag.groupLagSensor(group), null);
+            }
+        }
+        sensors().set(CONSUMER_LAG_TOTAL, null);
+        sensors().set(CONSUMER_LAG_MAX, null);
+    }
+
+    @Override
+    public void rebalance() {
+        reassignPartitions(getRunningBrokers());
+    }
+
+    /** Running brokers that are not being removed, in the order they were added. */
+    protected List<KafkaBroker> getRunningBrokers() {
+        List<KafkaBroker> result = Lists.newArrayList();
+        for (Entity member : getMembers()) {
+            if (member instanceof KafkaBroker && Boolean.TRUE.equals(member.getAttribute(SERVICE_UP))
+                    && !Boolean.TRUE.equals(member.getAttribute(KafkaBroker.DRAINED))) {
+                result.add((KafkaBroker) member);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves all partitions off the most recently added brokers, which are the ones
+     * {@link #DRAINED_FIRST_REMOVAL_STRATEGY} would otherwise pick, and marks them as drained.
+     */
+    protected void drainBrokers(int count) {
+        List<KafkaBroker> running = getRunningBrokers();
+        int staying = Math.max(running.size() - count, 0);
+        if (staying == 0) {
+            log.info("Not draining brokers of {}; no brokers would remain to take their partitions", this);
+            return;
+        }
+        List<KafkaBroker> leaving = running.subList(staying, running.size());
+        log.info("Draining partitions from {} before removing them from {}", leaving, this);
+        reassignPartitions(running.subList(0, staying));
+        for (KafkaBroker broker : leaving) {
+            ((EntityInternal) broker).sensors().set(KafkaBroker.DRAINED, true);
+        }
+    }
+
+    /**
+     * Reassigns all partitions so their replicas are spread evenly over the target brokers. Moves
+     * are applied in batches of {@link #REBALANCE_BATCH_SIZE} partitions, each batch completing
+     * before the next starts, so that replication traffic is throttled.
+     */
+    protected void reassignPartitions(List<KafkaBroker> targets) {
+        synchronized (rebalanceMutex) {
+            if (targets.isEmpty()) throw new IllegalStateException("No running brokers to rebalance partitions onto in "+this);
+            KafkaBrokerDriver driver = getBrokerDriver(targets.get(0));
+
+            List<Integer> brokerIds = Lists.newArrayList();
+            for (KafkaBroker broker : targets) {
+                brokerIds.add(broker.getBrokerId());
+            }
+            Map<String, Map<Integer, List<Integer>>> current = KafkaPartitionAssignment.parseDescribeOutput(driver.describeTopics());
+            Map<String, Map<Integer, List<Integer>>> moves = KafkaPartitionAssignment.changes(current, KafkaPartitionAssignment.balance(current, brokerIds));
+            int total = KafkaPartitionAssignment.size(moves);
+            log.info("Rebalancing {} partitions of {} across brokers {}", new Object[] { total, this, brokerIds });
+
+            sensors().set(REBALANCE_PARTITIONS_TOTAL, total);
+            sensors().set(REBALANCE_PARTITIONS_MOVED, 0);
+            sensors().set(REBALANCE_STATUS, "running");
+            try {
+                int moved = 0;
+                for (Map<String, Map<Integer, List<Integer>>> batch : KafkaPartitionAssignment.batches(moves, getConfig(REBALANCE_BATCH_SIZE))) {
+                    String json = KafkaPartitionAssignment.toReassignmentJson(batch);
+                    driver.executePartitionReassignment(json);
+                    waitForReassignment(driver, json);
+                    moved += KafkaPartitionAssignment.size(batch);
+                    sensors().set(REBALANCE_PARTITIONS_MOVED, moved);
+                }
+                sensors().set(REBALANCE_STATUS, "completed");
+            } catch (RuntimeException e) {
+                sensors().set(REBALANCE_STATUS, "failed");
+                throw e;
+            }
+        }
+    }
+
+    private void waitForReassignment(final KafkaBrokerDriver driver, final String json) {
+        Duration timeout = getConfig(REBALANCE_TIMEOUT);
+        boolean finished = Repeater.create("Wait for partition reassignment in "+this)
+                .every(getConfig(REBALANCE_POLL_PERIOD))
+                .limitTimeTo(timeout)
+                .rethrowExceptionImmediately()
+                .until(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        KafkaPartitionAssignment.VerifyResult result = KafkaPartitionAssignment.parseVerifyOutput(driver.verifyPartitionReassignment(json));
+                        if (!result.failed.isEmpty()) {
+                            throw new IllegalStateException("Partition reassignment failed in "+KafkaClusterImpl.this+": "+result.failed);
+                        }
+                        return result.isFinished();
+                    }})
+                .run();
+        if (!finished) {
+            throw new IllegalStateException("Partition reassignment in "+this+" did not complete within "+timeout);
+        }
+    }
+
+    private KafkaBrokerDriver getBrokerDriver(KafkaBroker broker) {
+        return (KafkaBrokerDriver) ((KafkaBrokerImpl) Entities.deproxy(broker)).getDriver();
     }
 
     /*
@@ -190,9 +404,24 @@ public class KafkaClusterImpl extends AbstractEntity implements KafkaCluster {
     @Override
     public Integer getCurrentSize() { return getCluster().getCurrentSize(); }
 
-    /** {@inheritDoc} */
+    /**
+     * Resizes the broker cluster. If {@link #REBALANCE_ON_RESIZE} is set, brokers about to be
+     * removed are drained of their partitions first, and partitions are rebalanced onto any
+     * new brokers afterwards.
+     */
     @Override
-    public Integer resize(Integer desiredSize) { return getCluster().resize(desiredSize); }
+    public Integer resize(Integer desiredSize) {
+        boolean rebalanceOnResize = Boolean.TRUE.equals(getConfig(REBALANCE_ON_RESIZE));
+        int currentSize = getCurrentSize();
+        if (rebalanceOnResize && desiredSize < currentSize) {
+            drainBrokers(currentSize - desiredSize);
+        }
+        Integer result = getCluster().resize(desiredSize);
+        if (rebalanceOnResize && result > currentSize) {
+            rebalance();
+        }
+        return result;
+    }
 
     @Override
     public <T extends Entity> T addMemberChild(EntitySpec<T> spec) { return getCluster().addMemberChild(spec); }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.kafka;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.brooklyn.api.sensor.AttributeSensor;
+import org.apache.brooklyn.core.sensor.Sensors;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+
+/**
+ * Computes consumer lag for {@link KafkaCluster} from the output of Kafka's
+ * {@code ConsumerOffsetChecker} tool.
+ * <p>
+ * Lag is kept as a map of consumer group to topic to the number of messages not yet consumed,
+ * summed over the topic's partitions.
+ */
+public class KafkaConsumerLag {
+
+    private KafkaConsumerLag() {}
+
+    /**
+     * The sensor that {@link KafkaCluster} publishes with the total lag of the given consumer
+     * group over all its topics. An {@code AutoScalerPolicy} on the consumer tier can use it as
+     * its metric, with the Kafka cluster as the entity with the metric.
+     */
+    public static AttributeSensor<Long> groupLagSensor(String group) {
+        return Sensors.newLongSensor("kafka.cluster.consumerLag.group." + group,
+                "Messages not yet consumed by consumer group " + group + ", over all its topics");
+    }
+
+    /**
+     * Parses the output of {@code ConsumerOffsetChecker}, one line per partition with the
+     * columns {@code Group Topic Pid Offset logSize Lag Owner}. Header lines, and partitions
+     * whose lag is unknown, are skipped.
+     */
+    public static Map<String, Map<String, Long>> parseOffsetCheckerOutput(String output) {
+        Map<String, Map<String, Long>> result = Maps.newTreeMap();
+        if (output == null) return result;
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(output)) {
+            List<String> columns = Splitter.onPattern("\\s+").splitToList(line);
+            if (columns.size() < 6 || Longs.tryParse(columns.get(2)) == null) continue;
+            Long lag = Longs.tryParse(columns.get(5));
+            if (lag == null) continue;
+            Map<String, Long> topics = result.get(columns.get(0));
+            if (topics == null) {
+                topics = Maps.newTreeMap();
+                result.put(columns.get(0), topics);
+            }
+            Long existing = topics.get(columns.get(1));
+            topics.put(columns.get(1), (existing == null ? 0 : existing) + Math.max(0, lag));
+        }
+        return result;
+    }
+
+    /** Sums the lag of each consumer group over all its topics. */
+    public static Map<String, Long> totalByGroup(Map<String, Map<String, Long>> lag) {
+        Map<String, Long> result = Maps.newTreeMap();
+        for (Map.Entry<String, Map<String, Long>> group : lag.entrySet()) {
+            long total = 0;
+            for (Long topic : group.getValue().values()) {
+                total += topic;
+            }
+            result.put(group.getKey(), total);
+        }
+        return result;
+    }
+
+    /** Returns the largest lag of any consumer group on any one topic, or zero if there is none. */
+    public static long max(Map<String, Map<String, Long>> lag) {
+        long result = 0;
+        for (Map<String, Long> topics : lag.values()) {
+            for (Long topic : topics.values()) {
+                result = Math.max(result, topic);
+            }
+        }
+        return result;
+    }
+}
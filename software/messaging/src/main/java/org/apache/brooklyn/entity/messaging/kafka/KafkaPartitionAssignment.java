@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.kafka;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Computes partition-to-broker assignments for {@link KafkaCluster} rebalancing, and converts
+ * between those assignments and the formats used by Kafka's {@code kafka-topics.sh} and
+ * {@code kafka-reassign-partitions.sh} tools.
+ * <p>
+ * Assignments are maps of topic to partition number to the ordered list of replica broker ids,
+ * the first of which is the preferred leader.
+ */
+public class KafkaPartitionAssignment {
+
+    private static final Pattern DESCRIBE_PARTITION = Pattern.compile(
+            "Topic:\\s*(\\S+)\\s+Partition:\\s*(\\d+)\\s+Leader:\\s*\\S+\\s+Replicas:\\s*([\\d,]+)");
+
+    private KafkaPartitionAssignment() {}
+
+    /** Parses the output of {@code kafka-topics.sh --describe}. */
+    public static Map<String, Map<Integer, List<Integer>>> parseDescribeOutput(String output) {
+        Map<String, Map<Integer, List<Integer>>> result = Maps.newTreeMap();
+        if (output == null) return result;
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(output)) {
+            Matcher matcher = DESCRIBE_PARTITION.matcher(line);
+            if (!matcher.find()) continue;
+            Map<Integer, List<Integer>> partitions = result.get(matcher.group(1));
+            if (partitions == null) {
+                partitions = Maps.newTreeMap();
+                result.put(matcher.group(1), partitions);
+            }
+            List<Integer> replicas = Lists.newArrayList();
+            for (String id : Splitter.on(',').omitEmptyStrings().trimResults().split(matcher.group(3))) {
+                replicas.add(Integer.valueOf(id));
+            }
+            partitions.put(Integer.valueOf(matcher.group(2)), replicas);
+        }
+        return result;
+    }
+
+    /**
+     * Computes an assignment spreading every replica evenly over the given brokers, while moving
+     * as few replicas as possible. A replica stays where it is if its broker is a target and is
+     * not already over its fair share; every other replica moves to the least loaded target that
+     * does not already hold a copy of that partition. Replica order, and so the preferred leader,
+     * is kept for replicas that do not move.
+     */
+    public static Map<String, Map<Integer, List<Integer>>> balance(Map<String, Map<Integer, List<Integer>>> current, Collection<Integer> brokerIds) {
+        checkArgument(!brokerIds.isEmpty(), "No brokers to assign partitions to");
+        int totalReplicas = 0;
+        int maxReplicationFactor = 0;
+        for (Map<Integer, List<Integer>> partitions : current.values()) {
+            for (List<Integer> replicas : partitions.values()) {
+                totalReplicas += replicas.size();
+                maxReplicationFactor = Math.max(maxReplicationFactor, replicas.size());
+            }
+        }
+        checkArgument(maxReplicationFactor <= brokerIds.size(),
+                "Replication factor %s exceeds the %s target brokers", maxReplicationFactor, brokerIds.size());
+        int fairShare = (totalReplicas + brokerIds.size() - 1) / brokerIds.size();
+
+        Map<Integer, Integer> load = Maps.newLinkedHashMap();
+        for (Integer id : brokerIds) load.put(id, 0);
+
+        // first pass keeps every replica that can stay, leaving nulls for those that must move
+        Map<String, Map<Integer, List<Integer>>> result = Maps.newTreeMap();
+        for (Map.Entry<String, Map<Integer, List<Integer>>> topic : current.entrySet()) {
+            Map<Integer, List<Integer>> partitions = Maps.newTreeMap();
+            for (Map.Entry<Integer, List<Integer>> partition : topic.getValue().entrySet()) {
+                List<Integer> replicas = Lists.newArrayList();
+                for (Integer id : partition.getValue()) {
+                    Integer count = load.get(id);
+                    if (count != null && count < fairShare) {
+                        load.put(id, count + 1);
+                        replicas.add(id);
+                    } else {
+                        replicas.add(null);
+                    }
+                }
+                partitions.put(partition.getKey(), replicas);
+            }
+            result.put(topic.getKey(), partitions);
+        }
+
+        // second pass fills the gaps on the least loaded brokers
+        for (Map<Integer, List<Integer>> partitions : result.values()) {
+            for (List<Integer> replicas : partitions.values()) {
+                for (int i = 0; i < replicas.size(); i++) {
+                    if (replicas.get(i) != null) continue;
+                    Integer target = null;
+                    for (Map.Entry<Integer, Integer> candidate : load.entrySet()) {
+                        if (replicas.contains(candidate.getKey())) continue;
+                        if (target == null || candidate.getValue() < load.get(target)) target = candidate.getKey();
+                    }
+                    load.put(target, load.get(target) + 1);
+                    replicas.set(i, target);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Returns only those partitions of {@code target} whose replicas differ from {@code current}. */
+    public static Map<String, Map<Integer, List<Integer>>> changes(Map<String, Map<Integer, List<Integer>>> current, Map<String, Map<Integer, List<Integer>>> target) {
+        Map<String, Map<Integer, List<Integer>>> result = Maps.newTreeMap();
+        for (Map.Entry<String, Map<Integer, List<Integer>>> topic : target.entrySet()) {
+            Map<Integer, List<Integer>> existing = current.get(topic.getKey());
+            for (Map.Entry<Integer, List<Integer>> partition : topic.getValue().entrySet()) {
+                if (existing != null && partition.getValue().equals(existing.get(partition.getKey()))) continue;
+                Map<Integer, List<Integer>> partitions = result.get(topic.getKey());
+                if (partitions == null) {
+                    partitions = Maps.newTreeMap();
+                    result.put(topic.getKey(), partitions);
+                }
+                partitions.put(partition.getKey(), partition.getValue());
+            }
+        }
+        return result;
+    }
+
+    /** Splits an assignment into batches of at most {@code batchSize} partitions each. */
+    public static List<Map<String, Map<Integer, List<Integer>>>> batches(Map<String, Map<Integer, List<Integer>>> assignment, int batchSize) {
+        checkArgument(batchSize > 0, "Batch size must be positive");
+        List<Map<String, Map<Integer, List<Integer>>>> result = Lists.newArrayList();
+        Map<String, Map<Integer, List<Integer>>> batch = Maps.newTreeMap();
+        int count = 0;
+        for (Map.Entry<String, Map<Integer, List<Integer>>> topic : assignment.entrySet()) {
+            for (Map.Entry<Integer, List<Integer>> partition : topic.getValue().entrySet()) {
+                if (count == batchSize) {
+                    result.add(batch);
+                    batch = Maps.newTreeMap();
+                    count = 0;
+                }
+                Map<Integer, List<Integer>> partitions = batch.get(topic.getKey());
+                if (partitions == null) {
+                    partitions = Maps.newTreeMap();
+                    batch.put(topic.getKey(), partitions);
+                }
+                partitions.put(partition.getKey(), partition.getValue());
+                count++;
+            }
+        }
+        if (count > 0) result.add(batch);
+        return result;
+    }
+
+    /** Counts the partitions in an assignment. */
+    public static int size(Map<String, Map<Integer, List<Integer>>> assignment) {
+        int result = 0;
+        for (Map<Integer, List<Integer>> partitions : assignment.values()) {
+            result += partitions.size();
+        }
+        return result;
+    }
+
+    /** Formats an assignment as the JSON expected by {@code kafka-reassign-partitions.sh}. */
+    public static String toReassignmentJson(Map<String, Map<Integer, List<Integer>>> assignment) {
+        List<String> entries = Lists.newArrayList();
+        for (Map.Entry<String, Map<Integer, List<Integer>>> topic : assignment.entrySet()) {
+            for (Map.Entry<Integer, List<Integer>> partition : topic.getValue().entrySet()) {
+                entries.add(String.format("{\"topic\":\"%s\",\"partition\":%d,\"replicas\":[%s]}",
+                        topic.getKey(), partition.getKey(), Joiner.on(',').join(partition.getValue())));
+            }
+        }
+        return "{\"version\":1,\"partitions\":[" + Joiner.on(',').join(entries) + "]}";
+    }
+
+    /** Progress of a reassignment, as reported by {@code kafka-reassign-partitions.sh --verify}. */
+    public static class VerifyResult {
+        public final int completed;
+        public final int inProgress;
+        public final List<String> failed;
+
+        VerifyResult(int completed, int inProgress, List<String> failed) {
+            this.completed = completed;
+            this.inProgress = inProgress;
+            this.failed = ImmutableList.copyOf(failed);
+        }
+
+        public boolean isFinished() { return inProgress == 0; }
+    }
+
+    /** Parses the output of {@code kafka-reassign-partitions.sh --verify}. */
+    public static VerifyResult parseVerifyOutput(String output) {
+        int completed = 0;
+        int inProgress = 0;
+        List<String> failed = Lists.newArrayList();
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(output == null ? "" : output)) {
+            if (!line.startsWith("Reassignment of partition")) continue;
+            if (line.endsWith("completed successfully")) {
+                completed++;
+            } else if (line.endsWith("is still in progress")) {
+                inProgress++;
+            } else if (line.endsWith("failed")) {
+                failed.add(line);
+            }
+        }
+        return new VerifyResult(completed, inProgress, failed);
+    }
+}
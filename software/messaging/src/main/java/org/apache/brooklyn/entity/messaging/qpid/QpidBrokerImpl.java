@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import javax.management.MalformedObjectNameException;
+import javax.management.ObjectInstance;
 import javax.management.ObjectName;
 
 import org.apache.brooklyn.api.entity.EntitySpec;
@@ -32,7 +33,10 @@ import org.apache.brooklyn.core.entity.Entities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.brooklyn.entity.java.JmxSupport;
+import org.apache.brooklyn.entity.java.UsesJmx;
+import org.apache.brooklyn.entity.messaging.amqp.AmqpExchange;
 import org.apache.brooklyn.entity.messaging.jms.JMSBrokerImpl;
+import org.apache.brooklyn.entity.messaging.jms.JMSDestinationStatistics;
 import org.apache.brooklyn.feed.jmx.JmxAttributePollConfig;
 import org.apache.brooklyn.feed.jmx.JmxFeed;
 import org.apache.brooklyn.feed.jmx.JmxHelper;
@@ -41,6 +45,7 @@ import org.apache.brooklyn.util.exceptions.Exceptions;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Objects.ToStringHelper;
+import com.google.common.collect.Maps;
 
 /**
  * An {@link org.apache.brooklyn.api.entity.Entity} that represents a single Qpid broker instance, using AMQP 0-10.
@@ -49,6 +54,7 @@ public class QpidBrokerImpl extends JMSBrokerImpl<QpidQueue, QpidTopic> implemen
     private static final Logger log = LoggerFactory.getLogger(QpidBrokerImpl.class);
 
     private volatile JmxFeed jmxFeed;
+    private transient volatile JmxHelper destinationStatisticsHelper;
 
     public QpidBrokerImpl() {
         super();
@@ -89,17 +95,68 @@ public class QpidBrokerImpl extends JMSBrokerImpl<QpidQueue, QpidTopic> implemen
     }
     
     public QpidQueue createQueue(Map properties) {
-        QpidQueue result = addChild(EntitySpec.create(QpidQueue.class).configure(properties));
+        QpidQueue result = addChild(newQueueSpec().configure(properties));
         result.create();
         return result;
     }
 
     public QpidTopic createTopic(Map properties) {
-        QpidTopic result = addChild(EntitySpec.create(QpidTopic.class).configure(properties));
+        QpidTopic result = addChild(newTopicSpec().configure(properties));
         result.create();
         return result;
     }
 
+    @Override
+    protected EntitySpec<QpidQueue> newQueueSpec() {
+        return EntitySpec.create(QpidQueue.class);
+    }
+
+    @Override
+    protected EntitySpec<QpidTopic> newTopicSpec() {
+        return EntitySpec.create(QpidTopic.class);
+    }
+
+    /** As {@link QpidDestinationImpl#create()}: a queue of the same name, bound to the direct exchange. */
+    @Override
+    protected void createQueueOnBroker(JmxHelper helper, String name) {
+        createOnBroker(helper, name, getExchangeMBeanName(AmqpExchange.DIRECT, "direct"));
+    }
+
+    /** As {@link QpidDestinationImpl#create()}: a queue of the same name, bound to the topic exchange. */
+    @Override
+    protected void createTopicOnBroker(JmxHelper helper, String name) {
+        createOnBroker(helper, name, getExchangeMBeanName(AmqpExchange.TOPIC, "topic"));
+    }
+
+    @Override
+    protected void deleteQueueOnBroker(JmxHelper helper, String name) {
+        deleteOnBroker(helper, name, getExchangeMBeanName(AmqpExchange.DIRECT, "direct"));
+    }
+
+    @Override
+    protected void deleteTopicOnBroker(JmxHelper helper, String name) {
+        deleteOnBroker(helper, name, getExchangeMBeanName(AmqpExchange.TOPIC, "topic"));
+    }
+
+    private void createOnBroker(JmxHelper helper, String name, String exchange) {
+        helper.operation(getVirtualHostManagerMBeanName(), "createNewQueue", name, getAttribute(UsesJmx.JMX_USER), true);
+        helper.operation(exchange, "createNewBinding", name, name);
+    }
+
+    private void deleteOnBroker(JmxHelper helper, String name, String exchange) {
+        helper.operation(exchange, "removeBinding", name, name);
+        helper.operation(getVirtualHostManagerMBeanName(), "deleteQueue", name);
+    }
+
+    private String getVirtualHostManagerMBeanName() {
+        return format("org.apache.qpid:type=VirtualHost.VirtualHostManager,VirtualHost=\"%s\"", getConfig(QpidBroker.VIRTUAL_HOST_NAME));
+    }
+
+    private String getExchangeMBeanName(String exchange, String type) {
+        return format("org.apache.qpid:type=VirtualHost.Exchange,VirtualHost=\"%s\",name=\"%s\",ExchangeType=%s",
+                getConfig(QpidBroker.VIRTUAL_HOST_NAME), exchange, type);
+    }
+
     @Override
     public Class getDriverInterface() {
         return QpidDriver.class;
@@ -113,6 +170,7 @@ public class QpidBrokerImpl extends JMSBrokerImpl<QpidQueue, QpidTopic> implemen
         jmxFeed = JmxFeed.builder()
                 .entity(this)
                 .period(500, TimeUnit.MILLISECONDS)
+                .adaptivePeriod(getConfig(JMX_POLL_MAX_PERIOD))
                 .pollAttribute(new JmxAttributePollConfig<Boolean>(SERVICE_UP)
                         .objectName(serverInfoMBeanName)
                         .attributeName("ProductVersion")
@@ -135,6 +193,41 @@ public class QpidBrokerImpl extends JMSBrokerImpl<QpidQueue, QpidTopic> implemen
     public void disconnectSensors() {
         super.disconnectSensors();
         if (jmxFeed != null) jmxFeed.stop();
+        if (destinationStatisticsHelper != null) destinationStatisticsHelper.terminate();
+        destinationStatisticsHelper = null;
+    }
+
+    /**
+     * Queries for every queue MBean of the virtual host with one wildcard name, then reads the
+     * attributes of each in a single request. Qpid only counts messages received, so the count
+     * consumed is derived from that and the current depth. The oldest message age is only
+     * reported by brokers whose queue MBean has it.
+     */
+    @Override
+    protected Map<String, JMSDestinationStatistics> pollDestinationStatistics() throws Exception {
+        if (destinationStatisticsHelper == null) destinationStatisticsHelper = new JmxHelper(this);
+        JmxHelper helper = destinationStatisticsHelper;
+        helper.connect();
+
+        ObjectName queues = JmxHelper.createObjectName(format(
+                "org.apache.qpid:type=VirtualHost.Queue,VirtualHost=\"%s\",*", getConfig(QpidBroker.VIRTUAL_HOST_NAME)));
+        Map<String, JMSDestinationStatistics> result = Maps.newLinkedHashMap();
+        for (ObjectInstance queue : helper.findMBeans(queues)) {
+            Map<String, Object> values = helper.getAttributes(queue.getObjectName(),
+                    "MessageCount", "QueueDepth", "ReceivedMessageCount", "ConsumerCount", "OldestMessageAge");
+            Long size = JMSDestinationStatistics.toLong(values.get("MessageCount"));
+            Long received = JMSDestinationStatistics.toLong(values.get("ReceivedMessageCount"));
+            String name = queue.getObjectName().getKeyProperty("name");
+            if (name.startsWith("\"")) name = ObjectName.unquote(name);
+            result.put(name, new JMSDestinationStatistics(
+                    size,
+                    JMSDestinationStatistics.toLong(values.get("QueueDepth")),
+                    received,
+                    (size != null && received != null) ? Math.max(0, received - size) : null,
+                    JMSDestinationStatistics.toInteger(values.get("ConsumerCount")),
+                    JMSDestinationStatistics.toLong(values.get("OldestMessageAge"))));
+        }
+        return result;
     }
 
     @Override
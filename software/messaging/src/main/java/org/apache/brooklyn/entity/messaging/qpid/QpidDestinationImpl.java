@@ -57,8 +57,8 @@ public abstract class QpidDestinationImpl extends JMSDestinationImpl implements
     public void onManagementStarting() {
         super.onManagementStarting();
         
-        // TODO Would be nice to share the JmxHelper for all destinations, so just one connection.
-        // But tricky for if brooklyn were distributed
+        // The JmxHelper is only used to create and delete the destination, and is disconnected
+        // in between; statistics for all destinations are read by the broker over its own connection.
         try {
             if (virtualHost == null) virtualHost = getConfig(QpidBroker.VIRTUAL_HOST_NAME);
             sensors().set(QpidBroker.VIRTUAL_HOST_NAME, virtualHost);
@@ -76,15 +76,23 @@ public abstract class QpidDestinationImpl extends JMSDestinationImpl implements
 
     @Override
     public void create() {
-        jmxHelper.operation(virtualHostManager, "createNewQueue", getName(), getParent().getAttribute(UsesJmx.JMX_USER), true);
-        jmxHelper.operation(exchange, "createNewBinding", getName(), getName());
+        try {
+            jmxHelper.operation(virtualHostManager, "createNewQueue", getName(), getParent().getAttribute(UsesJmx.JMX_USER), true);
+            jmxHelper.operation(exchange, "createNewBinding", getName(), getName());
+        } finally {
+            jmxHelper.disconnect();
+        }
         connectSensors();
     }
     
     @Override
     public void delete() {
-        jmxHelper.operation(exchange, "removeBinding", getName(), getName());
-        jmxHelper.operation(virtualHostManager, "deleteQueue", getName());
+        try {
+            jmxHelper.operation(exchange, "removeBinding", getName(), getName());
+            jmxHelper.operation(virtualHostManager, "deleteQueue", getName());
+        } finally {
+            jmxHelper.disconnect();
+        }
         disconnectSensors();
     }
 
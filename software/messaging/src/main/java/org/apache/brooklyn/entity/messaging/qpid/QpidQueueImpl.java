@@ -24,8 +24,6 @@ import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 
 import org.apache.brooklyn.entity.messaging.amqp.AmqpExchange;
-import org.apache.brooklyn.feed.jmx.JmxAttributePollConfig;
-import org.apache.brooklyn.feed.jmx.JmxFeed;
 import org.apache.brooklyn.util.exceptions.Exceptions;
 
 public class QpidQueueImpl extends QpidDestinationImpl implements QpidQueue {
@@ -43,20 +41,9 @@ public class QpidQueueImpl extends QpidDestinationImpl implements QpidQueue {
         }
     }
 
+    /** Queue statistics are published by the broker, which reads all of its queues in one sweep. */
     @Override
     protected void connectSensors() {
-        String queue = format("org.apache.qpid:type=VirtualHost.Queue,VirtualHost=\"%s\",name=\"%s\"", virtualHost, getName());
-        
-        jmxFeed = JmxFeed.builder()
-                .entity(this)
-                .helper(jmxHelper)
-                .pollAttribute(new JmxAttributePollConfig<Integer>(QUEUE_DEPTH_BYTES)
-                        .objectName(queue)
-                        .attributeName("QueueDepth"))
-                .pollAttribute(new JmxAttributePollConfig<Integer>(QUEUE_DEPTH_MESSAGES)
-                        .objectName(queue)
-                        .attributeName("MessageCount"))
-                .build();
     }
 
     @Override
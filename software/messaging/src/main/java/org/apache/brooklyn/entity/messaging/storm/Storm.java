@@ -18,6 +18,8 @@
  */
 package org.apache.brooklyn.entity.messaging.storm;
 
+import java.util.concurrent.Semaphore;
+
 import org.apache.brooklyn.api.catalog.Catalog;
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.ImplementedBy;
@@ -55,8 +57,17 @@ public interface Storm extends SoftwareProcess, UsesJmx {
     BasicAttributeSensorAndConfigKey<String> DOWNLOAD_URL = new BasicAttributeSensorAndConfigKey<String>(
             SoftwareProcess.DOWNLOAD_URL, "https://dl.dropboxusercontent.com/s/fl4kr7w0oc8ihdw/storm-${version}.zip");
 
+    /** @deprecated since 0.9.0; launches only need {@link #START_PERMITS} to limit their concurrency */
+    @Deprecated
     ConfigKey<Object> START_MUTEX = ConfigKeys.newConfigKey(Object.class, "storm.start.mutex");
 
+    @SetFromFlag("maxConcurrentStarts")
+    ConfigKey<Integer> MAX_CONCURRENT_STARTS = ConfigKeys.newIntegerConfigKey("storm.start.maxConcurrent",
+            "Maximum number of nodes of a Storm deployment to launch at once (unlimited if not set)");
+
+    ConfigKey<Semaphore> START_PERMITS = ConfigKeys.newConfigKey(Semaphore.class, "storm.start.permits",
+            "Permits shared by the nodes of a Storm deployment, limiting how many launch at once");
+
     @SetFromFlag("role")
     ConfigKey<Role> ROLE = ConfigKeys.newConfigKey(Role.class, "storm.role", "The Storm server role");
 
@@ -81,6 +92,9 @@ public interface Storm extends SoftwareProcess, UsesJmx {
     @SetFromFlag("zeromqVersion")
     ConfigKey<String> ZEROMQ_VERSION = ConfigKeys.newStringConfigKey("storm.zeromq.version", "zeromq version", "2.1.7");
 
+    AttributeSensor<Boolean> NIMBUS_READY = Sensors.newBooleanSensor("storm.nimbus.ready",
+            "Whether Nimbus accepts Thrift connections and has created its nodes in ZooKeeper; supervisors wait for this");
+
     AttributeSensor<Boolean> SERVICE_UP_JMX = Sensors.newBooleanSensor("storm.service.jmx.up", "Whether JMX is up for this service");
 
     String getStormConfigTemplateUrl();
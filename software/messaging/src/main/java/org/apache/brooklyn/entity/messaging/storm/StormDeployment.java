@@ -21,10 +21,13 @@ package org.apache.brooklyn.entity.messaging.storm;
 import org.apache.brooklyn.api.catalog.Catalog;
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.ImplementedBy;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.config.ConfigKey;
 import org.apache.brooklyn.core.config.ConfigKeys;
 import org.apache.brooklyn.core.entity.trait.Startable;
+import org.apache.brooklyn.core.sensor.Sensors;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 @Catalog(name="Storm Deployment", description="A Storm cluster. Apache Storm is a distributed realtime computation system. "
         + "Storm makes it easy to reliably process unbounded streams of data, doing for realtime processing "
@@ -37,5 +40,26 @@ public interface StormDeployment extends Entity, Startable {
 
     @SetFromFlag("zookeepers.count")
     ConfigKey<Integer> ZOOKEEPERS_COUNT = ConfigKeys.newConfigKey("storm.zookeepers.count", "Number of zookeeper nodes", 1);
-    
+
+    @SetFromFlag("maxConcurrentStarts")
+    ConfigKey<Integer> MAX_CONCURRENT_STARTS = Storm.MAX_CONCURRENT_STARTS;
+
+    @SetFromFlag("uiPollPeriod")
+    ConfigKey<Duration> UI_POLL_PERIOD = ConfigKeys.newConfigKey(Duration.class,
+            "storm.ui.pollPeriod", "Period for polling cluster and topology statistics from the Storm UI REST API (Storm 0.9.2 and later)",
+            Duration.THIRTY_SECONDS);
+
+    AttributeSensor<Integer> SLOTS_TOTAL = Sensors.newIntegerSensor("storm.slots.total", "Number of worker slots on all supervisors");
+    AttributeSensor<Integer> SLOTS_USED = Sensors.newIntegerSensor("storm.slots.used", "Number of worker slots running topology workers");
+    AttributeSensor<Integer> SLOTS_FREE = Sensors.newIntegerSensor("storm.slots.free", "Number of free worker slots");
+    AttributeSensor<Double> SLOT_UTILISATION = Sensors.newDoubleSensor("storm.slots.utilisation", "Fraction of worker slots in use");
+    AttributeSensor<Integer> SUPERVISOR_COUNT = Sensors.newIntegerSensor("storm.supervisors.reported", "Number of supervisors registered with Nimbus");
+    AttributeSensor<Integer> TOPOLOGY_COUNT = Sensors.newIntegerSensor("storm.topologies.count", "Number of running topologies");
+
+    AttributeSensor<Double> TUPLES_EMITTED_PER_SECOND = Sensors.newDoubleSensor("storm.tuples.emitted.perSec", "Tuples emitted per second by all topologies, over the last ten minutes");
+    AttributeSensor<Double> TUPLES_ACKED_PER_SECOND = Sensors.newDoubleSensor("storm.tuples.acked.perSec", "Tuples acked per second by all topologies, over the last ten minutes");
+    AttributeSensor<Double> TUPLES_FAILED_PER_SECOND = Sensors.newDoubleSensor("storm.tuples.failed.perSec", "Tuples failed per second by all topologies, over the last ten minutes");
+    AttributeSensor<Double> COMPLETE_LATENCY = Sensors.newDoubleSensor("storm.latency.complete", "Mean complete latency of acked tuples over the last ten minutes (millis)");
+    AttributeSensor<Double> BOLT_CAPACITY_MAX = Sensors.newDoubleSensor("storm.bolts.capacity.max", "Highest capacity of any bolt over the last ten minutes; near 1 means the bolt is saturated");
+
 }
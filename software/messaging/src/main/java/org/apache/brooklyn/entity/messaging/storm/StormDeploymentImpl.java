@@ -23,9 +23,17 @@ import static org.apache.brooklyn.entity.messaging.storm.Storm.Role.NIMBUS;
 import static org.apache.brooklyn.entity.messaging.storm.Storm.Role.SUPERVISOR;
 import static org.apache.brooklyn.entity.messaging.storm.Storm.Role.UI;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
 import org.apache.brooklyn.api.entity.EntitySpec;
+import org.apache.brooklyn.api.location.Location;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.core.entity.Attributes;
 import org.apache.brooklyn.enricher.stock.Enrichers;
+import org.apache.brooklyn.feed.function.FunctionFeed;
+import org.apache.brooklyn.feed.function.FunctionPollConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.brooklyn.entity.group.DynamicCluster;
@@ -33,11 +41,16 @@ import org.apache.brooklyn.entity.stock.BasicStartableImpl;
 import org.apache.brooklyn.entity.zookeeper.ZooKeeperEnsemble;
 import org.apache.brooklyn.util.core.ResourceUtils;
 
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+
 public class StormDeploymentImpl extends BasicStartableImpl implements StormDeployment {
 
     @SuppressWarnings("unused")
     private static final Logger log = LoggerFactory.getLogger(StormDeploymentImpl.class);
 
+    private volatile FunctionFeed uiFeed;
+
     @Override
     public void init() {
         super.init();
@@ -54,7 +67,10 @@ public class StormDeploymentImpl extends BasicStartableImpl implements StormDepl
         Storm nimbus = addChild(EntitySpec.create(Storm.class).configure(ROLE, NIMBUS));
         
         config().set(Storm.NIMBUS_ENTITY, nimbus);
-        config().set(Storm.START_MUTEX, new Object());
+        Integer maxConcurrentStarts = getConfig(MAX_CONCURRENT_STARTS);
+        if (maxConcurrentStarts != null && maxConcurrentStarts > 0) {
+            config().set(Storm.START_PERMITS, new Semaphore(maxConcurrentStarts));
+        }
         
         addChild(EntitySpec.create(DynamicCluster.class)
             .configure(DynamicCluster.MEMBER_SPEC, 
@@ -73,4 +89,46 @@ public class StormDeploymentImpl extends BasicStartableImpl implements StormDepl
                 .from(nimbus)
                 .build());
     }
+
+    @Override
+    public void start(Collection<? extends Location> locations) {
+        super.start(locations);
+        connectUiSensors();
+    }
+
+    @Override
+    public void stop() {
+        if (uiFeed != null) uiFeed.stop();
+        super.stop();
+    }
+
+    /**
+     * Polls the Storm UI once per period for the whole cluster, publishing slot usage and
+     * topology throughput from that one set of requests.
+     */
+    protected void connectUiSensors() {
+        StormUiRestPoller poller = new StormUiRestPoller(this);
+        uiFeed = FunctionFeed.builder()
+                .entity(this)
+                .period(getConfig(UI_POLL_PERIOD))
+                .poll(uiPoll(poller, SLOTS_TOTAL, StormUiRestPoller.intValue(StormUiRestPoller.SLOTS_TOTAL)))
+                .poll(uiPoll(poller, SLOTS_USED, StormUiRestPoller.intValue(StormUiRestPoller.SLOTS_USED)))
+                .poll(uiPoll(poller, SLOTS_FREE, StormUiRestPoller.intValue(StormUiRestPoller.SLOTS_FREE)))
+                .poll(uiPoll(poller, SLOT_UTILISATION, StormUiRestPoller.slotUtilisation()))
+                .poll(uiPoll(poller, SUPERVISOR_COUNT, StormUiRestPoller.intValue(StormUiRestPoller.SUPERVISORS)))
+                .poll(uiPoll(poller, TOPOLOGY_COUNT, StormUiRestPoller.intValue(StormUiRestPoller.TOPOLOGIES)))
+                .poll(uiPoll(poller, TUPLES_EMITTED_PER_SECOND, StormUiRestPoller.doubleValue(StormUiRestPoller.EMITTED_PER_SECOND)))
+                .poll(uiPoll(poller, TUPLES_ACKED_PER_SECOND, StormUiRestPoller.doubleValue(StormUiRestPoller.ACKED_PER_SECOND)))
+                .poll(uiPoll(poller, TUPLES_FAILED_PER_SECOND, StormUiRestPoller.doubleValue(StormUiRestPoller.FAILED_PER_SECOND)))
+                .poll(uiPoll(poller, COMPLETE_LATENCY, StormUiRestPoller.doubleValue(StormUiRestPoller.COMPLETE_LATENCY)))
+                .poll(uiPoll(poller, BOLT_CAPACITY_MAX, StormUiRestPoller.doubleValue(StormUiRestPoller.MAX_BOLT_CAPACITY)))
+                .build();
+    }
+
+    private <T> FunctionPollConfig<Map<String, Double>, T> uiPoll(StormUiRestPoller poller, AttributeSensor<T> sensor, Function<Map<String, Double>, T> value) {
+        return new FunctionPollConfig<Map<String, Double>, T>(sensor)
+                .callable(poller)
+                .onSuccess(value)
+                .onFailureOrException(Functions.constant((T) null));
+    }
 }
@@ -23,5 +23,11 @@ import org.apache.brooklyn.entity.java.JavaSoftwareProcessDriver;
 public interface StormDriver extends JavaSoftwareProcessDriver {
 
     String getJvmOptsLine();
-    
+
+    /**
+     * Whether this Nimbus node accepts Thrift connections and has created its coordination
+     * nodes in ZooKeeper, so that supervisors can start.
+     */
+    boolean isNimbusReady();
+
 }
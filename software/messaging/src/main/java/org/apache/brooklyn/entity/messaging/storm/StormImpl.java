@@ -18,19 +18,24 @@
  */
 package org.apache.brooklyn.entity.messaging.storm;
 
+import java.util.concurrent.Callable;
+
 import javax.management.ObjectName;
 
 import org.apache.brooklyn.core.entity.Attributes;
 import org.apache.brooklyn.entity.java.JavaAppUtils;
 import org.apache.brooklyn.entity.java.JavaSoftwareProcessDriver;
 import org.apache.brooklyn.entity.software.base.SoftwareProcessImpl;
+import org.apache.brooklyn.feed.function.FunctionFeed;
+import org.apache.brooklyn.feed.function.FunctionPollConfig;
 import org.apache.brooklyn.feed.jmx.JmxFeed;
 import org.apache.brooklyn.feed.jmx.JmxHelper;
 import org.apache.brooklyn.util.time.Duration;
-import org.apache.brooklyn.util.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Functions;
+
 public class StormImpl extends SoftwareProcessImpl implements Storm {
 
     private static final Logger log = LoggerFactory.getLogger(StormImpl.class);
@@ -39,6 +44,7 @@ public class StormImpl extends SoftwareProcessImpl implements Storm {
 
     private JmxHelper jmxHelper;
     private volatile JmxFeed jmxFeed;
+    private volatile FunctionFeed nimbusReadyFeed;
     
     public StormImpl() {}
     
@@ -56,6 +62,11 @@ public class StormImpl extends SoftwareProcessImpl implements Storm {
         return StormDriver.class;
     }
 
+    @Override
+    public StormDriver getDriver() {
+        return (StormDriver) super.getDriver();
+    }
+
     public String getRoleName() { return getRole().name().toLowerCase(); }
 
     @Override
@@ -68,8 +79,21 @@ public class StormImpl extends SoftwareProcessImpl implements Storm {
     protected void connectSensors() {
         super.connectSensors();
 
-        // give it plenty of time to start before we advertise ourselves
-        Time.sleep(Duration.TEN_SECONDS);
+        if (getRole() == Role.NIMBUS) {
+            nimbusReadyFeed = FunctionFeed.builder()
+                    .entity(this)
+                    .poll(new FunctionPollConfig<Boolean, Boolean>(NIMBUS_READY)
+                            .period(Duration.FIVE_SECONDS)
+                            .callable(new Callable<Boolean>() {
+                                @Override
+                                public Boolean call() {
+                                    return getDriver().isNimbusReady();
+                                }
+                            })
+                            .onException(Functions.constant(false))
+                            .suppressDuplicates(true))
+                    .build();
+        }
 
         if (getRole() == Role.UI) {
             sensors().set(STORM_UI_URL, "http://"+getAttribute(Attributes.HOSTNAME)+":"+getAttribute(UI_PORT)+"/");
@@ -111,6 +135,7 @@ public class StormImpl extends SoftwareProcessImpl implements Storm {
         super.disconnectSensors();
         disconnectServiceUpIsRunning();
         if (jmxFeed != null) jmxFeed.stop();
+        if (nimbusReadyFeed != null) nimbusReadyFeed.stop();
         if (jmxHelper !=null) jmxHelper.terminate();
     }
 
@@ -22,6 +22,7 @@ import static java.lang.String.format;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntityLocal;
@@ -39,18 +40,24 @@ import org.apache.brooklyn.util.collections.MutableMap;
 import org.apache.brooklyn.util.net.Networking;
 import org.apache.brooklyn.util.os.Os;
 import org.apache.brooklyn.util.ssh.BashCommands;
-import org.apache.brooklyn.util.time.Duration;
-import org.apache.brooklyn.util.time.Time;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 
 public class StormSshDriver extends JavaSoftwareProcessSshDriver implements StormDriver {
 
     private static final Logger log = LoggerFactory.getLogger(StormSshDriver.class);
 
+    /** Storm's defaults for {@code storm.zookeeper.port} and {@code storm.zookeeper.root}, which storm.yaml does not override. */
+    private static final int STORM_ZOOKEEPER_PORT = 2181;
+    private static final String STORM_ZOOKEEPER_ROOT = "/storm";
+
+    private volatile boolean nimbusZookeeperNodesSeen = false;
+
     public StormSshDriver(EntityLocal entity, SshMachineLocation machine) {
         super(entity, machine);
     }
@@ -160,14 +167,15 @@ public class StormSshDriver extends JavaSoftwareProcessSshDriver implements Stor
 
     @Override
     public void launch() {
-        boolean needsSleep = false;
         if (getRoleName().equals("supervisor")) {
             Entity nimbus = entity.getConfig(Storm.NIMBUS_ENTITY);
             if (nimbus == null) {
                 log.warn("No nimbus entity available; not blocking before starting supervisors");
             } else {
-                Entities.waitForServiceUp(nimbus, entity.getConfig(SoftwareProcess.START_TIMEOUT));
-                needsSleep = true;
+                // supervisors started before nimbus has set up zookeeper fail with:
+                // org.apache.zookeeper.KeeperException$NoNodeException: KeeperErrorCode = NoNode for /assignments
+                Entities.submit(entity, DependentConfiguration.attributeWhenReady(nimbus, Storm.NIMBUS_READY))
+                        .getUnchecked(entity.getConfig(SoftwareProcess.START_TIMEOUT));
             }
         }
 
@@ -175,23 +183,50 @@ public class StormSshDriver extends JavaSoftwareProcessSshDriver implements Stor
         log.info("Launching " + entity + " with role " + getRoleName() + " and " + "hostname (public) " 
                 + getEntity().getAttribute(Attributes.HOSTNAME) + ", " + "hostname (subnet) " + subnetHostname + ")");
 
-        // ensure only one node at a time tries to start
-        // attempting to eliminate the causes of:
-        // 2013-12-12 09:21:45 supervisor [ERROR] Error on initialization of server mk-supervisor
-        // org.apache.zookeeper.KeeperException$NoNodeException: KeeperErrorCode = NoNode for /assignments
-        // TODO use SoftwareProcess#START_LATCH instead here?
-
-        Object startMutex = Optional.fromNullable(entity.getConfig(Storm.START_MUTEX)).or(new Object());
-        synchronized (startMutex) {
-            if (needsSleep) {
-                // give 10s extra to make sure nimbus is ready; we see weird zookeeper no /assignments node error otherwise
-                // (this could be optimized by recording nimbus service_up time)
-                Time.sleep(Duration.TEN_SECONDS);
+        Semaphore permits = entity.getConfig(Storm.START_PERMITS);
+        if (permits != null) permits.acquireUninterruptibly();
+        try {
+            Object startMutex = entity.getConfig(Storm.START_MUTEX);
+            if (startMutex != null) {
+                synchronized (startMutex) {
+                    launchRole();
+                }
+            } else {
+                launchRole();
             }
-            newScript(MutableMap.of(USE_PID_FILE, getPidFile()), LAUNCHING)
-                    .body.append(format("nohup ./bin/storm %s > %s 2>&1 &", getRoleName(), getLogFileLocation()))
-                    .execute();
+        } finally {
+            if (permits != null) permits.release();
+        }
+    }
+
+    private void launchRole() {
+        newScript(MutableMap.of(USE_PID_FILE, getPidFile()), LAUNCHING)
+                .body.append(format("nohup ./bin/storm %s > %s 2>&1 &", getRoleName(), getLogFileLocation()))
+                .execute();
+    }
+
+    /**
+     * Checks the Thrift port from the nimbus machine, and uses the ZooKeeper client bundled with
+     * Storm to look for the nodes nimbus creates under {@link #STORM_ZOOKEEPER_ROOT}. Those are
+     * never removed, so once seen only the Thrift port is checked.
+     */
+    @Override
+    public boolean isNimbusReady() {
+        String thriftCheck = format("(echo > /dev/tcp/localhost/%d) 2>/dev/null", entity.getAttribute(Storm.THRIFT_PORT));
+        if (nimbusZookeeperNodesSeen) {
+            return newScript("checking nimbus thrift port").body.append(thriftCheck).execute() == 0;
+        }
+        List<String> servers = Lists.newArrayList();
+        for (String server : getZookeeperServers()) {
+            servers.add(server + ":" + STORM_ZOOKEEPER_PORT);
         }
+        String zookeeperCheck = format("java -cp \"lib/*\" org.apache.zookeeper.ZooKeeperMain -server %s ls %s 2>/dev/null | grep assignments",
+                Joiner.on(',').join(servers), STORM_ZOOKEEPER_ROOT);
+        boolean ready = newScript("checking nimbus readiness")
+                .body.append("cd " + getRunDir(), thriftCheck + " && " + zookeeperCheck)
+                .execute() == 0;
+        if (ready) nimbusZookeeperNodesSeen = true;
+        return ready;
     }
 
     @Override
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.storm;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
+
+import org.apache.brooklyn.api.entity.Entity;
+import org.apache.brooklyn.util.http.HttpTool;
+import org.apache.brooklyn.util.http.HttpToolResponse;
+import org.apache.brooklyn.util.text.Strings;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Polls the REST API of the Storm UI (Storm 0.9.2 and later) for the state of the whole cluster.
+ * <p>
+ * Each call fetches the cluster summary and the list of topologies, then the statistics of each
+ * topology over the UI's ten minute window, and reduces them to one map of cluster-wide values:
+ * worker slots, throughput in tuples per second, the acked-weighted mean complete latency and the
+ * highest capacity of any bolt (near 1 when a bolt is saturated).
+ */
+public class StormUiRestPoller implements Callable<Map<String, Double>> {
+
+    public static final String SLOTS_TOTAL = "slotsTotal";
+    public static final String SLOTS_USED = "slotsUsed";
+    public static final String SLOTS_FREE = "slotsFree";
+    public static final String SUPERVISORS = "supervisors";
+    public static final String TOPOLOGIES = "topologies";
+    public static final String EMITTED_PER_SECOND = "emittedPerSecond";
+    public static final String ACKED_PER_SECOND = "ackedPerSecond";
+    public static final String FAILED_PER_SECOND = "failedPerSecond";
+    public static final String COMPLETE_LATENCY = "completeLatency";
+    public static final String MAX_BOLT_CAPACITY = "maxBoltCapacity";
+
+    /** The UI's ten minute statistics window, in seconds. */
+    static final int WINDOW_SECONDS = 600;
+
+    private final Entity entity;
+
+    /** @param entity The entity publishing {@link Storm#STORM_UI_URL}. */
+    public StormUiRestPoller(Entity entity) {
+        this.entity = entity;
+    }
+
+    @Override
+    public Map<String, Double> call() throws IOException {
+        String uiUrl = entity.getAttribute(Storm.STORM_UI_URL);
+        if (uiUrl == null) throw new IllegalStateException("Storm UI URL not yet known for "+entity);
+        String base = Strings.removeFromEnd(uiUrl, "/");
+
+        JsonObject cluster = get(base + "/api/v1/cluster/summary");
+        List<JsonObject> topologies = Lists.newArrayList();
+        JsonElement summaries = get(base + "/api/v1/topology/summary").get("topologies");
+        if (summaries != null && summaries.isJsonArray()) {
+            for (JsonElement summary : summaries.getAsJsonArray()) {
+                String id = summary.getAsJsonObject().get("id").getAsString();
+                topologies.add(get(base + "/api/v1/topology/" + id + "?window=" + WINDOW_SECONDS));
+            }
+        }
+        return summarise(cluster, topologies);
+    }
+
+    private static JsonObject get(String uri) throws IOException {
+        HttpToolResponse response = HttpTool.httpGet(HttpTool.httpClientBuilder().uri(uri).build(),
+                URI.create(uri), ImmutableMap.<String, String>of());
+        if (response.getResponseCode() != 200) {
+            throw new IOException("Storm UI returned "+response.getResponseCode()+" for "+uri);
+        }
+        return new JsonParser().parse(response.getContentAsString()).getAsJsonObject();
+    }
+
+    /**
+     * Reduces the cluster summary and the topology details, as returned by the UI's REST API,
+     * to cluster-wide values. Throughput and latency are over {@link #WINDOW_SECONDS}.
+     */
+    public static Map<String, Double> summarise(JsonObject cluster, List<JsonObject> topologies) {
+        Map<String, Double> result = Maps.newLinkedHashMap();
+        result.put(SLOTS_TOTAL, number(cluster.get("slotsTotal")));
+        result.put(SLOTS_USED, number(cluster.get("slotsUsed")));
+        result.put(SLOTS_FREE, number(cluster.get("slotsFree")));
+        result.put(SUPERVISORS, number(cluster.get("supervisors")));
+        result.put(TOPOLOGIES, (double) topologies.size());
+
+        double emitted = 0, acked = 0, failed = 0, weightedLatency = 0, maxCapacity = 0;
+        for (JsonObject topology : topologies) {
+            JsonElement stats = topology.get("topologyStats");
+            if (stats != null && stats.isJsonArray()) {
+                for (JsonElement window : stats.getAsJsonArray()) {
+                    JsonObject values = window.getAsJsonObject();
+                    if (!String.valueOf(WINDOW_SECONDS).equals(values.get("window").getAsString())) continue;
+                    double topologyAcked = number(values.get("acked"));
+                    emitted += number(values.get("emitted"));
+                    acked += topologyAcked;
+                    failed += number(values.get("failed"));
+                    weightedLatency += topologyAcked * number(values.get("completeLatency"));
+                }
+            }
+            JsonElement bolts = topology.get("bolts");
+            if (bolts != null && bolts.isJsonArray()) {
+                for (JsonElement bolt : bolts.getAsJsonArray()) {
+                    maxCapacity = Math.max(maxCapacity, number(bolt.getAsJsonObject().get("capacity")));
+                }
+            }
+        }
+        result.put(EMITTED_PER_SECOND, emitted / WINDOW_SECONDS);
+        result.put(ACKED_PER_SECOND, acked / WINDOW_SECONDS);
+        result.put(FAILED_PER_SECOND, failed / WINDOW_SECONDS);
+        result.put(COMPLETE_LATENCY, acked > 0 ? weightedLatency / acked : 0);
+        result.put(MAX_BOLT_CAPACITY, maxCapacity);
+        return result;
+    }
+
+    /** The UI reports some numbers as strings (e.g. latencies and capacity), and may report null. */
+    private static double number(JsonElement value) {
+        if (value == null || value.isJsonNull()) return 0;
+        try {
+            return Double.parseDouble(value.getAsString());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** Function extracting a value from a summary, or null if absent. */
+    public static Function<Map<String, Double>, Double> doubleValue(final String key) {
+        return new Function<Map<String, Double>, Double>() {
+            @Override
+            public Double apply(@Nullable Map<String, Double> input) {
+                return input == null ? null : input.get(key);
+            }
+        };
+    }
+
+    /** Function extracting a value from a summary as an integer, or null if absent. */
+    public static Function<Map<String, Double>, Integer> intValue(final String key) {
+        return new Function<Map<String, Double>, Integer>() {
+            @Override
+            public Integer apply(@Nullable Map<String, Double> input) {
+                Double value = doubleValue(key).apply(input);
+                return value == null ? null : value.intValue();
+            }
+        };
+    }
+
+    /** Function computing the fraction of worker slots in use, or null if there are none. */
+    public static Function<Map<String, Double>, Double> slotUtilisation() {
+        return new Function<Map<String, Double>, Double>() {
+            @Override
+            public Double apply(@Nullable Map<String, Double> input) {
+                if (input == null) return null;
+                Double total = input.get(SLOTS_TOTAL);
+                Double used = input.get(SLOTS_USED);
+                if (total == null || used == null || total <= 0) return null;
+                return used / total;
+            }
+        };
+    }
+}
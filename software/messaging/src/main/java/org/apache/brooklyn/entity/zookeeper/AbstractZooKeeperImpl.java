@@ -18,12 +18,17 @@
  */
 package org.apache.brooklyn.entity.zookeeper;
 
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import javax.management.ObjectName;
 
 import org.apache.brooklyn.entity.java.JavaSoftwareProcessDriver;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
+import org.apache.brooklyn.entity.java.UsesJmx;
 import org.apache.brooklyn.entity.software.base.SoftwareProcessImpl;
+import org.apache.brooklyn.feed.function.FunctionFeed;
+import org.apache.brooklyn.feed.function.FunctionPollConfig;
 import org.apache.brooklyn.feed.jmx.JmxAttributePollConfig;
 import org.apache.brooklyn.feed.jmx.JmxFeed;
 import org.apache.brooklyn.feed.jmx.JmxHelper;
@@ -43,6 +48,7 @@ public abstract class AbstractZooKeeperImpl extends SoftwareProcessImpl implemen
     private static final ObjectName ZOOKEEPER_MBEAN = JmxHelper.createObjectName("org.apache.ZooKeeperService:name0=StandaloneServer_port-1");
 
     private volatile JmxFeed jmxFeed;
+    private volatile FunctionFeed fourLetterWordFeed;
 
     public AbstractZooKeeperImpl() {
     }
@@ -72,10 +78,13 @@ public abstract class AbstractZooKeeperImpl extends SoftwareProcessImpl implemen
     protected void connectSensors() {
         connectServiceUpIsRunning();
 
-        if (((JavaSoftwareProcessDriver)getDriver()).isJmxEnabled()) {
+        if (Boolean.TRUE.equals(getConfig(USE_FOUR_LETTER_WORD_MONITORING))) {
+            connectFourLetterWordSensors();
+        } else if (((JavaSoftwareProcessDriver)getDriver()).isJmxEnabled()) {
             jmxFeed = JmxFeed.builder()
                 .entity(this)
                 .period(500, TimeUnit.MILLISECONDS)
+                .adaptivePeriod(getConfig(UsesJmx.JMX_POLL_MAX_PERIOD))
                 .pollAttribute(new JmxAttributePollConfig<Long>(OUTSTANDING_REQUESTS)
                         .objectName(ZOOKEEPER_MBEAN)
                         .attributeName("OutstandingRequests")
@@ -92,11 +101,56 @@ public abstract class AbstractZooKeeperImpl extends SoftwareProcessImpl implemen
         }
     }
 
+    /**
+     * Polls the server with a single {@code mntr} exchange per period, publishing every
+     * statistic from that one reply. The leader-only follower counts stay null on other servers.
+     */
+    protected void connectFourLetterWordSensors() {
+        ZooKeeperFourLetterWordPoller poller = new ZooKeeperFourLetterWordPoller(this, getConfig(FOUR_LETTER_WORD_TIMEOUT));
+        fourLetterWordFeed = FunctionFeed.builder()
+                .entity(this)
+                .period(getConfig(FOUR_LETTER_WORD_POLL_PERIOD))
+                .poll(longPoll(poller, OUTSTANDING_REQUESTS, ZooKeeperFourLetterWordPoller.OUTSTANDING_REQUESTS))
+                .poll(longPoll(poller, PACKETS_RECEIVED, ZooKeeperFourLetterWordPoller.PACKETS_RECEIVED))
+                .poll(longPoll(poller, PACKETS_SENT, ZooKeeperFourLetterWordPoller.PACKETS_SENT))
+                .poll(longPoll(poller, AVG_LATENCY, ZooKeeperFourLetterWordPoller.AVG_LATENCY))
+                .poll(longPoll(poller, MAX_LATENCY, ZooKeeperFourLetterWordPoller.MAX_LATENCY))
+                .poll(longPoll(poller, MIN_LATENCY, ZooKeeperFourLetterWordPoller.MIN_LATENCY))
+                .poll(longPoll(poller, ALIVE_CONNECTIONS, ZooKeeperFourLetterWordPoller.NUM_ALIVE_CONNECTIONS))
+                .poll(longPoll(poller, ZNODE_COUNT, ZooKeeperFourLetterWordPoller.ZNODE_COUNT))
+                .poll(longPoll(poller, WATCH_COUNT, ZooKeeperFourLetterWordPoller.WATCH_COUNT))
+                .poll(longPoll(poller, EPHEMERALS_COUNT, ZooKeeperFourLetterWordPoller.EPHEMERALS_COUNT))
+                .poll(longPoll(poller, APPROXIMATE_DATA_SIZE, ZooKeeperFourLetterWordPoller.APPROXIMATE_DATA_SIZE))
+                .poll(intPoll(poller, FOLLOWERS, ZooKeeperFourLetterWordPoller.FOLLOWERS))
+                .poll(intPoll(poller, SYNCED_FOLLOWERS, ZooKeeperFourLetterWordPoller.SYNCED_FOLLOWERS))
+                .poll(intPoll(poller, PENDING_SYNCS, ZooKeeperFourLetterWordPoller.PENDING_SYNCS))
+                .poll(new FunctionPollConfig<Map<String, String>, String>(SERVER_STATE)
+                        .callable(poller)
+                        .onSuccess(ZooKeeperFourLetterWordPoller.stringValue(ZooKeeperFourLetterWordPoller.SERVER_STATE))
+                        .onFailureOrException(Functions.constant((String) null)))
+                .build();
+    }
+
+    private FunctionPollConfig<Map<String, String>, Long> longPoll(ZooKeeperFourLetterWordPoller poller, AttributeSensor<Long> sensor, String key) {
+        return new FunctionPollConfig<Map<String, String>, Long>(sensor)
+                .callable(poller)
+                .onSuccess(ZooKeeperFourLetterWordPoller.longValue(key))
+                .onFailureOrException(Functions.constant(-1l));
+    }
+
+    private FunctionPollConfig<Map<String, String>, Integer> intPoll(ZooKeeperFourLetterWordPoller poller, AttributeSensor<Integer> sensor, String key) {
+        return new FunctionPollConfig<Map<String, String>, Integer>(sensor)
+                .callable(poller)
+                .onSuccess(ZooKeeperFourLetterWordPoller.intValue(key))
+                .onFailureOrException(Functions.constant((Integer) null));
+    }
+
     @Override
     public void disconnectSensors() {
         super.disconnectSensors();
         disconnectServiceUpIsRunning();
         if (jmxFeed != null) jmxFeed.stop();
+        if (fourLetterWordFeed != null) fourLetterWordFeed.stop();
     }
 
     @Override
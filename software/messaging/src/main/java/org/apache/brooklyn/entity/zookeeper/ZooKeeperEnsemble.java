@@ -21,6 +21,7 @@ package org.apache.brooklyn.entity.zookeeper;
 import java.util.List;
 
 import org.apache.brooklyn.api.catalog.Catalog;
+import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.ImplementedBy;
 import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.config.ConfigKey;
@@ -48,5 +49,12 @@ public interface ZooKeeperEnsemble extends DynamicCluster {
     AttributeSensor<List<String>> ZOOKEEPER_SERVERS = Sensors.newSensor(new TypeToken<List<String>>() { },
             "zookeeper.servers", "Hostnames to connect to cluster with");
 
+    AttributeSensor<Entity> LEADER = Sensors.newSensor(Entity.class, "zookeeper.ensemble.leader", "The member currently reporting itself as leader");
+    AttributeSensor<Double> AVG_LATENCY = Sensors.newDoubleSensor("zookeeper.ensemble.latency.avg", "Average request latency across reporting members (ms)");
+    AttributeSensor<Long> MAX_LATENCY = Sensors.newLongSensor("zookeeper.ensemble.latency.max", "Highest maximum request latency of any member (ms)");
+    AttributeSensor<Long> OUTSTANDING_REQUESTS = Sensors.newLongSensor("zookeeper.ensemble.outstandingRequests", "Outstanding requests summed across members");
+    AttributeSensor<Integer> UNSYNCED_FOLLOWERS = Sensors.newIntegerSensor("zookeeper.ensemble.followers.unsynced", "Followers the leader reports as not in sync");
+    AttributeSensor<Integer> PENDING_SYNCS = Sensors.newIntegerSensor("zookeeper.ensemble.syncs.pending", "Pending follower syncs reported by the leader");
+
     String getClusterName();
 }
@@ -28,11 +28,14 @@ import org.apache.brooklyn.api.location.Location;
 import org.apache.brooklyn.api.policy.PolicySpec;
 import org.apache.brooklyn.core.entity.Attributes;
 import org.apache.brooklyn.core.entity.EntityInternal;
+import org.apache.brooklyn.enricher.stock.Enrichers;
 import org.apache.brooklyn.entity.group.AbstractMembershipTrackingPolicy;
 import org.apache.brooklyn.entity.group.DynamicClusterImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
 public class ZooKeeperEnsembleImpl extends DynamicClusterImpl implements ZooKeeperEnsemble {
@@ -64,12 +67,15 @@ public class ZooKeeperEnsembleImpl extends DynamicClusterImpl implements ZooKeep
 
         policy = policies().add(PolicySpec.create(MemberTrackingPolicy.class)
                 .displayName("Members tracker")
+                .configure("sensorsToTrack", ImmutableSet.of(ZooKeeperNode.SERVER_STATE, ZooKeeperNode.FOLLOWERS,
+                        ZooKeeperNode.SYNCED_FOLLOWERS, ZooKeeperNode.PENDING_SYNCS))
                 .configure("group", this));
     }
 
     public static class MemberTrackingPolicy extends AbstractMembershipTrackingPolicy {
         @Override
         protected void onEntityChange(Entity member) {
+            ((ZooKeeperEnsembleImpl) entity).updateLeader();
         }
 
         @Override
@@ -81,13 +87,91 @@ public class ZooKeeperEnsembleImpl extends DynamicClusterImpl implements ZooKeep
 
         @Override
         protected void onEntityRemoved(Entity member) {
+            ((ZooKeeperEnsembleImpl) entity).updateLeader();
         }
     };
 
+    /**
+     * Publishes the member reporting itself as leader, along with the follower sync state
+     * that only the leader's {@code mntr} output includes.
+     */
+    protected void updateLeader() {
+        Entity leader = null;
+        for (Entity member : getMembers()) {
+            if ("leader".equals(member.getAttribute(ZooKeeperNode.SERVER_STATE))) {
+                leader = member;
+                break;
+            }
+        }
+        Entity oldLeader = getAttribute(LEADER);
+        if (leader != oldLeader) {
+            log.info("ZooKeeper ensemble {} leader changed from {} to {}", new Object[] { this, oldLeader, leader });
+        }
+        sensors().set(LEADER, leader);
+
+        Integer unsynced = null;
+        Integer pendingSyncs = null;
+        if (leader != null) {
+            Integer followers = leader.getAttribute(ZooKeeperNode.FOLLOWERS);
+            Integer synced = leader.getAttribute(ZooKeeperNode.SYNCED_FOLLOWERS);
+            if (followers != null && synced != null) unsynced = followers - synced;
+            pendingSyncs = leader.getAttribute(ZooKeeperNode.PENDING_SYNCS);
+        }
+        sensors().set(UNSYNCED_FOLLOWERS, unsynced);
+        sensors().set(PENDING_SYNCS, pendingSyncs);
+    }
+
     @Override
     protected void initEnrichers() {
         super.initEnrichers();
-        
+
+        // members report -1 when a poll fails, so those are excluded rather than averaged in
+        enrichers().add(Enrichers.builder()
+                .aggregating(ZooKeeperNode.AVG_LATENCY)
+                .publishing(AVG_LATENCY)
+                .fromMembers()
+                .computing(new Function<Collection<Long>, Double>() {
+                    @Override
+                    public Double apply(Collection<Long> input) {
+                        long total = 0;
+                        int count = 0;
+                        for (Long value : input) {
+                            if (value != null && value >= 0) {
+                                total += value;
+                                count++;
+                            }
+                        }
+                        return count == 0 ? null : (double) total / count;
+                    } })
+                .build());
+        enrichers().add(Enrichers.builder()
+                .aggregating(ZooKeeperNode.MAX_LATENCY)
+                .publishing(MAX_LATENCY)
+                .fromMembers()
+                .computing(new Function<Collection<Long>, Long>() {
+                    @Override
+                    public Long apply(Collection<Long> input) {
+                        Long max = null;
+                        for (Long value : input) {
+                            if (value != null && value >= 0 && (max == null || value > max)) max = value;
+                        }
+                        return max;
+                    } })
+                .build());
+        enrichers().add(Enrichers.builder()
+                .aggregating(ZooKeeperNode.OUTSTANDING_REQUESTS)
+                .publishing(OUTSTANDING_REQUESTS)
+                .fromMembers()
+                .computing(new Function<Collection<Long>, Long>() {
+                    @Override
+                    public Long apply(Collection<Long> input) {
+                        long total = 0;
+                        for (Long value : input) {
+                            if (value != null && value >= 0) total += value;
+                        }
+                        return total;
+                    } })
+                .build());
     }
     
     @Override
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.zookeeper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
+
+import org.apache.brooklyn.core.location.access.BrooklynAccessUtils;
+import org.apache.brooklyn.util.text.Strings;
+import org.apache.brooklyn.util.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.net.HostAndPort;
+
+/**
+ * Polls a ZooKeeper server using the "four letter word" admin commands on its client port.
+ * <p>
+ * Each call opens a single short-lived socket, sends {@code mntr} and parses the tab-separated
+ * reply into a map keyed by the {@code zk_*} names ZooKeeper uses. Servers older than 3.4 do not
+ * understand {@code mntr}, so if that returns nothing the poller falls back to {@code srvr} and
+ * translates its output into the same keys. No JMX agent is needed on the server.
+ */
+public class ZooKeeperFourLetterWordPoller implements Callable<Map<String, String>> {
+
+    private static final Logger log = LoggerFactory.getLogger(ZooKeeperFourLetterWordPoller.class);
+
+    public static final String AVG_LATENCY = "zk_avg_latency";
+    public static final String MAX_LATENCY = "zk_max_latency";
+    public static final String MIN_LATENCY = "zk_min_latency";
+    public static final String PACKETS_RECEIVED = "zk_packets_received";
+    public static final String PACKETS_SENT = "zk_packets_sent";
+    public static final String NUM_ALIVE_CONNECTIONS = "zk_num_alive_connections";
+    public static final String OUTSTANDING_REQUESTS = "zk_outstanding_requests";
+    public static final String SERVER_STATE = "zk_server_state";
+    public static final String ZNODE_COUNT = "zk_znode_count";
+    public static final String WATCH_COUNT = "zk_watch_count";
+    public static final String EPHEMERALS_COUNT = "zk_ephemerals_count";
+    public static final String APPROXIMATE_DATA_SIZE = "zk_approximate_data_size";
+    public static final String FOLLOWERS = "zk_followers";
+    public static final String SYNCED_FOLLOWERS = "zk_synced_followers";
+    public static final String PENDING_SYNCS = "zk_pending_syncs";
+
+    private final ZooKeeperNode entity;
+    private final Duration timeout;
+
+    public ZooKeeperFourLetterWordPoller(ZooKeeperNode entity, Duration timeout) {
+        this.entity = entity;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Map<String, String> call() throws IOException {
+        Integer port = entity.getZookeeperPort();
+        if (port == null) throw new IllegalStateException("ZooKeeper port not yet known for "+entity);
+        HostAndPort hp = BrooklynAccessUtils.getBrooklynAccessibleAddress(entity, port);
+
+        Map<String, String> result = parseMntr(send(hp, "mntr", timeout));
+        if (result.isEmpty()) {
+            if (log.isDebugEnabled()) log.debug("Empty mntr reply from {} at {}; falling back to srvr", entity, hp);
+            result = parseSrvr(send(hp, "srvr", timeout));
+        }
+        if (result.isEmpty()) throw new IOException("No four letter word statistics returned by "+entity+" at "+hp);
+        return result;
+    }
+
+    /**
+     * Sends a single four letter word command and returns the complete reply. The server closes
+     * the connection once it has written its reply.
+     */
+    public static String send(HostAndPort hp, String command, Duration timeout) throws IOException {
+        int timeoutMillis = (int) timeout.toMilliseconds();
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(hp.getHostText(), hp.getPort()), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            OutputStream out = socket.getOutputStream();
+            out.write(command.getBytes(Charsets.US_ASCII));
+            out.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.US_ASCII));
+            StringBuilder reply = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                reply.append(line).append('\n');
+            }
+            return reply.toString();
+        } finally {
+            socket.close();
+        }
+    }
+
+    /** Parses {@code mntr} output, one tab-separated {@code key value} pair per line. */
+    public static Map<String, String> parseMntr(String reply) {
+        Map<String, String> result = Maps.newLinkedHashMap();
+        if (reply == null) return result;
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(reply)) {
+            List<String> parts = Splitter.on('\t').limit(2).trimResults().splitToList(line);
+            if (parts.size() == 2 && parts.get(0).startsWith("zk_")) {
+                result.put(parts.get(0), parts.get(1));
+            }
+        }
+        return result;
+    }
+
+    /** Parses {@code srvr} output into the same keys as {@link #parseMntr(String)} uses. */
+    public static Map<String, String> parseSrvr(String reply) {
+        Map<String, String> result = Maps.newLinkedHashMap();
+        if (reply == null) return result;
+        Map<String, String> keys = ImmutableMap.<String, String>builder()
+                .put("Received", PACKETS_RECEIVED)
+                .put("Sent", PACKETS_SENT)
+                .put("Connections", NUM_ALIVE_CONNECTIONS)
+                .put("Outstanding", OUTSTANDING_REQUESTS)
+                .put("Mode", SERVER_STATE)
+                .put("Node count", ZNODE_COUNT)
+                .build();
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(reply)) {
+            List<String> parts = Splitter.on(':').limit(2).trimResults().splitToList(line);
+            if (parts.size() != 2) continue;
+            if (parts.get(0).equals("Latency min/avg/max")) {
+                List<String> latencies = Splitter.on('/').trimResults().splitToList(parts.get(1));
+                if (latencies.size() == 3) {
+                    result.put(MIN_LATENCY, latencies.get(0));
+                    result.put(AVG_LATENCY, latencies.get(1));
+                    result.put(MAX_LATENCY, latencies.get(2));
+                }
+            } else if (keys.containsKey(parts.get(0))) {
+                result.put(keys.get(parts.get(0)), parts.get(1));
+            }
+        }
+        return result;
+    }
+
+    /** Function extracting a numeric value from a parsed reply, or null if absent or malformed. */
+    public static Function<Map<String, String>, Long> longValue(final String key) {
+        return new Function<Map<String, String>, Long>() {
+            @Override
+            public Long apply(@Nullable Map<String, String> input) {
+                if (input == null) return null;
+                String value = input.get(key);
+                if (Strings.isBlank(value)) return null;
+                try {
+                    // avg latency is reported as a decimal by some versions
+                    return (long) Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        };
+    }
+
+    /** Function extracting a numeric value as an integer, or null if absent or malformed. */
+    public static Function<Map<String, String>, Integer> intValue(final String key) {
+        return new Function<Map<String, String>, Integer>() {
+            @Override
+            public Integer apply(@Nullable Map<String, String> input) {
+                Long value = longValue(key).apply(input);
+                return value == null ? null : value.intValue();
+            }
+        };
+    }
+
+    /** Function extracting a string value, or null if absent. */
+    public static Function<Map<String, String>, String> stringValue(final String key) {
+        return new Function<Map<String, String>, String>() {
+            @Override
+            public String apply(@Nullable Map<String, String> input) {
+                return input == null ? null : input.get(key);
+            }
+        };
+    }
+}
@@ -26,8 +26,10 @@ import org.apache.brooklyn.core.config.ConfigKeys;
 import org.apache.brooklyn.core.sensor.BasicAttributeSensor;
 import org.apache.brooklyn.core.sensor.BasicAttributeSensorAndConfigKey;
 import org.apache.brooklyn.core.sensor.PortAttributeSensorAndConfigKey;
+import org.apache.brooklyn.core.sensor.Sensors;
 import org.apache.brooklyn.entity.software.base.SoftwareProcess;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 /**
  * An {@link org.apache.brooklyn.api.entity.Entity} that represents a single Apache ZooKeeper instance.
@@ -60,6 +62,31 @@ public interface ZooKeeperNode extends SoftwareProcess {
     AttributeSensor<Long> PACKETS_SENT = new BasicAttributeSensor<Long>(Long.class, "zookeeper.packets.sent", "Total packets sent");
     AttributeSensor<Integer> MY_ID = new BasicAttributeSensor<Integer>(Integer.class, "zookeeper.myid", "ZooKeeper node's myId");
 
+    @SetFromFlag("useFourLetterWordMonitoring")
+    ConfigKey<Boolean> USE_FOUR_LETTER_WORD_MONITORING = ConfigKeys.newBooleanConfigKey("zookeeper.fourLetterWordMonitoring.enabled",
+            "Whether to poll the server with the mntr/srvr commands on its client port (no JMX required)", true);
+
+    @SetFromFlag("fourLetterWordPollPeriod")
+    ConfigKey<Duration> FOUR_LETTER_WORD_POLL_PERIOD = ConfigKeys.newDurationConfigKey("zookeeper.fourLetterWordMonitoring.period",
+            "Period between mntr polls", Duration.seconds(2));
+
+    @SetFromFlag("fourLetterWordTimeout")
+    ConfigKey<Duration> FOUR_LETTER_WORD_TIMEOUT = ConfigKeys.newDurationConfigKey("zookeeper.fourLetterWordMonitoring.timeout",
+            "Connect and read timeout for each mntr poll", Duration.seconds(2));
+
+    AttributeSensor<String> SERVER_STATE = Sensors.newStringSensor("zookeeper.serverState", "Server state (leader, follower, observer or standalone)");
+    AttributeSensor<Long> AVG_LATENCY = Sensors.newLongSensor("zookeeper.latency.avg", "Average request latency (ms)");
+    AttributeSensor<Long> MAX_LATENCY = Sensors.newLongSensor("zookeeper.latency.max", "Maximum request latency since the server statistics were last reset (ms)");
+    AttributeSensor<Long> MIN_LATENCY = Sensors.newLongSensor("zookeeper.latency.min", "Minimum request latency since the server statistics were last reset (ms)");
+    AttributeSensor<Long> ALIVE_CONNECTIONS = Sensors.newLongSensor("zookeeper.connections", "Number of open client connections");
+    AttributeSensor<Long> ZNODE_COUNT = Sensors.newLongSensor("zookeeper.znodes", "Number of znodes");
+    AttributeSensor<Long> WATCH_COUNT = Sensors.newLongSensor("zookeeper.watches", "Number of watches");
+    AttributeSensor<Long> EPHEMERALS_COUNT = Sensors.newLongSensor("zookeeper.ephemerals", "Number of ephemeral znodes");
+    AttributeSensor<Long> APPROXIMATE_DATA_SIZE = Sensors.newLongSensor("zookeeper.dataSize", "Approximate size of the data tree (bytes)");
+    AttributeSensor<Integer> FOLLOWERS = Sensors.newIntegerSensor("zookeeper.followers", "Number of followers (only reported by the leader)");
+    AttributeSensor<Integer> SYNCED_FOLLOWERS = Sensors.newIntegerSensor("zookeeper.followers.synced", "Number of followers in sync with the leader (only reported by the leader)");
+    AttributeSensor<Integer> PENDING_SYNCS = Sensors.newIntegerSensor("zookeeper.syncs.pending", "Number of pending follower syncs (only reported by the leader)");
+
     Integer getZookeeperPort();
 
     String getHostname();
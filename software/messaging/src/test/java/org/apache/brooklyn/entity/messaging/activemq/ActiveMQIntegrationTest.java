@@ -23,6 +23,8 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 
+import java.util.Map;
+
 import javax.jms.Connection;
 import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
@@ -49,6 +51,7 @@ import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * Test the operation of the {@link ActiveMQBroker} class.
@@ -220,6 +223,38 @@ public class ActiveMQIntegrationTest {
         return jmxUrl;
     }
 
+    /**
+     * Test that a batch of destinations can be created and deleted without child entities,
+     * and that their statistics are still reported by the broker.
+     */
+    @Test(groups = "Integration")
+    public void testLightweightDestinations() throws Exception {
+        activeMQ = app.createAndManageChild(EntitySpec.create(ActiveMQBroker.class)
+            .configure(ActiveMQBroker.DESTINATION_ENTITIES, false));
+
+        activeMQ.start(ImmutableList.of(testLocation));
+        EntityTestUtils.assertAttributeEqualsEventually(ImmutableMap.of("timeout", 10*60*1000), activeMQ, Startable.SERVICE_UP, true);
+
+        try {
+            Map<String, Map<String, String>> created = activeMQ.addDestinations(ImmutableList.of("orders", "invoices"), ImmutableList.of("prices"));
+            assertEquals(created.get("queues"), ImmutableMap.of("orders", "created", "invoices", "created"));
+            assertEquals(created.get("topics"), ImmutableMap.of("prices", "created"));
+            assertTrue(activeMQ.getChildren().isEmpty());
+            assertEquals(activeMQ.getAttribute(ActiveMQBroker.LIGHTWEIGHT_QUEUES), ImmutableSet.of("orders", "invoices"));
+
+            Connection connection = getActiveMQConnection(activeMQ);
+            sendMessages(connection, 20, "orders", "01234567890123456789012345678901");
+            EntityTestUtils.assertAttributeEqualsEventually(activeMQ, ActiveMQBroker.LARGEST_BACKLOGS, ImmutableMap.of("orders", 20L));
+            connection.close();
+
+            Map<String, Map<String, String>> deleted = activeMQ.removeDestinations(ImmutableList.of("orders", "invoices"), ImmutableList.of("prices"));
+            assertEquals(deleted.get("queues"), ImmutableMap.of("orders", "deleted", "invoices", "deleted"));
+            assertTrue(activeMQ.getAttribute(ActiveMQBroker.LIGHTWEIGHT_QUEUES).isEmpty());
+        } finally {
+            activeMQ.stop();
+        }
+    }
+
     private Connection getActiveMQConnection(ActiveMQBroker activeMQ) throws Exception {
         int port = activeMQ.getAttribute(ActiveMQBroker.OPEN_WIRE_PORT);
         String address = activeMQ.getAttribute(ActiveMQBroker.ADDRESS);
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.jms;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class JMSDestinationStatisticsTest {
+
+    private static final Map<String, JMSDestinationStatistics> STATISTICS = ImmutableMap.of(
+            "orders", statistics(120L),
+            "audit", statistics(0L),
+            "invoices", statistics(45L),
+            "refunds", statistics(45L),
+            "unknown", statistics(null));
+
+    @Test
+    public void testLargestBacklogsOrderedBySizeThenName() {
+        Map<String, Long> result = JMSDestinationStatistics.largestBacklogs(STATISTICS, 2);
+        assertEquals(ImmutableList.copyOf(result.keySet()), ImmutableList.of("orders", "invoices"));
+        assertEquals(result.get("orders"), Long.valueOf(120));
+    }
+
+    @Test
+    public void testLargestBacklogsOmitsEmptyDestinations() {
+        Map<String, Long> result = JMSDestinationStatistics.largestBacklogs(STATISTICS, 10);
+        assertEquals(ImmutableList.copyOf(result.keySet()), ImmutableList.of("orders", "invoices", "refunds"));
+    }
+
+    @Test
+    public void testTotalBacklog() {
+        assertEquals(JMSDestinationStatistics.totalBacklog(STATISTICS), 210L);
+    }
+
+    private static JMSDestinationStatistics statistics(Long size) {
+        return new JMSDestinationStatistics(size, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.kafka;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class KafkaConsumerLagTest {
+
+    private static final String OFFSET_CHECKER_OUTPUT =
+            "Group           Topic                          Pid Offset          logSize         Lag             Owner\n" +
+            "indexer         events                         0   100             150             50              indexer_host1-0\n" +
+            "indexer         events                         1   200             230             30              indexer_host1-0\n" +
+            "indexer         audit                          0   10              10              0               none\n" +
+            "archiver        events                         0   90              150             60              archiver_host2-0\n" +
+            "archiver        events                         1   unknown         230             unknown         none\n";
+
+    @Test
+    public void testParseOffsetCheckerOutput() {
+        Map<String, Map<String, Long>> lag = KafkaConsumerLag.parseOffsetCheckerOutput(OFFSET_CHECKER_OUTPUT);
+        assertEquals(lag.keySet().size(), 2);
+        assertEquals(lag.get("indexer"), ImmutableMap.of("audit", 0L, "events", 80L));
+        assertEquals(lag.get("archiver"), ImmutableMap.of("events", 60L));
+    }
+
+    @Test
+    public void testParseEmptyOutput() {
+        assertTrue(KafkaConsumerLag.parseOffsetCheckerOutput(null).isEmpty());
+        assertTrue(KafkaConsumerLag.parseOffsetCheckerOutput("").isEmpty());
+    }
+
+    @Test
+    public void testTotalsAndMax() {
+        Map<String, Map<String, Long>> lag = KafkaConsumerLag.parseOffsetCheckerOutput(OFFSET_CHECKER_OUTPUT);
+        assertEquals(KafkaConsumerLag.totalByGroup(lag), ImmutableMap.of("archiver", 60L, "indexer", 80L));
+        assertEquals(KafkaConsumerLag.max(lag), 80L);
+        assertEquals(KafkaConsumerLag.max(KafkaConsumerLag.parseOffsetCheckerOutput("")), 0L);
+    }
+
+    @Test
+    public void testGroupLagSensorName() {
+        assertEquals(KafkaConsumerLag.groupLagSensor("indexer").getName(), "kafka.cluster.consumerLag.group.indexer");
+    }
+}
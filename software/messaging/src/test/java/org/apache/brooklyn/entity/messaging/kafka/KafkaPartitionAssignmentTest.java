@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.kafka;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+public class KafkaPartitionAssignmentTest {
+
+    private static final String DESCRIBE_OUTPUT =
+            "Topic:events\tPartitionCount:4\tReplicationFactor:2\tConfigs:\n" +
+            "\tTopic: events\tPartition: 0\tLeader: 1\tReplicas: 1,2\tIsr: 1,2\n" +
+            "\tTopic: events\tPartition: 1\tLeader: 2\tReplicas: 2,1\tIsr: 2,1\n" +
+            "\tTopic: events\tPartition: 2\tLeader: 1\tReplicas: 1,2\tIsr: 1,2\n" +
+            "\tTopic: events\tPartition: 3\tLeader: 2\tReplicas: 2,1\tIsr: 2,1\n";
+
+    @Test
+    public void testParseDescribeOutput() {
+        Map<String, Map<Integer, List<Integer>>> assignment = KafkaPartitionAssignment.parseDescribeOutput(DESCRIBE_OUTPUT);
+        assertEquals(assignment.keySet().size(), 1);
+        assertEquals(assignment.get("events").size(), 4);
+        assertEquals(assignment.get("events").get(1), ImmutableList.of(2, 1));
+    }
+
+    @Test
+    public void testBalanceOntoNewBrokerMovesOnlyExcessReplicas() {
+        Map<String, Map<Integer, List<Integer>>> current = KafkaPartitionAssignment.parseDescribeOutput(DESCRIBE_OUTPUT);
+        Map<String, Map<Integer, List<Integer>>> target = KafkaPartitionAssignment.balance(current, ImmutableList.of(1, 2, 3, 4));
+
+        Map<Integer, Integer> load = Maps.newHashMap();
+        for (List<Integer> replicas : target.get("events").values()) {
+            assertEquals(replicas.size(), 2);
+            assertFalse(replicas.get(0).equals(replicas.get(1)), "replicas "+replicas);
+            for (Integer id : replicas) load.put(id, (load.containsKey(id) ? load.get(id) : 0) + 1);
+        }
+        assertEquals(load.get(1), (Integer) 2);
+        assertEquals(load.get(2), (Integer) 2);
+        assertEquals(load.get(3), (Integer) 2);
+        assertEquals(load.get(4), (Integer) 2);
+
+        // brokers 1 and 2 each kept two replicas, so only two of the four partitions moved
+        assertEquals(KafkaPartitionAssignment.size(KafkaPartitionAssignment.changes(current, target)), 2);
+    }
+
+    @Test
+    public void testBalanceDrainsRemovedBroker() {
+        Map<String, Map<Integer, List<Integer>>> current = KafkaPartitionAssignment.parseDescribeOutput(
+                DESCRIBE_OUTPUT.replace("Replicas: 2,1", "Replicas: 3,1"));
+        Map<String, Map<Integer, List<Integer>>> target = KafkaPartitionAssignment.balance(current, ImmutableList.of(1, 2));
+        for (List<Integer> replicas : target.get("events").values()) {
+            assertFalse(replicas.contains(3), "replicas "+replicas);
+        }
+    }
+
+    @Test
+    public void testBalancedAssignmentIsUnchanged() {
+        Map<String, Map<Integer, List<Integer>>> current = KafkaPartitionAssignment.parseDescribeOutput(DESCRIBE_OUTPUT);
+        Map<String, Map<Integer, List<Integer>>> target = KafkaPartitionAssignment.balance(current, ImmutableList.of(1, 2));
+        assertTrue(KafkaPartitionAssignment.changes(current, target).isEmpty());
+    }
+
+    @Test
+    public void testBatchesAndJson() {
+        Map<String, Map<Integer, List<Integer>>> current = KafkaPartitionAssignment.parseDescribeOutput(DESCRIBE_OUTPUT);
+        List<Map<String, Map<Integer, List<Integer>>>> batches = KafkaPartitionAssignment.batches(current, 3);
+        assertEquals(batches.size(), 2);
+        assertEquals(KafkaPartitionAssignment.size(batches.get(0)), 3);
+        assertEquals(KafkaPartitionAssignment.size(batches.get(1)), 1);
+        assertEquals(KafkaPartitionAssignment.toReassignmentJson(batches.get(1)),
+                "{\"version\":1,\"partitions\":[{\"topic\":\"events\",\"partition\":3,\"replicas\":[2,1]}]}");
+    }
+
+    @Test
+    public void testParseVerifyOutput() {
+        KafkaPartitionAssignment.VerifyResult result = KafkaPartitionAssignment.parseVerifyOutput(
+                "Status of partition reassignment:\n" +
+                "Reassignment of partition [events,0] completed successfully\n" +
+                "Reassignment of partition [events,1] is still in progress\n");
+        assertEquals(result.completed, 1);
+        assertEquals(result.inProgress, 1);
+        assertFalse(result.isFinished());
+        assertTrue(result.failed.isEmpty());
+    }
+}
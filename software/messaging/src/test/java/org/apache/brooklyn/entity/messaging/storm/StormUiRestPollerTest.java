@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.storm;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public class StormUiRestPollerTest {
+
+    private static final String CLUSTER_SUMMARY =
+            "{\"stormVersion\":\"0.9.2-incubating\",\"nimbusUptime\":\"3m 53s\",\"supervisors\":3," +
+            "\"slotsTotal\":12,\"slotsUsed\":3,\"slotsFree\":9,\"executorsTotal\":28,\"tasksTotal\":28}";
+
+    private static final String WORD_COUNT =
+            "{\"id\":\"word-count-1-1404145066\",\"name\":\"word-count\",\"topologyStats\":[" +
+            "{\"windowPretty\":\"10m 0s\",\"window\":\"600\",\"emitted\":60000,\"transferred\":60000," +
+                    "\"completeLatency\":\"10.000\",\"acked\":6000,\"failed\":60}," +
+            "{\"windowPretty\":\"All time\",\"window\":\":all-time\",\"emitted\":999999,\"transferred\":999999," +
+                    "\"completeLatency\":\"99.000\",\"acked\":99999,\"failed\":999}]," +
+            "\"bolts\":[{\"boltId\":\"count\",\"capacity\":\"0.250\"},{\"boltId\":\"split\",\"capacity\":\"0.900\"}]}";
+
+    private static final String EXCLAMATION =
+            "{\"id\":\"exclamation-2-1404145100\",\"name\":\"exclamation\",\"topologyStats\":[" +
+            "{\"windowPretty\":\"10m 0s\",\"window\":\"600\",\"emitted\":6000,\"transferred\":6000," +
+                    "\"completeLatency\":\"40.000\",\"acked\":3000,\"failed\":0}]," +
+            "\"bolts\":[{\"boltId\":\"exclaim\",\"capacity\":null}]}";
+
+    @Test
+    public void testSummariseClusterAndTopologies() {
+        Map<String, Double> result = StormUiRestPoller.summarise(json(CLUSTER_SUMMARY),
+                ImmutableList.of(json(WORD_COUNT), json(EXCLAMATION)));
+        assertEquals(result.get(StormUiRestPoller.SLOTS_TOTAL), 12d);
+        assertEquals(result.get(StormUiRestPoller.SLOTS_USED), 3d);
+        assertEquals(result.get(StormUiRestPoller.SLOTS_FREE), 9d);
+        assertEquals(result.get(StormUiRestPoller.SUPERVISORS), 3d);
+        assertEquals(result.get(StormUiRestPoller.TOPOLOGIES), 2d);
+        // only the ten minute window counts
+        assertEquals(result.get(StormUiRestPoller.EMITTED_PER_SECOND), 110d, 0.001);
+        assertEquals(result.get(StormUiRestPoller.ACKED_PER_SECOND), 15d, 0.001);
+        assertEquals(result.get(StormUiRestPoller.FAILED_PER_SECOND), 0.1d, 0.001);
+        // latency weighted by acks: (6000*10 + 3000*40) / 9000
+        assertEquals(result.get(StormUiRestPoller.COMPLETE_LATENCY), 20d, 0.001);
+        assertEquals(result.get(StormUiRestPoller.MAX_BOLT_CAPACITY), 0.9d, 0.001);
+    }
+
+    @Test
+    public void testSummariseWithoutTopologies() {
+        Map<String, Double> result = StormUiRestPoller.summarise(json(CLUSTER_SUMMARY), ImmutableList.<JsonObject>of());
+        assertEquals(result.get(StormUiRestPoller.TOPOLOGIES), 0d);
+        assertEquals(result.get(StormUiRestPoller.ACKED_PER_SECOND), 0d);
+        assertEquals(result.get(StormUiRestPoller.COMPLETE_LATENCY), 0d);
+        assertEquals(result.get(StormUiRestPoller.MAX_BOLT_CAPACITY), 0d);
+    }
+
+    @Test
+    public void testValueFunctions() {
+        Map<String, Double> summary = ImmutableMap.of(StormUiRestPoller.SLOTS_TOTAL, 12d, StormUiRestPoller.SLOTS_USED, 3d);
+        assertEquals(StormUiRestPoller.intValue(StormUiRestPoller.SLOTS_TOTAL).apply(summary), Integer.valueOf(12));
+        assertEquals(StormUiRestPoller.slotUtilisation().apply(summary), 0.25d, 0.001);
+        assertNull(StormUiRestPoller.doubleValue(StormUiRestPoller.COMPLETE_LATENCY).apply(summary));
+        assertNull(StormUiRestPoller.slotUtilisation().apply(ImmutableMap.of(StormUiRestPoller.SLOTS_TOTAL, 0d, StormUiRestPoller.SLOTS_USED, 0d)));
+    }
+
+    private static JsonObject json(String text) {
+        return new JsonParser().parse(text).getAsJsonObject();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.messaging.zookeeper;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.apache.brooklyn.entity.zookeeper.ZooKeeperFourLetterWordPoller;
+import org.testng.annotations.Test;
+
+public class ZooKeeperFourLetterWordPollerTest {
+
+    private static final String MNTR_LEADER =
+            "zk_version\t3.4.5-1392090, built on 09/30/2012 17:52 GMT\n" +
+            "zk_avg_latency\t2\n" +
+            "zk_max_latency\t87\n" +
+            "zk_min_latency\t0\n" +
+            "zk_packets_received\t1520\n" +
+            "zk_packets_sent\t1519\n" +
+            "zk_num_alive_connections\t3\n" +
+            "zk_outstanding_requests\t0\n" +
+            "zk_server_state\tleader\n" +
+            "zk_znode_count\t42\n" +
+            "zk_watch_count\t7\n" +
+            "zk_ephemerals_count\t2\n" +
+            "zk_approximate_data_size\t1234\n" +
+            "zk_followers\t2\n" +
+            "zk_synced_followers\t1\n" +
+            "zk_pending_syncs\t0\n";
+
+    private static final String SRVR_FOLLOWER =
+            "Zookeeper version: 3.3.6-1366786, built on 07/29/2012 06:22 GMT\n" +
+            "Latency min/avg/max: 0/3/120\n" +
+            "Received: 300\n" +
+            "Sent: 299\n" +
+            "Outstanding: 1\n" +
+            "Zxid: 0x100000002\n" +
+            "Mode: follower\n" +
+            "Node count: 42\n";
+
+    @Test
+    public void testParseMntr() {
+        Map<String, String> stats = ZooKeeperFourLetterWordPoller.parseMntr(MNTR_LEADER);
+        assertEquals(stats.get(ZooKeeperFourLetterWordPoller.SERVER_STATE), "leader");
+        assertEquals(ZooKeeperFourLetterWordPoller.longValue(ZooKeeperFourLetterWordPoller.MAX_LATENCY).apply(stats), (Long) 87L);
+        assertEquals(ZooKeeperFourLetterWordPoller.longValue(ZooKeeperFourLetterWordPoller.ZNODE_COUNT).apply(stats), (Long) 42L);
+        assertEquals(ZooKeeperFourLetterWordPoller.intValue(ZooKeeperFourLetterWordPoller.SYNCED_FOLLOWERS).apply(stats), (Integer) 1);
+    }
+
+    @Test
+    public void testParseSrvrUsesMntrKeys() {
+        Map<String, String> stats = ZooKeeperFourLetterWordPoller.parseSrvr(SRVR_FOLLOWER);
+        assertEquals(stats.get(ZooKeeperFourLetterWordPoller.SERVER_STATE), "follower");
+        assertEquals(ZooKeeperFourLetterWordPoller.longValue(ZooKeeperFourLetterWordPoller.AVG_LATENCY).apply(stats), (Long) 3L);
+        assertEquals(ZooKeeperFourLetterWordPoller.longValue(ZooKeeperFourLetterWordPoller.MAX_LATENCY).apply(stats), (Long) 120L);
+        assertEquals(ZooKeeperFourLetterWordPoller.longValue(ZooKeeperFourLetterWordPoller.OUTSTANDING_REQUESTS).apply(stats), (Long) 1L);
+        assertNull(ZooKeeperFourLetterWordPoller.intValue(ZooKeeperFourLetterWordPoller.FOLLOWERS).apply(stats));
+    }
+
+    @Test
+    public void testUnrecognisedCommandGivesEmptyResult() {
+        assertTrue(ZooKeeperFourLetterWordPoller.parseMntr("").isEmpty());
+        assertTrue(ZooKeeperFourLetterWordPoller.parseMntr("mntr is not executed because it is not in the whitelist.\n").isEmpty());
+    }
+}
@@ -97,8 +97,8 @@ public interface CassandraDatacenter extends DynamicCluster, DatastoreMixins.Has
             256);
     
     /**
-     * Additional time after the nodes in the cluster are up when starting
-     * before announcing the cluster as up.
+     * Maximum time after the nodes in the cluster are up when starting, waiting for them all to be
+     * in the ring and agree on the schema, before announcing the cluster as up.
      * <p>
      * Useful to ensure nodes have synchronized.
      * <p>
@@ -107,7 +107,7 @@ public interface CassandraDatacenter extends DynamicCluster, DatastoreMixins.Has
      * seconds is sufficient even with 2 seed nodes
      */
     @SetFromFlag("delayBeforeAdvertisingCluster")
-    ConfigKey<Duration> DELAY_BEFORE_ADVERTISING_CLUSTER = ConfigKeys.newConfigKey(Duration.class, "cassandra.cluster.delayBeforeAdvertisingCluster", "Delay after cluster is started before checking and advertising its availability", Duration.TEN_SECONDS);
+    ConfigKey<Duration> DELAY_BEFORE_ADVERTISING_CLUSTER = ConfigKeys.newConfigKey(Duration.class, "cassandra.cluster.delayBeforeAdvertisingCluster", "Maximum delay after cluster is started, waiting for ring membership and schema agreement, before advertising its availability", Duration.TEN_SECONDS);
 
     @SuppressWarnings("serial")
     AttributeSensor<Multimap<String,Entity>> DATACENTER_USAGE = Sensors.newSensor(new TypeToken<Multimap<String,Entity>>() { }, "cassandra.cluster.datacenterUsages", "Current set of datacenters in use, with nodes in each");
@@ -128,7 +128,7 @@ public interface CassandraDatacenter extends DynamicCluster, DatastoreMixins.Has
 
     AttributeSensor<Integer> THRIFT_PORT = Sensors.newIntegerSensor("cassandra.cluster.thrift.port", "Cassandra Thrift RPC port to connect to cluster with");
 
-    AttributeSensor<Long> FIRST_NODE_STARTED_TIME_UTC = Sensors.newLongSensor("cassandra.cluster.first.node.started.utc", "Time (UTC) when the first node was started");
+    AttributeSensor<Long> FIRST_NODE_STARTED_TIME_UTC = Sensors.newLongSensor("cassandra.cluster.first.node.started.utc", "Time (UTC) when the first node was started and ready in the ring");
     @SuppressWarnings("serial")
     AttributeSensor<List<Entity>> QUEUED_START_NODES = Sensors.newSensor(new TypeToken<List<Entity>>() {}, "cassandra.cluster.start.nodes.queued",
         "Nodes queued for starting (for sequential start)");
@@ -169,7 +169,8 @@ public interface CassandraDatacenter extends DynamicCluster, DatastoreMixins.Has
     int DEFAULT_SEED_QUORUM = 2;
 
     /**
-     * Can insert a delay after the first node comes up.
+     * Maximum time to wait after the first node comes up for it to be ready in the ring
+     * (in {@code NORMAL} mode, with schema agreement) before starting the other nodes.
      * <p>
      * Reportedly not needed with 1.2.9, but we are still seeing some seed failures so re-introducing it.
      * (This does not seem to help with the bug in 1.2.2.)
@@ -177,9 +178,9 @@ public interface CassandraDatacenter extends DynamicCluster, DatastoreMixins.Has
     Duration DELAY_AFTER_FIRST = Duration.ONE_MINUTE;
 
     /**
-     * If set (ie non-null), this waits the indicated time after a successful launch of one node
-     * before starting the next.  (If it is null, all nodes start simultaneously,
-     * possibly after the DELAY_AFTER_FIRST.)
+     * If set (ie non-null), nodes start one at a time, each waiting for the previous one to be
+     * ready in the ring, or for at most the indicated time after its launch.  (If it is null,
+     * all nodes start simultaneously, once the first node is ready.)
      * <p>
      * When subsequent nodes start simultaneously, we occasionally see schema disagreement problems;
      * if nodes start sequentially, we occasionally get "no sources for (tokenRange]" problems.
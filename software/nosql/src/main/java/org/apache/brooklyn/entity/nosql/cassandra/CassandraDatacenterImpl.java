@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.annotation.Nullable;
 
@@ -38,6 +39,7 @@ import org.apache.brooklyn.api.sensor.SensorEventListener;
 import org.apache.brooklyn.core.effector.EffectorBody;
 import org.apache.brooklyn.core.entity.Attributes;
 import org.apache.brooklyn.core.entity.Entities;
+import org.apache.brooklyn.core.entity.EntityInternal;
 import org.apache.brooklyn.core.entity.EntityPredicates;
 import org.apache.brooklyn.core.entity.lifecycle.Lifecycle;
 import org.apache.brooklyn.core.entity.lifecycle.ServiceStateLogic.ServiceNotUpLogic;
@@ -53,8 +55,10 @@ import org.apache.brooklyn.util.collections.MutableMap;
 import org.apache.brooklyn.util.collections.MutableSet;
 import org.apache.brooklyn.util.core.ResourceUtils;
 import org.apache.brooklyn.util.core.config.ConfigBag;
+import org.apache.brooklyn.util.core.task.Tasks;
+import org.apache.brooklyn.util.repeat.Repeater;
 import org.apache.brooklyn.util.text.Strings;
-import org.apache.brooklyn.util.time.Time;
+import org.apache.brooklyn.util.time.Duration;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
@@ -351,13 +355,11 @@ public class CassandraDatacenterImpl extends DynamicClusterImpl implements Cassa
 
         connectSensors();
 
-        // TODO wait until all nodes which we think are up are consistent 
-        // i.e. all known nodes use the same schema, as reported by
-        // SshEffectorTasks.ssh("echo \"describe cluster;\" | /bin/cassandra-cli");
-        // once we've done that we can revert to using 2 seed nodes.
-        // see CassandraCluster.DEFAULT_SEED_QUORUM
-        // (also ensure the cluster is ready if we are about to run a creation script)
-        Time.sleep(getConfig(DELAY_BEFORE_ADVERTISING_CLUSTER));
+        // wait until all nodes which we think are up are in the ring and use the same schema,
+        // with the configured delay as an upper bound
+        // (also ensures the cluster is ready if we are about to run a creation script)
+        waitForRingToSettle(this, Iterables.filter(getMembers(), EntityPredicates.attributeEqualTo(SERVICE_UP, true)),
+                getConfig(DELAY_BEFORE_ADVERTISING_CLUSTER));
 
         String scriptUrl = getConfig(CassandraNode.CREATION_SCRIPT_URL);
         if (Strings.isNonEmpty(scriptUrl)) {
@@ -367,6 +369,40 @@ public class CassandraDatacenterImpl extends DynamicClusterImpl implements Cassa
         update();
     }
 
+    /**
+     * Waits until the ring, as seen by one of the given nodes, has all of them up/normal and agreeing
+     * on a single schema version, or until the limit has passed. Publishes the number of schema
+     * versions seen on the given cluster entity while waiting.
+     *
+     * @return whether the ring settled within the limit
+     */
+    static boolean waitForRingToSettle(final EntityInternal cluster, Iterable<Entity> upNodes, Duration limit) {
+        final List<Entity> nodes = ImmutableList.copyOf(upNodes);
+        if (nodes.isEmpty()) return true;
+        Tasks.setBlockingDetails("Waiting for "+nodes.size()+" nodes to settle in the ring with schema agreement");
+        try {
+            boolean settled = Repeater.create("Waiting for ring of "+cluster+" to settle")
+                    .every(Duration.ONE_SECOND)
+                    .limitTimeTo(limit)
+                    .until(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                            CassandraNodeImpl reporter = (CassandraNodeImpl) Entities.deproxy(nodes.get(0));
+                            CassandraRingStatus status = reporter.getDriver().getRingStatus();
+                            cluster.sensors().set(CassandraDatacenter.SCHEMA_VERSION_COUNT, status.getSchemaVersionCount());
+                            return status.isSettled(nodes.size());
+                        }
+                    })
+                    .run();
+            if (!settled) {
+                log.warn("Ring of "+cluster+" not settled after "+limit+"; advertising anyway");
+            }
+            return settled;
+        } finally {
+            Tasks.resetBlockingDetails();
+        }
+    }
+
     protected void connectSensors() {
         connectEnrichers();
         
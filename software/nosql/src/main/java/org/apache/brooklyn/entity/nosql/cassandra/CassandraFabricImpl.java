@@ -39,13 +39,13 @@ import org.apache.brooklyn.entity.group.DynamicGroup;
 import org.apache.brooklyn.util.collections.CollectionFunctionals;
 import org.apache.brooklyn.util.collections.MutableMap;
 import org.apache.brooklyn.util.collections.MutableSet;
-import org.apache.brooklyn.util.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
+import com.google.common.base.Predicates;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -325,12 +325,12 @@ public class CassandraFabricImpl extends DynamicFabricImpl implements CassandraF
 
         connectSensors();
 
-        // TODO wait until all nodes which we think are up are consistent 
-        // i.e. all known nodes use the same schema, as reported by
-        // SshEffectorTasks.ssh("echo \"describe cluster;\" | /bin/cassandra-cli");
-        // once we've done that we can revert to using 2 seed nodes.
-        // see CassandraCluster.DEFAULT_SEED_QUORUM
-        Time.sleep(getConfig(CassandraDatacenter.DELAY_BEFORE_ADVERTISING_CLUSTER));
+        // wait until all nodes which we think are up, across all datacenters, are in the ring and
+        // use the same schema, with the configured delay as an upper bound
+        CassandraDatacenterImpl.waitForRingToSettle(this,
+                Iterables.filter(Entities.descendants(this), Predicates.and(
+                        Predicates.instanceOf(CassandraNode.class), EntityPredicates.attributeEqualTo(SERVICE_UP, true))),
+                getConfig(CassandraDatacenter.DELAY_BEFORE_ADVERTISING_CLUSTER));
 
         update();
     }
@@ -44,4 +44,7 @@ public interface CassandraNodeDriver extends JavaSoftwareProcessDriver {
     /** returns the address that the given hostname resolves to at the target */
     String getResolvedAddress(String hostname);
 
+    /** returns the ring as currently seen by this node, from nodetool */
+    CassandraRingStatus getRingStatus();
+
 }
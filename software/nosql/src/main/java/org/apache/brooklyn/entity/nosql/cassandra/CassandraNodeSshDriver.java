@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntityLocal;
@@ -47,6 +48,7 @@ import com.google.common.collect.ImmutableSet;
 import org.apache.brooklyn.entity.database.DatastoreMixins;
 import org.apache.brooklyn.entity.java.JavaSoftwareProcessSshDriver;
 import org.apache.brooklyn.entity.java.UsesJmx;
+import org.apache.brooklyn.entity.software.base.lifecycle.ScriptHelper;
 import org.apache.brooklyn.location.ssh.SshMachineLocation;
 import org.apache.brooklyn.util.collections.MutableMap;
 import org.apache.brooklyn.util.collections.MutableSet;
@@ -58,12 +60,12 @@ import org.apache.brooklyn.util.exceptions.Exceptions;
 import org.apache.brooklyn.util.guava.Maybe;
 import org.apache.brooklyn.util.net.Networking;
 import org.apache.brooklyn.util.os.Os;
+import org.apache.brooklyn.util.repeat.Repeater;
 import org.apache.brooklyn.util.ssh.BashCommands;
 import org.apache.brooklyn.util.stream.Streams;
 import org.apache.brooklyn.util.text.Identifiers;
 import org.apache.brooklyn.util.text.Strings;
 import org.apache.brooklyn.util.time.Duration;
-import org.apache.brooklyn.util.time.Time;
 
 /**
  * Start a {@link CassandraNode} in a {@link Location} accessible over ssh.
@@ -250,17 +252,12 @@ public class CassandraNodeSshDriver extends JavaSoftwareProcessSshDriver impleme
 
         boolean isFirst = seeds.iterator().next().equals(entity);
         if (isClustered() && !isFirst && CassandraDatacenter.WAIT_FOR_FIRST) {
-            // wait for the first node
-            long firstStartTime = Entities.submit(entity, DependentConfiguration.attributeWhenReady(
+            // wait for the first node; it publishes its start time only once it is ready in the ring
+            // (or DELAY_AFTER_FIRST has passed), so no further delay is needed here to prevent schema disagreements
+            Tasks.setBlockingDetails("Waiting for first node to be ready in the ring");
+            Entities.submit(entity, DependentConfiguration.attributeWhenReady(
                 ancestors.get(ancestors.size()-1), CassandraDatacenter.FIRST_NODE_STARTED_TIME_UTC)).getUnchecked();
-            // optionally force a delay before starting subsequent nodes; see comment at CassandraCluster.DELAY_AFTER_FIRST
-            Duration toWait = Duration.millis(firstStartTime + CassandraDatacenter.DELAY_AFTER_FIRST.toMilliseconds() -  System.currentTimeMillis());
-            if (toWait.toMilliseconds()>0) {
-                log.info("Launching " + entity + ": delaying launch of non-first node by "+toWait+" to prevent schema disagreements");
-                Tasks.setBlockingDetails("Pausing to ensure first node has time to start");
-                Time.sleep(toWait);
-                Tasks.resetBlockingDetails();
-            }
+            Tasks.resetBlockingDetails();
         }
 
         List<Entity> queuedStart = null;
@@ -290,9 +287,6 @@ public class CassandraNodeSshDriver extends JavaSoftwareProcessSshDriver impleme
                     }
                 }
             } while (true);
-
-            // TODO should look at last start time... but instead we always wait
-            CassandraDatacenter.DELAY_BETWEEN_STARTS.countdownTimer().waitForExpiryUnchecked();
         }
 
         try {
@@ -308,17 +302,20 @@ public class CassandraNodeSshDriver extends JavaSoftwareProcessSshDriver impleme
             if (!isClustered()) {
                 InputStream creationScript = DatastoreMixins.getDatabaseCreationScript(entity);
                 if (creationScript!=null) {
-                    Tasks.setBlockingDetails("Pausing to ensure Cassandra (singleton) has started before running creation script");
-                    Time.sleep(Duration.seconds(20));
-                    Tasks.resetBlockingDetails();
+                    waitForReadyInRing(Duration.seconds(20));
                     executeScriptAsync(Streams.readFullyString(creationScript));
                 }
             }
             if (isClustered() && isFirst) {
+                waitForReadyInRing(CassandraDatacenter.DELAY_AFTER_FIRST);
                 for (Entity ancestor: getCassandraAncestors()) {
                     ((EntityLocal)ancestor).sensors().set(CassandraDatacenter.FIRST_NODE_STARTED_TIME_UTC, System.currentTimeMillis());
                 }
             }
+            if (queuedStart!=null) {
+                // hold the head of the queue until this node has joined, rather than for a fixed time
+                waitForReadyInRing(CassandraDatacenter.DELAY_BETWEEN_STARTS);
+            }
         } finally {
             if (queuedStart!=null) {
                 Entity head = queuedStart.remove(0);
@@ -330,6 +327,49 @@ public class CassandraNodeSshDriver extends JavaSoftwareProcessSshDriver impleme
         }
     }
 
+    /**
+     * Waits until this node reports itself as {@code NORMAL} in the ring with the ring agreeing on a
+     * single schema version, or until the given limit has passed.
+     *
+     * @return whether the node became ready within the limit
+     */
+    protected boolean waitForReadyInRing(Duration limit) {
+        Tasks.setBlockingDetails("Waiting for node to join the ring with schema agreement");
+        try {
+            boolean ready = Repeater.create("Waiting for "+entity+" to be ready in the ring")
+                    .every(Duration.ONE_SECOND)
+                    .limitTimeTo(limit)
+                    .until(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                            return getRingStatus().isReady();
+                        }
+                    })
+                    .run();
+            if (!ready) {
+                log.warn("Launching " + entity + ": node not ready in the ring after "+limit+"; continuing");
+            }
+            return ready;
+        } finally {
+            Tasks.resetBlockingDetails();
+        }
+    }
+
+    @Override
+    public CassandraRingStatus getRingStatus() {
+        Integer rmiPort = entity.getAttribute(UsesJmx.RMI_REGISTRY_PORT);
+        String nodetool = "./bin/nodetool -h localhost" + (rmiPort != null ? " -p " + rmiPort : "");
+        ScriptHelper script = newScript("ringStatus")
+                .body.append(
+                        nodetool + " netstats || true",
+                        nodetool + " status || true",
+                        nodetool + " describecluster || true")
+                .gatherOutput()
+                .noExtraOutput();
+        script.execute();
+        return CassandraRingStatus.parse(script.getResultStdout());
+    }
+
     /** returns cassandra-related ancestors (datacenter, fabric), with datacenter first and fabric last */
     protected List<Entity> getCassandraAncestors() {
         List<Entity> result = new ArrayList<Entity>();
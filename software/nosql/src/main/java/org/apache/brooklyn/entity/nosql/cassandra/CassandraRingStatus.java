@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.cassandra;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * A snapshot of the ring as seen by one {@link CassandraNode}, parsed from the combined output of
+ * {@code nodetool netstats}, {@code nodetool status} and {@code nodetool describecluster}.
+ * <p>
+ * Used to gate cluster start-up on readiness rather than on fixed delays: a node is ready to be
+ * followed by the next once it is in {@code NORMAL} mode and the ring agrees on a single schema
+ * version.
+ */
+public class CassandraRingStatus {
+
+    private static final Pattern MODE = Pattern.compile("^Mode:\\s*(\\w+)");
+    private static final Pattern NODE_STATE = Pattern.compile("^([UD][NLJM])\\s+(\\S+)\\s+");
+    private static final Pattern SCHEMA_VERSION = Pattern.compile("^(\\S+):\\s*\\[(.*)\\]");
+
+    /** Key used by {@code describecluster} for nodes whose schema version is unknown. */
+    public static final String UNREACHABLE = "UNREACHABLE";
+
+    private final String operationMode;
+    private final Map<String, String> nodeStates;
+    private final Map<String, List<String>> schemaVersions;
+
+    CassandraRingStatus(String operationMode, Map<String, String> nodeStates, Map<String, List<String>> schemaVersions) {
+        this.operationMode = operationMode;
+        this.nodeStates = ImmutableMap.copyOf(nodeStates);
+        this.schemaVersions = ImmutableMap.copyOf(schemaVersions);
+    }
+
+    public static CassandraRingStatus parse(String output) {
+        String mode = null;
+        Map<String, String> states = Maps.newLinkedHashMap();
+        Map<String, List<String>> versions = Maps.newLinkedHashMap();
+        boolean inSchemaVersions = false;
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(output == null ? "" : output)) {
+            Matcher matcher;
+            if (line.startsWith("Schema versions:")) {
+                inSchemaVersions = true;
+            } else if (inSchemaVersions && (matcher = SCHEMA_VERSION.matcher(line)).find()) {
+                versions.put(matcher.group(1), ImmutableList.copyOf(Splitter.on(',').omitEmptyStrings().trimResults().split(matcher.group(2))));
+            } else if ((matcher = MODE.matcher(line)).find()) {
+                mode = matcher.group(1);
+            } else if ((matcher = NODE_STATE.matcher(line)).find()) {
+                states.put(matcher.group(2), matcher.group(1));
+            }
+        }
+        return new CassandraRingStatus(mode, states, versions);
+    }
+
+    /** The local node's operation mode, e.g. {@code JOINING} or {@code NORMAL}; null if unknown. */
+    public String getOperationMode() {
+        return operationMode;
+    }
+
+    /** Two-letter status/state (e.g. {@code UN} for up/normal) of each node in the ring, keyed by address. */
+    public Map<String, String> getNodeStates() {
+        return nodeStates;
+    }
+
+    /** Addresses of the nodes on each schema version, excluding those reported as unreachable. */
+    public Map<String, List<String>> getSchemaVersions() {
+        return Maps.filterKeys(schemaVersions, new Predicate<String>() {
+            @Override
+            public boolean apply(String input) {
+                return !UNREACHABLE.equals(input);
+            }
+        });
+    }
+
+    public int getSchemaVersionCount() {
+        return getSchemaVersions().size();
+    }
+
+    public int getUpNormalCount() {
+        int result = 0;
+        for (String state : nodeStates.values()) {
+            if ("UN".equals(state)) result++;
+        }
+        return result;
+    }
+
+    /** Whether the local node has finished joining and the ring agrees on one schema version. */
+    public boolean isReady() {
+        return "NORMAL".equals(operationMode) && getSchemaVersionCount() == 1;
+    }
+
+    /**
+     * Whether the ring has settled with (at least) the given number of nodes: all are up/normal,
+     * none are joining, leaving or down, and they agree on one schema version.
+     */
+    public boolean isSettled(int expectedNodes) {
+        return getUpNormalCount() >= expectedNodes
+                && getUpNormalCount() == nodeStates.size()
+                && getSchemaVersionCount() == 1;
+    }
+
+    @Override
+    public String toString() {
+        return "CassandraRingStatus[mode="+operationMode+"; nodes="+nodeStates+"; schemaVersions="+schemaVersions.keySet()+"]";
+    }
+}
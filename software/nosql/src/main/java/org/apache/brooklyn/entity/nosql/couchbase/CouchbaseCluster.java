@@ -62,11 +62,11 @@ public interface CouchbaseCluster extends DynamicCluster {
             -1);
 
     @SetFromFlag("delayBeforeAdvertisingCluster")
-    ConfigKey<Duration> DELAY_BEFORE_ADVERTISING_CLUSTER = ConfigKeys.newConfigKey(Duration.class, "couchbase.cluster.delayBeforeAdvertisingCluster", "Delay after cluster is started before checking and advertising its availability", Duration.TEN_SECONDS);
+    ConfigKey<Duration> DELAY_BEFORE_ADVERTISING_CLUSTER = ConfigKeys.newConfigKey(Duration.class, "couchbase.cluster.delayBeforeAdvertisingCluster", "Maximum time to wait after adding servers for the primary node to list them all, before rebalancing and advertising the cluster", Duration.TEN_SECONDS);
 
     // TODO not sure if this is needed; previously waited 3m (SERVICE_UP_TIME_OUT) but that seems absurdly long
     @SetFromFlag("postStartStabilizationDelay")
-    ConfigKey<Duration> NODES_STARTED_STABILIZATION_DELAY = ConfigKeys.newConfigKey(Duration.class, "couchbase.cluster.postStartStabilizationDelay", "Delay after nodes have been started before treating it as a cluster", Duration.TEN_SECONDS);
+    ConfigKey<Duration> NODES_STARTED_STABILIZATION_DELAY = ConfigKeys.newConfigKey(Duration.class, "couchbase.cluster.postStartStabilizationDelay", "Maximum time to wait after nodes have been started for their REST API to answer, before adding them to the cluster", Duration.TEN_SECONDS);
     
     @SetFromFlag("adminUsername")
     ConfigKey<String> COUCHBASE_ADMIN_USERNAME = CouchbaseNode.COUCHBASE_ADMIN_USERNAME;
@@ -107,6 +107,8 @@ public interface CouchbaseCluster extends DynamicCluster {
     AttributeSensor<Long> COUCH_VIEWS_DATA_SIZE_PER_NODE = Sensors.newLongSensor("couchbase.stats.cluster.per.node.couch.views.data.size", 
             "Average across cluster for pools/nodes/<current node>/interestingStats/couch_views_data_size");
     
+    AttributeSensor<Double> REBALANCE_PROGRESS = CouchbaseNode.REBALANCE_PROGRESS;
+
     AttributeSensor<Boolean> BUCKET_CREATION_IN_PROGRESS = Sensors.newBooleanSensor("couchbase.cluster.bucketCreationInProgress", "Indicates that a bucket is currently being created, and" +
             "further bucket creation should be deferred");
 
@@ -20,17 +20,20 @@ package org.apache.brooklyn.entity.nosql.couchbase;
 
 import static org.apache.brooklyn.util.JavaGroovyEquivalents.groovyTruth;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nonnull;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntitySpec;
+import org.apache.brooklyn.api.mgmt.Task;
 import org.apache.brooklyn.api.policy.PolicySpec;
 import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.core.config.render.RendererHints;
@@ -50,7 +53,9 @@ import org.apache.brooklyn.feed.http.HttpFeed;
 import org.apache.brooklyn.feed.http.HttpPollConfig;
 import org.apache.brooklyn.feed.http.HttpValueFunctions;
 import org.apache.brooklyn.feed.http.JsonFunctions;
+import org.apache.brooklyn.util.http.HttpTool;
 import org.apache.brooklyn.util.http.HttpToolResponse;
+import org.apache.http.auth.UsernamePasswordCredentials;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.brooklyn.util.collections.CollectionFunctionals;
@@ -63,6 +68,7 @@ import org.apache.brooklyn.util.exceptions.Exceptions;
 import org.apache.brooklyn.util.guava.Functionals;
 import org.apache.brooklyn.util.guava.IfFunctions;
 import org.apache.brooklyn.util.math.MathPredicates;
+import org.apache.brooklyn.util.repeat.Repeater;
 import org.apache.brooklyn.util.text.ByteSizeStrings;
 import org.apache.brooklyn.util.text.StringFunctions;
 import org.apache.brooklyn.util.text.Strings;
@@ -86,12 +92,10 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
     /*
      * Refactoring required:
      * 
-     * Currently, on start() the cluster waits for an arbitrary SERVICE_UP_TIME_OUT (3 minutes) before assuming that a quorate 
-     * number of servers are available. The servers are then added to the cluster, and a further wait period of  
-     * DELAY_BEFORE_ADVERTISING_CLUSTER (30 seconds) is used before advertising the cluster
-     * 
-     * DELAY_BEFORE_ADVERTISING_CLUSTER: It should be possible to refactor this away by adding a repeater that will poll
-     * the REST API of the primary node (once established) until the API indicates that the cluster is available
+     * On start() the servers are added to the cluster concurrently, each as soon as its REST API answers, followed by
+     * a single rebalance; NODES_STARTED_STABILIZATION_DELAY and DELAY_BEFORE_ADVERTISING_CLUSTER are now only upper
+     * bounds on waiting for the REST API and for the primary node to list the added servers. Servers added later
+     * (e.g. on resize) are likewise added as one batch with one rebalance.
      * 
      * SERVICE_UP_TIME_OUT: The refactoring of this would be more substantial. One method would be to remove the bulk of the 
      * logic from the start() method, and rely entirely on the membership tracking policy and the onServerPoolMemberChanged()
@@ -112,6 +116,9 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
     
     private static final Logger log = LoggerFactory.getLogger(CouchbaseClusterImpl.class);
     private final Object mutex = new Object[0];
+    // Held while adding servers and rebalancing, so that only one rebalance runs at a time
+    private final Object rebalanceMutex = new Object[0];
+    private final AtomicInteger resizesInProgress = new AtomicInteger();
     // Used to serialize bucket creation as only one bucket can be created at a time,
     // so a feed is used to determine when a bucket has finished being created
     private final AtomicReference<HttpFeed> resetBucketCreation = new AtomicReference<HttpFeed>();
@@ -200,35 +207,27 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
         
         sensors().set(BUCKET_CREATION_IN_PROGRESS, false);
 
-        //start timeout before adding the servers
-        Tasks.setBlockingDetails("Pausing while Couchbase stabilizes");
-        Time.sleep(getConfig(NODES_STARTED_STABILIZATION_DELAY));
-
-        Optional<Set<Entity>> upNodes = Optional.<Set<Entity>>fromNullable(getAttribute(COUCHBASE_CLUSTER_UP_NODES));
-        if (upNodes.isPresent() && !upNodes.get().isEmpty()) {
+        // taken from the members directly, as the tracking policy may not yet have caught up
+        Set<Entity> upNodes = getUpMembers();
+        if (!upNodes.isEmpty()) {
 
-            Tasks.setBlockingDetails("Adding servers to Couchbase");
-            
             //TODO: select a new primary node if this one fails
-            Entity primaryNode = upNodes.get().iterator().next();
+            Entity primaryNode = upNodes.iterator().next();
             ((EntityInternal) primaryNode).sensors().set(CouchbaseNode.IS_PRIMARY_NODE, true);
             sensors().set(COUCHBASE_PRIMARY_NODE, primaryNode);
 
-            Set<Entity> serversToAdd = MutableSet.<Entity>copyOf(getUpNodes());
+            Tasks.setBlockingDetails("Waiting for Couchbase REST API on primary node");
+            try {
+                waitForRestApi(primaryNode, getConfig(NODES_STARTED_STABILIZATION_DELAY));
+            } finally {
+                Tasks.resetBlockingDetails();
+            }
+
+            Set<Entity> serversToAdd = upNodes;
 
             if (serversToAdd.size() >= getQuorumSize() && serversToAdd.size() > 1) {
                 log.info("Number of SERVICE_UP nodes:{} in cluster:{} reached Quorum:{}, adding the servers", new Object[]{serversToAdd.size(), getId(), getQuorumSize()});
-                addServers(serversToAdd);
-
-                //wait for servers to be added to the couchbase server
-                try {
-                    Tasks.setBlockingDetails("Delaying before advertising cluster up");
-                    Time.sleep(getConfig(DELAY_BEFORE_ADVERTISING_CLUSTER));
-                } finally {
-                    Tasks.resetBlockingDetails();
-                }
-                
-                ((CouchbaseNode)getPrimaryNode()).rebalance();
+                addServersAndRebalance(serversToAdd);
             } else {
                 if (getQuorumSize()>1) {
                     log.warn(this+" is not quorate; will likely fail later, but proceeding for now");
@@ -280,6 +279,19 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
         super.stop();
     }
 
+    @Override
+    public Integer resize(Integer desiredSize) {
+        resizesInProgress.incrementAndGet();
+        try {
+            Integer result = super.resize(desiredSize);
+            // add all the new servers with a single rebalance, returning only once it has completed
+            if (isClusterInitialized()) addUpServersAndRebalance();
+            return result;
+        } finally {
+            resizesInProgress.decrementAndGet();
+        }
+    }
+
     protected void connectSensors() {
         policies().add(PolicySpec.create(MemberTrackingPolicy.class)
                 .displayName("Controller targets tracker")
@@ -329,7 +341,7 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
 
                         //add to set of servers to be added.
                         if (isClusterInitialized()) {
-                            addServer(member);
+                            scheduleAddServers();
                         }
                     }
                 } else {
@@ -338,7 +350,7 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
                     sensors().set(COUCHBASE_CLUSTER_UP_NODES, newNodes);
 
                     if (isClusterInitialized()) {
-                        addServer(member);
+                        scheduleAddServers();
                     }
                 }
             } else {
@@ -393,6 +405,14 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
         return getAttribute(COUCHBASE_CLUSTER_UP_NODES);
     }
 
+    private Set<Entity> getUpMembers() {
+        Set<Entity> result = MutableSet.of();
+        for (Entity member : getMembers()) {
+            if (belongsInServerPool(member)) result.add(member);
+        }
+        return result;
+    }
+
     private CouchbaseNode getPrimaryNode() {
         return (CouchbaseNode) getAttribute(COUCHBASE_PRIMARY_NODE);
     }
@@ -441,10 +461,130 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
             return true;
         }
     }
+    /**
+     * Adds up members that are not yet in the Couchbase cluster, with a single rebalance for the
+     * whole set, unless a resize is in progress, in which case the resize will add them once all
+     * its new members have started.
+     */
+    protected void scheduleAddServers() {
+        if (resizesInProgress.get() > 0) return;
+        Entities.submit(this, TaskBuilder.<Void>builder().displayName("Adding new servers to Couchbase cluster").body(
+                new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        addUpServersAndRebalance();
+                        return null;
+                    }
+                }).build());
+    }
+
+    /**
+     * Adds every up member not yet in the Couchbase cluster and rebalances once for the whole set,
+     * repeating if more members came up in the meantime. Returns once the rebalance has completed.
+     */
+    protected void addUpServersAndRebalance() {
+        synchronized (rebalanceMutex) {
+            Set<Entity> serversToAdd;
+            while (!(serversToAdd = getServersToAdd()).isEmpty()) {
+                log.info("Adding {} servers to Couchbase cluster {}: {}", new Object[] {serversToAdd.size(), this, serversToAdd});
+                addServersAndRebalance(serversToAdd);
+            }
+        }
+    }
+
+    private Set<Entity> getServersToAdd() {
+        Set<Entity> result = MutableSet.of();
+        for (Entity member : getUpMembers()) {
+            if (!member.equals(getPrimaryNode()) && !isMemberInCluster(member)) result.add(member);
+        }
+        return result;
+    }
+
+    protected void addServersAndRebalance(Set<Entity> serversToAdd) {
+        addServers(serversToAdd);
+        try {
+            Tasks.setBlockingDetails("Waiting for primary node to list all added servers");
+            waitForServersKnownToPrimary(getUpMembers().size(), getConfig(DELAY_BEFORE_ADVERTISING_CLUSTER));
+        } finally {
+            Tasks.resetBlockingDetails();
+        }
+        ((CouchbaseNode)getPrimaryNode()).rebalance();
+    }
+
+    /**
+     * Adds the given servers to the cluster concurrently, each as soon as its REST API answers
+     * (waiting at most {@link CouchbaseCluster#NODES_STARTED_STABILIZATION_DELAY} for that).
+     * Does not rebalance.
+     */
     protected void addServers(Set<Entity> serversToAdd) {
         Preconditions.checkNotNull(serversToAdd);
-        for (Entity s : serversToAdd) {
-            addServerSeveralTimes(s, 12, Duration.TEN_SECONDS);
+        final Duration readyTimeout = getConfig(NODES_STARTED_STABILIZATION_DELAY);
+        List<Task<Void>> adds = Lists.newArrayList();
+        for (final Entity s : serversToAdd) {
+            adds.add(Entities.submit(this, TaskBuilder.<Void>builder().displayName("Adding " + s + " to Couchbase cluster").body(
+                    new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            waitForRestApi(s, readyTimeout);
+                            addServerSeveralTimes(s, 12, Duration.TEN_SECONDS);
+                            return null;
+                        }
+                    }).build()));
+        }
+        for (Task<Void> add : adds) {
+            add.getUnchecked();
+        }
+    }
+
+    /** Waits until the node's REST API answers, or the limit has passed; returns whether it answered. */
+    protected boolean waitForRestApi(final Entity node, Duration limit) {
+        return Repeater.create("Waiting for Couchbase REST API on " + node)
+                .every(Duration.ONE_SECOND)
+                .limitTimeTo(limit)
+                .until(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        HttpToolResponse response = getRestResponse(node, "/pools");
+                        return response != null && response.getResponseCode() == 200;
+                    }
+                })
+                .run();
+    }
+
+    /** Waits until the primary node lists at least the given number of servers, or the limit has passed. */
+    protected boolean waitForServersKnownToPrimary(final int expected, Duration limit) {
+        return Repeater.create("Waiting for " + expected + " servers on primary node of " + this)
+                .every(Duration.ONE_SECOND)
+                .limitTimeTo(limit)
+                .until(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        HttpToolResponse response = getRestResponse(getPrimaryNode(), "/pools/default");
+                        if (response == null || response.getResponseCode() != 200) return false;
+                        JsonElement nodes = HttpValueFunctions.jsonContents().apply(response).getAsJsonObject().get("nodes");
+                        return nodes != null && nodes.getAsJsonArray().size() >= expected;
+                    }
+                })
+                .run();
+    }
+
+    /** Returns the response to a GET on the node's REST API, or null if it could not be reached. */
+    private HttpToolResponse getRestResponse(Entity node, String path) {
+        Integer port = node.getAttribute(CouchbaseNode.COUCHBASE_WEB_ADMIN_PORT);
+        if (port == null) return null;
+        String uri = String.format("http://%s%s", BrooklynAccessUtils.getBrooklynAccessibleAddress(node, port), path);
+        try {
+            return HttpTool.httpGet(HttpTool.httpClientBuilder()
+                            .uri(uri)
+                            .credentials(new UsernamePasswordCredentials(
+                                    node.getConfig(CouchbaseNode.COUCHBASE_ADMIN_USERNAME), node.getConfig(CouchbaseNode.COUCHBASE_ADMIN_PASSWORD)))
+                            .build(),
+                    URI.create(uri),
+                    ImmutableMap.<String, String>of());
+        } catch (Exception e) {
+            Exceptions.propagateIfFatal(e);
+            if (log.isTraceEnabled()) log.trace("Couchbase REST API on " + node + " not reachable: " + e);
+            return null;
         }
     }
 
@@ -474,11 +614,8 @@ public class CouchbaseClusterImpl extends DynamicClusterImpl implements Couchbas
             String username = serverToAdd.getConfig(CouchbaseNode.COUCHBASE_ADMIN_USERNAME);
             String password = serverToAdd.getConfig(CouchbaseNode.COUCHBASE_ADMIN_PASSWORD);
 
-            if (isClusterInitialized()) {
-                Entities.invokeEffectorWithArgs(this, getPrimaryNode(), CouchbaseNode.SERVER_ADD_AND_REBALANCE, webAdmin.toString(), username, password).getUnchecked();
-            } else {
-                Entities.invokeEffectorWithArgs(this, getPrimaryNode(), CouchbaseNode.SERVER_ADD, webAdmin.toString(), username, password).getUnchecked();
-            }
+            // rebalancing is done once for all the servers being added; see addServersAndRebalance
+            Entities.invokeEffectorWithArgs(this, getPrimaryNode(), CouchbaseNode.SERVER_ADD, webAdmin.toString(), username, password).getUnchecked();
             //FIXME check feedback of whether the server was added.
             ((EntityInternal) serverToAdd).sensors().set(CouchbaseNode.IS_IN_CLUSTER, true);
         }
@@ -111,6 +111,9 @@ public interface CouchbaseNode extends SoftwareProcess {
             "Retrieved from pools/nodes/<current node>/interestingStats/curr_items_tot");
     AttributeSensor<String> REBALANCE_STATUS = Sensors.newStringSensor("couchbase.rebalance.status", 
             "Displays the current rebalance status from pools/nodes/rebalanceStatus");
+
+    AttributeSensor<Double> REBALANCE_PROGRESS = Sensors.newDoubleSensor("couchbase.rebalance.progress",
+            "Progress (percent) of the last rebalance started from this node, from pools/default/rebalanceProgress");
     
     class MainUri {
         public static final AttributeSensor<URI> MAIN_URI = Attributes.MAIN_URI;
@@ -24,6 +24,7 @@ import static org.apache.brooklyn.util.ssh.BashCommands.*;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import javax.annotation.Nonnull;
@@ -36,6 +37,7 @@ import org.apache.brooklyn.api.mgmt.Task;
 import org.apache.brooklyn.core.effector.ssh.SshEffectorTasks;
 import org.apache.brooklyn.core.entity.Attributes;
 import org.apache.brooklyn.core.entity.Entities;
+import org.apache.brooklyn.core.entity.EntityInternal;
 import org.apache.brooklyn.core.entity.drivers.downloads.BasicDownloadRequirement;
 import org.apache.brooklyn.core.entity.drivers.downloads.DownloadProducerFromUrlAttribute;
 import org.apache.brooklyn.core.entity.lifecycle.ServiceStateLogic;
@@ -65,6 +67,8 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.net.HostAndPort;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 
 public class CouchbaseNodeSshDriver extends AbstractSoftwareProcessSshDriver implements CouchbaseNodeDriver {
 
@@ -334,6 +338,7 @@ public class CouchbaseNodeSshDriver extends AbstractSoftwareProcessSshDriver imp
     @Override
     public void rebalance() {
         entity.sensors().set(CouchbaseNode.REBALANCE_STATUS, "explicitly started");
+        setRebalanceProgress(0.0);
         newScript("rebalance")
                 .body.append(
                 couchbaseCli("rebalance") + getCouchbaseHostnameAndCredentials())
@@ -371,6 +376,7 @@ public class CouchbaseNodeSshDriver extends AbstractSoftwareProcessSshDriver imp
                                 .until(new Callable<Boolean>() {
                                     @Override
                                     public Boolean call() throws Exception {
+                                        updateRebalanceProgress();
                                         for (HostAndPort nodeHostAndPort : getNodesHostAndPort()) {
                                             if (isNodeRebalancing(nodeHostAndPort.toString())) {
                                                 return false;
@@ -387,6 +393,7 @@ public class CouchbaseNodeSshDriver extends AbstractSoftwareProcessSshDriver imp
                 .orSubmitAndBlock()
                 .andWaitForSuccess();
         if (completed) {
+            setRebalanceProgress(100.0);
             entity.sensors().set(CouchbaseNode.REBALANCE_STATUS, "completed");
             ServiceStateLogic.ServiceNotUpLogic.clearNotUpIndicator(getEntity(), "rebalancing");
             log.info("Rebalanced cluster via primary node {}", getEntity());
@@ -397,6 +404,41 @@ public class CouchbaseNodeSshDriver extends AbstractSoftwareProcessSshDriver imp
         }
     }
 
+    private void updateRebalanceProgress() {
+        HostAndPort hostAndPort = BrooklynAccessUtils.getBrooklynAccessibleAddress(getEntity(), getEntity().getAttribute(CouchbaseNode.COUCHBASE_WEB_ADMIN_PORT));
+        HttpToolResponse response = getApiResponse("http://" + hostAndPort + "/pools/default/rebalanceProgress");
+        if (response.getResponseCode() == 200) {
+            setRebalanceProgress(rebalanceProgress(HttpValueFunctions.jsonContents().apply(response)));
+        }
+    }
+
+    /** Publishes progress on this node and, if it is in one, on its cluster. */
+    private void setRebalanceProgress(double progress) {
+        entity.sensors().set(CouchbaseNode.REBALANCE_PROGRESS, progress);
+        Entity cluster = CouchbaseClusterImpl.getClusterOrNode(getEntity());
+        if (cluster != getEntity()) {
+            ((EntityInternal) cluster).sensors().set(CouchbaseCluster.REBALANCE_PROGRESS, progress);
+        }
+    }
+
+    /**
+     * Returns the mean progress (percent) of the nodes listed in a {@code pools/default/rebalanceProgress}
+     * response, which has a {@code progress} fraction per node while running; 100 if no rebalance is running.
+     */
+    public static double rebalanceProgress(JsonElement json) {
+        JsonObject object = json.getAsJsonObject();
+        if (!object.has("status") || !"running".equals(object.get("status").getAsString())) return 100.0;
+        double total = 0;
+        int count = 0;
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            if (entry.getValue().isJsonObject() && entry.getValue().getAsJsonObject().has("progress")) {
+                total += entry.getValue().getAsJsonObject().get("progress").getAsDouble();
+                count++;
+            }
+        }
+        return count == 0 ? 0.0 : 100.0 * total / count;
+    }
+
     private Iterable<HostAndPort> getNodesHostAndPort() {
         Group group = Iterables.getFirst(getEntity().groups(), null);
         if (group == null) return Lists.newArrayList();
@@ -20,9 +20,14 @@ package org.apache.brooklyn.entity.nosql.elasticsearch;
 
 import org.apache.brooklyn.api.catalog.Catalog;
 import org.apache.brooklyn.api.entity.ImplementedBy;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
+import org.apache.brooklyn.config.ConfigKey;
+import org.apache.brooklyn.core.config.ConfigKeys;
 import org.apache.brooklyn.core.sensor.BasicAttributeSensorAndConfigKey;
+import org.apache.brooklyn.core.sensor.Sensors;
 import org.apache.brooklyn.entity.group.DynamicCluster;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 /**
  * A cluster of {@link ElasticSearchNode}s based on {@link DynamicCluster} which can be resized by a policy if required.
@@ -35,6 +40,38 @@ public interface ElasticSearchCluster extends DynamicCluster {
     @SetFromFlag("clusterName")
     BasicAttributeSensorAndConfigKey<String> CLUSTER_NAME = new BasicAttributeSensorAndConfigKey<String>(String.class, 
             "elasticsearch.cluster.name", "Name of the ElasticSearch cluster", "BrooklynCluster");
-    
+
+    @SetFromFlag("clusterStatsPolling")
+    ConfigKey<Boolean> CLUSTER_STATS_POLLING = ConfigKeys.newBooleanConfigKey("elasticsearch.cluster.statsPolling",
+            "Whether the cluster polls the statistics of all its nodes in one request through any healthy member, "
+            + "rather than each node polling its own", true);
+
+    @SetFromFlag("statsPollPeriod")
+    ConfigKey<Duration> STATS_POLL_PERIOD = ConfigKeys.newDurationConfigKey("elasticsearch.cluster.statsPollPeriod",
+            "Period between polls of the cluster health and node statistics", Duration.ONE_SECOND);
+
+    @SetFromFlag("drainOnScaleIn")
+    ConfigKey<Boolean> DRAIN_ON_SCALE_IN = ConfigKeys.newBooleanConfigKey("elasticsearch.cluster.scaleIn.drain",
+            "Whether nodes being removed are excluded from shard allocation, and only stopped once they hold no shards", true);
+
+    @SetFromFlag("drainTimeout")
+    ConfigKey<Duration> DRAIN_TIMEOUT = ConfigKeys.newDurationConfigKey("elasticsearch.cluster.scaleIn.drainTimeout",
+            "Maximum time to wait for shards to move off nodes being removed; the resize fails if they have not", Duration.minutes(30));
+
+    @SetFromFlag("drainPollPeriod")
+    ConfigKey<Duration> DRAIN_POLL_PERIOD = ConfigKeys.newDurationConfigKey("elasticsearch.cluster.scaleIn.pollPeriod",
+            "Period between checks of the shards remaining on nodes being removed", Duration.FIVE_SECONDS);
+
+    AttributeSensor<Integer> SHARDS_TO_RELOCATE = Sensors.newIntegerSensor("elasticsearch.cluster.scaleIn.shardsRemaining",
+            "Number of shards still held by the nodes being removed");
+
+    AttributeSensor<String> CLUSTER_HEALTH = Sensors.newStringSensor("elasticsearch.cluster.health", "Cluster health status (green, yellow or red)");
+    AttributeSensor<Integer> ACTIVE_PRIMARY_SHARDS = Sensors.newIntegerSensor("elasticsearch.cluster.shards.activePrimary", "Number of active primary shards");
+    AttributeSensor<Integer> ACTIVE_SHARDS = Sensors.newIntegerSensor("elasticsearch.cluster.shards.active", "Number of active primary and replica shards");
+    AttributeSensor<Integer> RELOCATING_SHARDS = Sensors.newIntegerSensor("elasticsearch.cluster.shards.relocating", "Number of shards moving between nodes");
+    AttributeSensor<Integer> INITIALIZING_SHARDS = Sensors.newIntegerSensor("elasticsearch.cluster.shards.initializing", "Number of shards being initialized");
+    AttributeSensor<Integer> UNASSIGNED_SHARDS = Sensors.newIntegerSensor("elasticsearch.cluster.shards.unassigned", "Number of shards not allocated to any node");
+    AttributeSensor<Integer> NODES_REPORTING = Sensors.newIntegerSensor("elasticsearch.cluster.nodesReporting", "Number of members whose statistics were published by the last poll");
+
     String getClusterName();
 }
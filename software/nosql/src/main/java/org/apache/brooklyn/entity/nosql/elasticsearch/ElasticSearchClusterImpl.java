@@ -18,21 +18,57 @@
  */
 package org.apache.brooklyn.entity.nosql.elasticsearch;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.Nullable;
+
+import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntitySpec;
+import org.apache.brooklyn.api.location.Location;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
 import org.apache.brooklyn.entity.group.DynamicClusterImpl;
+import org.apache.brooklyn.entity.nosql.elasticsearch.ElasticSearchClusterStatsPoller.ClusterStats;
+import org.apache.brooklyn.feed.function.FunctionFeed;
+import org.apache.brooklyn.feed.function.FunctionPollConfig;
+import org.apache.brooklyn.util.exceptions.Exceptions;
+import org.apache.brooklyn.util.repeat.Repeater;
+import org.apache.brooklyn.util.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 public class ElasticSearchClusterImpl extends DynamicClusterImpl implements ElasticSearchCluster {
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticSearchClusterImpl.class);
     
     private AtomicInteger nextMemberId = new AtomicInteger(0);
 
+    private volatile FunctionFeed statsFeed;
+
+    /** Members that have been drained of shards, for {@link #getRemovalStrategy()} to pick first. */
+    private transient Set<Entity> drainedMembers = Sets.newConcurrentHashSet();
+
+    private final Object scaleInMutex = new Object[0];
+
     @Override
     protected EntitySpec<?> getMemberSpec() {
         EntitySpec<?> spec = EntitySpec.create(getConfig(MEMBER_SPEC, EntitySpec.create(ElasticSearchNode.class)));
         
         spec.configure(ElasticSearchNode.CLUSTER_NAME, getConfig(ElasticSearchClusterImpl.CLUSTER_NAME))
             .configure(ElasticSearchNode.NODE_NAME, "elasticsearch-" + nextMemberId.incrementAndGet());
+        if (getConfig(CLUSTER_STATS_POLLING)) {
+            spec.configure(ElasticSearchNode.POLL_NODE_STATS, false);
+        }
         
         return spec;
     }
@@ -41,5 +77,167 @@ public class ElasticSearchClusterImpl extends DynamicClusterImpl implements Elas
     public String getClusterName() {
         return getConfig(CLUSTER_NAME);
     }
+
+    /**
+     * Resizes the cluster. When shrinking, and {@link #DRAIN_ON_SCALE_IN} is set, the members to be
+     * removed are first excluded from shard allocation and only stopped once Elasticsearch has
+     * moved all their shards elsewhere. Members are drained in batches no larger than the lowest
+     * replica count of any index, so every shard keeps a copy outside the batch.
+     */
+    @Override
+    public Integer resize(Integer desiredSize) {
+        if (desiredSize >= getCurrentSize() || !getConfig(DRAIN_ON_SCALE_IN)) {
+            return super.resize(desiredSize);
+        }
+        synchronized (scaleInMutex) {
+            Integer result = getCurrentSize();
+            while (result > desiredSize) {
+                List<Entity> leaving = drainMembers(result - desiredSize);
+                if (leaving.isEmpty()) return super.resize(desiredSize);
+                drainedMembers.addAll(leaving);
+                try {
+                    result = super.resize(result - leaving.size());
+                } finally {
+                    drainedMembers.removeAll(leaving);
+                    clearExclusions();
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Picks up to {@code count} members to remove, no more than the replica count allows at once,
+     * excludes them from shard allocation and waits until they hold no shards.
+     *
+     * @return the drained members, or an empty list if there is no member left to drain onto
+     * @throws IllegalStateException if the shards have not moved within {@link #DRAIN_TIMEOUT}
+     */
+    protected List<Entity> drainMembers(int count) {
+        List<Entity> candidates = Lists.newArrayList(getMembers());
+        Function<Collection<Entity>, Entity> strategy = super.getRemovalStrategy();
+        List<Entity> leaving = Lists.newArrayList();
+        for (int i = 0; i < count && candidates.size() > 1; i++) {
+            Entity member = strategy.apply(candidates);
+            if (member == null) break;
+            candidates.remove(member);
+            leaving.add(member);
+        }
+        final String baseUrl = anyBaseUrl(candidates);
+        if (leaving.isEmpty() || baseUrl == null) {
+            log.info("Not draining members of {} before removal; no healthy member would remain to take their shards", this);
+            return ImmutableList.of();
+        }
+
+        try {
+            int batch = ElasticSearchShardAllocation.maxConcurrentRemovals(ElasticSearchShardAllocation.minReplicas(baseUrl), leaving.size());
+            leaving = leaving.subList(0, batch);
+            final List<String> names = Lists.newArrayList();
+            for (Entity member : leaving) {
+                String name = ElasticSearchClusterStatsPoller.nodeName(member);
+                if (name != null) names.add(name);
+            }
+            log.info("Draining shards from {} in {} ahead of their removal", leaving, this);
+            ElasticSearchShardAllocation.exclude(baseUrl, names);
+
+            Duration timeout = getConfig(DRAIN_TIMEOUT);
+            boolean drained = Repeater.create("Wait for shards to move off "+names+" in "+this)
+                    .every(getConfig(DRAIN_POLL_PERIOD))
+                    .limitTimeTo(timeout)
+                    .until(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() throws IOException {
+                            int remaining = ElasticSearchShardAllocation.shardsOn(ElasticSearchShardAllocation.shardsByNode(baseUrl), names);
+                            sensors().set(SHARDS_TO_RELOCATE, remaining);
+                            return remaining == 0;
+                        }})
+                    .run();
+            if (!drained) {
+                clearExclusions();
+                throw new IllegalStateException("Shards not moved off "+names+" in "+this+" within "+timeout+"; not removing them");
+            }
+            return leaving;
+        } catch (IOException e) {
+            clearExclusions();
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /** Removes any allocation exclusions, so that remaining and new members take shards again. */
+    protected void clearExclusions() {
+        String baseUrl = anyBaseUrl(getMembers());
+        if (baseUrl == null) return;
+        try {
+            ElasticSearchShardAllocation.exclude(baseUrl, ImmutableList.<String>of());
+        } catch (IOException e) {
+            log.warn("Failed to clear shard allocation exclusions in "+this, e);
+        }
+    }
+
+    private String anyBaseUrl(Collection<Entity> members) {
+        for (Entity member : members) {
+            String result = ElasticSearchShardAllocation.baseUrl(member);
+            if (result != null) return result;
+        }
+        return null;
+    }
+
+    /** Picks drained members first, otherwise as the configured or default strategy does. */
+    @Override
+    public Function<Collection<Entity>, Entity> getRemovalStrategy() {
+        final Function<Collection<Entity>, Entity> delegate = super.getRemovalStrategy();
+        return new Function<Collection<Entity>, Entity>() {
+            @Override
+            public Entity apply(Collection<Entity> members) {
+                for (Entity member : members) {
+                    if (drainedMembers.contains(member)) return member;
+                }
+                return delegate.apply(members);
+            }
+        };
+    }
+
+    @Override
+    public void start(Collection<? extends Location> locations) {
+        super.start(locations);
+        if (getConfig(CLUSTER_STATS_POLLING)) connectStatsSensors();
+    }
+
+    @Override
+    public void stop() {
+        if (statsFeed != null) statsFeed.stop();
+        super.stop();
+    }
+
+    /**
+     * Polls the cluster health and the statistics of every node once per period through any
+     * healthy member, publishing shard counts on the cluster and index statistics on the members.
+     */
+    protected void connectStatsSensors() {
+        ElasticSearchClusterStatsPoller poller = new ElasticSearchClusterStatsPoller(this);
+        statsFeed = FunctionFeed.builder()
+                .entity(this)
+                .period(getConfig(STATS_POLL_PERIOD))
+                .poll(statsPoll(poller, CLUSTER_HEALTH, ElasticSearchClusterStatsPoller.healthString("status")))
+                .poll(statsPoll(poller, ACTIVE_PRIMARY_SHARDS, ElasticSearchClusterStatsPoller.healthInteger("active_primary_shards")))
+                .poll(statsPoll(poller, ACTIVE_SHARDS, ElasticSearchClusterStatsPoller.healthInteger("active_shards")))
+                .poll(statsPoll(poller, RELOCATING_SHARDS, ElasticSearchClusterStatsPoller.healthInteger("relocating_shards")))
+                .poll(statsPoll(poller, INITIALIZING_SHARDS, ElasticSearchClusterStatsPoller.healthInteger("initializing_shards")))
+                .poll(statsPoll(poller, UNASSIGNED_SHARDS, ElasticSearchClusterStatsPoller.healthInteger("unassigned_shards")))
+                .poll(statsPoll(poller, NODES_REPORTING, new Function<ClusterStats, Integer>() {
+                    @Override
+                    public Integer apply(@Nullable ClusterStats input) {
+                        return input == null ? null : ElasticSearchClusterStatsPoller.publishNodeStats(input.nodes, getMembers());
+                    }
+                }))
+                .build();
+    }
+
+    private <T> FunctionPollConfig<ClusterStats, T> statsPoll(ElasticSearchClusterStatsPoller poller, AttributeSensor<T> sensor, Function<ClusterStats, T> value) {
+        return new FunctionPollConfig<ClusterStats, T>(sensor)
+                .callable(poller)
+                .onSuccess(value)
+                .onFailureOrException(Functions.constant((T) null));
+    }
     
 }
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.elasticsearch;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
+
+import org.apache.brooklyn.api.entity.Entity;
+import org.apache.brooklyn.core.entity.EntityInternal;
+import org.apache.brooklyn.core.location.access.BrooklynAccessUtils;
+import org.apache.brooklyn.util.http.HttpTool;
+import org.apache.brooklyn.util.http.HttpToolResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.net.HostAndPort;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Polls an {@link ElasticSearchCluster} through any one of its healthy members, fetching the
+ * cluster health and the index statistics of every node with one request each.
+ * <p>
+ * The node statistics are published onto the member entities by
+ * {@link #publishNodeStats(JsonObject, Iterable)}, so that the members need not poll their own.
+ * If a member cannot be reached the next healthy member is tried.
+ */
+public class ElasticSearchClusterStatsPoller implements Callable<ElasticSearchClusterStatsPoller.ClusterStats> {
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticSearchClusterStatsPoller.class);
+
+    /** The cluster health and node statistics returned by one poll. */
+    public static class ClusterStats {
+        public final JsonObject health;
+        public final JsonObject nodes;
+
+        public ClusterStats(JsonObject health, JsonObject nodes) {
+            this.health = health;
+            this.nodes = nodes;
+        }
+    }
+
+    private final ElasticSearchCluster cluster;
+
+    public ElasticSearchClusterStatsPoller(ElasticSearchCluster cluster) {
+        this.cluster = cluster;
+    }
+
+    @Override
+    public ClusterStats call() throws IOException {
+        IOException lastFailure = null;
+        for (Entity member : cluster.getMembers()) {
+            Integer port = member.getAttribute(ElasticSearchNode.HTTP_PORT);
+            if (!Boolean.TRUE.equals(member.getAttribute(ElasticSearchNode.SERVICE_UP)) || port == null) continue;
+            HostAndPort hp = BrooklynAccessUtils.getBrooklynAccessibleAddress(member, port);
+            String base = String.format("http://%s:%s", hp.getHostText(), hp.getPort());
+            try {
+                return new ClusterStats(get(base + "/_cluster/health"), get(base + "/_nodes/stats/indices"));
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) log.debug("Failed to poll stats of "+cluster+" through "+member+"; trying another member", e);
+                lastFailure = e;
+            }
+        }
+        if (lastFailure != null) throw lastFailure;
+        throw new IllegalStateException("No healthy members in "+cluster+" to poll");
+    }
+
+    private static JsonObject get(String uri) throws IOException {
+        HttpToolResponse response = HttpTool.httpGet(HttpTool.httpClientBuilder().uri(uri).build(),
+                URI.create(uri), ImmutableMap.<String, String>of());
+        if (response.getResponseCode() != 200) {
+            throw new IOException("Elasticsearch returned "+response.getResponseCode()+" for "+uri);
+        }
+        return new JsonParser().parse(response.getContentAsString()).getAsJsonObject();
+    }
+
+    /**
+     * Indexes the {@code nodes} of a {@code _nodes/stats} reply by node name, adding each node's
+     * id to its statistics as {@code "id"}.
+     */
+    public static Map<String, JsonObject> nodesByName(JsonObject nodesStats) {
+        Map<String, JsonObject> result = Maps.newLinkedHashMap();
+        JsonElement nodes = nodesStats.get("nodes");
+        if (nodes == null || !nodes.isJsonObject()) return result;
+        for (Map.Entry<String, JsonElement> node : nodes.getAsJsonObject().entrySet()) {
+            JsonObject stats = node.getValue().getAsJsonObject();
+            JsonElement name = stats.get("name");
+            if (name == null) continue;
+            stats.addProperty("id", node.getKey());
+            result.put(name.getAsString(), stats);
+        }
+        return result;
+    }
+
+    /**
+     * Publishes the statistics in a {@code _nodes/stats} reply onto the matching members, which
+     * are found by their {@link ElasticSearchNode#NODE_NAME node name}.
+     *
+     * @return the number of members updated
+     */
+    public static int publishNodeStats(JsonObject nodesStats, Iterable<Entity> members) {
+        Map<String, JsonObject> byName = nodesByName(nodesStats);
+        String clusterName = string(nodesStats, "cluster_name");
+        int result = 0;
+        for (Entity member : members) {
+            JsonObject stats = byName.get(nodeName(member));
+            if (stats == null) continue;
+            EntityInternal node = (EntityInternal) member;
+            node.sensors().set(ElasticSearchNode.NODE_ID, string(stats, "id"));
+            if (clusterName != null) node.sensors().set(ElasticSearchNode.CLUSTER_NAME, clusterName);
+            node.sensors().set(ElasticSearchNode.DOCUMENT_COUNT, integer(stats, "indices", "docs", "count"));
+            node.sensors().set(ElasticSearchNode.STORE_BYTES, integer(stats, "indices", "store", "size_in_bytes"));
+            node.sensors().set(ElasticSearchNode.GET_TOTAL, integer(stats, "indices", "get", "total"));
+            node.sensors().set(ElasticSearchNode.GET_TIME_IN_MILLIS, integer(stats, "indices", "get", "time_in_millis"));
+            node.sensors().set(ElasticSearchNode.SEARCH_QUERY_TOTAL, integer(stats, "indices", "search", "query_total"));
+            node.sensors().set(ElasticSearchNode.SEARCH_QUERY_TIME_IN_MILLIS, integer(stats, "indices", "search", "query_time_in_millis"));
+            result++;
+        }
+        return result;
+    }
+
+    /** Returns the Elasticsearch node name of a member, as configured by the cluster or reported by the node. */
+    public static String nodeName(Entity member) {
+        String result = member.getAttribute(ElasticSearchNode.NODE_NAME);
+        return result != null ? result : member.getConfig(ElasticSearchNode.NODE_NAME);
+    }
+
+    /** Returns the value at the given path, or null if any part of it is missing. */
+    public static JsonElement walk(JsonObject object, String... path) {
+        JsonElement result = object;
+        for (String key : path) {
+            if (result == null || !result.isJsonObject()) return null;
+            result = result.getAsJsonObject().get(key);
+        }
+        return (result == null || result.isJsonNull()) ? null : result;
+    }
+
+    public static Integer integer(JsonObject object, String... path) {
+        JsonElement value = walk(object, path);
+        return value == null ? null : value.getAsInt();
+    }
+
+    public static String string(JsonObject object, String... path) {
+        JsonElement value = walk(object, path);
+        return value == null ? null : value.getAsString();
+    }
+
+    /** Function extracting an integer from the cluster health, or null if absent. */
+    public static Function<ClusterStats, Integer> healthInteger(final String key) {
+        return new Function<ClusterStats, Integer>() {
+            @Override
+            public Integer apply(@Nullable ClusterStats input) {
+                return input == null ? null : integer(input.health, key);
+            }
+        };
+    }
+
+    /** Function extracting a string from the cluster health, or null if absent. */
+    public static Function<ClusterStats, String> healthString(final String key) {
+        return new Function<ClusterStats, String>() {
+            @Override
+            public String apply(@Nullable ClusterStats input) {
+                return input == null ? null : string(input.health, key);
+            }
+        };
+    }
+}
@@ -82,6 +82,11 @@ public interface ElasticSearchNode extends SoftwareProcess, DatastoreMixins.HasD
     StringAttributeSensorAndConfigKey CLUSTER_NAME = new StringAttributeSensorAndConfigKey("elasticsearch.node.cluster.name", 
             "Cluster name (or elasticsearch selected if not set", null);
 
+    @SetFromFlag("pollNodeStats")
+    ConfigKey<Boolean> POLL_NODE_STATS = ConfigKeys.newBooleanConfigKey("elasticsearch.node.pollNodeStats", 
+            "Whether the node polls its own index statistics; if false only its health is polled, "
+            + "and the statistics are expected to be published by its ElasticSearchCluster", true);
+
     AttributeSensor<String> NODE_ID = Sensors.newStringSensor("elasticsearch.node.id");
     AttributeSensor<Integer> DOCUMENT_COUNT = Sensors.newIntegerSensor("elasticsearch.node.docs.count");
     AttributeSensor<Integer> STORE_BYTES = Sensors.newIntegerSensor("elasticsearch.node.store.bytes");
@@ -80,6 +80,20 @@ public class ElasticSearchNodeImpl extends SoftwareProcessImpl implements Elasti
                 return input.get().getAsJsonObject().entrySet().iterator().next().getKey();
             }
         };
+        if (!getConfig(POLL_NODE_STATS)) {
+            // statistics come from the cluster; the root endpoint is enough to tell the node is up
+            httpFeed = HttpFeed.builder()
+                .entity(this)
+                .period(1000)
+                .baseUri(String.format("http://%s:%s/", hp.getHostText(), hp.getPort()))
+                .poll(new HttpPollConfig<Boolean>(SERVICE_UP)
+                    .onSuccess(HttpValueFunctions.responseCodeEquals(200))
+                    .onFailureOrException(Functions.constant(false)))
+                .poll(new HttpPollConfig<String>(NODE_NAME)
+                    .onSuccess(HttpValueFunctions.jsonContents("name", String.class)))
+                .build();
+            return;
+        }
         httpFeed = HttpFeed.builder()
             .entity(this)
             .period(1000)
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.elasticsearch;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.brooklyn.api.entity.Entity;
+import org.apache.brooklyn.core.location.access.BrooklynAccessUtils;
+import org.apache.brooklyn.util.http.HttpTool;
+import org.apache.brooklyn.util.http.HttpToolResponse;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.net.HostAndPort;
+import com.google.common.primitives.Ints;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Moves shards off Elasticsearch nodes ahead of their removal from an {@link ElasticSearchCluster},
+ * using the {@code cluster.routing.allocation.exclude._name} cluster setting, and reports how many
+ * shards each node still holds using the {@code _cat/allocation} API.
+ */
+public class ElasticSearchShardAllocation {
+
+    public static final String EXCLUDE_NAME_SETTING = "cluster.routing.allocation.exclude._name";
+
+    private ElasticSearchShardAllocation() {}
+
+    /** Returns the base HTTP URL of a member, or null if it is not up or its port is not known. */
+    public static String baseUrl(Entity member) {
+        Integer port = member.getAttribute(ElasticSearchNode.HTTP_PORT);
+        if (!Boolean.TRUE.equals(member.getAttribute(ElasticSearchNode.SERVICE_UP)) || port == null) return null;
+        HostAndPort hp = BrooklynAccessUtils.getBrooklynAccessibleAddress(member, port);
+        return String.format("http://%s:%s", hp.getHostText(), hp.getPort());
+    }
+
+    /** Sets the transient allocation exclusion to exactly the given node names, clearing it if there are none. */
+    public static void exclude(String baseUrl, Collection<String> nodeNames) throws IOException {
+        put(baseUrl + "/_cluster/settings", exclusionSettings(nodeNames));
+    }
+
+    /** Fetches the number of shards held by each node. */
+    public static Map<String, Integer> shardsByNode(String baseUrl) throws IOException {
+        return parseCatAllocation(get(baseUrl + "/_cat/allocation?h=shards,node"));
+    }
+
+    /** Fetches the lowest replica count of any index, or null if there are no indices. */
+    public static Integer minReplicas(String baseUrl) throws IOException {
+        return minReplicas(new JsonParser().parse(get(baseUrl + "/_settings?flat_settings=true")).getAsJsonObject());
+    }
+
+    /** The JSON body of a {@code _cluster/settings} request excluding the given node names. */
+    public static String exclusionSettings(Collection<String> nodeNames) {
+        JsonObject transientSettings = new JsonObject();
+        transientSettings.addProperty(EXCLUDE_NAME_SETTING, Joiner.on(',').join(nodeNames));
+        JsonObject result = new JsonObject();
+        result.add("transient", transientSettings);
+        return result.toString();
+    }
+
+    /**
+     * Parses the output of {@code _cat/allocation?h=shards,node}, one {@code shards node} pair per
+     * line. The line for unassigned shards is skipped.
+     */
+    public static Map<String, Integer> parseCatAllocation(String output) {
+        Map<String, Integer> result = Maps.newLinkedHashMap();
+        if (output == null) return result;
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(output)) {
+            List<String> columns = Splitter.onPattern("\\s+").limit(2).splitToList(line);
+            if (columns.size() != 2 || columns.get(1).equals("UNASSIGNED")) continue;
+            Integer shards = Ints.tryParse(columns.get(0));
+            if (shards != null) result.put(columns.get(1), shards);
+        }
+        return result;
+    }
+
+    /** Sums the shards held by the given nodes; nodes not listed hold none. */
+    public static int shardsOn(Map<String, Integer> shardsByNode, Collection<String> nodeNames) {
+        int result = 0;
+        for (String name : nodeNames) {
+            Integer shards = shardsByNode.get(name);
+            if (shards != null) result += shards;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the lowest {@code index.number_of_replicas} of any index in a
+     * {@code _settings?flat_settings=true} reply, or null if there are no indices.
+     */
+    public static Integer minReplicas(JsonObject settings) {
+        Integer result = null;
+        for (Map.Entry<String, JsonElement> index : settings.entrySet()) {
+            JsonElement replicas = ElasticSearchClusterStatsPoller.walk(index.getValue().getAsJsonObject(), "settings", "index.number_of_replicas");
+            if (replicas == null) continue;
+            int value = replicas.getAsInt();
+            result = (result == null) ? value : Math.min(result, value);
+        }
+        return result;
+    }
+
+    /**
+     * How many nodes may be drained and removed at once: as many as the lowest replica count, so
+     * that every shard keeps a copy outside the batch, and at least one.
+     */
+    public static int maxConcurrentRemovals(Integer minReplicas, int requested) {
+        if (minReplicas == null) return requested;
+        return Math.max(1, Math.min(minReplicas, requested));
+    }
+
+    private static String get(String uri) throws IOException {
+        HttpToolResponse response = HttpTool.httpGet(HttpTool.httpClientBuilder().uri(uri).build(),
+                URI.create(uri), ImmutableMap.<String, String>of());
+        if (response.getResponseCode() != 200) {
+            throw new IOException("Elasticsearch returned "+response.getResponseCode()+" for "+uri);
+        }
+        return response.getContentAsString();
+    }
+
+    private static void put(String uri, String body) throws IOException {
+        HttpToolResponse response = HttpTool.httpPut(HttpTool.httpClientBuilder().uri(uri).build(),
+                URI.create(uri), ImmutableMap.of("Content-Type", "application/json"), body.getBytes(Charsets.UTF_8));
+        if (response.getResponseCode() != 200) {
+            throw new IOException("Elasticsearch returned "+response.getResponseCode()+" for "+uri+": "+response.getContentAsString());
+        }
+    }
+}
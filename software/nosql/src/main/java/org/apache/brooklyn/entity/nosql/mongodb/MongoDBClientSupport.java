@@ -19,6 +19,10 @@
 package org.apache.brooklyn.entity.nosql.mongodb;
 
 import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.apache.brooklyn.core.location.access.BrooklynAccessUtils;
@@ -31,10 +35,14 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.net.HostAndPort;
 import com.mongodb.BasicDBObject;
 import com.mongodb.CommandResult;
 import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientOptions;
@@ -262,23 +270,7 @@ public class MongoDBClientSupport {
      * @return True if successful
      */
     public boolean addMemberToReplicaSet(MongoDBServer secondary, Integer id) {
-        // We need to:
-        // - get the existing configuration
-        // - update its version
-        // - add the new member to its list of members
-        // - run replSetReconfig with the new configuration.
-        BSONObject existingConfig = getReplicaSetConfig();
-        if (existingConfig == null) {
-            LOG.warn("Couldn't load existing config for replica set from {}. Server {} not added.",
-                    getServerAddress(), secondary);
-            return false;
-        }
-
-        BasicBSONObject newConfig = ReplicaSetConfig.fromExistingConfig(existingConfig)
-                .primary(getServerHostAndPort())
-                .member(secondary, id)
-                .build();
-        return reconfigureReplicaSet(newConfig);
+        return updateReplicaSetMembers(ImmutableMap.of(secondary, id), ImmutableList.<MongoDBServer>of());
     }
 
     /**
@@ -288,17 +280,44 @@ public class MongoDBClientSupport {
      * @return True if successful
      */
     public boolean removeMemberFromReplicaSet(MongoDBServer server) {
+        return updateReplicaSetMembers(ImmutableMap.<MongoDBServer, Integer>of(), ImmutableList.of(server));
+    }
+
+    /**
+     * Reconfigures the replica set that this client is the primary member of to add and remove
+     * the given servers with a single <code>replSetReconfig</code>, so a batch of membership
+     * changes costs one configuration version and at most one election.
+     * <p/>
+     * Additions already in the set are ignored.
+     *
+     * @param additions New members of the set and their ids, which must be unique within the set.
+     * @param removals Members to remove from the set.
+     * @return True if successful
+     */
+    public boolean updateReplicaSetMembers(Map<MongoDBServer, Integer> additions, Collection<MongoDBServer> removals) {
+        // We need to:
+        // - get the existing configuration
+        // - update its version
+        // - add and remove members from its list of members
+        // - run replSetReconfig with the new configuration.
         BSONObject existingConfig = getReplicaSetConfig();
         if (existingConfig == null) {
-            LOG.warn("Couldn't load existing config for replica set from {}. Server {} not removed.",
-                    getServerAddress(), server);
+            LOG.warn("Couldn't load existing config for replica set from {}. Servers {} not added and {} not removed.",
+                    new Object[] {getServerAddress(), additions.keySet(), removals});
             return false;
         }
-        BasicBSONObject newConfig = ReplicaSetConfig.fromExistingConfig(existingConfig)
-                .primary(getServerHostAndPort())
-                .remove(server)
-                .build();
-        return reconfigureReplicaSet(newConfig);
+
+        ReplicaSetConfig config = ReplicaSetConfig.fromExistingConfig(existingConfig)
+                .primary(getServerHostAndPort());
+        for (MongoDBServer server : removals) {
+            config.remove(server);
+        }
+        for (Map.Entry<MongoDBServer, Integer> addition : additions.entrySet()) {
+            if (!config.contains(addition.getKey())) {
+                config.member(addition.getKey(), addition.getValue());
+            }
+        }
+        return reconfigureReplicaSet(config.build());
     }
 
     /**
@@ -319,4 +338,121 @@ public class MongoDBClientSupport {
         return result.isPresent() && result.get().ok();
     }
 
+    /**
+     * Lists the names of the shards known to the router this client is connected to.
+     */
+    public List<String> getShardNames() {
+        MongoClient client = client();
+        DBCursor cursor = client.getDB("config").getCollection("shards").find();
+        try {
+            List<String> result = Lists.newArrayList();
+            for (DBObject shard : cursor) {
+                result.add((String) shard.get("_id"));
+            }
+            return result;
+        } finally {
+            cursor.close();
+            client.close();
+        }
+    }
+
+    /**
+     * Collects the balancing state of the sharded cluster that this client's router belongs to
+     * from its config database. Uses a single connection and a handful of small queries, so it
+     * is cheap enough to poll.
+     *
+     * @param migrationWindow How far back to count completed chunk migrations.
+     * @return A {@link BasicBSONObject} with <code>chunks</code> and <code>dataSize</code> (maps of shard
+     *         name to chunk count and to bytes on disk), <code>jumboChunks</code>, <code>migrations</code>,
+     *         <code>balancerEnabled</code> and <code>balancerRunning</code>, or an empty {@link BasicBSONObject}
+     *         if the config database could not be read.
+     */
+    public BasicBSONObject getShardingStatus(Duration migrationWindow) {
+        MongoClient client = client();
+        try {
+            DB config = client.getDB("config");
+            DBCollection chunks = config.getCollection("chunks");
+            BasicBSONObject result = new BasicBSONObject();
+
+            BasicBSONObject chunkCounts = new BasicBSONObject();
+            DBCursor shards = config.getCollection("shards").find();
+            try {
+                for (DBObject shard : shards) {
+                    String name = (String) shard.get("_id");
+                    chunkCounts.put(name, chunks.count(new BasicDBObject("shard", name)));
+                }
+            } finally {
+                shards.close();
+            }
+            result.put("chunks", chunkCounts);
+            result.put("jumboChunks", chunks.count(new BasicDBObject("jumbo", true)));
+
+            // listDatabases on a router reports the size of each database on each shard
+            BasicBSONObject dataSizes = new BasicBSONObject();
+            CommandResult databases = client.getDB("admin").command("listDatabases");
+            if (databases.ok() && databases.get("databases") instanceof List) {
+                for (Object database : (List<?>) databases.get("databases")) {
+                    Object sizes = ((BSONObject) database).get("shards");
+                    if (!(sizes instanceof BSONObject)) continue;
+                    for (String shard : ((BSONObject) sizes).keySet()) {
+                        long size = ((Number) ((BSONObject) sizes).get(shard)).longValue();
+                        dataSizes.put(shard, dataSizes.getLong(shard, 0) + size);
+                    }
+                }
+            }
+            result.put("dataSize", dataSizes);
+
+            Date since = new Date(System.currentTimeMillis() - migrationWindow.toMilliseconds());
+            result.put("migrations", config.getCollection("changelog").count(new BasicDBObject("what", "moveChunk.commit")
+                    .append("time", new BasicDBObject("$gt", since))));
+
+            DBObject settings = config.getCollection("settings").findOne(new BasicDBObject("_id", "balancer"));
+            result.put("balancerEnabled", settings == null
+                    || !(Boolean.TRUE.equals(settings.get("stopped")) || "off".equals(settings.get("mode"))));
+
+            // balancerStatus is only understood by 3.4 and later; older routers take a lock while balancing
+            CommandResult balancer = client.getDB("admin").command("balancerStatus");
+            if (balancer.ok()) {
+                result.put("balancerRunning", balancer.getBoolean("inBalancerRound", false));
+            } else {
+                DBObject lock = config.getCollection("locks").findOne(new BasicDBObject("_id", "balancer"));
+                result.put("balancerRunning", lock != null && lock.get("state") instanceof Number
+                        && ((Number) lock.get("state")).intValue() == 2);
+            }
+            return result;
+        } catch (MongoException e) {
+            LOG.warn("Failed to get sharding status from "+client, e);
+            return EMPTY_RESPONSE;
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Runs <code>removeShard</code> through the router this client is connected to. The first call starts
+     * moving the shard's chunks to the other shards; later calls report progress, with <code>state</code>
+     * <code>ongoing</code> and the <code>remaining</code> chunks and databases, until it is <code>completed</code>.
+     *
+     * @return The result of <code>removeShard</code>, including its <code>errmsg</code> if MongoDB
+     *         refused it, or an empty {@link BasicBSONObject} if the command could not be run.
+     */
+    public BasicBSONObject removeShard(String shard) {
+        Optional<CommandResult> result = runDBCommand("admin", new BasicDBObject("removeShard", shard));
+        if (result.isPresent()) {
+            return result.get();
+        } else {
+            return EMPTY_RESPONSE;
+        }
+    }
+
+    /**
+     * Makes the given shard the primary shard for a database, which holds its unsharded collections.
+     */
+    public boolean movePrimary(String database, String shard) {
+        LOG.debug("Moving primary of {} to shard {}", database, shard);
+        BasicDBObject command = new BasicDBObject("movePrimary", database).append("to", shard);
+        Optional<CommandResult> result = runDBCommand("admin", command);
+        return result.isPresent() && result.get().ok();
+    }
+
 }
@@ -30,6 +30,7 @@ import org.apache.brooklyn.entity.database.DatastoreMixins.HasDatastoreUrl;
 import org.apache.brooklyn.entity.group.Cluster;
 import org.apache.brooklyn.entity.group.DynamicCluster;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 import com.google.common.reflect.TypeToken;
 
@@ -55,13 +56,20 @@ public interface MongoDBReplicaSet extends DynamicCluster, MongoDBAuthentication
 
     ConfigKey<Integer> INITIAL_SIZE = ConfigKeys.newConfigKeyWithDefault(Cluster.INITIAL_SIZE, 3);
 
+    @SetFromFlag("reconfigurationSettlePeriod")
+    ConfigKey<Duration> RECONFIGURATION_SETTLE_PERIOD = ConfigKeys.newConfigKey(Duration.class,
+            "mongodb.replicaSet.reconfiguration.settlePeriod", "How long to collect member additions and removals " +
+            "before applying them to the replica set in a single reconfiguration", Duration.FIVE_SECONDS);
+
     AttributeSensor<MongoDBServer> PRIMARY_ENTITY = Sensors.newSensor(
             MongoDBServer.class, "mongodb.replicaSet.primary.entity", "The entity acting as primary");
 
     @SuppressWarnings("serial")
     AttributeSensor<List<String>> REPLICA_SET_ENDPOINTS = Sensors.newSensor(new TypeToken<List<String>>() {}, 
         "mongodb.replicaSet.endpoints", "Endpoints active for this replica set");
-    
+
+    AttributeSensor<Integer> SYNCED_MEMBER_COUNT = Sensors.newIntegerSensor(
+            "mongodb.replicaSet.members.synced", "Number of members that are primary or have caught up with the primary");
 
     /**
      * The name of the replica set.
@@ -51,6 +51,7 @@ import org.apache.brooklyn.entity.group.DynamicClusterImpl;
 import org.apache.brooklyn.util.collections.MutableList;
 import org.apache.brooklyn.util.collections.MutableSet;
 import org.apache.brooklyn.util.text.Strings;
+import org.apache.brooklyn.util.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,6 +62,7 @@ import com.google.common.base.Predicates;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 
 /**
  * Implementation of {@link MongoDBReplicaSet}.
@@ -103,6 +105,11 @@ public class MongoDBReplicaSetImpl extends DynamicClusterImpl implements MongoDB
      */
     private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
 
+    /** Servers waiting to be added to the set; guards itself and {@link #pendingRemovals}. */
+    private final Set<MongoDBServer> pendingAdditions = Sets.newLinkedHashSet();
+    private final Set<MongoDBServer> pendingRemovals = Sets.newLinkedHashSet();
+    private final AtomicBoolean reconfigurationScheduled = new AtomicBoolean(false);
+
     /** true iff input is a non-null MongoDBServer with attribute REPLICA_SET_MEMBER_STATUS PRIMARY. */
     static final Predicate<Entity> IS_PRIMARY = new Predicate<Entity>() {
         // getPrimary relies on instanceof check
@@ -214,7 +221,8 @@ public class MongoDBReplicaSetImpl extends DynamicClusterImpl implements MongoDB
 
     /**
      * Initialises the replica set with the given server as primary if {@link #mustInitialise} is true,
-     * otherwise schedules the addition of a new secondary.
+     * otherwise schedules the addition of a new secondary. Additions and removals arriving within
+     * {@link #RECONFIGURATION_SETTLE_PERIOD} of each other are applied in one reconfiguration.
      */
     private void serverAdded(MongoDBServer server) {
         try {
@@ -235,7 +243,11 @@ public class MongoDBReplicaSetImpl extends DynamicClusterImpl implements MongoDB
             } else {
                 if (LOG.isDebugEnabled())
                     LOG.debug("Scheduling addition of member to {}: {}", getName(), server);
-                addSecondaryWhenPrimaryIsNonNull(server);
+                synchronized (pendingAdditions) {
+                    pendingRemovals.remove(server);
+                    pendingAdditions.add(server);
+                }
+                scheduleReconfiguration(config().get(RECONFIGURATION_SETTLE_PERIOD));
             }
         } catch (Exception e) {
             ServiceStateLogic.ServiceNotUpLogic.updateNotUpIndicator((EntityLocal)server, "Failed to update replicaset", e);
@@ -243,54 +255,7 @@ public class MongoDBReplicaSetImpl extends DynamicClusterImpl implements MongoDB
     }
 
     /**
-     * Adds a server as a secondary in the replica set.
-     * <p/>
-     * If {@link #getPrimary} returns non-null submit the secondary to the primary's
-     * {@link MongoDBClientSupport}. Otherwise, reschedule the task to run again in three
-     * seconds time (in the hope that next time the primary will be available).
-     */
-    private void addSecondaryWhenPrimaryIsNonNull(final MongoDBServer secondary) {
-        // TODO Don't use executor, use ExecutionManager
-        executor.submit(new Runnable() {
-            @Override
-            public void run() {
-                // SERVICE_UP is not guaranteed when additional members are added to the set.
-                Boolean isAvailable = secondary.sensors().get(MongoDBServer.SERVICE_UP);
-                MongoDBServer primary = getPrimary();
-                boolean reschedule;
-                if (Boolean.TRUE.equals(isAvailable) && primary != null) {
-                    boolean added = primary.addMemberToReplicaSet(secondary, nextMemberId.incrementAndGet());
-                    if (added) {
-                        LOG.info("{} added to replica set {}", secondary, getName());
-                        reschedule = false;
-                    } else {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("{} could not be added to replica set via {}; rescheduling", secondary, getName());
-                        }
-                        reschedule = true;
-                    }
-                } else {
-                    if (LOG.isTraceEnabled()) {
-                        LOG.trace("Rescheduling addition of member {} to replica set {}: service_up={}, primary={}",
-                            new Object[] {secondary, getName(), isAvailable, primary});
-                    }
-                    reschedule = true;
-                }
-                
-                if (reschedule) {
-                    // TODO Could limit number of retries
-                    executor.schedule(this, 3, TimeUnit.SECONDS);
-                }
-            }
-        });
-    }
-
-    /**
-     * Removes a server from the replica set.
-     * <p/>
-     * Submits a task that waits for the member to be down and for the replica set to have a primary
-     * member, then reconfigures the set to remove the member, to {@link #executor}. If either of the
-     * two conditions are not met then the task reschedules itself.
+     * Schedules the removal of a server from the replica set.
      *
      * @param member The server to be removed from the replica set.
      */
@@ -301,44 +266,96 @@ public class MongoDBReplicaSetImpl extends DynamicClusterImpl implements MongoDB
             // FIXME is there a chance of race here?
             if (member.equals(sensors().get(PRIMARY_ENTITY)))
                 sensors().set(PRIMARY_ENTITY, null);
-            executor.submit(new Runnable() {
+            // Still remove a member whose addition is pending, in case it is already in the config
+            synchronized (pendingAdditions) {
+                pendingAdditions.remove(member);
+                pendingRemovals.add(member);
+            }
+            scheduleReconfiguration(config().get(RECONFIGURATION_SETTLE_PERIOD));
+        } catch (Exception e) {
+            ServiceStateLogic.ServiceNotUpLogic.updateNotUpIndicator((EntityLocal)member, "Failed to update replicaset", e);
+        }
+    }
+
+    /**
+     * Submits {@link #reconfigure} to {@link #executor} after the given delay, unless it is already
+     * scheduled, in which case the changes made meanwhile will be picked up by that run.
+     */
+    private void scheduleReconfiguration(Duration delay) {
+        if (reconfigurationScheduled.compareAndSet(false, true)) {
+            // TODO Don't use executor, use ExecutionManager
+            executor.schedule(new Runnable() {
                 @Override
                 public void run() {
-                    // Wait until the server has been stopped before reconfiguring the set. Quoth the MongoDB doc:
-                    // for best results always shut down the mongod instance before removing it from a replica set.
-                    Boolean isAvailable = member.sensors().get(MongoDBServer.SERVICE_UP);
-                    // Wait for the replica set to elect a new primary if the set is reconfiguring itself.
-                    MongoDBServer primary = getPrimary();
-                    boolean reschedule;
-
-                    if (primary != null && !isAvailable) {
-                        boolean removed = primary.removeMemberFromReplicaSet(member);
-                        if (removed) {
-                            LOG.info("Removed {} from replica set {}", member, getName());
-                            reschedule = false;
-                        } else {
-                            if (LOG.isDebugEnabled()) {
-                                LOG.debug("{} could not be removed from replica set via {}; rescheduling", member, getName());
-                            }
-                            reschedule = true;
-                        }
-
-                    } else {
-                        if (LOG.isTraceEnabled()) {
-                            LOG.trace("Rescheduling removal of member {} from replica set {}: service_up={}, primary={}",
-                                    new Object[]{member, getName(), isAvailable, primary});
-                        }
-                        reschedule = true;
-                    }
+                    reconfigure();
+                }
+            }, delay.toMilliseconds(), TimeUnit.MILLISECONDS);
+        }
+    }
 
-                    if (reschedule) {
-                        // TODO Could limit number of retries
-                        executor.schedule(this, 3, TimeUnit.SECONDS);
-                    }
+    /**
+     * Applies all pending additions and removals to the replica set with a single reconfiguration.
+     * <p/>
+     * Servers are only added once SERVICE_UP, which is not guaranteed when additional members are added to
+     * the set, and only removed once stopped, since quoth the MongoDB doc: for best results always shut down
+     * the mongod instance before removing it from a replica set. Changes that are not ready, or all changes
+     * if the set has no primary (e.g. because it is electing one) or the reconfiguration fails, are retried
+     * in three seconds time.
+     */
+    private void reconfigure() {
+        reconfigurationScheduled.set(false);
+        List<MongoDBServer> additions;
+        List<MongoDBServer> removals;
+        synchronized (pendingAdditions) {
+            additions = MutableList.copyOf(pendingAdditions);
+            removals = MutableList.copyOf(pendingRemovals);
+        }
+        if (additions.isEmpty() && removals.isEmpty()) return;
+
+        Map<MongoDBServer, Integer> readyAdditions = Maps.newLinkedHashMap();
+        for (MongoDBServer server : additions) {
+            if (Boolean.TRUE.equals(server.sensors().get(MongoDBServer.SERVICE_UP))) {
+                readyAdditions.put(server, null);
+            }
+        }
+        List<MongoDBServer> readyRemovals = MutableList.of();
+        for (MongoDBServer server : removals) {
+            if (!Boolean.TRUE.equals(server.sensors().get(MongoDBServer.SERVICE_UP))) {
+                readyRemovals.add(server);
+            }
+        }
+        boolean reschedule = readyAdditions.size() < additions.size() || readyRemovals.size() < removals.size();
+
+        MongoDBServer primary = getPrimary();
+        if (primary == null) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Rescheduling reconfiguration of replica set {}: no primary; additions={}, removals={}",
+                        new Object[] {getName(), additions, removals});
+            }
+            reschedule = true;
+        } else if (!readyAdditions.isEmpty() || !readyRemovals.isEmpty()) {
+            for (MongoDBServer server : readyAdditions.keySet()) {
+                readyAdditions.put(server, nextMemberId.incrementAndGet());
+            }
+            boolean updated = primary.updateReplicaSetMembers(readyAdditions, readyRemovals);
+            if (updated) {
+                LOG.info("Reconfigured replica set {}: added {}, removed {}",
+                        new Object[] {getName(), readyAdditions.keySet(), readyRemovals});
+                synchronized (pendingAdditions) {
+                    pendingAdditions.removeAll(readyAdditions.keySet());
+                    pendingRemovals.removeAll(readyRemovals);
                 }
-            });
-        } catch (Exception e) {
-            ServiceStateLogic.ServiceNotUpLogic.updateNotUpIndicator((EntityLocal)member, "Failed to update replicaset", e);
+            } else {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Replica set {} could not be reconfigured via {}; rescheduling", getName(), primary);
+                }
+                reschedule = true;
+            }
+        }
+
+        if (reschedule) {
+            // TODO Could limit number of retries
+            scheduleReconfiguration(Duration.seconds(3));
         }
     }
 
@@ -405,6 +422,17 @@ public class MongoDBReplicaSetImpl extends DynamicClusterImpl implements MongoDB
                 .computing(new EndpointsToDatastoreUrlMapper(this))
                 .build());
 
+        enrichers().add(Enrichers.builder()
+                .aggregating(MongoDBServer.REPLICA_SET_MEMBER_SYNCED)
+                .publishing(SYNCED_MEMBER_COUNT)
+                .fromMembers()
+                .computing(new Function<Collection<Boolean>, Integer>() {
+                        @Override
+                        public Integer apply(Collection<Boolean> input) {
+                            return (input == null) ? 0 : Iterables.size(Iterables.filter(input, Predicates.equalTo(Boolean.TRUE)));
+                        }})
+                .build());
+
         subscriptions().subscribeToMembers(this, MongoDBServer.IS_PRIMARY_FOR_REPLICA_SET, new SensorEventListener<Boolean>() {
             @Override public void onEvent(SensorEvent<Boolean> event) {
                 if (Boolean.TRUE == event.getValue())
@@ -18,6 +18,9 @@
  */
 package org.apache.brooklyn.entity.nosql.mongodb;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.bson.BasicBSONObject;
 import org.apache.brooklyn.api.catalog.Catalog;
 import org.apache.brooklyn.api.entity.ImplementedBy;
@@ -29,6 +32,7 @@ import org.apache.brooklyn.core.config.ConfigKeys;
 import org.apache.brooklyn.core.sensor.PortAttributeSensorAndConfigKey;
 import org.apache.brooklyn.core.sensor.Sensors;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 @Catalog(name="MongoDB Server",
     description="MongoDB (from \"humongous\") is a scalable, high-performance, open source NoSQL database",
@@ -99,6 +103,23 @@ public interface MongoDBServer extends AbstractMongoDBServer {
     AttributeSensor<ReplicaSetMemberStatus> REPLICA_SET_MEMBER_STATUS = Sensors.newSensor(
             ReplicaSetMemberStatus.class, "mongodb.server.replicaSet.memberStatus", "The status of this server in the replica set");
 
+    AttributeSensor<BasicBSONObject> REPLICA_SET_STATUS_BSON = Sensors.builder(BasicBSONObject.class, "mongodb.server.replicaSet.status.bson")
+            .description("Replica set status as reported by replSetGetStatus (BSON/JSON map object)")
+            .persistence(SensorPersistenceMode.NONE)
+            .build();
+
+    @SetFromFlag("replicaSetMaxSyncLag")
+    ConfigKey<Duration> REPLICA_SET_MAX_SYNC_LAG = ConfigKeys.newConfigKey(Duration.class,
+            "mongodb.server.replicaSet.maxSyncLag", "How far a secondary's oplog may be behind the primary's " +
+            "for the secondary to count as synced", Duration.TEN_SECONDS);
+
+    AttributeSensor<Long> REPLICA_SET_SYNC_LAG = Sensors.newLongSensor(
+            "mongodb.server.replicaSet.syncLag", "Seconds by which this server's oplog is behind the primary's");
+
+    AttributeSensor<Boolean> REPLICA_SET_MEMBER_SYNCED = Sensors.newBooleanSensor(
+            "mongodb.server.replicaSet.synced", "True if this server is primary, or a secondary which has completed " +
+            "its initial sync and is within the maximum sync lag of the primary");
+
     AttributeSensor<Boolean> IS_PRIMARY_FOR_REPLICA_SET = Sensors.newBooleanSensor(
             "mongodb.server.replicaSet.isPrimary", "True if this server is the write master for the replica set");
 
@@ -151,4 +172,14 @@ public interface MongoDBServer extends AbstractMongoDBServer {
      */
     boolean removeMemberFromReplicaSet(MongoDBServer server);
 
+    /**
+     * Reconfigures the replica set that the server the method is invoked on is the primary member of
+     * to add and remove the given servers in a single reconfiguration.
+     * @param additions New members of the set and their ids. Ids must be unique within the set.
+     * @param removals The servers to remove.
+     * @return True if the reconfiguration is successful. False if the server this is called on is not
+     *         the primary member of the replica set.
+     */
+    boolean updateReplicaSetMembers(Map<MongoDBServer, Integer> additions, Collection<MongoDBServer> removals);
+
 }
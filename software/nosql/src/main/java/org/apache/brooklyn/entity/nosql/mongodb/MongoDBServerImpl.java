@@ -19,6 +19,10 @@
 package org.apache.brooklyn.entity.nosql.mongodb;
 
 import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
@@ -29,6 +33,7 @@ import org.apache.brooklyn.core.location.access.BrooklynAccessUtils;
 import org.apache.brooklyn.entity.software.base.SoftwareProcessImpl;
 import org.apache.brooklyn.feed.function.FunctionFeed;
 import org.apache.brooklyn.feed.function.FunctionPollConfig;
+import org.apache.brooklyn.util.time.Duration;
 import org.bson.BasicBSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,26 +102,33 @@ public class MongoDBServerImpl extends SoftwareProcessImpl implements MongoDBSer
             if (isReplicaSetMember()) {
                 replicaSetStats = FunctionFeed.builder()
                         .entity(this)
-                        .poll(new FunctionPollConfig<Object, ReplicaSetMemberStatus>(REPLICA_SET_MEMBER_STATUS)
+                        .poll(new FunctionPollConfig<Object, BasicBSONObject>(REPLICA_SET_STATUS_BSON)
                                 .period(2, TimeUnit.SECONDS)
-                                .callable(new Callable<ReplicaSetMemberStatus>() {
-                                    /**
-                                     * Calls {@link MongoDBClientSupport#getReplicaSetStatus} and
-                                     * extracts <code>myState</code> from the response.
-                                     * @return
-                                     *      The appropriate {@link org.apache.brooklyn.entity.nosql.mongodb.ReplicaSetMemberStatus}
-                                     *      if <code>myState</code> was non-null, {@link ReplicaSetMemberStatus#UNKNOWN} otherwise.
-                                     */
+                                .callable(new Callable<BasicBSONObject>() {
                                     @Override
-                                    public ReplicaSetMemberStatus call() {
-                                        BasicBSONObject serverStatus = client.getReplicaSetStatus();
-                                        int state = serverStatus.getInt("myState", -1);
-                                        return ReplicaSetMemberStatus.fromCode(state);
+                                    public BasicBSONObject call() {
+                                        return client.getReplicaSetStatus();
                                     }
                                 })
-                                .onException(Functions.constant(ReplicaSetMemberStatus.UNKNOWN))
-                                .suppressDuplicates(true))
+                                .onException(Functions.<BasicBSONObject>constant(null)))
                         .build();
+
+                // Derive member status and sync progress from a single replSetGetStatus call
+                subscriptions().subscribe(this, REPLICA_SET_STATUS_BSON, new SensorEventListener<BasicBSONObject>() {
+                        @Override public void onEvent(SensorEvent<BasicBSONObject> event) {
+                            BasicBSONObject status = event.getValue();
+                            ReplicaSetMemberStatus memberStatus = (status == null)
+                                    ? ReplicaSetMemberStatus.UNKNOWN
+                                    : ReplicaSetMemberStatus.fromCode(status.getInt("myState", -1));
+                            if (memberStatus != sensors().get(REPLICA_SET_MEMBER_STATUS)) {
+                                sensors().set(REPLICA_SET_MEMBER_STATUS, memberStatus);
+                            }
+                            Long lag = (status == null) ? null : syncLagSeconds(status);
+                            sensors().set(REPLICA_SET_SYNC_LAG, lag);
+                            sensors().set(REPLICA_SET_MEMBER_SYNCED, isSynced(memberStatus, lag,
+                                    config().get(REPLICA_SET_MAX_SYNC_LAG)));
+                        }
+                });
             } else {
                 sensors().set(IS_PRIMARY_FOR_REPLICA_SET, false);
                 sensors().set(IS_SECONDARY_FOR_REPLICA_SET, false);
@@ -216,6 +228,56 @@ public class MongoDBServerImpl extends SoftwareProcessImpl implements MongoDBSer
         return client.removeMemberFromReplicaSet(server);
     }
 
+    @Override
+    public boolean updateReplicaSetMembers(Map<MongoDBServer, Integer> additions, Collection<MongoDBServer> removals) {
+        if (!sensors().get(IS_PRIMARY_FOR_REPLICA_SET)) {
+            LOG.warn("Attempted to add {} to and remove {} from replica set at server that is not primary: {}",
+                    new Object[] {additions.keySet(), removals, this});
+            return false;
+        }
+        if (!clientAccessEnabled()) {
+            throw new IllegalStateException("client-access disabled for "+this+"; cannot add "+additions.keySet()+
+                    " to or remove "+removals+" from replica set");
+        }
+        return client.updateReplicaSetMembers(additions, removals);
+    }
+
+    /**
+     * Returns the number of seconds by which this server's last applied operation is behind the
+     * primary's, from the <code>members</code> of a <code>replSetGetStatus</code> response, or
+     * null if either is not listed.
+     */
+    static Long syncLagSeconds(BasicBSONObject replicaSetStatus) {
+        Object members = replicaSetStatus.get("members");
+        if (!(members instanceof List)) return null;
+        Date primaryOptime = null;
+        Date selfOptime = null;
+        for (Object member : (List<?>) members) {
+            if (!(member instanceof BasicBSONObject)) continue;
+            BasicBSONObject bson = (BasicBSONObject) member;
+            Date optime = bson.getDate("optimeDate", null);
+            if (ReplicaSetMemberStatus.fromCode(bson.getInt("state", -1)) == ReplicaSetMemberStatus.PRIMARY) {
+                primaryOptime = optime;
+            }
+            if (bson.getBoolean("self", false)) {
+                selfOptime = optime;
+            }
+        }
+        if (primaryOptime == null || selfOptime == null) return null;
+        return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(primaryOptime.getTime() - selfOptime.getTime()));
+    }
+
+    /**
+     * True for the primary, or for a secondary whose lag is known and within the given maximum.
+     * Members still in their initial sync report {@link ReplicaSetMemberStatus#STARTUP2} or
+     * {@link ReplicaSetMemberStatus#RECOVERING}, so are never synced.
+     */
+    static boolean isSynced(ReplicaSetMemberStatus status, Long lagSeconds, Duration maxLag) {
+        if (status == ReplicaSetMemberStatus.PRIMARY) return true;
+        return status == ReplicaSetMemberStatus.SECONDARY && lagSeconds != null
+                && TimeUnit.SECONDS.toMillis(lagSeconds) <= maxLag.toMilliseconds();
+    }
+
     @Override
     public String toString() {
         return Objects.toStringHelper(this)
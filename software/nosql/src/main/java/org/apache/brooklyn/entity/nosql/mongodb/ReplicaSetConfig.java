@@ -22,6 +22,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.brooklyn.core.location.access.BrooklynAccessUtils;
 import org.bson.BSONObject;
@@ -31,6 +33,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.net.HostAndPort;
 
 /**
@@ -182,6 +186,18 @@ public class ReplicaSetConfig {
         return this;
     }
 
+    /** Whether the config has a member with {@link MongoDBServer#HOSTNAME} and {@link MongoDBServer#PORT}. */
+    public boolean contains(MongoDBServer server) {
+        HostAndPort hap = BrooklynAccessUtils.getBrooklynAccessibleAddress(server, server.getAttribute(MongoDBServer.PORT));
+        String host = String.format("%s:%s", hap.getHostText(), hap.getPort());
+        for (Object next : this.members) {
+            if (next instanceof BasicBSONObject && host.equals(((BasicBSONObject) next).getString("host"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * @return A {@link BasicBSONObject} representing the configuration that is suitable for a MongoDB server.
      */
@@ -197,7 +213,8 @@ public class ReplicaSetConfig {
     /**
      * Selects 1, 3, 5 or 7 members to have a vote. The primary member (as set by
      * {@link #primary(com.google.common.net.HostAndPort)}) is guaranteed a vote if
-     * it is in {@link #members}.
+     * it is in {@link #members}, and members that already vote keep their votes where
+     * possible. Non-voting members are given priority 0, so they never become primary.
      * <p/>
      *
      * Reconfiguring a server to be voters when they previously did not have votes generally triggers
@@ -227,42 +244,62 @@ public class ReplicaSetConfig {
     private void setVotingMembers() {
         if (LOG.isDebugEnabled())
             LOG.debug("Setting voting and non-voting members of replica set: {}", name);
-        boolean seenPrimary = false;
         String expectedPrimary = primary.isPresent()
                 ? primary.get().getHostText() + ":" + primary.get().getPort()
                 : "";
 
-        // Ensure an odd number of voters
-        int setSize = this.members.size();
-        int nonPrimaryVotingMembers = Math.min(setSize % 2 == 0 ? setSize - 1 : setSize, MAXIMUM_VOTING_MEMBERS);
-        if (primary.isPresent()) {
-            if (LOG.isTraceEnabled())
-                LOG.trace("Reserving vote for primary: " + expectedPrimary);
-            nonPrimaryVotingMembers -= 1;
-        }
-
+        List<BasicBSONObject> candidates = Lists.newArrayList();
         for (Object member : this.members) {
             if (member instanceof BasicBSONObject) {
-                BasicBSONObject bsonObject = BasicBSONObject.class.cast(member);
-                String host = bsonObject.getString("host");
+                candidates.add(BasicBSONObject.class.cast(member));
+            } else {
+                LOG.error("Unexpected entry in replica set members list: " + member);
+            }
+        }
+
+        // Ensure an odd number of voters
+        int setSize = candidates.size();
+        int votingMembers = Math.min(setSize % 2 == 0 ? setSize - 1 : setSize, MAXIMUM_VOTING_MEMBERS);
+
+        // Choose the primary first, then members that already have a vote, since moving votes
+        // can trigger an election, then any others in order.
+        Set<BasicBSONObject> voters = Sets.newIdentityHashSet();
+        boolean seenPrimary = false;
+        for (BasicBSONObject member : candidates) {
+            if (this.primary.isPresent() && expectedPrimary.equals(member.getString("host"))) {
+                if (LOG.isTraceEnabled())
+                    LOG.trace("Reserving vote for primary: " + expectedPrimary);
+                voters.add(member);
+                seenPrimary = true;
+            }
+        }
+        for (BasicBSONObject member : candidates) {
+            if (voters.size() < votingMembers && member.containsField("votes") && member.getInt("votes") > 0) {
+                voters.add(member);
+            }
+        }
+        for (BasicBSONObject member : candidates) {
+            if (voters.size() < votingMembers) {
+                voters.add(member);
+            }
+        }
 
-                // is this member noted as the primary?
-                if (this.primary.isPresent() && expectedPrimary.equals(host)) {
-                    bsonObject.put("votes", 1);
-                    seenPrimary = true;
-                    if (LOG.isDebugEnabled())
-                        LOG.debug("Voting member (primary) of set {}: {}", name, host);
-                } else if (nonPrimaryVotingMembers-- > 0) {
-                    bsonObject.put("votes", 1);
-                    if (LOG.isDebugEnabled())
-                        LOG.debug("Voting member of set {}: {}", name, host);
-                } else {
-                    bsonObject.put("votes", 0);
-                    if (LOG.isDebugEnabled())
-                        LOG.debug("Non-voting member of set {}: {}", name, host);
+        for (BasicBSONObject member : candidates) {
+            String host = member.getString("host");
+            if (voters.contains(member)) {
+                member.put("votes", 1);
+                // a member that was not voting before will have had priority 0
+                if (member.containsField("priority") && member.getDouble("priority") == 0) {
+                    member.put("priority", 1);
                 }
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Voting member of set {}: {}", name, host);
             } else {
-                LOG.error("Unexpected entry in replica set members list: " + member);
+                // MongoDB requires non-voting members to have priority 0
+                member.put("votes", 0);
+                member.put("priority", 0);
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Non-voting member of set {}: {}", name, host);
             }
         }
 
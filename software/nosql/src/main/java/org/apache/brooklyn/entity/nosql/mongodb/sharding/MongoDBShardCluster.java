@@ -19,9 +19,44 @@
 package org.apache.brooklyn.entity.nosql.mongodb.sharding;
 
 import org.apache.brooklyn.api.entity.ImplementedBy;
+import org.apache.brooklyn.api.sensor.AttributeSensor;
+import org.apache.brooklyn.config.ConfigKey;
+import org.apache.brooklyn.core.annotation.Effector;
+import org.apache.brooklyn.core.annotation.EffectorParam;
+import org.apache.brooklyn.core.config.ConfigKeys;
+import org.apache.brooklyn.core.effector.MethodEffector;
+import org.apache.brooklyn.core.sensor.Sensors;
 import org.apache.brooklyn.entity.group.DynamicCluster;
+import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 @ImplementedBy(MongoDBShardClusterImpl.class)
 public interface MongoDBShardCluster extends DynamicCluster {
 
+    MethodEffector<Void> DRAIN_SHARD = new MethodEffector<Void>(MongoDBShardCluster.class, "drainShard");
+
+    @SetFromFlag("shardDrainTimeout")
+    ConfigKey<Duration> SHARD_DRAIN_TIMEOUT = ConfigKeys.newConfigKey(Duration.class, "mongodb.shard.drain.timeout",
+            "Maximum time to wait for the chunks of a shard being removed to move to the other shards", Duration.hours(2));
+
+    @SetFromFlag("shardDrainPollPeriod")
+    ConfigKey<Duration> SHARD_DRAIN_POLL_PERIOD = ConfigKeys.newConfigKey(Duration.class, "mongodb.shard.drain.pollPeriod",
+            "Period between checks of the progress of draining a shard", Duration.TEN_SECONDS);
+
+    /** Set on the shard's replica set while it is drained. */
+    AttributeSensor<Long> SHARD_CHUNKS_REMAINING = Sensors.newLongSensor(
+            "mongodb.shard.drain.chunksRemaining", "Chunks still to move off this shard before it can be removed");
+
+    /** Set on the shard's replica set once it has been removed from the sharded cluster. */
+    AttributeSensor<Boolean> SHARD_DRAINED = Sensors.newBooleanSensor(
+            "mongodb.shard.drained", "Whether all chunks and databases have moved off this shard and it has been removed");
+
+    /**
+     * Moves all chunks and databases off a shard and removes it from the sharded cluster. Returns
+     * once the shard has been removed, when its replica set can be stopped without losing data.
+     * The cluster does this itself for the shards it removes when resized down.
+     */
+    @Effector(description="Moves all chunks and databases off a shard and removes it from the sharded cluster")
+    void drainShard(@EffectorParam(name="shardId", description="Id of the shard's replica set entity") String shardId);
+
 }
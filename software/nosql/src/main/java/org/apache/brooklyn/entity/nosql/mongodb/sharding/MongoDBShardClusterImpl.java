@@ -20,6 +20,7 @@ package org.apache.brooklyn.entity.nosql.mongodb.sharding;
 
 import java.net.UnknownHostException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -31,18 +32,27 @@ import org.apache.brooklyn.api.entity.EntitySpec;
 import org.apache.brooklyn.api.location.Location;
 import org.apache.brooklyn.api.sensor.SensorEvent;
 import org.apache.brooklyn.api.sensor.SensorEventListener;
+import org.apache.brooklyn.core.entity.EntityPredicates;
+import org.apache.brooklyn.core.entity.lifecycle.Lifecycle;
+import org.apache.brooklyn.core.entity.lifecycle.ServiceStateLogic;
 import org.apache.brooklyn.core.entity.trait.Startable;
 import org.apache.brooklyn.entity.group.DynamicClusterImpl;
 import org.apache.brooklyn.entity.nosql.mongodb.MongoDBClientSupport;
 import org.apache.brooklyn.entity.nosql.mongodb.MongoDBReplicaSet;
 import org.apache.brooklyn.entity.nosql.mongodb.MongoDBServer;
+import org.apache.brooklyn.util.collections.MutableList;
 import org.apache.brooklyn.util.exceptions.Exceptions;
 import org.apache.brooklyn.util.time.Duration;
 import org.apache.brooklyn.util.time.Time;
+import org.bson.BasicBSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
 public class MongoDBShardClusterImpl extends DynamicClusterImpl implements MongoDBShardCluster {
@@ -179,4 +189,142 @@ public class MongoDBShardClusterImpl extends DynamicClusterImpl implements Mongo
             }
         });
     }
+
+    /**
+     * Drains the shards that are about to be removed before shrinking, unless the whole cluster
+     * is stopping or being emptied, so that their data is not lost with them.
+     */
+    @Override
+    protected Collection<Entity> shrink(int delta) {
+        if (shouldDrainOnShrink(ServiceStateLogic.getExpectedState(this), delta, getCurrentSize())) {
+            List<Entity> remaining = MutableList.copyOf(getMembers());
+            Function<Collection<Entity>, Entity> removalStrategy = getRemovalStrategy();
+            for (int i = 0; i < -delta && !remaining.isEmpty(); i++) {
+                Entity member = removalStrategy.apply(remaining);
+                remaining.remove(member);
+                drain((MongoDBReplicaSet) member);
+            }
+        }
+        return super.shrink(delta);
+    }
+
+    /**
+     * Whether shards should be drained before shrinking by {@code delta}: not when the cluster is
+     * stopping, and not when every shard would go, as MongoDB will not remove the last shard.
+     */
+    static boolean shouldDrainOnShrink(Lifecycle expectedState, int delta, int currentSize) {
+        return delta < 0 && !Lifecycle.STOPPING.equals(expectedState) && -delta < currentSize;
+    }
+
+    /** Removes drained shards first, so that {@link #shrink(int)} removes the shards it drained. */
+    @Override
+    public Function<Collection<Entity>, Entity> getRemovalStrategy() {
+        final Function<Collection<Entity>, Entity> delegate = super.getRemovalStrategy();
+        return new Function<Collection<Entity>, Entity>() {
+            @Override
+            public Entity apply(Collection<Entity> members) {
+                for (Entity member : members) {
+                    if (Boolean.TRUE.equals(member.getAttribute(SHARD_DRAINED))) return member;
+                }
+                return (delegate != null) ? delegate.apply(members) : Iterables.getLast(members);
+            }
+        };
+    }
+
+    @Override
+    public void drainShard(String shardId) {
+        Optional<Entity> member = Iterables.tryFind(getMembers(), EntityPredicates.idEqualTo(shardId));
+        if (!member.isPresent()) {
+            throw new IllegalArgumentException("No shard "+shardId+" in "+this);
+        }
+        drain((MongoDBReplicaSet) member.get());
+    }
+
+    /**
+     * Repeats <code>removeShard</code> through any running router until the shard is removed. Once its
+     * chunks have moved, any databases whose primary shard it is are moved to another shard.
+     *
+     * @throws IllegalStateException if MongoDB refuses to remove the shard, or it is not removed
+     *         within {@link #SHARD_DRAIN_TIMEOUT}; the shard can then be added back by the cluster
+     */
+    protected void drain(MongoDBReplicaSet replicaSet) {
+        if (Boolean.TRUE.equals(replicaSet.getAttribute(SHARD_DRAINED))) return;
+        // stops addShards adding it back
+        addingMembers.add(replicaSet);
+        boolean drained = false;
+        try {
+            String shard = replicaSet.getName();
+            Duration timeout = config().get(SHARD_DRAIN_TIMEOUT);
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            LOG.info("{} draining shard {}", this, shard);
+            while (true) {
+                BasicBSONObject result = removeShardViaRouter(shard);
+                if (result != null) {
+                    String error = result.getString("errmsg");
+                    if (error != null) {
+                        throw new IllegalStateException("Cannot drain shard "+shard+" from "+this+": "+error);
+                    }
+                    String state = result.getString("state");
+                    if ("completed".equals(state)) {
+                        LOG.info("{} removed shard {} after {}", new Object[] {this, shard, Time.makeTimeStringRounded(stopwatch)});
+                        addedMembers.remove(replicaSet);
+                        replicaSet.sensors().set(SHARD_CHUNKS_REMAINING, 0L);
+                        replicaSet.sensors().set(SHARD_DRAINED, true);
+                        drained = true;
+                        return;
+                    } else if (state != null) {
+                        BasicBSONObject remaining = (BasicBSONObject) result.get("remaining");
+                        long chunks = (remaining == null) ? 0 : remaining.getLong("chunks", 0);
+                        replicaSet.sensors().set(SHARD_CHUNKS_REMAINING, chunks);
+                        if (chunks == 0 && result.get("dbsToMove") instanceof List) {
+                            movePrimaries(shard, (List<?>) result.get("dbsToMove"));
+                        }
+                    }
+                }
+                if (stopwatch.elapsed(TimeUnit.MILLISECONDS) > timeout.toMilliseconds()) {
+                    throw new IllegalStateException("Timeout after "+Time.makeTimeStringRounded(stopwatch)+" draining shard "
+                            +shard+" from "+this+"; last status: "+result);
+                }
+                Time.sleep(config().get(SHARD_DRAIN_POLL_PERIOD));
+            }
+        } finally {
+            if (!drained) addingMembers.remove(replicaSet);
+        }
+    }
+
+    /**
+     * Runs <code>removeShard</code> through any running router.
+     *
+     * @return its result, or null if there is no running router
+     */
+    protected BasicBSONObject removeShardViaRouter(String shard) {
+        MongoDBClientSupport client = routerClient();
+        return (client == null) ? null : client.removeShard(shard);
+    }
+
+    /** Makes another shard the primary shard of each of the given databases, held by the shard being drained. */
+    protected void movePrimaries(String shard, List<?> databases) {
+        MongoDBClientSupport client = routerClient();
+        if (client == null) return;
+        List<String> others = client.getShardNames();
+        others.remove(shard);
+        for (Object database : databases) {
+            if (!others.isEmpty()) client.movePrimary((String) database, others.get(0));
+        }
+    }
+
+    private MongoDBClientSupport routerClient() {
+        MongoDBRouter router = getParent().getAttribute(MongoDBShardedDeployment.ROUTER_CLUSTER).getAttribute(MongoDBRouterCluster.ANY_RUNNING_ROUTER);
+        if (router == null) return null;
+        try {
+            return MongoDBClientSupport.forServer(router);
+        } catch (UnknownHostException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    @VisibleForTesting
+    boolean isAddingOrAdded(Entity replicaSet) {
+        return addingMembers.contains(replicaSet);
+    }
 }
@@ -18,12 +18,15 @@
  */
 package org.apache.brooklyn.entity.nosql.mongodb.sharding;
 
+import java.util.Map;
+
 import org.apache.brooklyn.api.catalog.Catalog;
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntitySpec;
 import org.apache.brooklyn.api.entity.Group;
 import org.apache.brooklyn.api.entity.ImplementedBy;
 import org.apache.brooklyn.api.sensor.AttributeSensor;
+import org.apache.brooklyn.api.sensor.AttributeSensor.SensorPersistenceMode;
 import org.apache.brooklyn.config.ConfigKey;
 import org.apache.brooklyn.core.config.ConfigKeys;
 import org.apache.brooklyn.core.entity.trait.Startable;
@@ -32,6 +35,7 @@ import org.apache.brooklyn.entity.nosql.mongodb.MongoDBReplicaSet;
 import org.apache.brooklyn.entity.nosql.mongodb.MongoDBServer;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
 import org.apache.brooklyn.util.time.Duration;
+import org.bson.BasicBSONObject;
 
 import com.google.common.reflect.TypeToken;
 
@@ -86,6 +90,39 @@ public interface MongoDBShardedDeployment extends Entity, Startable {
             "Spec for Config Server instances",
             EntitySpec.create(MongoDBConfigServer.class));
 
+    @SetFromFlag("shardingStatusPollPeriod")
+    ConfigKey<Duration> SHARDING_STATUS_POLL_PERIOD = ConfigKeys.newConfigKey(Duration.class, "mongodb.sharding.status.pollPeriod",
+            "How often to query a router for chunk distribution and balancer state", Duration.THIRTY_SECONDS);
+
+    @SetFromFlag("chunkMigrationWindow")
+    ConfigKey<Duration> CHUNK_MIGRATION_WINDOW = ConfigKeys.newConfigKey(Duration.class, "mongodb.sharding.migrations.window",
+            "Period over which completed chunk migrations are counted to compute the migration rate", Duration.minutes(10));
+
+    public static AttributeSensor<BasicBSONObject> SHARDING_STATUS_BSON = Sensors.builder(BasicBSONObject.class, "mongodb.sharding.status.bson")
+            .description("Chunk distribution and balancer state of the sharded cluster (BSON/JSON map object)")
+            .persistence(SensorPersistenceMode.NONE)
+            .build();
+
+    @SuppressWarnings("serial")
+    public static AttributeSensor<Map<String, Long>> SHARD_CHUNK_COUNTS = Sensors.newSensor(new TypeToken<Map<String, Long>>() {},
+            "mongodb.sharding.chunks", "Number of chunks held by each shard, by shard name");
+
+    @SuppressWarnings("serial")
+    public static AttributeSensor<Map<String, Long>> SHARD_DATA_SIZES = Sensors.newSensor(new TypeToken<Map<String, Long>>() {},
+            "mongodb.sharding.dataSize", "Bytes on disk held by each shard, by shard name");
+
+    public static AttributeSensor<Long> JUMBO_CHUNK_COUNT = Sensors.newLongSensor(
+            "mongodb.sharding.chunks.jumbo", "Number of chunks too large for the balancer to move");
+
+    public static AttributeSensor<Boolean> BALANCER_ENABLED = Sensors.newBooleanSensor(
+            "mongodb.sharding.balancer.enabled", "Whether the balancer is enabled");
+
+    public static AttributeSensor<Boolean> BALANCER_RUNNING = Sensors.newBooleanSensor(
+            "mongodb.sharding.balancer.running", "Whether the balancer is currently in a balancing round");
+
+    public static AttributeSensor<Double> CHUNK_MIGRATIONS_PER_MINUTE = Sensors.newDoubleSensor(
+            "mongodb.sharding.migrations.perMinute", "Completed chunk migrations per minute, over the chunk migration window");
+
     public static AttributeSensor<MongoDBConfigServerCluster> CONFIG_SERVER_CLUSTER = Sensors.newSensor(
             MongoDBConfigServerCluster.class, "mongodbshardeddeployment.configservers", "Config servers");
     public static AttributeSensor<MongoDBRouterCluster> ROUTER_CLUSTER = Sensors.newSensor(
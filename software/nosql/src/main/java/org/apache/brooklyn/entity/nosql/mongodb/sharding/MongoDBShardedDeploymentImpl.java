@@ -22,11 +22,15 @@ import static org.apache.brooklyn.core.sensor.DependentConfiguration.attributeWh
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntitySpec;
 import org.apache.brooklyn.api.location.Location;
 import org.apache.brooklyn.api.policy.PolicySpec;
+import org.apache.brooklyn.api.sensor.SensorEvent;
+import org.apache.brooklyn.api.sensor.SensorEventListener;
 import org.apache.brooklyn.core.entity.AbstractEntity;
 import org.apache.brooklyn.core.entity.Attributes;
 import org.apache.brooklyn.core.entity.Entities;
@@ -37,19 +41,30 @@ import org.apache.brooklyn.core.entity.trait.Startable;
 import org.apache.brooklyn.enricher.stock.Enrichers;
 import org.apache.brooklyn.entity.group.AbstractMembershipTrackingPolicy;
 import org.apache.brooklyn.entity.group.DynamicCluster;
+import org.apache.brooklyn.feed.function.FunctionFeed;
+import org.apache.brooklyn.feed.function.FunctionPollConfig;
 import org.apache.brooklyn.util.exceptions.Exceptions;
+import org.apache.brooklyn.util.time.Duration;
+import org.bson.BSONObject;
+import org.bson.BasicBSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.brooklyn.entity.nosql.mongodb.MongoDBAuthenticationMixins;
 import org.apache.brooklyn.entity.nosql.mongodb.MongoDBAuthenticationUtils;
+import org.apache.brooklyn.entity.nosql.mongodb.MongoDBClientSupport;
+
+import com.google.common.base.Functions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 
 public class MongoDBShardedDeploymentImpl extends AbstractEntity implements MongoDBShardedDeployment, MongoDBAuthenticationMixins {
     
     @SuppressWarnings("unused")
     private static final Logger LOG = LoggerFactory.getLogger(MongoDBShardedDeploymentImpl.class);
+
+    private FunctionFeed shardingStatus;
     
     @Override
     public void init() {
@@ -102,6 +117,8 @@ public class MongoDBShardedDeploymentImpl extends AbstractEntity implements Mong
                         .configure("group", getConfig(MongoDBShardedDeployment.CO_LOCATED_ROUTER_GROUP)));
             }
 
+            connectShardingStatus();
+
             ServiceNotUpLogic.clearNotUpIndicator(this, Attributes.SERVICE_STATE_ACTUAL);
             ServiceStateLogic.setExpectedState(this, Lifecycle.RUNNING);
         } catch (Exception e) {
@@ -111,6 +128,53 @@ public class MongoDBShardedDeploymentImpl extends AbstractEntity implements Mong
         }
     }
 
+    /**
+     * Polls one running router for the state of the whole sharded cluster, so the config
+     * database is queried once per deployment however many routers there are.
+     */
+    protected void connectShardingStatus() {
+        final MongoDBRouterCluster routers = getAttribute(ROUTER_CLUSTER);
+        final Duration migrationWindow = config().get(CHUNK_MIGRATION_WINDOW);
+        shardingStatus = FunctionFeed.builder()
+                .entity(this)
+                .poll(new FunctionPollConfig<Object, BasicBSONObject>(SHARDING_STATUS_BSON)
+                        .period(config().get(SHARDING_STATUS_POLL_PERIOD))
+                        .callable(new Callable<BasicBSONObject>() {
+                            @Override
+                            public BasicBSONObject call() throws Exception {
+                                MongoDBRouter router = routers.getAttribute(MongoDBRouterCluster.ANY_RUNNING_ROUTER);
+                                return (router == null) ? null : MongoDBClientSupport.forServer(router).getShardingStatus(migrationWindow);
+                            }
+                        })
+                        .onException(Functions.<BasicBSONObject>constant(null)))
+                .build();
+
+        subscriptions().subscribe(this, SHARDING_STATUS_BSON, new SensorEventListener<BasicBSONObject>() {
+            @Override public void onEvent(SensorEvent<BasicBSONObject> event) {
+                BasicBSONObject status = event.getValue();
+                if (status != null && !status.isEmpty()) {
+                    sensors().set(SHARD_CHUNK_COUNTS, toLongMap((BSONObject) status.get("chunks")));
+                    sensors().set(SHARD_DATA_SIZES, toLongMap((BSONObject) status.get("dataSize")));
+                    sensors().set(JUMBO_CHUNK_COUNT, status.getLong("jumboChunks", 0));
+                    sensors().set(BALANCER_ENABLED, status.getBoolean("balancerEnabled"));
+                    sensors().set(BALANCER_RUNNING, status.getBoolean("balancerRunning"));
+                    sensors().set(CHUNK_MIGRATIONS_PER_MINUTE,
+                            status.getLong("migrations", 0) * 60000.0 / migrationWindow.toMilliseconds());
+                }
+            }
+        });
+    }
+
+    private static Map<String, Long> toLongMap(BSONObject map) {
+        Map<String, Long> result = Maps.newTreeMap();
+        if (map != null) {
+            for (String key : map.keySet()) {
+                result.put(key, ((Number) map.get(key)).longValue());
+            }
+        }
+        return result;
+    }
+
     public static class ColocatedRouterTrackingPolicy extends AbstractMembershipTrackingPolicy {
         @Override
         protected void onEntityAdded(Entity member) {
@@ -128,6 +192,7 @@ public class MongoDBShardedDeploymentImpl extends AbstractEntity implements Mong
     @Override
     public void stop() {
         ServiceStateLogic.setExpectedState(this, Lifecycle.STOPPING);
+        if (shardingStatus != null) shardingStatus.stop();
         try {
             Entities.invokeEffectorList(this, ImmutableList.of(getAttribute(CONFIG_SERVER_CLUSTER), getAttribute(ROUTER_CLUSTER), 
                     getAttribute(SHARD_CLUSTER)), Startable.STOP).get();
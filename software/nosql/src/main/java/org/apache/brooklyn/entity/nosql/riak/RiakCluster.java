@@ -46,7 +46,13 @@ public interface RiakCluster extends DynamicCluster {
             "riak.cluster.nodes", "Names of all active Riak nodes in the cluster <Entity,Riak Name>");
 
     @SetFromFlag("delayBeforeAdvertisingCluster")
-    ConfigKey<Duration> DELAY_BEFORE_ADVERTISING_CLUSTER = ConfigKeys.newConfigKey(Duration.class, "riak.cluster.delayBeforeAdvertisingCluster", "Delay after cluster is started before checking and advertising its availability", Duration.seconds(2 * 60));
+    ConfigKey<Duration> DELAY_BEFORE_ADVERTISING_CLUSTER = ConfigKeys.newConfigKey(Duration.class, "riak.cluster.delayBeforeAdvertisingCluster", "Maximum time to wait after cluster is started for partition handoff to complete, before checking and advertising its availability", Duration.seconds(2 * 60));
+
+    @SetFromFlag("transfersTimeout")
+    ConfigKey<Duration> TRANSFERS_TIMEOUT = ConfigKeys.newConfigKey(Duration.class, "riak.cluster.transfersTimeout", "Maximum time a resize waits for partition handoff to complete", Duration.minutes(30));
+
+    @SetFromFlag("transfersPollPeriod")
+    ConfigKey<Duration> TRANSFERS_POLL_PERIOD = ConfigKeys.newConfigKey(Duration.class, "riak.cluster.transfersPollPeriod", "Interval between checks of partition handoff progress", Duration.FIVE_SECONDS);
 
     AttributeSensor<Boolean> IS_CLUSTER_INIT = Sensors.newBooleanSensor("riak.cluster.isClusterInit", "Flag to determine if the cluster was already initialized");
 
@@ -56,6 +62,10 @@ public interface RiakCluster extends DynamicCluster {
 
     AttributeSensor<String> NODE_LIST_PB_PORT = Sensors.newStringSensor("riak.cluster.nodeListPbPort", "List of nodes (including ports for riak db clients), comma separated");
 
+    AttributeSensor<Integer> TRANSFERS_PENDING_PARTITIONS = Sensors.newIntegerSensor("riak.cluster.transfers.pendingPartitions", "Partitions waiting to be handed off, as reported by riak-admin transfers");
+
+    AttributeSensor<Integer> TRANSFERS_ACTIVE = Sensors.newIntegerSensor("riak.cluster.transfers.active", "Partition transfers currently running, as reported by riak-admin transfers");
+
     AttributeSensor<URI> RIAK_CONSOLE_URI = Attributes.MAIN_URI;
 
     AttributeSensor<Integer> NODE_GETS_1MIN_PER_NODE = Sensors.newIntegerSensor("riak.node.gets.1m.perNode", "Gets in the last minute, averaged across cluster");
@@ -24,6 +24,9 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntitySpec;
@@ -43,8 +46,9 @@ import org.apache.brooklyn.enricher.stock.Enrichers;
 import org.apache.brooklyn.entity.group.AbstractMembershipTrackingPolicy;
 import org.apache.brooklyn.entity.group.DynamicClusterImpl;
 import org.apache.brooklyn.util.core.task.Tasks;
+import org.apache.brooklyn.util.exceptions.Exceptions;
+import org.apache.brooklyn.util.repeat.Repeater;
 import org.apache.brooklyn.util.time.Duration;
-import org.apache.brooklyn.util.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,28 +62,59 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
+/**
+ * Cluster membership changes are batched: every node waiting to join is staged with
+ * {@code riak-admin cluster join} and the whole batch is applied with a single
+ * {@code cluster plan} and {@code cluster commit}, and likewise for nodes leaving on a resize.
+ * Partition handoff is tracked with {@code riak-admin transfers} and published as the
+ * {@link #TRANSFERS_PENDING_PARTITIONS} and {@link #TRANSFERS_ACTIVE} sensors.
+ */
 public class RiakClusterImpl extends DynamicClusterImpl implements RiakCluster {
 
     private static final Logger log = LoggerFactory.getLogger(RiakClusterImpl.class);
 
+    /**
+     * {@link Function} for use as the cluster's default removal strategy. Chooses nodes that have
+     * already left the Riak cluster first, otherwise the most recently added node.
+     */
+    private static final Function<Collection<Entity>, Entity> LEFT_FIRST_REMOVAL_STRATEGY = new Function<Collection<Entity>, Entity>() {
+        @Override
+        public Entity apply(Collection<Entity> entities) {
+            return Iterables.tryFind(entities, EntityPredicates.attributeEqualTo(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, false))
+                    .or(Iterables.getLast(entities));
+        }
+    };
+
     private transient Object mutex = new Object[0];
 
+    /** Nodes whose departure was committed by {@link #leaveMembers(int)}, so need no force-remove. */
+    private transient Set<Entity> departedMembers = Sets.newConcurrentHashSet();
+
+    /** While non-zero, nodes coming up are left for the resize to join in one commit. */
+    private final AtomicInteger resizesInProgress = new AtomicInteger();
+
     public void init() {
         super.init();
         log.info("Initializing the riak cluster...");
         sensors().set(IS_CLUSTER_INIT, false);
+        if (!config().getRaw(REMOVAL_STRATEGY).isPresentAndNonNull())
+            config().set(REMOVAL_STRATEGY, LEFT_FIRST_REMOVAL_STRATEGY);
     }
 
     @Override
     protected void doStart() {
         super.doStart();
         connectSensors();
+        joinPendingMembers();
 
         try {
             Duration delay = getConfig(DELAY_BEFORE_ADVERTISING_CLUSTER);
-            Tasks.setBlockingDetails("Sleeping for "+delay+" before advertising cluster available");
-            Time.sleep(delay);
+            Tasks.setBlockingDetails("Waiting up to "+delay+" for partition handoff before advertising cluster available");
+            if (!waitForTransfers(delay)) {
+                log.info("Partition handoff in {} not complete after {}; advertising cluster regardless", this, delay);
+            }
         } finally {
             Tasks.resetBlockingDetails();
         }
@@ -155,52 +190,50 @@ public class RiakClusterImpl extends DynamicClusterImpl implements RiakCluster {
         );
     }
 
+    /**
+     * Resizes the cluster, committing the departure of any nodes being removed and waiting for
+     * their partitions to be handed off before they are stopped. Nodes added are joined with a
+     * single commit, and the resize returns once their partitions have been handed off.
+     */
+    @Override
+    public Integer resize(Integer desiredSize) {
+        int currentSize = getCurrentSize();
+        if (desiredSize < currentSize) {
+            leaveMembers(currentSize - desiredSize);
+        }
+        resizesInProgress.incrementAndGet();
+        Integer result;
+        try {
+            result = super.resize(desiredSize);
+        } finally {
+            resizesInProgress.decrementAndGet();
+        }
+        // join all the new nodes with a single commit, including any whose tracking callback was skipped
+        joinPendingMembers();
+        // when starting, doStart waits for handoff itself, for DELAY_BEFORE_ADVERTISING_CLUSTER
+        if (result > currentSize && ServiceStateLogic.getExpectedState(this) != Lifecycle.STARTING) {
+            Duration timeout = getConfig(TRANSFERS_TIMEOUT);
+            if (!waitForTransfers(timeout)) {
+                log.warn("Partition handoff in {} not complete within {} of resizing to {}", new Object[] { this, timeout, result });
+            }
+        }
+        return result;
+    }
+
     protected void onServerPoolMemberChanged(final Entity member) {
         synchronized (mutex) {
             log.trace("For {}, considering membership of {} which is in locations {}", new Object[]{ this, member, member.getLocations() });
 
             Map<Entity, String> nodes = getAttribute(RIAK_CLUSTER_NODES);
             if (belongsInServerPool(member)) {
-                // TODO can we discover the nodes by asking the riak cluster, rather than assuming what we add will be in there?
-                // TODO and can we do join as part of node starting?
-
-                if (nodes == null) {
-                    nodes = Maps.newLinkedHashMap();
-                }
-                String riakName = getRiakName(member);
-                Preconditions.checkNotNull(riakName);
-
-                // flag a first node to be the first node in the riak cluster.
-                Boolean firstNode = getAttribute(IS_FIRST_NODE_SET);
-                if (!Boolean.TRUE.equals(firstNode)) {
-                    sensors().set(IS_FIRST_NODE_SET, Boolean.TRUE);
-
-                    nodes.put(member, riakName);
-                    sensors().set(RIAK_CLUSTER_NODES, nodes);
-
-                    ((EntityInternal) member).sensors().set(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, Boolean.TRUE);
-
-                    log.info("Added initial Riak node {}: {}; {} to new cluster", new Object[] { this, member, getRiakName(member) });
-                } else {
-                    // TODO: be wary of erroneous nodes but are still flagged 'in cluster'
-                    // add the new node to be part of the riak cluster.
-                    Optional<Entity> anyNodeInCluster = Iterables.tryFind(nodes.keySet(), Predicates.and(
-                            Predicates.instanceOf(RiakNode.class),
-                            EntityPredicates.attributeEqualTo(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, true)));
-                    if (anyNodeInCluster.isPresent()) {
-                        if (!nodes.containsKey(member) && member.getAttribute(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER) == null) {
-                            String anyNodeName = anyNodeInCluster.get().getAttribute(RiakNode.RIAK_NODE_NAME);
-                            Entities.invokeEffectorWithArgs(this, member, RiakNode.JOIN_RIAK_CLUSTER, anyNodeName).blockUntilEnded();
-                            nodes.put(member, riakName);
-                            sensors().set(RIAK_CLUSTER_NODES, nodes);
-                            log.info("Added Riak node {}: {}; {} to cluster", new Object[] { this, member, getRiakName(member) });
-                        }
-                    } else {
-                        log.error("isFirstNodeSet, but no cluster members found to add {}", member.getId());
-                    }
-                }
+                // a resize in progress joins its new nodes together once they have all started
+                if (resizesInProgress.get() == 0) joinPendingMembers();
             } else {
-                if (nodes != null && nodes.containsKey(member)) {
+                if (nodes != null && nodes.containsKey(member) && departedMembers.remove(member)) {
+                    nodes.remove(member);
+                    sensors().set(RIAK_CLUSTER_NODES, nodes);
+                    log.info("Removed departed Riak node {}: {}; {} from cluster", new Object[]{ this, member, getRiakName(member) });
+                } else if (nodes != null && nodes.containsKey(member)) {
                     DependentConfiguration.attributeWhenReady(member, RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, Predicates.equalTo(false)).blockUntilEnded(Duration.TWO_MINUTES);
                     @SuppressWarnings("unchecked")
                     Optional<Entity> anyNodeInCluster = Iterables.tryFind(nodes.keySet(), Predicates.and(
@@ -222,6 +255,146 @@ public class RiakClusterImpl extends DynamicClusterImpl implements RiakCluster {
         }
     }
 
+    /**
+     * Stages a join for every up node not yet in the Riak cluster, then applies them all with a
+     * single plan and commit. The first node to come up starts the cluster.
+     */
+    protected void joinPendingMembers() {
+        synchronized (mutex) {
+            Map<Entity, String> nodes = getAttribute(RIAK_CLUSTER_NODES);
+            if (nodes == null) {
+                nodes = Maps.newLinkedHashMap();
+            }
+            List<Entity> pending = Lists.newArrayList();
+            for (Entity member : getMembers()) {
+                if (member instanceof RiakNode && belongsInServerPool(member) && !nodes.containsKey(member)
+                        && member.getAttribute(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER) == null) {
+                    pending.add(member);
+                }
+            }
+            if (pending.isEmpty()) return;
+
+            // flag a first node to be the first node in the riak cluster.
+            if (!Boolean.TRUE.equals(getAttribute(IS_FIRST_NODE_SET))) {
+                Entity first = pending.remove(0);
+                sensors().set(IS_FIRST_NODE_SET, Boolean.TRUE);
+                nodes.put(first, Preconditions.checkNotNull(getRiakName(first)));
+                ((EntityInternal) first).sensors().set(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, Boolean.TRUE);
+                log.info("Added initial Riak node {}: {}; {} to new cluster", new Object[] { this, first, getRiakName(first) });
+            }
+
+            if (!pending.isEmpty()) {
+                // TODO: be wary of erroneous nodes but are still flagged 'in cluster'
+                @SuppressWarnings("unchecked")
+                Optional<Entity> anyNodeInCluster = Iterables.tryFind(nodes.keySet(), Predicates.and(
+                        Predicates.instanceOf(RiakNode.class),
+                        EntityPredicates.attributeEqualTo(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, true)));
+                if (anyNodeInCluster.isPresent()) {
+                    String anyNodeName = getRiakName(anyNodeInCluster.get());
+                    List<Entity> staged = Lists.newArrayList();
+                    for (Entity member : pending) {
+                        try {
+                            getNodeDriver(member).stageJoinCluster(anyNodeName);
+                            staged.add(member);
+                        } catch (Exception e) {
+                            Exceptions.propagateIfFatal(e);
+                            log.warn("Failed to stage join of Riak node "+member+" to "+this+"; leaving it out of this batch", e);
+                        }
+                    }
+                    if (!staged.isEmpty()) {
+                        getNodeDriver(anyNodeInCluster.get()).commitClusterChanges();
+                        for (Entity member : staged) {
+                            ((EntityInternal) member).sensors().set(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, Boolean.TRUE);
+                            nodes.put(member, Preconditions.checkNotNull(getRiakName(member)));
+                        }
+                        log.info("Added Riak nodes {} to cluster {} with a single commit", staged, this);
+                    }
+                } else {
+                    log.error("isFirstNodeSet, but no cluster members found to add {}", pending);
+                }
+            }
+            sensors().set(RIAK_CLUSTER_NODES, nodes);
+        }
+    }
+
+    /**
+     * Stages the departure of the nodes the cluster's removal strategy will pick, applies them
+     * with a single plan and commit, and waits for their partitions to be handed off before they
+     * are stopped.
+     */
+    protected void leaveMembers(int count) {
+        synchronized (mutex) {
+            @SuppressWarnings("unchecked")
+            List<Entity> joined = Lists.newArrayList(Iterables.filter(getMembers(), Predicates.and(
+                    Predicates.instanceOf(RiakNode.class),
+                    EntityPredicates.attributeEqualTo(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, true))));
+            List<Entity> remaining = Lists.newArrayList(getMembers());
+            List<Entity> leaving = Lists.newArrayList();
+            Function<Collection<Entity>, Entity> removalStrategy = getRemovalStrategy();
+            for (int i = 0; i < count && !remaining.isEmpty(); i++) {
+                Entity member = removalStrategy.apply(remaining);
+                remaining.remove(member);
+                if (joined.contains(member)) leaving.add(member);
+            }
+            List<Entity> staying = Lists.newArrayList(joined);
+            staying.removeAll(leaving);
+            if (leaving.isEmpty()) return;
+            if (staying.isEmpty()) {
+                log.info("Not staging departures from {}; no Riak nodes would remain to take their partitions", this);
+                return;
+            }
+            RiakNodeDriver driver = getNodeDriver(staying.get(0));
+            for (Entity member : leaving) {
+                driver.stageLeaveCluster(getRiakName(member));
+            }
+            driver.commitClusterChanges();
+            for (Entity member : leaving) {
+                departedMembers.add(member);
+                ((EntityInternal) member).sensors().set(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, Boolean.FALSE);
+            }
+            log.info("Removing Riak nodes {} from cluster {} with a single commit", leaving, this);
+        }
+        Duration timeout = getConfig(TRANSFERS_TIMEOUT);
+        if (!waitForTransfers(timeout)) {
+            log.warn("Partition handoff in {} not complete within {}; removing nodes regardless", this, timeout);
+        }
+    }
+
+    /**
+     * Polls {@code riak-admin transfers} on a node in the cluster, publishing its progress, until
+     * no partitions remain to be handed off or the limit is reached.
+     *
+     * @return whether handoff completed
+     */
+    protected boolean waitForTransfers(Duration limit) {
+        @SuppressWarnings("unchecked")
+        Optional<Entity> anyNode = Iterables.tryFind(getMembers(), Predicates.and(
+                Predicates.instanceOf(RiakNode.class),
+                EntityPredicates.attributeEqualTo(RiakNode.RIAK_NODE_HAS_JOINED_CLUSTER, true),
+                EntityPredicates.attributeEqualTo(RiakNode.SERVICE_UP, true)));
+        if (!anyNode.isPresent()) return false;
+
+        final RiakNodeDriver driver = getNodeDriver(anyNode.get());
+        return Repeater.create("Wait for partition handoff in "+this)
+                .every(getConfig(TRANSFERS_POLL_PERIOD))
+                .limitTimeTo(limit)
+                .until(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        String output = driver.getTransfers();
+                        if (output == null) return false;
+                        RiakTransfers transfers = RiakTransfers.parse(output);
+                        sensors().set(TRANSFERS_PENDING_PARTITIONS, transfers.getPendingPartitions());
+                        sensors().set(TRANSFERS_ACTIVE, transfers.getActiveTransfers());
+                        return transfers.isComplete();
+                    }})
+                .run();
+    }
+
+    private RiakNodeDriver getNodeDriver(Entity node) {
+        return ((RiakNodeImpl) Entities.deproxy(node)).getDriver();
+    }
+
     private void calculateClusterAddresses() {
         List<String> addresses = Lists.newArrayList();
         List<String> addressesPbPort = Lists.newArrayList();
@@ -30,6 +30,18 @@ public interface RiakNodeDriver extends SoftwareProcessDriver {
 
     void leaveCluster();
 
+    /** Stages a join to the cluster containing the given node, without committing it. */
+    void stageJoinCluster(String nodeName);
+
+    /** Stages the given node's departure from the cluster, without committing it. */
+    void stageLeaveCluster(String nodeName);
+
+    /** Plans and commits all staged cluster changes in one go. */
+    void commitClusterChanges();
+
+    /** Returns the output of {@code riak-admin transfers}, or null if it could not be run. */
+    String getTransfers();
+
     void removeNode(String nodeName);
 
     void recoverFailedNode(String nodeName);
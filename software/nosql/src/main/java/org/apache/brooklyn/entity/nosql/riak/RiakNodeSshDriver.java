@@ -390,8 +390,6 @@ public class RiakNodeSshDriver extends JavaSoftwareProcessSshDriver implements R
         return isPackageInstall() ? "riak-admin" : Urls.mergePaths(getExpandedInstallDir(), "bin/riak-admin");
     }
 
-    // TODO find a way to batch commit the changes, instead of committing for every operation.
-
     @Override
     public void joinCluster(String nodeName) {
         if (getRiakName().equals(nodeName)) {
@@ -438,6 +436,66 @@ public class RiakNodeSshDriver extends JavaSoftwareProcessSshDriver implements R
         }
     }
 
+    @Override
+    public void stageJoinCluster(String nodeName) {
+        if (getRiakName().equals(nodeName)) {
+            log.warn("Cannot join Riak node: {} to itself", nodeName);
+        } else if (!hasJoinedCluster()) {
+            ScriptHelper stageJoinScript = newScript("stageJoinCluster")
+                    .body.append(sudo(format("%s cluster join %s", getRiakAdminCmd(), nodeName)))
+                    .failOnNonZeroResultCode();
+
+            if (!isRiakOnPath()) {
+                addRiakOnPath(stageJoinScript);
+            }
+
+            stageJoinScript.execute();
+        } else {
+            log.warn("entity {}: is already in the riak cluster", entity.getId());
+        }
+    }
+
+    @Override
+    public void stageLeaveCluster(String nodeName) {
+        ScriptHelper stageLeaveScript = newScript("stageLeaveCluster")
+                .body.append(sudo(format("%s cluster leave %s", getRiakAdminCmd(), nodeName)))
+                .failOnNonZeroResultCode();
+
+        if (!isRiakOnPath()) {
+            addRiakOnPath(stageLeaveScript);
+        }
+
+        stageLeaveScript.execute();
+    }
+
+    @Override
+    public void commitClusterChanges() {
+        ScriptHelper commitScript = newScript("commitClusterChanges")
+                .body.append(sudo(format("%s cluster plan", getRiakAdminCmd())))
+                .body.append(sudo(format("%s cluster commit", getRiakAdminCmd())))
+                .failOnNonZeroResultCode();
+
+        if (!isRiakOnPath()) {
+            addRiakOnPath(commitScript);
+        }
+
+        commitScript.execute();
+    }
+
+    @Override
+    public String getTransfers() {
+        ScriptHelper transfersScript = newScript("transfers")
+                .body.append(sudo(format("%s transfers", getRiakAdminCmd())))
+                .gatherOutput()
+                .noExtraOutput();
+
+        if (!isRiakOnPath()) {
+            addRiakOnPath(transfersScript);
+        }
+
+        return transfersScript.execute() == 0 ? transfersScript.getResultStdout() : null;
+    }
+
     @Override
     public void removeNode(String nodeName) {
         ScriptHelper removeNodeScript = newScript("removeNode")
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.riak;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Handoff progress of a Riak cluster, as reported by {@code riak-admin transfers}.
+ * <p>
+ * The command lists each node still waiting to hand off partitions, for example
+ * {@code 'riak@10.0.0.1' waiting to handoff 7 partitions}, followed by an
+ * {@code Active Transfers:} section with one {@code transfer type:} entry per transfer
+ * under way. Once all data has moved it prints {@code No transfers active}.
+ */
+public class RiakTransfers {
+
+    private static final Pattern WAITING = Pattern.compile("^'?([^'\\s]+)'?\\s+waiting to handoff\\s+(\\d+)\\s+partitions?");
+    private static final Pattern ACTIVE = Pattern.compile("^transfer type:");
+
+    private final Map<String, Integer> waitingPartitions;
+    private final int activeTransfers;
+
+    RiakTransfers(Map<String, Integer> waitingPartitions, int activeTransfers) {
+        this.waitingPartitions = ImmutableMap.copyOf(waitingPartitions);
+        this.activeTransfers = activeTransfers;
+    }
+
+    public static RiakTransfers parse(String output) {
+        Map<String, Integer> waiting = Maps.newLinkedHashMap();
+        int active = 0;
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(output == null ? "" : output)) {
+            Matcher matcher = WAITING.matcher(line);
+            if (matcher.find()) {
+                waiting.put(matcher.group(1), Integer.valueOf(matcher.group(2)));
+            } else if (ACTIVE.matcher(line).find()) {
+                active++;
+            }
+        }
+        return new RiakTransfers(waiting, active);
+    }
+
+    /** Riak node names mapped to the number of partitions each is still waiting to hand off. */
+    public Map<String, Integer> getWaitingPartitions() {
+        return waitingPartitions;
+    }
+
+    /** Total number of partitions waiting to be handed off across the cluster. */
+    public int getPendingPartitions() {
+        int result = 0;
+        for (Integer count : waitingPartitions.values()) {
+            result += count;
+        }
+        return result;
+    }
+
+    public int getActiveTransfers() {
+        return activeTransfers;
+    }
+
+    /** Whether no partitions are waiting to move and no transfers are running. */
+    public boolean isComplete() {
+        return waitingPartitions.isEmpty() && activeTransfers == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RiakTransfers[pending=" + getPendingPartitions() + "; active=" + activeTransfers + "]";
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.cassandra;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class CassandraRingStatusTest {
+
+    private static final String NETSTATS = "Mode: NORMAL\nNot sending any streams.\nRead Repair Statistics:\nAttempted: 0\n";
+
+    private static final String STATUS =
+            "Datacenter: datacenter1\n" +
+            "=======================\n" +
+            "Status=Up/Down\n" +
+            "|/ State=Normal/Leaving/Joining/Moving\n" +
+            "--  Address   Load       Tokens  Owns   Host ID                               Rack\n" +
+            "UN  10.0.0.1  1.2 MB     256     ?      4d1a3c2e-0000-0000-0000-000000000001  rack1\n" +
+            "UN  10.0.0.2  1.1 MB     256     ?      4d1a3c2e-0000-0000-0000-000000000002  rack1\n";
+
+    private static final String DESCRIBE_CLUSTER =
+            "Cluster Information:\n" +
+            "\tName: Test Cluster\n" +
+            "\tSnitch: org.apache.cassandra.locator.SimpleSnitch\n" +
+            "\tPartitioner: org.apache.cassandra.dht.Murmur3Partitioner\n" +
+            "\tSchema versions:\n" +
+            "\t\t59adb24e-f3cd-3e02-97f0-5b395827453f: [10.0.0.1, 10.0.0.2]\n";
+
+    @Test
+    public void testParsesSettledRing() {
+        CassandraRingStatus status = CassandraRingStatus.parse(NETSTATS + STATUS + DESCRIBE_CLUSTER);
+        assertEquals(status.getOperationMode(), "NORMAL");
+        assertEquals(status.getUpNormalCount(), 2);
+        assertEquals(status.getSchemaVersions().get("59adb24e-f3cd-3e02-97f0-5b395827453f"), ImmutableList.of("10.0.0.1", "10.0.0.2"));
+        assertTrue(status.isReady());
+        assertTrue(status.isSettled(2));
+        assertFalse(status.isSettled(3));
+    }
+
+    @Test
+    public void testJoiningNodeIsNotReady() {
+        String joining = STATUS + "UJ  10.0.0.3  80 KB      256     ?      4d1a3c2e-0000-0000-0000-000000000003  rack1\n";
+        CassandraRingStatus status = CassandraRingStatus.parse("Mode: JOINING\n" + joining + DESCRIBE_CLUSTER);
+        assertFalse(status.isReady());
+        assertFalse(status.isSettled(2));
+    }
+
+    @Test
+    public void testSchemaDisagreementIgnoresUnreachable() {
+        String disagreement = DESCRIBE_CLUSTER +
+                "\t\t86afa796-d883-3932-aa73-6b017cef0d19: [10.0.0.3]\n" +
+                "\t\tUNREACHABLE: [10.0.0.4]\n";
+        CassandraRingStatus status = CassandraRingStatus.parse(NETSTATS + STATUS + disagreement);
+        assertEquals(status.getSchemaVersionCount(), 2);
+        assertFalse(status.isReady());
+    }
+
+    @Test
+    public void testParsesNodetoolFailure() {
+        CassandraRingStatus status = CassandraRingStatus.parse("nodetool: Failed to connect to 'localhost:7199'\n");
+        assertNull(status.getOperationMode());
+        assertEquals(status.getSchemaVersionCount(), 0);
+        assertFalse(status.isReady());
+        assertFalse(status.isSettled(1));
+    }
+}
@@ -28,6 +28,8 @@ import org.apache.brooklyn.core.location.BasicOsDetails.OsArchs;
 import org.apache.brooklyn.core.mgmt.internal.LocalManagementContext;
 import org.apache.brooklyn.core.test.entity.LocalManagementContextForTests;
 
+import com.google.gson.JsonParser;
+
 public class CouchbaseOfflineTest {
 
     private LocalManagementContext mgmt;
@@ -54,6 +56,15 @@ public class CouchbaseOfflineTest {
         Assert.assertEquals(new CouchbaseNodeSshDriver.DownloadLinkSegmentComputer(null, false, "test").getOsTag(), "x86_64.rpm");
     }
 
+    @Test
+    public void testRebalanceProgress() {
+        JsonParser parser = new JsonParser();
+        Assert.assertEquals(CouchbaseNodeSshDriver.rebalanceProgress(parser.parse("{\"status\":\"none\"}")), 100.0);
+        Assert.assertEquals(CouchbaseNodeSshDriver.rebalanceProgress(parser.parse(
+                "{\"status\":\"running\",\"ns_1@10.0.0.1\":{\"progress\":0.5},\"ns_1@10.0.0.2\":{\"progress\":0.25}}")), 37.5, 0.001);
+        Assert.assertEquals(CouchbaseNodeSshDriver.rebalanceProgress(parser.parse("{\"status\":\"running\"}")), 0.0);
+    }
+
     protected void checkOsTag(String os, String arch, String version, boolean isV30, String expectedTag) {
         Assert.assertEquals(new CouchbaseNodeSshDriver.DownloadLinkSegmentComputer(new BasicOsDetails(os, arch, version), isV30, "test").getOsTag(), expectedTag);
     }
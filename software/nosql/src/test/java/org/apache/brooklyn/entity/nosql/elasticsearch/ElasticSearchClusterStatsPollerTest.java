@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.elasticsearch;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.Map;
+
+import org.apache.brooklyn.api.entity.Entity;
+import org.apache.brooklyn.api.entity.EntitySpec;
+import org.apache.brooklyn.core.test.BrooklynAppUnitTestSupport;
+import org.apache.brooklyn.core.test.entity.TestEntity;
+import org.apache.brooklyn.entity.nosql.elasticsearch.ElasticSearchClusterStatsPoller.ClusterStats;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public class ElasticSearchClusterStatsPollerTest extends BrooklynAppUnitTestSupport {
+
+    private static final String HEALTH =
+            "{\"cluster_name\":\"BrooklynCluster\",\"status\":\"yellow\",\"timed_out\":false,\"number_of_nodes\":2," +
+            "\"number_of_data_nodes\":2,\"active_primary_shards\":5,\"active_shards\":8,\"relocating_shards\":1," +
+            "\"initializing_shards\":0,\"unassigned_shards\":2}";
+
+    private static final String NODES_STATS =
+            "{\"cluster_name\":\"BrooklynCluster\",\"nodes\":{" +
+            "\"aBc1\":{\"timestamp\":1,\"name\":\"elasticsearch-1\",\"indices\":{\"docs\":{\"count\":120,\"deleted\":0}," +
+                "\"store\":{\"size_in_bytes\":4096},\"get\":{\"total\":7,\"time_in_millis\":3}," +
+                "\"search\":{\"query_total\":42,\"query_time_in_millis\":17}}}," +
+            "\"dEf2\":{\"timestamp\":1,\"name\":\"elasticsearch-2\",\"indices\":{\"docs\":{\"count\":80,\"deleted\":0}," +
+                "\"store\":{\"size_in_bytes\":2048},\"get\":{\"total\":1,\"time_in_millis\":1}," +
+                "\"search\":{\"query_total\":5,\"query_time_in_millis\":2}}}}}";
+
+    private static JsonObject json(String text) {
+        return new JsonParser().parse(text).getAsJsonObject();
+    }
+
+    @Test
+    public void testHealthFunctions() {
+        ClusterStats stats = new ClusterStats(json(HEALTH), json(NODES_STATS));
+        assertEquals(ElasticSearchClusterStatsPoller.healthString("status").apply(stats), "yellow");
+        assertEquals(ElasticSearchClusterStatsPoller.healthInteger("relocating_shards").apply(stats), (Integer) 1);
+        assertEquals(ElasticSearchClusterStatsPoller.healthInteger("unassigned_shards").apply(stats), (Integer) 2);
+        assertNull(ElasticSearchClusterStatsPoller.healthInteger("no_such_key").apply(stats));
+        assertNull(ElasticSearchClusterStatsPoller.healthString("status").apply(null));
+    }
+
+    @Test
+    public void testNodesByName() {
+        Map<String, JsonObject> nodes = ElasticSearchClusterStatsPoller.nodesByName(json(NODES_STATS));
+        assertEquals(ImmutableList.copyOf(nodes.keySet()), ImmutableList.of("elasticsearch-1", "elasticsearch-2"));
+        assertEquals(ElasticSearchClusterStatsPoller.string(nodes.get("elasticsearch-2"), "id"), "dEf2");
+        assertEquals(ElasticSearchClusterStatsPoller.integer(nodes.get("elasticsearch-1"), "indices", "docs", "count"), (Integer) 120);
+        assertNull(ElasticSearchClusterStatsPoller.integer(nodes.get("elasticsearch-1"), "indices", "merges", "total"));
+    }
+
+    @Test
+    public void testPublishNodeStatsMatchesMembersByNodeName() {
+        Entity node1 = app.createAndManageChild(EntitySpec.create(TestEntity.class)
+                .configure(ElasticSearchNode.NODE_NAME, "elasticsearch-1"));
+        Entity node2 = app.createAndManageChild(EntitySpec.create(TestEntity.class)
+                .configure(ElasticSearchNode.NODE_NAME, "elasticsearch-2"));
+        Entity other = app.createAndManageChild(EntitySpec.create(TestEntity.class)
+                .configure(ElasticSearchNode.NODE_NAME, "elasticsearch-3"));
+
+        int updated = ElasticSearchClusterStatsPoller.publishNodeStats(json(NODES_STATS), ImmutableList.of(node1, node2, other));
+
+        assertEquals(updated, 2);
+        assertEquals(node1.getAttribute(ElasticSearchNode.NODE_ID), "aBc1");
+        assertEquals(node1.getAttribute(ElasticSearchNode.DOCUMENT_COUNT), (Integer) 120);
+        assertEquals(node1.getAttribute(ElasticSearchNode.SEARCH_QUERY_TOTAL), (Integer) 42);
+        assertEquals(node2.getAttribute(ElasticSearchNode.STORE_BYTES), (Integer) 2048);
+        assertEquals(node2.getAttribute(ElasticSearchNode.CLUSTER_NAME), "BrooklynCluster");
+        assertNull(other.getAttribute(ElasticSearchNode.NODE_ID));
+    }
+}
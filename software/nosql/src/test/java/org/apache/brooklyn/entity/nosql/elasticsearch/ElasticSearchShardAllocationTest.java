@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.elasticsearch;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonParser;
+
+public class ElasticSearchShardAllocationTest {
+
+    @Test
+    public void testParseCatAllocation() {
+        String output =
+                " 4 elasticsearch-1\n" +
+                " 0 elasticsearch-2\n" +
+                "11 elasticsearch-3\n" +
+                " 2 UNASSIGNED\n";
+        Map<String, Integer> shards = ElasticSearchShardAllocation.parseCatAllocation(output);
+        assertEquals(shards, ImmutableMap.of("elasticsearch-1", 4, "elasticsearch-2", 0, "elasticsearch-3", 11));
+        assertEquals(ElasticSearchShardAllocation.shardsOn(shards, ImmutableList.of("elasticsearch-1", "elasticsearch-3")), 15);
+        assertEquals(ElasticSearchShardAllocation.shardsOn(shards, ImmutableList.of("elasticsearch-4")), 0);
+    }
+
+    @Test
+    public void testMinReplicas() {
+        String settings =
+                "{\"logs-1\":{\"settings\":{\"index.number_of_shards\":\"5\",\"index.number_of_replicas\":\"2\"}}," +
+                "\"logs-2\":{\"settings\":{\"index.number_of_shards\":\"5\",\"index.number_of_replicas\":\"1\"}}}";
+        assertEquals(ElasticSearchShardAllocation.minReplicas(new JsonParser().parse(settings).getAsJsonObject()), (Integer) 1);
+        assertNull(ElasticSearchShardAllocation.minReplicas(new JsonParser().parse("{}").getAsJsonObject()));
+    }
+
+    @Test
+    public void testMaxConcurrentRemovals() {
+        assertEquals(ElasticSearchShardAllocation.maxConcurrentRemovals(1, 3), 1);
+        assertEquals(ElasticSearchShardAllocation.maxConcurrentRemovals(2, 3), 2);
+        assertEquals(ElasticSearchShardAllocation.maxConcurrentRemovals(0, 3), 1);
+        assertEquals(ElasticSearchShardAllocation.maxConcurrentRemovals(null, 3), 3);
+    }
+
+    @Test
+    public void testExclusionSettings() {
+        assertEquals(ElasticSearchShardAllocation.exclusionSettings(ImmutableList.of("elasticsearch-2", "elasticsearch-3")),
+                "{\"transient\":{\"cluster.routing.allocation.exclude._name\":\"elasticsearch-2,elasticsearch-3\"}}");
+        assertEquals(ElasticSearchShardAllocation.exclusionSettings(ImmutableList.<String>of()),
+                "{\"transient\":{\"cluster.routing.allocation.exclude._name\":\"\"}}");
+    }
+}
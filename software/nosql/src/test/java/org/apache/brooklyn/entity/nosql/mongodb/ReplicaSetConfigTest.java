@@ -237,4 +237,51 @@ public class ReplicaSetConfigTest {
         assertEquals(nonVotingMembersOfSet(config).size(), 1);
         assertTrue(votingMembersOfSet(config).contains(HostAndPort.fromParts("host-d", 4)));
     }
+
+    @Test
+    public void testExistingVotersKeepVotesWhenSetIsReconfigured() {
+        BasicBSONObject config = makeSetConfig("replica-set-name", 1,
+                makeSetMember(1, "host-a:1").append("votes", 0).append("priority", 0),
+                makeSetMember(2, "host-b:2").append("votes", 1),
+                makeSetMember(3, "host-c:3").append("votes", 1),
+                makeSetMember(4, "host-d:4").append("votes", 1));
+
+        BasicBSONObject updated = ReplicaSetConfig.fromExistingConfig(config)
+                .member("host-e", 5, 5)
+                .member("host-f", 6, 6)
+                .build();
+
+        Collection<HostAndPort> voters = votingMembersOfSet(updated);
+        assertEquals(voters.size(), 5);
+        assertTrue(voters.containsAll(Arrays.asList(
+                HostAndPort.fromParts("host-b", 2), HostAndPort.fromParts("host-c", 3), HostAndPort.fromParts("host-d", 4))));
+        assertTrue(nonVotingMembersOfSet(updated).contains(HostAndPort.fromParts("host-f", 6)));
+    }
+
+    @Test
+    public void testNonVotingMembersHavePriorityZero() {
+        BasicBSONObject config = makeSetWithNMembers(ReplicaSetConfig.MAXIMUM_REPLICA_SET_SIZE);
+        BasicBSONList members = BasicBSONList.class.cast(config.get("members"));
+        for (Object object : members) {
+            BasicBSONObject member = BasicBSONObject.class.cast(object);
+            if (!IS_VOTING_MEMBER.apply(member)) {
+                assertEquals(member.getInt("priority"), 0, "Expected non-voter to have priority 0: " + member);
+            }
+        }
+    }
+
+    @Test
+    public void testMemberGivenVoteHasPriorityRestored() {
+        BasicBSONObject config = makeSetConfig("replica-set-name", 1,
+                makeSetMember(1, "host-a:1").append("votes", 1),
+                makeSetMember(2, "host-b:2").append("votes", 0).append("priority", 0));
+
+        BasicBSONObject updated = ReplicaSetConfig.fromExistingConfig(config)
+                .remove("host-a", 1)
+                .build();
+
+        BasicBSONObject member = BasicBSONObject.class.cast(BasicBSONList.class.cast(updated.get("members")).get(0));
+        assertEquals(member.getInt("votes"), 1);
+        assertEquals(member.getInt("priority"), 1);
+    }
 }
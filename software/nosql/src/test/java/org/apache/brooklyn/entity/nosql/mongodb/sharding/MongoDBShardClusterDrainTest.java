@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.mongodb.sharding;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.Queue;
+
+import org.apache.brooklyn.api.entity.EntitySpec;
+import org.apache.brooklyn.core.entity.Entities;
+import org.apache.brooklyn.core.entity.lifecycle.Lifecycle;
+import org.apache.brooklyn.core.test.BrooklynAppUnitTestSupport;
+import org.apache.brooklyn.entity.group.DynamicCluster;
+import org.apache.brooklyn.entity.nosql.mongodb.MongoDBReplicaSet;
+import org.apache.brooklyn.util.time.Duration;
+import org.bson.BasicBSONObject;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class MongoDBShardClusterDrainTest extends BrooklynAppUnitTestSupport {
+
+    private MongoDBShardCluster cluster;
+    private ScriptedShardClusterImpl clusterImpl;
+    private MongoDBReplicaSet shard;
+
+    @BeforeMethod(alwaysRun=true)
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        cluster = app.addChild(EntitySpec.create(MongoDBShardCluster.class)
+                .impl(ScriptedShardClusterImpl.class)
+                .configure(DynamicCluster.INITIAL_SIZE, 0)
+                .configure(MongoDBShardCluster.SHARD_DRAIN_POLL_PERIOD, Duration.millis(10)));
+        clusterImpl = (ScriptedShardClusterImpl) Entities.deproxy(cluster);
+        shard = cluster.addChild(EntitySpec.create(MongoDBReplicaSet.class));
+        cluster.addMember(shard);
+    }
+
+    @Test
+    public void testDrainPollsUntilRemovalCompletes() {
+        clusterImpl.results.add(state("started"));
+        clusterImpl.results.add(ongoing(12, ImmutableList.<String>of()));
+        clusterImpl.results.add(ongoing(0, ImmutableList.of("db1")));
+        clusterImpl.results.add(state("completed"));
+
+        clusterImpl.drain(shard);
+
+        assertTrue(clusterImpl.results.isEmpty());
+        assertEquals(shard.getAttribute(MongoDBShardCluster.SHARD_DRAINED), Boolean.TRUE);
+        assertEquals(shard.getAttribute(MongoDBShardCluster.SHARD_CHUNKS_REMAINING), (Long) 0L);
+        assertEquals(clusterImpl.movedPrimaries, ImmutableList.of("db1"));
+        assertTrue(clusterImpl.isAddingOrAdded(shard));
+    }
+
+    @Test
+    public void testDrainFailsFastWhenRemovalRefused() {
+        clusterImpl.results.add(new BasicBSONObject(ImmutableMap.of("ok", 0, "errmsg", "can't remove last shard")));
+        clusterImpl.results.add(state("completed"));
+
+        try {
+            clusterImpl.drain(shard);
+            fail("Expected drain to fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("can't remove last shard"), e.getMessage());
+        }
+        assertEquals(clusterImpl.results.size(), 1);
+        assertEquals(shard.getAttribute(MongoDBShardCluster.SHARD_DRAINED), null);
+        assertFalse(clusterImpl.isAddingOrAdded(shard));
+    }
+
+    @Test
+    public void testShrinkOnlyDrainsWhenSomeShardsRemain() {
+        assertTrue(MongoDBShardClusterImpl.shouldDrainOnShrink(Lifecycle.RUNNING, -1, 3));
+        assertFalse(MongoDBShardClusterImpl.shouldDrainOnShrink(Lifecycle.RUNNING, -3, 3));
+        assertFalse(MongoDBShardClusterImpl.shouldDrainOnShrink(Lifecycle.RUNNING, 1, 3));
+        assertFalse(MongoDBShardClusterImpl.shouldDrainOnShrink(Lifecycle.STOPPING, -1, 3));
+    }
+
+    private static BasicBSONObject state(String state) {
+        return new BasicBSONObject(ImmutableMap.of("ok", 1, "state", state));
+    }
+
+    private static BasicBSONObject ongoing(long chunks, List<String> dbsToMove) {
+        BasicBSONObject result = state("ongoing");
+        result.put("remaining", new BasicBSONObject(ImmutableMap.of("chunks", chunks, "dbs", (long) dbsToMove.size())));
+        result.put("dbsToMove", dbsToMove);
+        return result;
+    }
+
+    /** Answers <code>removeShard</code> from a script instead of a router. */
+    public static class ScriptedShardClusterImpl extends MongoDBShardClusterImpl {
+        final Queue<BasicBSONObject> results = Lists.newLinkedList();
+        final List<Object> movedPrimaries = Lists.newArrayList();
+
+        @Override
+        protected BasicBSONObject removeShardViaRouter(String shard) {
+            return results.remove();
+        }
+
+        @Override
+        protected void movePrimaries(String shard, List<?> databases) {
+            movedPrimaries.addAll(databases);
+        }
+    }
+}
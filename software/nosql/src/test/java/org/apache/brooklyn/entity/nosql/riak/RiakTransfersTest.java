@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.nosql.riak;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class RiakTransfersTest {
+
+    @Test
+    public void testParsesPendingAndActiveTransfers() {
+        String output =
+                "'riak@10.0.0.1' waiting to handoff 7 partitions\n" +
+                "'riak@10.0.0.2' waiting to handoff 1 partitions\n" +
+                "\n" +
+                "Active Transfers:\n" +
+                "\n" +
+                "transfer type: ownership_transfer\n" +
+                "vnode type: riak_kv_vnode\n" +
+                "partition: 1141798154164767904846628775559596109106197299200\n" +
+                "started: 2014-11-19 16:44:45 [2.52 s ago]\n" +
+                "last update: 2014-11-19 16:44:47 [438.93 ms ago]\n" +
+                "total size: 1065 bytes\n" +
+                "objects transferred: 3\n";
+        RiakTransfers transfers = RiakTransfers.parse(output);
+        assertEquals(transfers.getWaitingPartitions(), ImmutableMap.of("riak@10.0.0.1", 7, "riak@10.0.0.2", 1));
+        assertEquals(transfers.getPendingPartitions(), 8);
+        assertEquals(transfers.getActiveTransfers(), 1);
+        assertFalse(transfers.isComplete());
+    }
+
+    @Test
+    public void testParsesNoTransfers() {
+        RiakTransfers transfers = RiakTransfers.parse("No transfers active\n\nActive Transfers:\n\n");
+        assertEquals(transfers.getPendingPartitions(), 0);
+        assertEquals(transfers.getActiveTransfers(), 0);
+        assertTrue(transfers.isComplete());
+    }
+
+    @Test
+    public void testParsesEmptyOutput() {
+        assertTrue(RiakTransfers.parse(null).isComplete());
+    }
+}
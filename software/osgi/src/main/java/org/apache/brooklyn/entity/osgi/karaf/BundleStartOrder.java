@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.osgi.karaf;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+/**
+ * Orders newly installed bundles so that each is started after the bundles it imports packages
+ * from or requires, using the rows returned by {@code osgi.core:type=bundleState#listBundles()}.
+ * <p>
+ * Only dependencies within the batch matter; bundles already in the container are left alone.
+ * Fragments are omitted, as they cannot be started. Bundles in a dependency cycle keep their
+ * original order.
+ */
+public class BundleStartOrder {
+
+    public static final String EXPORTED_PACKAGES = "ExportedPackages";
+    public static final String IMPORTED_PACKAGES = "ImportedPackages";
+    public static final String REQUIRED_BUNDLES = "RequiredBundles";
+    public static final String FRAGMENT = "Fragment";
+    public static final String STATE = "State";
+
+    private BundleStartOrder() {}
+
+    public static List<Long> order(Collection<Long> ids, Map<Long, ? extends Map<String, ?>> bundles) {
+        List<Long> startable = Lists.newArrayList();
+        for (Long id : ids) {
+            Map<String, ?> bundle = bundles.get(id);
+            if (bundle != null && Boolean.TRUE.equals(bundle.get(FRAGMENT))) continue;
+            startable.add(id);
+        }
+
+        Multimap<String, Long> exporters = HashMultimap.create();
+        for (Long id : startable) {
+            for (String pkg : packages(bundles.get(id), EXPORTED_PACKAGES)) {
+                exporters.put(pkg, id);
+            }
+        }
+        Map<Long, Set<Long>> dependencies = Maps.newLinkedHashMap();
+        for (Long id : startable) {
+            Set<Long> deps = Sets.newLinkedHashSet();
+            for (String pkg : packages(bundles.get(id), IMPORTED_PACKAGES)) {
+                deps.addAll(exporters.get(pkg));
+            }
+            Map<String, ?> bundle = bundles.get(id);
+            Object required = (bundle == null) ? null : bundle.get(REQUIRED_BUNDLES);
+            if (required instanceof Long[]) {
+                for (Long dep : (Long[]) required) {
+                    if (startable.contains(dep)) deps.add(dep);
+                }
+            }
+            deps.remove(id);
+            dependencies.put(id, deps);
+        }
+
+        List<Long> result = Lists.newArrayList();
+        while (!dependencies.isEmpty()) {
+            Long next = null;
+            for (Map.Entry<Long, Set<Long>> entry : dependencies.entrySet()) {
+                if (result.containsAll(entry.getValue())) {
+                    next = entry.getKey();
+                    break;
+                }
+            }
+            // a cycle: start the earliest remaining bundle and let OSGi sort out the rest
+            if (next == null) next = dependencies.keySet().iterator().next();
+            result.add(next);
+            dependencies.remove(next);
+        }
+        return result;
+    }
+
+    /** Returns package names, without versions, from a {@code name;version} column. */
+    private static Set<String> packages(Map<String, ?> bundle, String column) {
+        Set<String> result = Sets.newLinkedHashSet();
+        Object value = (bundle == null) ? null : bundle.get(column);
+        if (value instanceof String[]) {
+            for (String pkg : (String[]) value) {
+                int semicolon = pkg.indexOf(';');
+                result.add(semicolon < 0 ? pkg : pkg.substring(0, semicolon));
+            }
+        }
+        return result;
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.brooklyn.entity.osgi.karaf;
 
 import java.net.URISyntaxException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.brooklyn.api.catalog.Catalog;
@@ -36,6 +37,7 @@ import org.apache.brooklyn.entity.java.UsesJava;
 import org.apache.brooklyn.entity.java.UsesJmx;
 import org.apache.brooklyn.entity.software.base.SoftwareProcess;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 /**
  * This sets up a Karaf OSGi container
@@ -55,6 +57,8 @@ public interface KarafContainer extends SoftwareProcess, UsesJava, UsesJmx {
     public static final MethodEffector<Long> INSTALL_BUNDLE = new MethodEffector<Long>(KarafContainer.class, "installBundle");
     public static final MethodEffector<Void> UNINSTALL_BUNDLE = new MethodEffector<Void>(KarafContainer.class, "uninstallBundle");
     public static final MethodEffector<Void> INSTALL_FEATURE = new MethodEffector<Void>(KarafContainer.class, "installFeature");
+    public static final MethodEffector<Map<String,Map<String,Object>>> INSTALL_BUNDLES = new MethodEffector<Map<String,Map<String,Object>>>(KarafContainer.class, "installBundles");
+    public static final MethodEffector<Void> INSTALL_FEATURES = new MethodEffector<Void>(KarafContainer.class, "installFeatures");
     public static final MethodEffector<Void> UPDATE_SERVICE_PROPERTIES = new MethodEffector<Void>(KarafContainer.class, "updateServiceProperties");
 
     @SetFromFlag("version")
@@ -92,6 +96,11 @@ public interface KarafContainer extends SoftwareProcess, UsesJava, UsesJmx {
     public static final BasicAttributeSensorAndConfigKey<String> JMX_CONTEXT = new BasicAttributeSensorAndConfigKey<String>(
             UsesJmx.JMX_CONTEXT, "karaf-"+KARAF_NAME.getConfigKey().getDefaultValue());
 
+    @SetFromFlag("instancesPollPeriod")
+    public static final ConfigKey<Duration> KARAF_INSTANCES_POLL_PERIOD = ConfigKeys.newConfigKey(Duration.class,
+            "karaf.admin.instances.pollPeriod", "How often to poll the Karaf admin instances, from which service up and the other karaf.admin sensors are derived",
+            Duration.FIVE_SECONDS);
+
     public static final BasicAttributeSensor<Map> KARAF_INSTANCES = new BasicAttributeSensor<Map>(
             Map.class, "karaf.admin.instances", "Karaf admin instances");
     public static final BasicAttributeSensor<Boolean> KARAF_ROOT = new BasicAttributeSensor<Boolean>(
@@ -121,6 +130,11 @@ public interface KarafContainer extends SoftwareProcess, UsesJava, UsesJmx {
             @EffectorParam(name="featureName", description="Name of the feature - see org.apache.karaf:type=features#installFeature()") final String featureName) 
             throws Exception;
 
+    @Effector(description="Installs the given OSGi features, refreshing bundles once after the last rather than after each feature")
+    public void installFeatures(
+            @EffectorParam(name="featureNames", description="Names of the features, in installation order") List<String> featureNames)
+            throws Exception;
+
     @Effector(description="Lists all the karaf bundles")
     public Map<Long,Map<String,?>> listBundles();
     
@@ -131,6 +145,22 @@ public interface KarafContainer extends SoftwareProcess, UsesJava, UsesJmx {
     public long installBundle(
             @EffectorParam(name="bundle", description="URI of bundle to be deployed") String bundle) throws URISyntaxException;
 
+    /**
+     * Installs the bundles in a single batch, copying any local files to the container in parallel
+     * first, then resolves and starts them together, each after the bundles it depends on.
+     * <p>
+     * A bundle that fails to install or start does not stop the others. The result maps each
+     * requested bundle to its outcome: the bundle {@code id} and {@code state} where installed,
+     * and an {@code error} message where it failed.
+     *
+     * throws URISyntaxException If a bundle name is not a valid URI
+     */
+    @Effector(description="Deploys the given bundles in one batch and starts them in dependency order, returning the outcome for each bundle")
+    public Map<String,Map<String,Object>> installBundles(
+            @EffectorParam(name="bundles", description="URIs of bundles to be deployed") List<String> bundles,
+            @EffectorParam(name="start", description="Whether to start the bundles once installed", defaultValue="true") Boolean start)
+            throws URISyntaxException;
+
     @Effector(description="Undeploys the bundle with the given id")
     public void uninstallBundle(
             @EffectorParam(name="bundleId", description="Id of the bundle") Long bundleId);
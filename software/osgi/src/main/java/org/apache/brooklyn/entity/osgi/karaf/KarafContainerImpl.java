@@ -45,6 +45,9 @@ import org.apache.brooklyn.feed.jmx.JmxFeed;
 import org.apache.brooklyn.feed.jmx.JmxHelper;
 import org.apache.brooklyn.feed.jmx.JmxValueFunctions;
 import org.apache.brooklyn.util.collections.MutableMap;
+import org.apache.brooklyn.util.core.task.DynamicTasks;
+import org.apache.brooklyn.util.core.task.TaskBuilder;
+import org.apache.brooklyn.util.core.task.Tasks;
 import org.apache.brooklyn.util.exceptions.Exceptions;
 import org.apache.brooklyn.util.os.Os;
 import org.apache.brooklyn.util.repeat.Repeater;
@@ -53,7 +56,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
 
 /**
  * This sets up a Karaf OSGi container
@@ -71,6 +78,13 @@ public class KarafContainerImpl extends SoftwareProcessImpl implements KarafCont
     public static final String OSGI_FRAMEWORK = "osgi.core:type=framework,version=1.5";
     public static final String OSGI_COMPENDIUM = "osgi.compendium:service=cm,version=1.3";
 
+    // items of the framework MBean's batch operation results
+    private static final String BATCH_COMPLETED = "Completed";
+    private static final String BATCH_ERROR = "Error";
+    private static final String BATCH_BUNDLE_IN_ERROR = "BundleInError";
+    private static final String BATCH_REMAINING = "Remaining";
+    private static final String BATCH_SUCCESS = "Success";
+
     protected JmxHelper jmxHelper;
 
     private JmxFeed jmxFeed;
@@ -120,10 +134,12 @@ public class KarafContainerImpl extends SoftwareProcessImpl implements KarafCont
         jmxFeed = JmxFeed.builder()
                 .entity(this)
                 .helper(jmxHelper)
-                .period(500, TimeUnit.MILLISECONDS)
+                .period(getConfig(KARAF_INSTANCES_POLL_PERIOD))
                 .pollAttribute(new JmxAttributePollConfig<Map>(KARAF_INSTANCES)
                         .objectName(karafAdminObjectName)
                         .attributeName("Instances")
+                        // only re-derive the other sensors when an instance changes
+                        .suppressDuplicates(true)
                         .onSuccess(new Function<Object, Map>() {
                             @Override
                             public Map apply(Object input) {
@@ -207,13 +223,26 @@ public class KarafContainerImpl extends SoftwareProcessImpl implements KarafCont
             @EffectorParam(name="featureName", description="Name of the feature - see org.apache.karaf:type=features#installFeature()") final String featureName) throws Exception {
         
         LOG.info("Installing feature {} via JMX", featureName);
+        installFeature(featureName, false);
+    }
+
+    @Override
+    public void installFeatures(List<String> featureNames) throws Exception {
+        LOG.info("Installing features {} via JMX", featureNames);
+
+        // refreshing bundles after every feature restarts them repeatedly; do it once, after the last
+        for (int i = 0; i < featureNames.size(); i++) {
+            installFeature(featureNames.get(i), i < featureNames.size() - 1);
+        }
+    }
 
+    protected void installFeature(final String featureName, final boolean noRefresh) {
         Repeater.create("Wait for Karaf, to install feature "+featureName)
                 .limitIterationsTo(40)
                 .every(500, TimeUnit.MILLISECONDS)
                 .until(new Callable<Boolean>() {
                         public Boolean call() {
-                            jmxHelper.operation(String.format(KARAF_FEATURES, getConfig(KARAF_NAME.getConfigKey())), "installFeature", featureName);
+                            jmxHelper.operation(String.format(KARAF_FEATURES, getConfig(KARAF_NAME.getConfigKey())), "installFeature", featureName, false, noRefresh);
                             return true;
                         }})
                 .rethrowException()
@@ -242,6 +271,110 @@ public class KarafContainerImpl extends SoftwareProcessImpl implements KarafCont
         //  - org.apache.karaf:type=bundles#install(String), or 
         //  - dropping file into $RUN_DIR/deploy (but that would be async)
 
+        Map<File, String> uploads = Maps.newLinkedHashMap();
+        String location = toInstallLocation(bundle, uploads);
+        if (uploads.isEmpty()) {
+            LOG.info("Deploying bundle {} via JMX", bundle);
+        } else {
+            LOG.info("Deploying bundle {} via file copy", bundle);
+            copyBundles(uploads);
+        }
+        return (Long) jmxHelper.operation(OSGI_FRAMEWORK, "installBundle", location);
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> installBundles(List<String> bundles, Boolean start) throws URISyntaxException {
+        Map<String, String> locations = Maps.newLinkedHashMap();
+        Map<File, String> uploads = Maps.newLinkedHashMap();
+        for (String bundle : bundles) {
+            locations.put(bundle, toInstallLocation(bundle, uploads));
+        }
+        LOG.info("Deploying {} bundles to {} ({} via file copy)", new Object[] {locations.size(), this, uploads.size()});
+        copyBundles(uploads);
+
+        Map<Object, String> errors = Maps.newLinkedHashMap();
+        Map<String, Long> installed = installInBatches(Lists.newArrayList(Sets.newLinkedHashSet(locations.values())),
+                new Function<String[], CompositeData>() {
+                    @Override public CompositeData apply(String[] input) {
+                        return (CompositeData) jmxHelper.operation(OSGI_FRAMEWORK, "installBundles", (Object) input);
+                    }},
+                errors);
+
+        if (!Boolean.FALSE.equals(start) && !installed.isEmpty()) {
+            long[] ids = Longs.toArray(installed.values());
+            // resolving together wires the batch once, rather than as each bundle starts
+            jmxHelper.operation(OSGI_FRAMEWORK, "resolveBundles", (Object) ids);
+            startInBatches(BundleStartOrder.order(installed.values(), listBundles()),
+                    new Function<long[], CompositeData>() {
+                        @Override public CompositeData apply(long[] input) {
+                            return (CompositeData) jmxHelper.operation(OSGI_FRAMEWORK, "startBundles", (Object) input);
+                        }},
+                    errors);
+        }
+
+        Map<Long, Map<String, ?>> states = installed.isEmpty() ? ImmutableMap.<Long, Map<String, ?>>of() : listBundles();
+        Map<String, Map<String, Object>> result = Maps.newLinkedHashMap();
+        for (Map.Entry<String, String> entry : locations.entrySet()) {
+            Map<String, Object> outcome = Maps.newLinkedHashMap();
+            Long id = installed.get(entry.getValue());
+            if (id != null) {
+                outcome.put("id", id);
+                Map<String, ?> state = states.get(id);
+                if (state != null) outcome.put("state", state.get(BundleStartOrder.STATE));
+                if (errors.containsKey(id)) outcome.put("error", errors.get(id));
+            } else {
+                String error = errors.get(entry.getValue());
+                outcome.put("error", error != null ? error : "Not installed");
+            }
+            result.put(entry.getKey(), outcome);
+        }
+        if (!errors.isEmpty()) LOG.warn("Failures deploying bundles to {}: {}", this, errors);
+        return result;
+    }
+
+    /**
+     * Installs bundles with the framework MBean's {@code installBundles} batch operation. The
+     * framework stops a batch at the first failure, so this carries on with the remainder until
+     * done, recording each failure in {@code errors} against the location of the bundle in error.
+     *
+     * @return the ids of the bundles installed, by location
+     */
+    static Map<String, Long> installInBatches(List<String> locations, Function<String[], CompositeData> framework, Map<Object, String> errors) {
+        Map<String, Long> installed = Maps.newLinkedHashMap();
+        List<String> remaining = Lists.newArrayList(locations);
+        while (!remaining.isEmpty()) {
+            CompositeData batch = framework.apply(remaining.toArray(new String[remaining.size()]));
+            Long[] completed = (Long[]) batch.get(BATCH_COMPLETED);
+            for (int i = 0; completed != null && i < completed.length; i++) {
+                installed.put(remaining.get(i), completed[i]);
+            }
+            if (Boolean.TRUE.equals(batch.get(BATCH_SUCCESS))) break;
+            errors.put(batch.get(BATCH_BUNDLE_IN_ERROR), (String) batch.get(BATCH_ERROR));
+            String[] rest = (String[]) batch.get(BATCH_REMAINING);
+            if (rest == null || rest.length >= remaining.size()) break;
+            remaining = Lists.newArrayList(rest);
+        }
+        return installed;
+    }
+
+    /**
+     * Starts bundles, in the given order, with the framework MBean's {@code startBundles} batch
+     * operation, carrying on past failures and recording them in {@code errors} by bundle id.
+     */
+    static void startInBatches(List<Long> order, Function<long[], CompositeData> framework, Map<Object, String> errors) {
+        List<Long> remaining = Lists.newArrayList(order);
+        while (!remaining.isEmpty()) {
+            CompositeData batch = framework.apply(Longs.toArray(remaining));
+            if (Boolean.TRUE.equals(batch.get(BATCH_SUCCESS))) break;
+            errors.put(batch.get(BATCH_BUNDLE_IN_ERROR), (String) batch.get(BATCH_ERROR));
+            Long[] rest = (Long[]) batch.get(BATCH_REMAINING);
+            if (rest == null || rest.length >= remaining.size()) break;
+            remaining = Lists.newArrayList(rest);
+        }
+    }
+
+    /** Returns the location to install the bundle from, adding to {@code uploads} any local file to copy first. */
+    private String toInstallLocation(String bundle, Map<File, String> uploads) throws URISyntaxException {
         URI uri = new URI(bundle);
         boolean wrap = false;
         if (WRAP_SCHEME.equals(uri.getScheme())) {
@@ -250,15 +383,26 @@ public class KarafContainerImpl extends SoftwareProcessImpl implements KarafCont
             wrap = true;
         }
         if (FILE_SCHEME.equals(uri.getScheme())) {
-            LOG.info("Deploying bundle {} via file copy", bundle);
             File source = new File(uri);
             String target = getDriver().getRunDir() + "/" + source.getName();
-            getDriver().copyResource(source, target);
-            return (Long) jmxHelper.operation(OSGI_FRAMEWORK, "installBundle", (wrap ? WRAP_SCHEME + ":" : "") + FILE_SCHEME + "://" + target);
+            uploads.put(source, target);
+            return (wrap ? WRAP_SCHEME + ":" : "") + FILE_SCHEME + "://" + target;
         } else {
-            LOG.info("Deploying bundle {} via JMX", bundle);
-            return (Long) jmxHelper.operation(OSGI_FRAMEWORK, "installBundle", (wrap ? WRAP_SCHEME + ":" : "") + bundle);
+            return (wrap ? WRAP_SCHEME + ":" : "") + bundle;
+        }
+    }
+
+    /** Copies the files to the container, in parallel. */
+    private void copyBundles(Map<File, String> uploads) {
+        if (uploads.isEmpty()) return;
+        TaskBuilder<Void> tb = Tasks.<Void>builder().parallel(true).displayName("Copy "+uploads.size()+" bundles to "+this);
+        for (final Map.Entry<File, String> upload : uploads.entrySet()) {
+            tb.add(Tasks.<Void>builder().displayName("Copy "+upload.getKey().getName()).body(new Runnable() {
+                    @Override public void run() {
+                        getDriver().copyResource(upload.getKey(), upload.getValue());
+                    }}).build());
         }
+        DynamicTasks.queueIfPossible(tb.build()).orSubmitAsync(this).asTask().getUnchecked();
     }
 
     @Effector(description="Undeploys the bundle with the given id")
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.osgi.karaf;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class BundleStartOrderTest {
+
+    @Test
+    public void testStartsExportersBeforeImporters() {
+        Map<Long, Map<String, ?>> bundles = ImmutableMap.<Long, Map<String, ?>>of(
+                10L, bundle(new String[] {"com.example.web;1.0.0"}, new String[] {"com.example.api;1.0.0"}),
+                11L, bundle(new String[] {"com.example.api;1.0.0"}, new String[] {"org.osgi.framework;1.6.0"}),
+                12L, bundle(new String[] {"com.example.api;1.0.0", "com.example.web;1.0.0"}, new String[0]));
+        assertEquals(BundleStartOrder.order(ImmutableList.of(12L, 10L, 11L), bundles), ImmutableList.of(11L, 10L, 12L));
+    }
+
+    @Test
+    public void testOmitsFragmentsAndKeepsOrderOfCycles() {
+        Map<Long, Map<String, ?>> bundles = ImmutableMap.<Long, Map<String, ?>>of(
+                1L, bundle(new String[] {"b"}, new String[] {"a"}),
+                2L, bundle(new String[] {"a"}, new String[] {"b"}),
+                3L, ImmutableMap.of(BundleStartOrder.FRAGMENT, true));
+        assertEquals(BundleStartOrder.order(ImmutableList.of(1L, 2L, 3L), bundles), ImmutableList.of(1L, 2L));
+    }
+
+    private static Map<String, ?> bundle(String[] imports, String[] exports) {
+        return ImmutableMap.of(
+                BundleStartOrder.IMPORTED_PACKAGES, imports,
+                BundleStartOrder.EXPORTED_PACKAGES, exports,
+                BundleStartOrder.FRAGMENT, false);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.osgi.karaf;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.management.openmbean.ArrayType;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+
+import org.apache.brooklyn.util.exceptions.Exceptions;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+
+public class KarafBundleBatchTest {
+
+    private static final String[] ITEMS = { "Completed", "BundleInError", "Error", "Remaining", "Success" };
+
+    /** A batch result shaped as the OSGi framework MBean returns it. */
+    private static CompositeData batch(OpenType<?> bundleType, OpenType<?> remainingType,
+            Long[] completed, Object bundleInError, String error, Object remaining, boolean success) {
+        try {
+            CompositeType type = new CompositeType("BatchResult", "Batch result", ITEMS, ITEMS, new OpenType<?>[] {
+                    ArrayType.getArrayType(SimpleType.LONG), bundleType, SimpleType.STRING, remainingType, SimpleType.BOOLEAN });
+            return new CompositeDataSupport(type, ITEMS, new Object[] { completed, bundleInError, error, remaining, success });
+        } catch (Exception e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static CompositeData installBatch(Long[] completed, String bundleInError, String error, String[] remaining, boolean success) {
+        try {
+            return batch(SimpleType.STRING, ArrayType.getArrayType(SimpleType.STRING), completed, bundleInError, error, remaining, success);
+        } catch (Exception e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static CompositeData startBatch(Long[] completed, Long bundleInError, String error, Long[] remaining, boolean success) {
+        try {
+            return batch(SimpleType.LONG, ArrayType.getArrayType(SimpleType.LONG), completed, bundleInError, error, remaining, success);
+        } catch (Exception e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    @Test
+    public void testInstallCarriesOnPastFailedBundle() {
+        final List<List<String>> calls = Lists.newArrayList();
+        Map<Object, String> errors = Maps.newLinkedHashMap();
+        Map<String, Long> installed = KarafContainerImpl.installInBatches(ImmutableList.of("mvn:a", "mvn:b", "mvn:c"),
+                new Function<String[], CompositeData>() {
+                    @Override public CompositeData apply(String[] input) {
+                        calls.add(ImmutableList.copyOf(input));
+                        if (calls.size() == 1) {
+                            return installBatch(new Long[] {11L}, "mvn:b", "Unresolvable location", new String[] {"mvn:c"}, false);
+                        }
+                        return installBatch(new Long[] {13L}, null, null, new String[0], true);
+                    }},
+                errors);
+
+        assertEquals(calls, ImmutableList.of(ImmutableList.of("mvn:a", "mvn:b", "mvn:c"), ImmutableList.of("mvn:c")));
+        assertEquals(installed, ImmutableMap.of("mvn:a", 11L, "mvn:c", 13L));
+        assertEquals(errors, ImmutableMap.of("mvn:b", "Unresolvable location"));
+    }
+
+    @Test
+    public void testStartRecordsFailedBundleById() {
+        final List<List<Long>> calls = Lists.newArrayList();
+        Map<Object, String> errors = Maps.newLinkedHashMap();
+        KarafContainerImpl.startInBatches(ImmutableList.of(11L, 12L, 13L),
+                new Function<long[], CompositeData>() {
+                    @Override public CompositeData apply(long[] input) {
+                        calls.add(Longs.asList(input));
+                        if (calls.size() == 1) {
+                            return startBatch(new Long[] {11L}, 12L, "Missing requirement", new Long[] {13L}, false);
+                        }
+                        return startBatch(new Long[] {13L}, null, null, new Long[0], true);
+                    }},
+                errors);
+
+        assertEquals(calls, ImmutableList.of(ImmutableList.of(11L, 12L, 13L), ImmutableList.of(13L)));
+        assertEquals(errors, ImmutableMap.of(12L, "Missing requirement"));
+    }
+
+    @Test
+    public void testStopsWhenFrameworkMakesNoProgress() {
+        Map<Object, String> errors = Maps.newLinkedHashMap();
+        KarafContainerImpl.startInBatches(ImmutableList.of(11L, 12L),
+                new Function<long[], CompositeData>() {
+                    @Override public CompositeData apply(long[] input) {
+                        return startBatch(new Long[0], 11L, "Cannot start", new Long[] {11L, 12L}, false);
+                    }},
+                errors);
+        assertEquals(errors, ImmutableMap.of(11L, "Cannot start"));
+    }
+}
@@ -35,8 +35,10 @@ import org.apache.brooklyn.entity.proxy.AbstractController;
 import org.apache.brooklyn.entity.proxy.ProxySslConfig;
 import org.apache.brooklyn.entity.software.base.SoftwareProcess;
 import org.apache.brooklyn.util.core.flags.SetFromFlag;
+import org.apache.brooklyn.util.time.Duration;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.reflect.TypeToken;
 
 /**
  * An entity that represents an Nginx proxy (e.g. for routing requests to servers in a cluster).
@@ -115,6 +117,42 @@ public interface NginxController extends AbstractController, HasShortName {
     ConfigKey<String> STATIC_CONTENT_ARCHIVE_URL = ConfigKeys.newStringConfigKey(
             "nginx.config.staticContentArchiveUrl", "The URL of an archive file of static content (To be copied to the server)");
 
+    @SetFromFlag("upstreamLoadBalancing")
+    ConfigKey<String> UPSTREAM_LOAD_BALANCING = ConfigKeys.newStringConfigKey(
+            "nginx.upstream.loadBalancing", "Upstream balancing method: least_conn, ip_hash, or blank for weighted round robin; ignored for sticky sessions");
+
+    @SetFromFlag("upstreamKeepalive")
+    ConfigKey<Integer> UPSTREAM_KEEPALIVE = ConfigKeys.newIntegerConfigKey(
+            "nginx.upstream.keepalive", "Number of idle keepalive connections to each upstream cached per worker; zero or null to disable", 0);
+
+    @SetFromFlag("upstreamMaxFails")
+    ConfigKey<Integer> UPSTREAM_MAX_FAILS = ConfigKeys.newIntegerConfigKey(
+            "nginx.upstream.maxFails", "Failed attempts after which an upstream server is considered unavailable; null for the nginx default");
+
+    @SetFromFlag("upstreamFailTimeout")
+    ConfigKey<Duration> UPSTREAM_FAIL_TIMEOUT = ConfigKeys.newDurationConfigKey(
+            "nginx.upstream.failTimeout", "Time an upstream server is considered unavailable after max fails; null for the nginx default", null);
+
+    @SetFromFlag("upstreamWeighting")
+    ConfigKey<Boolean> UPSTREAM_WEIGHTING = ConfigKeys.newBooleanConfigKey(
+            "nginx.upstream.weighting.enabled", "Whether to weight upstream servers by their measured request processing speed", false);
+
+    @SetFromFlag("upstreamWeightingPeriod")
+    ConfigKey<Duration> UPSTREAM_WEIGHTING_PERIOD = ConfigKeys.newDurationConfigKey(
+            "nginx.upstream.weighting.period", "How often upstream weights are recomputed", Duration.ONE_MINUTE);
+
+    @SetFromFlag("upstreamWeightingHysteresis")
+    ConfigKey<Double> UPSTREAM_WEIGHTING_HYSTERESIS = ConfigKeys.newDoubleConfigKey(
+            "nginx.upstream.weighting.hysteresis", "Fractional change in some server's weight required before nginx is reconfigured", 0.25);
+
+    @SetFromFlag("upstreamMaxWeight")
+    ConfigKey<Integer> UPSTREAM_MAX_WEIGHT = ConfigKeys.newIntegerConfigKey(
+            "nginx.upstream.weighting.max", "Weight given to the fastest upstream server; others are scaled relative to it", 10);
+
+    @SuppressWarnings("serial")
+    AttributeSensor<Map<String, Integer>> SERVER_POOL_WEIGHTS = Sensors.newSensor(new TypeToken<Map<String, Integer>>() { },
+            "nginx.upstream.weights", "Weights of the server pool addresses, if upstream weighting is enabled");
+
     BasicAttributeSensorAndConfigKey<String> ACCESS_LOG_LOCATION = new BasicAttributeSensorAndConfigKey<String>(String.class,
             "nginx.log.access", "Nginx access log file location", "logs/access.log");
 
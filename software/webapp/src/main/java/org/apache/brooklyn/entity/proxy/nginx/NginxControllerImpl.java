@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.Group;
@@ -41,6 +42,8 @@ import org.apache.brooklyn.entity.group.AbstractMembershipTrackingPolicy;
 import org.apache.brooklyn.entity.proxy.AbstractControllerImpl;
 import org.apache.brooklyn.entity.proxy.ProxySslConfig;
 import org.apache.brooklyn.entity.proxy.nginx.NginxController.NginxControllerInternal;
+import org.apache.brooklyn.feed.function.FunctionFeed;
+import org.apache.brooklyn.feed.function.FunctionPollConfig;
 import org.apache.brooklyn.feed.http.HttpFeed;
 import org.apache.brooklyn.feed.http.HttpPollConfig;
 import org.apache.brooklyn.feed.http.HttpValueFunctions;
@@ -59,6 +62,7 @@ import com.google.common.base.Predicates;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
@@ -69,6 +73,8 @@ public class NginxControllerImpl extends AbstractControllerImpl implements Nginx
     private static final Logger LOG = LoggerFactory.getLogger(NginxControllerImpl.class);
 
     private volatile HttpFeed httpFeed;
+    private volatile FunctionFeed upstreamWeightsFeed;
+    protected SubscriptionHandle upstreamWeightsHandler;
     private final Set<String> installedKeysCache = Sets.newLinkedHashSet();
     protected UrlMappingsMemberTrackerPolicy urlMappingsMemberTrackerPolicy;
     protected SubscriptionHandle targetAddressesHandler;
@@ -147,6 +153,10 @@ public class NginxControllerImpl extends AbstractControllerImpl implements Nginx
             .build());
         connectServiceUpIsRunning();
 
+        if (Boolean.TRUE.equals(getConfig(UPSTREAM_WEIGHTING)) && upstreamWeightsFeed == null) {
+            connectUpstreamWeighting();
+        }
+
         // Can guarantee that parent/managementContext has been set
         Group urlMappings = getConfig(URL_MAPPINGS);
         if (urlMappings!=null && urlMappingsMemberTrackerPolicy==null) {
@@ -163,6 +173,47 @@ public class NginxControllerImpl extends AbstractControllerImpl implements Nginx
         }
     }
 
+    /**
+     * Recomputes {@link #SERVER_POOL_WEIGHTS} every {@link #UPSTREAM_WEIGHTING_PERIOD}, only
+     * publishing new weights (and so reloading nginx) when the change exceeds
+     * {@link #UPSTREAM_WEIGHTING_HYSTERESIS}.
+     */
+    protected void connectUpstreamWeighting() {
+        upstreamWeightsFeed = addFeed(FunctionFeed.builder()
+                .uniqueTag("nginx-upstream-weights")
+                .entity(this)
+                .period(getConfig(UPSTREAM_WEIGHTING_PERIOD))
+                .poll(new FunctionPollConfig<Map<String, Integer>, Map<String, Integer>>(SERVER_POOL_WEIGHTS)
+                        .callable(new Callable<Map<String, Integer>>() {
+                            @Override
+                            public Map<String, Integer> call() {
+                                return computeServerPoolWeights();
+                            }
+                        })
+                        .suppressDuplicates(true))
+                .build());
+
+        upstreamWeightsHandler = subscriptions().subscribe(this, SERVER_POOL_WEIGHTS, new SensorEventListener<Map<String, Integer>>() {
+            @Override public void onEvent(SensorEvent<Map<String, Integer>> event) {
+                updateNeeded();
+            }
+        });
+    }
+
+    protected Map<String, Integer> computeServerPoolWeights() {
+        Map<String, Double> scores = Maps.newLinkedHashMap();
+        for (Map.Entry<Entity, String> target : getAttribute(SERVER_POOL_TARGETS).entrySet()) {
+            if (target.getValue() != null) scores.put(target.getValue(), UpstreamWeights.score(target.getKey()));
+        }
+        Map<String, Integer> current = getAttribute(SERVER_POOL_WEIGHTS);
+        Map<String, Integer> proposed = UpstreamWeights.computeWeights(scores, getConfig(UPSTREAM_MAX_WEIGHT));
+        if (UpstreamWeights.isSignificantChange(current, proposed, getConfig(UPSTREAM_WEIGHTING_HYSTERESIS))) {
+            LOG.debug("Updating upstream weights of {} to {}", this, proposed);
+            return proposed;
+        }
+        return current;
+    }
+
     protected void removeUrlMappingsMemberTrackerPolicy() {
         if (urlMappingsMemberTrackerPolicy != null) {
             policies().remove(urlMappingsMemberTrackerPolicy);
@@ -199,6 +250,14 @@ public class NginxControllerImpl extends AbstractControllerImpl implements Nginx
     @Override
     protected void disconnectSensors() {
         if (httpFeed != null) httpFeed.stop();
+        if (upstreamWeightsFeed != null) {
+            upstreamWeightsFeed.stop();
+            upstreamWeightsFeed = null;
+        }
+        if (upstreamWeightsHandler != null) {
+            subscriptions().unsubscribe(this, upstreamWeightsHandler);
+            upstreamWeightsHandler = null;
+        }
         disconnectServiceUpIsRunning();
         super.disconnectSensors();
     }
@@ -21,9 +21,11 @@ package org.apache.brooklyn.entity.proxy.nginx;
 import static java.lang.String.format;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.apache.brooklyn.entity.proxy.ProxySslConfig;
 import org.apache.brooklyn.util.text.Strings;
+import org.apache.brooklyn.util.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,16 +70,10 @@ public class NginxDefaultConfigGenerator implements NginxConfigFileGenerator {
 
         // For basic round-robin across the server-pool
         if (nginx.getServerPoolAddresses() != null && nginx.getServerPoolAddresses().size() > 0) {
-            config.append(format("  upstream "+nginx.getId()+" {\n"));
-            if (nginx.isSticky()){
-                config.append("    sticky;\n");
-            }
-            for (String address : nginx.getServerPoolAddresses()) {
-                config.append("    server "+address+";\n");
-            }
-            config.append("  }\n");
+            appendUpstream(config, nginx, nginx.getId(), nginx.getServerPoolAddresses(), nginx.getAttribute(NginxController.SERVER_POOL_WEIGHTS));
             config.append("  server {\n");
             config.append(getCodeForServerConfig());
+            config.append(getCodeForUpstreamKeepalive(nginx));
             config.append("    listen "+nginx.getPort()+";\n");
             if (nginx.getDomain()!=null)
                 config.append("    server_name "+nginx.getDomain()+";\n");
@@ -100,20 +96,14 @@ public class NginxDefaultConfigGenerator implements NginxConfigFileGenerator {
         for (UrlMapping um : mappings) {
             Collection<String> addrs = um.getAttribute(UrlMapping.TARGET_ADDRESSES);
             if (addrs != null && addrs.size() > 0) {
-                config.append(format("  upstream "+um.getUniqueLabel()+" {\n"));
-                if (nginx.isSticky()){
-                    config.append("    sticky;\n");
-                }
-                for (String address: addrs) {
-                    config.append("    server "+address+";\n");
-                }
-                config.append("  }\n");
+                appendUpstream(config, nginx, um.getUniqueLabel(), addrs, null);
             }
         }
 
         for (String domain : mappingsByDomain.keySet()) {
             config.append("  server {\n");
             config.append(getCodeForServerConfig());
+            config.append(getCodeForUpstreamKeepalive(nginx));
             config.append("    listen "+nginx.getPort()+";\n");
             config.append("    server_name "+domain+";\n");
             boolean hasRoot = false;
@@ -186,6 +176,54 @@ public class NginxDefaultConfigGenerator implements NginxConfigFileGenerator {
         return config.toString();
     }
 
+    /**
+     * Appends an {@code upstream} block. Servers are weighted if {@code weights} is non-null;
+     * addresses not yet weighted get the mean weight, so a newly added server is not starved
+     * until the weights are next recomputed.
+     */
+    protected void appendUpstream(StringBuilder config, NginxController nginx, String name, Collection<String> addresses, Map<String, Integer> weights) {
+        config.append(format("  upstream "+name+" {\n"));
+        if (nginx.isSticky()){
+            config.append("    sticky;\n");
+        } else {
+            String method = nginx.getConfig(NginxController.UPSTREAM_LOAD_BALANCING);
+            if (Strings.isNonBlank(method)) {
+                config.append("    "+method.trim()+";\n");
+            }
+        }
+        Integer defaultWeight = null;
+        if (weights != null && !weights.isEmpty()) {
+            int total = 0;
+            for (Integer weight : weights.values()) total += weight;
+            defaultWeight = Math.max(1, Math.round((float) total / weights.size()));
+        }
+        Integer maxFails = nginx.getConfig(NginxController.UPSTREAM_MAX_FAILS);
+        Duration failTimeout = nginx.getConfig(NginxController.UPSTREAM_FAIL_TIMEOUT);
+        for (String address : addresses) {
+            config.append("    server "+address);
+            if (defaultWeight != null) {
+                config.append(" weight="+(weights.containsKey(address) ? weights.get(address) : defaultWeight));
+            }
+            if (maxFails != null) config.append(" max_fails="+maxFails);
+            if (failTimeout != null) config.append(" fail_timeout="+failTimeout.toMilliseconds()+"ms");
+            config.append(";\n");
+        }
+        Integer keepalive = nginx.getConfig(NginxController.UPSTREAM_KEEPALIVE);
+        if (keepalive != null && keepalive > 0) {
+            config.append("    keepalive "+keepalive+";\n");
+        }
+        config.append("  }\n");
+    }
+
+    /** Upstream keepalive connections need HTTP/1.1 and the client's Connection header cleared. */
+    protected String getCodeForUpstreamKeepalive(NginxController nginx) {
+        Integer keepalive = nginx.getConfig(NginxController.UPSTREAM_KEEPALIVE);
+        if (keepalive == null || keepalive <= 0) return "";
+        return ""+
+            "    proxy_http_version 1.1;\n"+
+            "    proxy_set_header Connection \"\";\n";
+    }
+
     protected String getCodeForServerConfig() {
         // See http://wiki.nginx.org/HttpProxyModule
         return ""+
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.proxy.nginx;
+
+import java.util.Map;
+
+import org.apache.brooklyn.api.entity.Entity;
+import org.apache.brooklyn.entity.webapp.WebAppServiceMetrics;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Derives nginx upstream {@code weight} values for the server pool of an {@link NginxController}.
+ * <p>
+ * Each server is scored by how many requests it completes per second of processing time
+ * (its {@link WebAppServiceMetrics#REQUESTS_PER_SECOND_IN_WINDOW request rate} divided by its
+ * {@link WebAppServiceMetrics#PROCESSING_TIME_FRACTION_IN_WINDOW processing time fraction}),
+ * which is the reciprocal of its mean request latency. Servers that answer faster earn higher
+ * weights, and a server's weight falls as it slows down under load.
+ * <p>
+ * The score measures latency, not capacity: a server with more cores that handles requests
+ * concurrently at the same latency scores no higher than a smaller one.
+ */
+public class UpstreamWeights {
+
+    private UpstreamWeights() {}
+
+    /**
+     * Returns the score for a server pool member, or null if it has not yet reported enough
+     * traffic to judge.
+     */
+    public static Double score(Entity member) {
+        Double requestsPerSecond = member.getAttribute(WebAppServiceMetrics.REQUESTS_PER_SECOND_IN_WINDOW);
+        Double processingFraction = member.getAttribute(WebAppServiceMetrics.PROCESSING_TIME_FRACTION_IN_WINDOW);
+        if (requestsPerSecond == null || processingFraction == null) return null;
+        if (requestsPerSecond <= 0 || processingFraction <= 0) return null;
+        return requestsPerSecond / processingFraction;
+    }
+
+    /**
+     * Scales scores to weights between 1 and {@code maxWeight}, the best scoring address getting
+     * {@code maxWeight}. Addresses without a score get the mean weight of those with one, or
+     * {@code maxWeight} if none have a score, so that unmeasured servers are neither starved
+     * nor flooded.
+     */
+    public static Map<String, Integer> computeWeights(Map<String, Double> scores, int maxWeight) {
+        double best = 0;
+        for (Double score : scores.values()) {
+            if (score != null) best = Math.max(best, score);
+        }
+        Map<String, Integer> result = Maps.newLinkedHashMap();
+        int total = 0;
+        int scored = 0;
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            if (entry.getValue() == null || best <= 0) continue;
+            int weight = (int) Math.max(1, Math.round(maxWeight * entry.getValue() / best));
+            result.put(entry.getKey(), weight);
+            total += weight;
+            scored++;
+        }
+        int defaultWeight = (scored == 0) ? maxWeight : Math.max(1, Math.round((float) total / scored));
+        for (String address : scores.keySet()) {
+            if (!result.containsKey(address)) result.put(address, defaultWeight);
+        }
+        return result;
+    }
+
+    /**
+     * Whether {@code proposed} differs enough from {@code current} to be worth an nginx reload:
+     * true if the set of addresses changed or any weight moved by more than the given fraction.
+     */
+    public static boolean isSignificantChange(Map<String, Integer> current, Map<String, Integer> proposed, double hysteresis) {
+        if (current == null || !current.keySet().equals(proposed.keySet())) return true;
+        for (Map.Entry<String, Integer> entry : proposed.entrySet()) {
+            int old = current.get(entry.getKey());
+            if (Math.abs(entry.getValue() - old) > hysteresis * old) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.webapp;
+
+import javax.annotation.Nullable;
+
+import org.apache.brooklyn.feed.ssh.SshPollValue;
+import org.apache.brooklyn.util.text.StringEscapes.BashStringEscapes;
+
+import com.google.common.base.Function;
+
+/**
+ * Builds the command for an {@link org.apache.brooklyn.feed.ssh.SshFeed} poll that reads only the
+ * part of an access log written since the previous poll, taking the last field of each line as
+ * the request latency in millis.
+ * <p>
+ * Latencies are counted into {@link LatencyHistogram} buckets on the server, so each poll returns
+ * at most a hundred or so short lines however busy the server is. The read offset is kept in a
+ * file beside the log, and the first poll starts from the end of the log rather than reading
+ * its history. The log is truncated once it grows past a maximum size; servers open their
+ * access logs for appending, so they carry on writing from the start of the file.
+ */
+public class AccessLogLatencyTail {
+
+    public static final long DEFAULT_MAX_LOG_SIZE = 64 * 1024 * 1024;
+
+    private AccessLogLatencyTail() {}
+
+    public static String command(String logFile) {
+        return command(logFile, DEFAULT_MAX_LOG_SIZE);
+    }
+
+    public static String command(String logFile, long maxLogSize) {
+        String log = BashStringEscapes.wrapBash(logFile);
+        String offset = BashStringEscapes.wrapBash(logFile+".offset");
+        return "[ -f "+log+" ] || exit 0 ; "
+                + "size=$(wc -c < "+log+") ; "
+                + "off=$(cat "+offset+" 2>/dev/null || echo \"$size\") ; "
+                + "if [ \"$size\" -lt \"$off\" ] ; then off=0 ; fi ; "
+                + "tail -c +$((off+1)) "+log+" | head -c $((size-off)) | "
+                + "awk -v base="+LatencyHistogram.BUCKET_BASE+" '$NF ~ /^[0-9]+(\\.[0-9]+)?$/ { "
+                        + "v = $NF + 0 ; b = (v < 1) ? 0 : int(log(v) / log(base)) + 1 ; c[b]++ "
+                        + "} END { for (b in c) print b, c[b] }' ; "
+                + "if [ \"$size\" -gt "+maxLogSize+" ] ; then : > "+log+" ; echo 0 > "+offset+" ; "
+                + "else echo \"$size\" > "+offset+" ; fi";
+    }
+
+    /** Parses the output of {@link #command(String)}; no requests since the last poll gives an empty histogram. */
+    public static Function<SshPollValue, LatencyHistogram> parser() {
+        return new Function<SshPollValue, LatencyHistogram>() {
+            @Override
+            public LatencyHistogram apply(@Nullable SshPollValue input) {
+                return input == null ? LatencyHistogram.empty() : LatencyHistogram.parse(input.getStdout());
+            }
+        };
+    }
+}
@@ -58,6 +58,18 @@ public interface DynamicWebAppCluster extends DynamicCluster, WebAppService, Jav
             Double.class, "webapp.reqs.processingTime.fraction.windowed.perNode", "Fraction of time spent processing " +
             "reported by webserver (percentage, over time window) averaged over all nodes");
 
+    public static final AttributeSensor<Double> THREADS_BUSY_FRACTION_PER_NODE = new BasicAttributeSensor<Double>(
+            Double.class, "webapp.threads.busy.fraction.perNode", "Fraction of request processing threads busy " +
+            "(percentage) averaged over all nodes");
+
+    /** The busiest member's thread pool utilisation; a single saturated node queues requests even when the average is low. */
+    public static final AttributeSensor<Double> THREADS_BUSY_FRACTION_MAX = new BasicAttributeSensor<Double>(
+            Double.class, "webapp.threads.busy.fraction.max", "Highest fraction of request processing threads busy " +
+            "(percentage) on any node");
+
+    public static final AttributeSensor<Double> CONNECTION_COUNT_PER_NODE = new BasicAttributeSensor<Double>(
+            Double.class, "webapp.connections.perNode", "Open connections averaged over all nodes");
+
     class ApplyDisplayHints {
         public static final AttributeSensor<Integer> TOTAL_PROCESSING_TIME_PER_NODE = new BasicAttributeSensor<Integer>(
             Integer.class, "webapp.reqs.processingTime.perNode", "Total processing time per node (millis)");
@@ -20,6 +20,7 @@ package org.apache.brooklyn.entity.webapp;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +49,7 @@ import org.apache.brooklyn.util.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
@@ -58,6 +60,8 @@ import com.google.common.collect.Iterables;
  *   <li>Entity error counts</li>
  *   <li>Requests per second</li>
  *   <li>Entity processing time</li>
+ *   <li>Request thread utilisation and open connections</li>
+ *   <li>Request latency percentiles</li>
  * </ul>
  */
 public class DynamicWebAppClusterImpl extends DynamicClusterImpl implements DynamicWebAppCluster {
@@ -83,7 +87,11 @@ public class DynamicWebAppClusterImpl extends DynamicClusterImpl implements Dyna
                 ImmutableList.of(REQUESTS_PER_SECOND_LAST, REQUESTS_PER_SECOND_LAST),
                 ImmutableList.of(REQUESTS_PER_SECOND_IN_WINDOW, REQUESTS_PER_SECOND_IN_WINDOW),
                 ImmutableList.of(TOTAL_PROCESSING_TIME, TOTAL_PROCESSING_TIME),
-                ImmutableList.of(PROCESSING_TIME_FRACTION_IN_WINDOW, PROCESSING_TIME_FRACTION_IN_WINDOW)
+                ImmutableList.of(PROCESSING_TIME_FRACTION_IN_WINDOW, PROCESSING_TIME_FRACTION_IN_WINDOW),
+                ImmutableList.of(THREADS_BUSY, THREADS_BUSY),
+                ImmutableList.of(THREADS_MAX, THREADS_MAX),
+                ImmutableList.of(CONNECTION_COUNT, CONNECTION_COUNT),
+                ImmutableList.of(KEEP_ALIVE_COUNT, KEEP_ALIVE_COUNT)
         );
         
         List<? extends List<? extends AttributeSensor<? extends Number>>> averagingEnricherSetup = ImmutableList.of(
@@ -92,7 +100,9 @@ public class DynamicWebAppClusterImpl extends DynamicClusterImpl implements Dyna
                 ImmutableList.of(REQUESTS_PER_SECOND_LAST, REQUESTS_PER_SECOND_LAST_PER_NODE),
                 ImmutableList.of(REQUESTS_PER_SECOND_IN_WINDOW, REQUESTS_PER_SECOND_IN_WINDOW_PER_NODE),
                 ImmutableList.of(TOTAL_PROCESSING_TIME, TOTAL_PROCESSING_TIME_PER_NODE),
-                ImmutableList.of(PROCESSING_TIME_FRACTION_IN_WINDOW, PROCESSING_TIME_FRACTION_IN_WINDOW_PER_NODE)
+                ImmutableList.of(PROCESSING_TIME_FRACTION_IN_WINDOW, PROCESSING_TIME_FRACTION_IN_WINDOW_PER_NODE),
+                ImmutableList.of(THREADS_BUSY_FRACTION, THREADS_BUSY_FRACTION_PER_NODE),
+                ImmutableList.of(CONNECTION_COUNT, CONNECTION_COUNT_PER_NODE)
         );
         
         for (List<? extends AttributeSensor<? extends Number>> es : summingEnricherSetup) {
@@ -119,6 +129,36 @@ public class DynamicWebAppClusterImpl extends DynamicClusterImpl implements Dyna
                     .defaultValueForUnreportedSensors(0)
                     .build());
         }
+
+        enrichers().add(Enrichers.builder()
+                .aggregating(THREADS_BUSY_FRACTION)
+                .publishing(THREADS_BUSY_FRACTION_MAX)
+                .fromMembers()
+                .computing(new MaxFunction())
+                .build());
+
+        // utilisation of the whole cluster's threads, from the summed THREADS_BUSY and THREADS_MAX
+        enrichers().add(new ThreadsBusyFractionEnricher());
+
+        // percentiles of all members' requests together, not an average of each member's percentiles
+        enrichers().add(Enrichers.builder()
+                .aggregating(REQUEST_LATENCY_HISTOGRAM)
+                .publishing(REQUEST_LATENCY_HISTOGRAM)
+                .fromMembers()
+                .computing(LatencyHistogram.mergeFunction())
+                .build());
+        WebAppServiceMethods.connectLatencyPercentiles(this);
+    }
+
+    private static class MaxFunction implements Function<Collection<Double>, Double> {
+        @Override
+        public Double apply(Collection<Double> input) {
+            Double result = null;
+            for (Double value : input) {
+                if (value != null && (result == null || value > result)) result = value;
+            }
+            return result;
+        }
     }
     
     // TODO this will probably be useful elsewhere ... but where to put it?
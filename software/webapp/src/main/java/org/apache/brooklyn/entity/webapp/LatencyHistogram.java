@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.webapp;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Function;
+import com.google.common.base.Objects;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Counts of request latencies in logarithmic buckets, each {@link #BUCKET_BASE} times as wide as
+ * the one before, so percentiles are accurate to within 10% from a millisecond to minutes.
+ * <p>
+ * Histograms from different time periods or different servers are merged by adding their
+ * counts, which gives exact percentiles of the combined requests (to bucket accuracy), unlike
+ * averaging each server's percentiles.
+ */
+public class LatencyHistogram {
+
+    public static final double BUCKET_BASE = 1.1;
+
+    private static final LatencyHistogram EMPTY = new LatencyHistogram(ImmutableMap.<Integer, Long>of());
+
+    // a plain TreeMap, so that histograms published as sensor values persist simply
+    private final TreeMap<Integer, Long> counts;
+
+    public LatencyHistogram(Map<Integer, Long> counts) {
+        this.counts = Maps.newTreeMap();
+        this.counts.putAll(counts);
+    }
+
+    public static LatencyHistogram empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the bucket for a latency: 0 for anything under a millisecond, otherwise bucket
+     * {@code b} holds latencies from {@code BUCKET_BASE^(b-1)} up to {@code BUCKET_BASE^b}.
+     */
+    public static int bucket(double millis) {
+        if (millis < 1) return 0;
+        return (int) (Math.log(millis) / Math.log(BUCKET_BASE)) + 1;
+    }
+
+    /** The largest latency (millis) counted in the given bucket. */
+    public static double upperBound(int bucket) {
+        return Math.pow(BUCKET_BASE, bucket);
+    }
+
+    /** Parses lines of {@code bucket count}, as written by {@link AccessLogLatencyTail}. */
+    public static LatencyHistogram parse(@Nullable String output) {
+        Map<Integer, Long> counts = Maps.newTreeMap();
+        for (String line : Splitter.on('\n').omitEmptyStrings().trimResults().split(output == null ? "" : output)) {
+            List<String> parts = Splitter.on(' ').omitEmptyStrings().splitToList(line);
+            if (parts.size() != 2) continue;
+            try {
+                add(counts, Integer.parseInt(parts.get(0)), Long.parseLong(parts.get(1)));
+            } catch (NumberFormatException e) {
+                // ignore partial or unexpected lines
+            }
+        }
+        return new LatencyHistogram(counts);
+    }
+
+    public static LatencyHistogram merge(Iterable<LatencyHistogram> histograms) {
+        Map<Integer, Long> counts = Maps.newTreeMap();
+        for (LatencyHistogram histogram : histograms) {
+            if (histogram == null) continue;
+            for (Map.Entry<Integer, Long> entry : histogram.counts.entrySet()) {
+                add(counts, entry.getKey(), entry.getValue());
+            }
+        }
+        return new LatencyHistogram(counts);
+    }
+
+    private static void add(Map<Integer, Long> counts, int bucket, long count) {
+        Long existing = counts.get(bucket);
+        counts.put(bucket, (existing == null ? 0 : existing) + count);
+    }
+
+    public SortedMap<Integer, Long> getCounts() {
+        return Collections.unmodifiableSortedMap(counts);
+    }
+
+    /** The number of requests counted. */
+    public long getCount() {
+        long result = 0;
+        for (Long count : counts.values()) {
+            result += count;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the latency (millis) below which the given fraction of requests completed, as the
+     * upper bound of the bucket holding that request; or null if there are no requests.
+     */
+    public Double percentile(double fraction) {
+        long total = getCount();
+        if (total == 0) return null;
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) return upperBound(entry.getKey());
+        }
+        return upperBound(counts.lastKey());
+    }
+
+    public static Function<LatencyHistogram, Double> percentileFunction(final double fraction) {
+        return new PercentileFunction(fraction);
+    }
+
+    public static Function<Collection<LatencyHistogram>, LatencyHistogram> mergeFunction() {
+        return new MergeFunction();
+    }
+
+    private static class PercentileFunction implements Function<LatencyHistogram, Double> {
+        private final double fraction;
+
+        PercentileFunction(double fraction) {
+            this.fraction = fraction;
+        }
+
+        @Override
+        public Double apply(@Nullable LatencyHistogram input) {
+            return input == null ? null : input.percentile(fraction);
+        }
+    }
+
+    private static class MergeFunction implements Function<Collection<LatencyHistogram>, LatencyHistogram> {
+        @Override
+        public LatencyHistogram apply(@Nullable Collection<LatencyHistogram> input) {
+            return input == null ? empty() : merge(input);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof LatencyHistogram && counts.equals(((LatencyHistogram) obj).counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return counts.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).add("count", getCount()).add("p50", percentile(0.5)).add("p99", percentile(0.99)).toString();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.webapp;
+
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.brooklyn.api.entity.EntityLocal;
+import org.apache.brooklyn.api.sensor.SensorEvent;
+import org.apache.brooklyn.api.sensor.SensorEventListener;
+import org.apache.brooklyn.config.ConfigKey;
+import org.apache.brooklyn.core.config.ConfigKeys;
+import org.apache.brooklyn.core.enricher.AbstractEnricher;
+import org.apache.brooklyn.util.time.Duration;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Publishes {@link WebAppServiceMetrics#REQUEST_LATENCY_HISTOGRAM}, the merge of the
+ * {@link WebAppServiceMetrics#REQUEST_LATENCY_SAMPLE samples} received over a rolling window.
+ * <p>
+ * Samples are kept until they age out of the window, so the published histogram always covers
+ * exactly the requests completed in that window, and percentiles taken from it are true
+ * percentiles rather than means of per-sample values.
+ */
+public class RollingLatencyHistogramEnricher extends AbstractEnricher implements SensorEventListener<LatencyHistogram> {
+
+    public static final ConfigKey<Duration> WINDOW = ConfigKeys.newConfigKey(Duration.class,
+            "enricher.latency.window", "Period over which latency samples are combined", WebAppServiceMethods.DEFAULT_WINDOW_DURATION);
+
+    private static class Sample {
+        final long timestamp;
+        final LatencyHistogram histogram;
+
+        Sample(long timestamp, LatencyHistogram histogram) {
+            this.timestamp = timestamp;
+            this.histogram = histogram;
+        }
+    }
+
+    private final Deque<Sample> samples = Lists.newLinkedList();
+
+    public RollingLatencyHistogramEnricher() {
+    }
+
+    @Override
+    public void setEntity(EntityLocal entity) {
+        super.setEntity(entity);
+        subscriptions().subscribe(entity, WebAppServiceMetrics.REQUEST_LATENCY_SAMPLE, this);
+    }
+
+    @Override
+    public void onEvent(SensorEvent<LatencyHistogram> event) {
+        LatencyHistogram merged;
+        synchronized (samples) {
+            if (event.getValue() != null) {
+                samples.addLast(new Sample(event.getTimestamp(), event.getValue()));
+            }
+            long cutoff = event.getTimestamp() - getConfig(WINDOW).toMilliseconds();
+            while (!samples.isEmpty() && samples.peekFirst().timestamp <= cutoff) {
+                samples.removeFirst();
+            }
+            List<LatencyHistogram> histograms = Lists.newArrayList();
+            for (Sample sample : samples) {
+                histograms.add(sample.histogram);
+            }
+            merged = LatencyHistogram.merge(histograms);
+        }
+        entity.sensors().set(WebAppServiceMetrics.REQUEST_LATENCY_HISTOGRAM, merged);
+    }
+}
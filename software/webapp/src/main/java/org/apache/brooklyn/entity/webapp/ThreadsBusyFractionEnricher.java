@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.webapp;
+
+import org.apache.brooklyn.api.entity.EntityLocal;
+import org.apache.brooklyn.api.sensor.SensorEvent;
+import org.apache.brooklyn.api.sensor.SensorEventListener;
+import org.apache.brooklyn.core.enricher.AbstractEnricher;
+
+/**
+ * Publishes {@link WebAppServiceMetrics#THREADS_BUSY_FRACTION} on an entity whenever its
+ * {@link WebAppServiceMetrics#THREADS_BUSY busy} or {@link WebAppServiceMetrics#THREADS_MAX maximum}
+ * request thread count changes.
+ * <p>
+ * On a web server this is its thread pool utilisation; on a {@link DynamicWebAppCluster} it is
+ * the utilisation of all members' threads taken together.
+ */
+public class ThreadsBusyFractionEnricher extends AbstractEnricher implements SensorEventListener<Integer> {
+
+    public ThreadsBusyFractionEnricher() {
+    }
+
+    @Override
+    public void setEntity(EntityLocal entity) {
+        super.setEntity(entity);
+        subscriptions().subscribe(entity, WebAppServiceMetrics.THREADS_BUSY, this);
+        subscriptions().subscribe(entity, WebAppServiceMetrics.THREADS_MAX, this);
+    }
+
+    @Override
+    public void onEvent(SensorEvent<Integer> event) {
+        Double fraction = fraction(entity.getAttribute(WebAppServiceMetrics.THREADS_BUSY), entity.getAttribute(WebAppServiceMetrics.THREADS_MAX));
+        if (fraction != null) {
+            entity.sensors().set(WebAppServiceMetrics.THREADS_BUSY_FRACTION, fraction);
+        }
+    }
+
+    /** Returns busy as a fraction of max, or null if either is not known. */
+    public static Double fraction(Integer busy, Integer max) {
+        if (busy == null || max == null || max <= 0) return null;
+        return Math.min(1.0, (double) busy / max);
+    }
+}
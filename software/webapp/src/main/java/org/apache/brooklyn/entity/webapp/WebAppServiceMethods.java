@@ -25,7 +25,9 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.brooklyn.api.entity.Entity;
 import org.apache.brooklyn.api.entity.EntityLocal;
+import org.apache.brooklyn.api.sensor.EnricherSpec;
 import org.apache.brooklyn.core.location.access.BrooklynAccessUtils;
+import org.apache.brooklyn.enricher.stock.Enrichers;
 import org.apache.brooklyn.policy.enricher.RollingTimeWindowMeanEnricher;
 import org.apache.brooklyn.policy.enricher.TimeFractionDeltaEnricher;
 import org.apache.brooklyn.policy.enricher.TimeWeightedDeltaEnricher;
@@ -56,6 +58,32 @@ public class WebAppServiceMethods implements WebAppServiceConstants {
                     PROCESSING_TIME_FRACTION_IN_WINDOW, windowPeriod));
         }
 
+        entity.enrichers().add(new ThreadsBusyFractionEnricher());
+
+        if (windowPeriod!=null) {
+            entity.enrichers().add(EnricherSpec.create(RollingLatencyHistogramEnricher.class)
+                    .configure(RollingLatencyHistogramEnricher.WINDOW, windowPeriod));
+            connectLatencyPercentiles(entity);
+        }
+    }
+
+    /** Publishes the p50, p95 and p99 latency sensors from the entity's REQUEST_LATENCY_HISTOGRAM. */
+    public static void connectLatencyPercentiles(EntityLocal entity) {
+        entity.enrichers().add(Enrichers.builder()
+                .transforming(REQUEST_LATENCY_HISTOGRAM)
+                .publishing(REQUEST_LATENCY_P50)
+                .computing(LatencyHistogram.percentileFunction(0.50))
+                .build());
+        entity.enrichers().add(Enrichers.builder()
+                .transforming(REQUEST_LATENCY_HISTOGRAM)
+                .publishing(REQUEST_LATENCY_P95)
+                .computing(LatencyHistogram.percentileFunction(0.95))
+                .build());
+        entity.enrichers().add(Enrichers.builder()
+                .transforming(REQUEST_LATENCY_HISTOGRAM)
+                .publishing(REQUEST_LATENCY_P99)
+                .computing(LatencyHistogram.percentileFunction(0.99))
+                .build());
     }
 
     public static Set<String> getEnabledProtocols(Entity entity) {
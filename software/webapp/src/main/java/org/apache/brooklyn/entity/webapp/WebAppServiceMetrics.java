@@ -56,6 +56,37 @@ public interface WebAppServiceMetrics {
     public static final AttributeSensor<Double> REQUESTS_PER_SECOND_IN_WINDOW =
             Sensors.newDoubleSensor("webapp.reqs.perSec.windowed", "Reqs/sec (over time window)");
 
+    public static final AttributeSensor<Integer> THREADS_BUSY =
+            Sensors.newIntegerSensor("webapp.threads.busy", "Request processing threads currently busy");
+    public static final AttributeSensor<Integer> THREADS_MAX =
+            Sensors.newIntegerSensor("webapp.threads.max", "Maximum request processing threads");
+
+    /** THREADS_BUSY as a fraction of THREADS_MAX; requests start to queue as this approaches 1,
+     * typically before latency averages show it. Computed by {@link ThreadsBusyFractionEnricher}. */
+    public static final AttributeSensor<Double> THREADS_BUSY_FRACTION =
+            Sensors.newDoubleSensor("webapp.threads.busy.fraction", "Fraction of request processing threads busy (percentage)");
+
+    public static final AttributeSensor<Integer> CONNECTION_COUNT =
+            Sensors.newIntegerSensor("webapp.connections", "Open connections, reported by webserver");
+    public static final AttributeSensor<Integer> KEEP_ALIVE_COUNT =
+            Sensors.newIntegerSensor("webapp.connections.keepAlive", "Connections held open in keep-alive, reported by webserver");
+
+    /** latencies of the requests completed since the previous sample, as read from the webserver's access log */
+    public static final AttributeSensor<LatencyHistogram> REQUEST_LATENCY_SAMPLE = Sensors.newSensor(LatencyHistogram.class,
+            "webapp.reqs.latency.sample", "Latencies of requests completed since the last sample");
+
+    /** latencies over a time window, merged from REQUEST_LATENCY_SAMPLE by {@link RollingLatencyHistogramEnricher};
+     * on a cluster, the merge of all members' histograms */
+    public static final AttributeSensor<LatencyHistogram> REQUEST_LATENCY_HISTOGRAM = Sensors.newSensor(LatencyHistogram.class,
+            "webapp.reqs.latency.histogram", "Latencies of requests completed (over time window)");
+
+    public static final AttributeSensor<Double> REQUEST_LATENCY_P50 =
+            Sensors.newDoubleSensor("webapp.reqs.latency.p50", "Median request latency (millis, over time window)");
+    public static final AttributeSensor<Double> REQUEST_LATENCY_P95 =
+            Sensors.newDoubleSensor("webapp.reqs.latency.p95", "95th percentile request latency (millis, over time window)");
+    public static final AttributeSensor<Double> REQUEST_LATENCY_P99 =
+            Sensors.newDoubleSensor("webapp.reqs.latency.p99", "99th percentile request latency (millis, over time window)");
+
     public static final AttributeSensor<Integer> REQUEST_COUNT = Initializer.REQUEST_COUNT;
 
     // this class is added because the above need static initialization which unfortunately can't be added to an interface.
@@ -71,6 +102,10 @@ public interface WebAppServiceMetrics {
             RendererHints.register(WebAppServiceConstants.BYTES_SENT, RendererHints.displayValue(ByteSizeStrings.metric()));
             RendererHints.register(WebAppServiceConstants.PROCESSING_TIME_FRACTION_LAST, RendererHints.displayValue(MathFunctions.percent(2)));
             RendererHints.register(WebAppServiceConstants.PROCESSING_TIME_FRACTION_IN_WINDOW, RendererHints.displayValue(MathFunctions.percent(2)));
+            RendererHints.register(WebAppServiceConstants.THREADS_BUSY_FRACTION, RendererHints.displayValue(MathFunctions.percent(2)));
+            RendererHints.register(WebAppServiceConstants.REQUEST_LATENCY_P50, RendererHints.displayValue(Duration.millisToStringRounded()));
+            RendererHints.register(WebAppServiceConstants.REQUEST_LATENCY_P95, RendererHints.displayValue(Duration.millisToStringRounded()));
+            RendererHints.register(WebAppServiceConstants.REQUEST_LATENCY_P99, RendererHints.displayValue(Duration.millisToStringRounded()));
         }
     }
 
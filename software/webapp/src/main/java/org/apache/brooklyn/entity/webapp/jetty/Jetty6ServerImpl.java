@@ -49,10 +49,12 @@ public class Jetty6ServerImpl extends JavaWebAppSoftwareProcessImpl implements J
         if (getDriver().isJmxEnabled()) {
             String serverMbeanName = "org.mortbay.jetty:type=server,id=0";
             String statsMbeanName = "org.mortbay.jetty.handler:type=atomicstatisticshandler,id=0";
+            String threadPoolMbeanName = "org.mortbay.thread:type=queuedthreadpool,id=0";
 
             jmxFeedJetty = JmxFeed.builder()
                     .entity(this)
                     .period(500, TimeUnit.MILLISECONDS)
+                    .adaptivePeriod(getConfig(JMX_POLL_MAX_PERIOD))
                     .pollAttribute(new JmxAttributePollConfig<Boolean>(SERVICE_UP)
                             .objectName(serverMbeanName)
                             .attributeName("running")
@@ -73,7 +75,14 @@ public class Jetty6ServerImpl extends JavaWebAppSoftwareProcessImpl implements J
                     .pollAttribute(new JmxAttributePollConfig<Integer>(MAX_PROCESSING_TIME)
                             .objectName(statsMbeanName)
                             .attributeName("requestTimeMax"))
-                    // NB: requestsActive may be useful
+                    // each active request holds a pool thread for its duration
+                    .pollAttribute(new JmxAttributePollConfig<Integer>(THREADS_BUSY)
+                            .objectName(statsMbeanName)
+                            .attributeName("requestsActive"))
+                    .pollAttribute(new JmxAttributePollConfig<Integer>(THREADS_MAX)
+                            .objectName(threadPoolMbeanName)
+                            .attributeName("maxThreads")
+                            .suppressDuplicates(true))
                     .build();
             
             enrichers().add(Enrichers.builder()
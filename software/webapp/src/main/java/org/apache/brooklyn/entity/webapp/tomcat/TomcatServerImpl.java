@@ -23,9 +23,15 @@ import static java.lang.String.format;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.brooklyn.entity.java.JavaAppUtils;
+import org.apache.brooklyn.entity.webapp.AccessLogLatencyTail;
 import org.apache.brooklyn.entity.webapp.JavaWebAppSoftwareProcessImpl;
+import org.apache.brooklyn.entity.webapp.LatencyHistogram;
 import org.apache.brooklyn.feed.jmx.JmxAttributePollConfig;
 import org.apache.brooklyn.feed.jmx.JmxFeed;
+import org.apache.brooklyn.feed.ssh.SshFeed;
+import org.apache.brooklyn.feed.ssh.SshPollConfig;
+import org.apache.brooklyn.util.os.Os;
+import org.apache.brooklyn.util.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +51,7 @@ public class TomcatServerImpl extends JavaWebAppSoftwareProcessImpl implements T
 
     private volatile JmxFeed jmxWebFeed;
     private volatile JmxFeed jmxAppFeed;
+    private volatile SshFeed latencyFeed;
 
     @Override
     public void connectSensors() {
@@ -52,6 +59,7 @@ public class TomcatServerImpl extends JavaWebAppSoftwareProcessImpl implements T
 
         if (getDriver().isJmxEnabled()) {
             String requestProcessorMbeanName = "Catalina:type=GlobalRequestProcessor,name=\"http-*\"";
+            String threadPoolMbeanName = "Catalina:type=ThreadPool,name=\"http-*\"";
 
             Integer port = isHttpsEnabled() ? getAttribute(HTTPS_PORT) : getAttribute(HTTP_PORT);
             String connectorMbeanName = format("Catalina:type=Connector,port=%s", port);
@@ -84,9 +92,36 @@ public class TomcatServerImpl extends JavaWebAppSoftwareProcessImpl implements T
                             .objectName(requestProcessorMbeanName)
                             .attributeName("processingTime")
                             .enabled(retrieveUsageMetrics))
+                    .pollAttribute(new JmxAttributePollConfig<Integer>(THREADS_BUSY)
+                            .objectName(threadPoolMbeanName)
+                            .attributeName("currentThreadsBusy")
+                            .enabled(retrieveUsageMetrics))
+                    .pollAttribute(new JmxAttributePollConfig<Integer>(THREADS_MAX)
+                            .objectName(threadPoolMbeanName)
+                            .attributeName("maxThreads")
+                            .enabled(retrieveUsageMetrics)
+                            .suppressDuplicates(true))
+                    .pollAttribute(new JmxAttributePollConfig<Integer>(CONNECTION_COUNT)
+                            .objectName(threadPoolMbeanName)
+                            .attributeName("connectionCount")
+                            .enabled(retrieveUsageMetrics))
+                    .pollAttribute(new JmxAttributePollConfig<Integer>(KEEP_ALIVE_COUNT)
+                            .objectName(threadPoolMbeanName)
+                            .attributeName("keepAliveCount")
+                            .enabled(retrieveUsageMetrics))
                     .build();
 
             jmxAppFeed = JavaAppUtils.connectMXBeanSensors(this);
+
+            if (retrieveUsageMetrics && getAttribute(RUN_DIR) != null) {
+                latencyFeed = SshFeed.builder()
+                        .entity(this)
+                        .period(Duration.FIVE_SECONDS)
+                        .poll(new SshPollConfig<LatencyHistogram>(REQUEST_LATENCY_SAMPLE)
+                                .command(AccessLogLatencyTail.command(Os.mergePathsUnix(getAttribute(RUN_DIR), "logs", LATENCY_LOG)))
+                                .onSuccess(AccessLogLatencyTail.parser()))
+                        .build();
+            }
         } else {
             // if not using JMX
             LOG.warn("Tomcat running without JMX monitoring; limited visibility of service available");
@@ -100,6 +135,7 @@ public class TomcatServerImpl extends JavaWebAppSoftwareProcessImpl implements T
         if (getDriver() != null && getDriver().isJmxEnabled()) {
            if (jmxWebFeed != null) jmxWebFeed.stop();
            if (jmxAppFeed != null) jmxAppFeed.stop();
+           if (latencyFeed != null) latencyFeed.stop();
         } else {
             disconnectServiceUpIsRunning();
         }
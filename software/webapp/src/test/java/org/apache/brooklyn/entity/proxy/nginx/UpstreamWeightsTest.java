@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.proxy.nginx;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+public class UpstreamWeightsTest {
+
+    @Test
+    public void testWeightsScaleToFastestServer() {
+        Map<String, Integer> weights = UpstreamWeights.computeWeights(
+                ImmutableMap.of("a:8080", 400d, "b:8080", 100d, "c:8080", 1d), 10);
+        assertEquals(weights, ImmutableMap.of("a:8080", 10, "b:8080", 3, "c:8080", 1));
+    }
+
+    @Test
+    public void testUnscoredServersGetMeanWeight() {
+        Map<String, Double> scores = Maps.newLinkedHashMap();
+        scores.put("a:8080", 200d);
+        scores.put("b:8080", 100d);
+        scores.put("c:8080", null);
+        Map<String, Integer> weights = UpstreamWeights.computeWeights(scores, 10);
+        assertEquals(weights.get("c:8080"), (Integer) 8);
+
+        scores.put("a:8080", null);
+        scores.put("b:8080", null);
+        assertEquals(UpstreamWeights.computeWeights(scores, 10), ImmutableMap.of("a:8080", 10, "b:8080", 10, "c:8080", 10));
+    }
+
+    @Test
+    public void testHysteresis() {
+        Map<String, Integer> current = ImmutableMap.of("a:8080", 10, "b:8080", 4);
+        assertFalse(UpstreamWeights.isSignificantChange(current, ImmutableMap.of("a:8080", 10, "b:8080", 5), 0.25));
+        assertTrue(UpstreamWeights.isSignificantChange(current, ImmutableMap.of("a:8080", 10, "b:8080", 6), 0.25));
+        assertTrue(UpstreamWeights.isSignificantChange(current, ImmutableMap.of("a:8080", 10), 0.25));
+        assertTrue(UpstreamWeights.isSignificantChange(null, current, 0.25));
+    }
+}
@@ -86,6 +86,30 @@ public class DynamicWebAppClusterTest {
         EntityTestUtils.assertAttributeEqualsEventually(cluster, DynamicWebAppCluster.REQUEST_COUNT_PER_NODE, 3d);
     }
     
+    @Test
+    public void testThreadPoolAggregation() throws Exception {
+        final DynamicWebAppCluster cluster = app.createAndManageChild(EntitySpec.create(DynamicWebAppCluster.class)
+                .configure("initialSize", 2)
+                .configure(ControlledDynamicWebAppCluster.MEMBER_SPEC, EntitySpec.create(TestJavaWebAppEntity.class)) );
+        
+        app.start(ImmutableList.of(loc));
+        
+        EntityLocal first = (EntityLocal) Iterables.get(cluster.getMembers(), 0);
+        EntityLocal second = (EntityLocal) Iterables.get(cluster.getMembers(), 1);
+        first.sensors().set(WebAppServiceMetrics.THREADS_MAX, 200);
+        first.sensors().set(WebAppServiceMetrics.THREADS_BUSY, 180);
+        first.sensors().set(WebAppServiceMetrics.THREADS_BUSY_FRACTION, 0.9);
+        second.sensors().set(WebAppServiceMetrics.THREADS_MAX, 200);
+        second.sensors().set(WebAppServiceMetrics.THREADS_BUSY, 20);
+        second.sensors().set(WebAppServiceMetrics.THREADS_BUSY_FRACTION, 0.1);
+        
+        EntityTestUtils.assertAttributeEqualsEventually(cluster, DynamicWebAppCluster.THREADS_BUSY, 200);
+        EntityTestUtils.assertAttributeEqualsEventually(cluster, DynamicWebAppCluster.THREADS_MAX, 400);
+        EntityTestUtils.assertAttributeEqualsEventually(cluster, DynamicWebAppCluster.THREADS_BUSY_FRACTION, 0.5);
+        EntityTestUtils.assertAttributeEqualsEventually(cluster, DynamicWebAppCluster.THREADS_BUSY_FRACTION_PER_NODE, 0.5);
+        EntityTestUtils.assertAttributeEqualsEventually(cluster, DynamicWebAppCluster.THREADS_BUSY_FRACTION_MAX, 0.9);
+    }
+    
     @Test
     public void testSetsServiceUpIfMemberIsUp() throws Exception {
         DynamicWebAppCluster cluster = app.createAndManageChild(EntitySpec.create(DynamicWebAppCluster.class)
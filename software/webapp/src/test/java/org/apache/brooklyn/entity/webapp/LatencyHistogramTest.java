@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.brooklyn.entity.webapp;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class LatencyHistogramTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testBuckets() {
+        assertEquals(LatencyHistogram.bucket(0), 0);
+        assertEquals(LatencyHistogram.bucket(0.5), 0);
+        assertEquals(LatencyHistogram.bucket(1), 1);
+        assertEquals(LatencyHistogram.bucket(12), 27);
+        // every latency is no more than its bucket's upper bound, and within 10% of it
+        for (double millis : new double[] { 1.5, 12, 250, 999, 60000 }) {
+            double upper = LatencyHistogram.upperBound(LatencyHistogram.bucket(millis));
+            assertEquals(upper >= millis && upper < millis * LatencyHistogram.BUCKET_BASE, true, "millis="+millis+"; upper="+upper);
+        }
+    }
+
+    @Test
+    public void testParsesBucketCounts() {
+        LatencyHistogram histogram = LatencyHistogram.parse("27 2\n0 1\n58 1\nrubbish\n");
+        assertEquals(histogram.getCounts(), ImmutableMap.of(0, 1L, 27, 2L, 58, 1L));
+        assertEquals(histogram.getCount(), 4);
+        assertEquals(LatencyHistogram.parse(""), LatencyHistogram.empty());
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(ImmutableMap.of(10, 90L, 20, 9L, 30, 1L));
+        assertEquals(histogram.percentile(0.5), LatencyHistogram.upperBound(10), DELTA);
+        assertEquals(histogram.percentile(0.95), LatencyHistogram.upperBound(20), DELTA);
+        assertEquals(histogram.percentile(0.99), LatencyHistogram.upperBound(20), DELTA);
+        assertEquals(histogram.percentile(1.0), LatencyHistogram.upperBound(30), DELTA);
+        assertNull(LatencyHistogram.empty().percentile(0.5));
+    }
+
+    @Test
+    public void testMergedPercentilesWeightEachRequestEqually() {
+        // a busy fast server and a quiet slow one: the merged median is the fast server's
+        LatencyHistogram fast = new LatencyHistogram(ImmutableMap.of(10, 1000L));
+        LatencyHistogram slow = new LatencyHistogram(ImmutableMap.of(50, 10L));
+        LatencyHistogram merged = LatencyHistogram.merge(ImmutableList.of(fast, slow));
+        assertEquals(merged.getCount(), 1010);
+        assertEquals(merged.percentile(0.5), LatencyHistogram.upperBound(10), DELTA);
+        assertEquals(merged.percentile(0.995), LatencyHistogram.upperBound(50), DELTA);
+    }
+}